@@ -1,14 +1,32 @@
 package com.github.mikee2509.eventscript;
 
+import com.github.mikee2509.eventscript.ast.AstInterpreter;
+import com.github.mikee2509.eventscript.closure.ClosureEngine;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.DeadCodeEliminator;
+import com.github.mikee2509.eventscript.compiler.Inliner;
+import com.github.mikee2509.eventscript.compiler.LoopOptimizer;
+import com.github.mikee2509.eventscript.compiler.ScriptCompiler;
+import com.github.mikee2509.eventscript.compiler.TypeChecker;
+import com.github.mikee2509.eventscript.jit.JitCompiler;
+import com.github.mikee2509.eventscript.parser.ParseProfile;
 import com.github.mikee2509.eventscript.parser.ParserCreator;
+import com.github.mikee2509.eventscript.parser.ScriptLoader;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
 import com.github.mikee2509.eventscript.parser.visitor.ScriptVisitor;
+import com.github.mikee2509.eventscript.runtime.Interpreter;
+import com.github.mikee2509.eventscript.vm.BytecodeCompiler;
+import com.github.mikee2509.eventscript.vm.VirtualMachine;
 import lombok.extern.java.Log;
+import org.antlr.v4.runtime.CharStream;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
-import java.util.Scanner;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 @Log
 @SpringBootApplication
@@ -19,23 +37,72 @@ public class EventScriptApplication {
     }
 
     @Bean
-    CommandLineRunner declarationTest(ScriptVisitor visitor) {
+    CommandLineRunner declarationTest(ObjectFactory<ScriptVisitor> visitor, ObjectFactory<Interpreter> interpreter,
+                                      ObjectFactory<VirtualMachine> virtualMachine,
+                                      ObjectFactory<AstInterpreter> astInterpreter,
+                                      ObjectFactory<ClosureEngine> closureEngine) {
         return args -> {
-            Scanner sc = new Scanner(System.in);
-            System.out.println("Printing the file passed in:");
-
-            StringBuilder input = new StringBuilder();
-            while (sc.hasNextLine()) input.append(sc.nextLine()).append("\n");
+            String scriptPath = Stream.of(args).filter(arg -> !arg.startsWith("--")).findFirst().orElse(null);
+            boolean profileParser = Stream.of(args).anyMatch("--profile-parser"::equals);
+            boolean treeWalker = Stream.of(args).anyMatch("--tree-walker"::equals);
+            boolean bytecode = Stream.of(args).anyMatch("--bytecode"::equals);
+            boolean ast = Stream.of(args).anyMatch("--ast"::equals);
+            boolean jit = Stream.of(args).anyMatch("--jit"::equals);
+            boolean closures = Stream.of(args).anyMatch("--closures"::equals);
+            boolean precompile = Stream.of(args).anyMatch("--precompile"::equals);
+            boolean tiered = Stream.of(args).anyMatch(arg -> arg.startsWith("--tiered"));
+            int tierThreshold = Stream.of(args).filter(arg -> arg.startsWith("--tiered="))
+                .map(arg -> Integer.parseInt(arg.substring("--tiered=".length())))
+                .findFirst().orElse(AstInterpreter.DEFAULT_TIER_THRESHOLD);
+            ScriptLoader scriptLoader = new ScriptLoader();
 
             log.info("\n\n\n");
             ParserCreator parserCreator = new ParserCreator();
             try {
-                EventScriptParser parser = parserCreator.fromString(input.toString());
-                visitor.visit(parser.script());
+                CharStream input = scriptPath != null ? scriptLoader.fromPath(Paths.get(scriptPath))
+                    : scriptLoader.fromStdin();
+                if (treeWalker) {
+                    visitor.getObject().visit(parse(parserCreator, input, profileParser));
+                } else {
+                    // only the compiled script stays reachable, the tree is collected while it runs
+                    CompiledScript compiled = new ScriptCompiler().compile(parse(parserCreator, input, profileParser));
+                    CompiledScript checked = new DeadCodeEliminator().eliminate(new LoopOptimizer().optimize(
+                        new Inliner().inline(new TypeChecker().check(compiled))));
+                    // every engine runs a returned call in place of the function returning it, so tail recursion
+                    // takes no stack; other recursion is bounded by the Java stack, except with --bytecode, whose
+                    // calls are on the heap. With --jit and --tiered, functions calling each other in tail position
+                    // are left to the AST interpreter. --tree-walker has no tail calls.
+                    if (bytecode) {
+                        virtualMachine.getObject().execute(new BytecodeCompiler().compile(checked));
+                    } else if (tiered) {
+                        new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), tierThreshold, precompile)
+                            .execute(checked);
+                    } else if (jit) {
+                        new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), 0, precompile).execute(checked);
+                    } else if (closures) {
+                        closureEngine.getObject().execute(checked);
+                    } else if (ast) {
+                        AstInterpreter engine = precompile ? new AstInterpreter(new LiteralArithmetic(), null, 0, true)
+                            : astInterpreter.getObject();
+                        engine.execute(checked);
+                    } else {
+                        interpreter.getObject().execute(checked);
+                    }
+                }
             } catch (Exception e) {
                 e.printStackTrace();
             }
             log.info("\n\n\n");
         };
     }
-}
\ No newline at end of file
+
+    private static EventScriptParser.ScriptContext parse(ParserCreator parserCreator, CharStream input,
+                                                         boolean profileParser) {
+        if (!profileParser) {
+            return parserCreator.parseScript(input);
+        }
+        ParseProfile profile = parserCreator.profileScript(input);
+        log.info(profile.report(10));
+        return profile.getTree();
+    }
+}
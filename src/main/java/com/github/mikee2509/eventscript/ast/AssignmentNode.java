@@ -0,0 +1,30 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class AssignmentNode extends ExpressionNode {
+    private final Context context;
+    private final VariableNode target;
+
+    AssignmentNode(int line, int column, Context context, VariableNode target, ExpressionNode value) {
+        super(line, column, value);
+        this.context = context;
+        this.target = target;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Literal currentValue = target.execute(frame);
+        Literal newValue = children[0].execute(frame);
+        if (!context.typeChecked) {
+            context.operations.checkAssignable(currentValue, newValue, line, column);
+        }
+        if (!target.store(frame, newValue)) {
+            //this should never happen
+            throw ScopeException.undefinedVariable(position(), target.name);
+        }
+        return newValue;
+    }
+}
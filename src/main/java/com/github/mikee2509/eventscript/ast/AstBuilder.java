@@ -0,0 +1,230 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import org.antlr.v4.runtime.Token;
+
+import java.util.List;
+
+/**
+ * Builds the executable tree of a {@link CompiledScript}, one {@link FunctionNode} per function and the statements
+ * of the top level. Like the {@code BytecodeCompiler}, it turns statements which can only fail into nodes failing
+ * the same way when they are reached.
+ */
+class AstBuilder implements NodeVisitor<AstNode> {
+    private final Context context;
+    private Function function;
+    private int loopDepth;
+
+    AstBuilder(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Declares the functions of the script in the top-level frame and returns the top-level statements. The bodies
+     * of the functions are built by {@link #body(FunctionDeclaration)} when they are first needed.
+     */
+    StatementNode[] build(CompiledScript script) {
+        List<FunctionDeclaration> functions = script.getFunctions();
+        for (int i = 0; i < functions.size(); i++) {
+            FunctionDeclaration declaration = functions.get(i);
+            FunctionNode node = new FunctionNode(context, declaration);
+            node.tiering = context.tiering;
+            context.globals[i] = declaration.getFunction();
+            context.functions.put(declaration.getFunction(), node);
+        }
+        return statements(script.getStatements());
+    }
+
+    StatementNode[] body(FunctionDeclaration declaration) {
+        function = declaration.getFunction();
+        return statements(declaration.getBody());
+    }
+
+    private boolean isTopLevel() {
+        return function == null;
+    }
+
+    private StatementNode statement(Statement statement) {
+        return (StatementNode) statement.accept(this);
+    }
+
+    private StatementNode[] statements(List<Statement> statements) {
+        return statements.stream().map(this::statement).toArray(StatementNode[]::new);
+    }
+
+    private ExpressionNode expression(Expression expression) {
+        return (ExpressionNode) expression.accept(this);
+    }
+
+    private ExpressionNode[] expressions(List<Expression> expressions) {
+        return expressions.stream().map(this::expression).toArray(ExpressionNode[]::new);
+    }
+
+    private StatementNode fail(Node node, java.util.function.Function<Token, RuntimeException> error) {
+        return new ExpressionStatementNode(node.getLine(), node.getColumn(),
+            new FailNode(node.getLine(), node.getColumn(), error));
+    }
+
+    @Override
+    public AstNode visitVariableDeclaration(VariableDeclaration node) {
+        return new DeclarationNode(node.getLine(), node.getColumn(), context, node.getSlot(), node.getType());
+    }
+
+    @Override
+    public AstNode visitVariableDefinition(VariableDefinition node) {
+        return new DefinitionNode(node.getLine(), node.getColumn(), context, node.getSlot(),
+            expression(node.getValue()));
+    }
+
+    @Override
+    public AstNode visitRedefinition(Redefinition node) {
+        // a block without slots of its own, which only groups the definition with its failure
+        StatementNode[] statements = {statement(node.getDefinition()),
+            fail(node, position -> ScopeException.alreadyDefined(position, node.getName()))};
+        return new BlockNode(node.getLine(), node.getColumn(), statements, 0, 0);
+    }
+
+    @Override
+    public AstNode visitIfStatement(IfStatement node) {
+        return new IfNode(node.getLine(), node.getColumn(), context, expression(node.getCondition()),
+            statement(node.getThenBranch()),
+            node.getElseBranch() == null ? null : statement(node.getElseBranch()));
+    }
+
+    @Override
+    public AstNode visitBlock(Block node) {
+        return new BlockNode(node.getLine(), node.getColumn(), statements(node.getStatements()),
+            node.getFirstSlot(), isTopLevel() ? node.getEndSlot() : node.getFirstSlot());
+    }
+
+    @Override
+    public AstNode visitForStatement(ForStatement node) {
+        StatementNode[] init = statements(node.getInit());
+        ExpressionNode condition = node.getCondition() == null ? null : expression(node.getCondition());
+        loopDepth++;
+        StatementNode body = statement(node.getBody());
+        loopDepth--;
+        ExpressionNode[] updates = expressions(node.getUpdate());
+        ExpressionNode[] children = condition == null ? updates : append(updates, condition);
+        return new ForNode(node.getLine(), node.getColumn(), init, children, condition != null, body,
+            node.getFirstSlot(), isTopLevel() ? node.getEndSlot() : node.getFirstSlot(),
+            isTopLevel() ? null : context.functions.get(function));
+    }
+
+    private static ExpressionNode[] append(ExpressionNode[] expressions, ExpressionNode expression) {
+        ExpressionNode[] result = new ExpressionNode[expressions.length + 1];
+        System.arraycopy(expressions, 0, result, 0, expressions.length);
+        result[expressions.length] = expression;
+        return result;
+    }
+
+    @Override
+    public AstNode visitReturnStatement(ReturnStatement node) {
+        if (isTopLevel()) {
+            return fail(node, ControlFlowException::returnWrongContext);
+        }
+        return new ReturnNode(node.getLine(), node.getColumn(), context, function, expressions(node.getValues()));
+    }
+
+    @Override
+    public AstNode visitBreakStatement(BreakStatement node) {
+        return loopDepth > 0 ? new BreakNode(node.getLine(), node.getColumn())
+            : fail(node, ControlFlowException::breakWrongContext);
+    }
+
+    @Override
+    public AstNode visitContinueStatement(ContinueStatement node) {
+        return loopDepth > 0 ? new ContinueNode(node.getLine(), node.getColumn())
+            : fail(node, ControlFlowException::continueWrongContext);
+    }
+
+    @Override
+    public AstNode visitExpressionStatement(ExpressionStatement node) {
+        return new ExpressionStatementNode(node.getLine(), node.getColumn(), expression(node.getExpression()));
+    }
+
+    @Override
+    public AstNode visitConstant(Constant node) {
+        return new ConstantNode(node.getLine(), node.getColumn(), node.getValue());
+    }
+
+    @Override
+    public AstNode visitDatetimeConstructor(DatetimeConstructor node) {
+        return new DatetimeNode(node.getLine(), node.getColumn(), expressions(node.getArguments()));
+    }
+
+    @Override
+    public AstNode visitDurationConstructor(DurationConstructor node) {
+        return new DurationNode(node.getLine(), node.getColumn(), expressions(node.getArguments()));
+    }
+
+    @Override
+    public AstNode visitVariable(Variable node) {
+        return new VariableNode(node.getLine(), node.getColumn(), context, node.getName(), node.isLocal(),
+            node.getSlot());
+    }
+
+    @Override
+    public AstNode visitUnary(Unary node) {
+        return UnaryNode.create(node.getLine(), node.getColumn(), context, node.getOperator(),
+            expression(node.getOperand()));
+    }
+
+    @Override
+    public AstNode visitNegation(Negation node) {
+        return new NegationNode(node.getLine(), node.getColumn(), context, expression(node.getOperand()));
+    }
+
+    @Override
+    public AstNode visitBinary(Binary node) {
+        return BinaryNode.create(node.getLine(), node.getColumn(), context, node.getOperator(),
+            expression(node.getLeft()), expression(node.getRight()));
+    }
+
+    @Override
+    public AstNode visitAssignment(Assignment node) {
+        if (!(node.getTarget() instanceof Variable)) {
+            return new FailNode(node.getLine(), node.getColumn(), OperationException::variableExpected);
+        }
+        return new AssignmentNode(node.getLine(), node.getColumn(), context,
+            (VariableNode) expression(node.getTarget()), expression(node.getValue()));
+    }
+
+    @Override
+    public AstNode visitCall(Call node) {
+        return new CallNode(node.getLine(), node.getColumn(), context, node.getName(), node.isLocal(),
+            node.getSlot(), expressions(node.getArguments()));
+    }
+
+    @Override
+    public AstNode visitBuiltInCall(BuiltInCall node) {
+        switch (node.getFunction()) {
+            case SPEAK:
+                return new SpeakNode(node.getLine(), node.getColumn(), context, expressions(node.getArguments()));
+            case ON_INTERVAL:
+                return new ScheduleNode(node.getLine(), node.getColumn(), context, expressions(node.getArguments()),
+                    node.getArgumentsLine(), node.getArgumentsColumn());
+            default:
+                String name = node.getName();
+                return new FailNode(node.getLine(), node.getColumn(),
+                    token -> FunctionException.unimplementedFunction(token, name));
+        }
+    }
+
+    @Override
+    public AstNode visitToStringCall(ToStringCall node) {
+        return new ToStringNode(node.getLine(), node.getColumn(), context, expression(node.getTarget()));
+    }
+
+    @Override
+    public AstNode visitTupleExtract(TupleExtract node) {
+        return new TupleExtractNode(node.getLine(), node.getColumn(), context, expression(node.getTarget()),
+            node.getIndex());
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.jit.JitCompiler;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Operations;
+
+/**
+ * Executes a {@link CompiledScript} as a tree of self-specializing nodes, with the same output and errors as the
+ * {@code Interpreter}, which only differs from {@code ScriptVisitor} in that scripts with syntax errors are never
+ * compiled. Operators rewrite themselves into variants for the operand types seen at their site on first
+ * execution and fall back to the generic operations when those types change, see {@link BinaryNode}.
+ * <p>
+ * The tree is built anew for every run, so what one script has specialized does not leak into another. Given a
+ * {@link JitCompiler}, the functions it can compile run as JVM code, the tree remaining for the others. With a tier
+ * threshold, functions are compiled only once they turn out to be hot, see {@link Tiering}; without, all of them
+ * are compiled before the script starts.
+ * <p>
+ * The tree of a function body is built on its first call or when it is scheduled. Optionally, a background thread
+ * builds the bodies not needed yet while the script runs, so that their first calls do not have to.
+ */
+public class AstInterpreter {
+    public static final int DEFAULT_TIER_THRESHOLD = 1000;
+
+    private final Operations operations;
+    private final JitCompiler jit;
+    private final int tierThreshold;
+    private final boolean backgroundBuild;
+
+    public AstInterpreter(LiteralArithmetic la) {
+        this(la, null);
+    }
+
+    public AstInterpreter(LiteralArithmetic la, JitCompiler jit) {
+        this(la, jit, 0);
+    }
+
+    public AstInterpreter(LiteralArithmetic la, JitCompiler jit, int tierThreshold) {
+        this(la, jit, tierThreshold, false);
+    }
+
+    /**
+     * @param tierThreshold   calls or loop iterations after which a function is compiled, 0 to compile all
+     *                        functions up front
+     * @param backgroundBuild whether to build the trees of function bodies in the background
+     */
+    public AstInterpreter(LiteralArithmetic la, JitCompiler jit, int tierThreshold, boolean backgroundBuild) {
+        if (tierThreshold < 0) {
+            throw new IllegalArgumentException("Negative tier threshold: " + tierThreshold);
+        }
+        this.operations = new Operations(la);
+        this.jit = jit;
+        this.tierThreshold = tierThreshold;
+        this.backgroundBuild = backgroundBuild;
+    }
+
+    public void execute(CompiledScript script) {
+        run(script);
+    }
+
+    Context run(CompiledScript script) {
+        Context context = new Context(operations, script);
+        if (jit != null && tierThreshold > 0) {
+            context.tiering = new Tiering(tierThreshold, jit, script, context);
+        }
+        StatementNode[] statements = new AstBuilder(context).build(script);
+        if (jit != null && tierThreshold == 0) {
+            jit.compile(script, context).forEach((function, compiled) ->
+                context.functions.get(function).compiled = compiled);
+        }
+        if (backgroundBuild) {
+            Thread builder = new Thread(() -> context.functions.values().forEach(FunctionNode::body),
+                "script-function-builder");
+            builder.setDaemon(true);
+            builder.start();
+        }
+        for (StatementNode statement : statements) {
+            statement.execute(context.globals);
+        }
+        return context;
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * Node of the executable tree built by the {@link AstBuilder}. The expressions a node evaluates are its children,
+ * so that any of them can replace itself with a specialized version of it.
+ */
+abstract class AstNode {
+    final int line;
+    final int column;
+    final ExpressionNode[] children;
+
+    AstNode(int line, int column, ExpressionNode... children) {
+        this.line = line;
+        this.column = column;
+        this.children = children;
+        for (ExpressionNode child : children) {
+            child.parent = this;
+        }
+    }
+
+    Token position() {
+        return Node.position(line, column);
+    }
+
+    /**
+     * Evaluates the children in order and returns them as the argument list of a call.
+     */
+    Literal arguments(Declarable[] frame) {
+        Literal[] values = new Literal[children.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = children[i].execute(frame);
+        }
+        return Operations.arguments(values);
+    }
+
+    /**
+     * Installs the replacement of a child. Nothing changes when the child is no longer there, which happens when
+     * two threads specialize the same node: the first replacement stays.
+     */
+    synchronized void replaceChild(ExpressionNode child, ExpressionNode replacement) {
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] == child) {
+                replacement.parent = this;
+                children[i] = replacement;
+                return;
+            }
+        }
+    }
+}
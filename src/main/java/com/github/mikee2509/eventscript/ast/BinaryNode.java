@@ -0,0 +1,223 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.BinaryOperator;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import static com.github.mikee2509.eventscript.compiler.ir.BinaryOperator.Kind.EQUALITY;
+import static com.github.mikee2509.eventscript.compiler.ir.BinaryOperator.Kind.LOGICAL;
+
+/**
+ * Binary operation specializing itself on the operands it sees. It starts {@link Uninitialized} and, on its first
+ * execution, replaces itself with the variant for the types of the operands: an int, float, bool or string
+ * concatenation node, which skips the type dispatch of {@code Operations.binary}. A specialized node seeing other
+ * operand types rewrites itself into the {@link Generic} node for good, so a site never flips back and forth.
+ */
+abstract class BinaryNode extends ExpressionNode {
+    final Context context;
+    final BinaryOperator operator;
+
+    private BinaryNode(int line, int column, Context context, BinaryOperator operator, ExpressionNode left,
+                       ExpressionNode right) {
+        super(line, column, left, right);
+        this.context = context;
+        this.operator = operator;
+    }
+
+    /**
+     * Creates a node with the operator and the operands of the given one.
+     */
+    private BinaryNode(BinaryNode node) {
+        super(node.line, node.column, node.children);
+        this.context = node.context;
+        this.operator = node.operator;
+    }
+
+    static BinaryNode create(int line, int column, Context context, BinaryOperator operator, ExpressionNode left,
+                             ExpressionNode right) {
+        return new Uninitialized(line, column, context, operator, left, right);
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Literal left = children[0].execute(frame);
+        Literal right = children[1].execute(frame);
+        return execute(left, right);
+    }
+
+    abstract Literal execute(Literal left, Literal right);
+
+    Literal deoptimize(Literal left, Literal right) {
+        return replace(new Generic(this)).execute(left, right);
+    }
+
+    static final class Uninitialized extends BinaryNode {
+
+        private Uninitialized(int line, int column, Context context, BinaryOperator operator, ExpressionNode left,
+                              ExpressionNode right) {
+            super(line, column, context, operator, left, right);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            return replace(specialize(left.getValue(), right.getValue())).execute(left, right);
+        }
+
+        private BinaryNode specialize(Object left, Object right) {
+            BinaryOperator.Kind kind = operator.getKind();
+            if (kind != LOGICAL && left instanceof Integer && right instanceof Integer) {
+                return new IntOperation(this);
+            }
+            if (kind != LOGICAL && left instanceof Float && right instanceof Float) {
+                return new FloatOperation(this);
+            }
+            if (operator == BinaryOperator.ADD && (left instanceof String || right instanceof String)) {
+                return new StringConcatenation(this);
+            }
+            if ((kind == LOGICAL || kind == EQUALITY) && left instanceof Boolean && right instanceof Boolean) {
+                return new BoolOperation(this);
+            }
+            return new Generic(this);
+        }
+    }
+
+    static final class IntOperation extends BinaryNode {
+
+        private IntOperation(BinaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            if (!(left.getValue() instanceof Integer) || !(right.getValue() instanceof Integer)) {
+                return deoptimize(left, right);
+            }
+            int l = (Integer) left.getValue();
+            int r = (Integer) right.getValue();
+            switch (operator) {
+                case ADD:
+                    return new Literal<>(l + r);
+                case SUB:
+                    return new Literal<>(l - r);
+                case MUL:
+                    return new Literal<>(l * r);
+                case DIV:
+                    return new Literal<>(l / r);
+                case MOD:
+                    return new Literal<>(l % r);
+                case LT:
+                    return new Literal<>(l < r);
+                case GT:
+                    return new Literal<>(l > r);
+                case LE:
+                    return new Literal<>(l <= r);
+                case GE:
+                    return new Literal<>(l >= r);
+                case EQUAL:
+                    return new Literal<>(l == r);
+                case NOT_EQUAL:
+                    return new Literal<>(l != r);
+                default:
+                    return deoptimize(left, right);
+            }
+        }
+    }
+
+    static final class FloatOperation extends BinaryNode {
+
+        private FloatOperation(BinaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            if (!(left.getValue() instanceof Float) || !(right.getValue() instanceof Float)) {
+                return deoptimize(left, right);
+            }
+            float l = (Float) left.getValue();
+            float r = (Float) right.getValue();
+            switch (operator) {
+                case ADD:
+                    return new Literal<>(l + r);
+                case SUB:
+                    return new Literal<>(l - r);
+                case MUL:
+                    return new Literal<>(l * r);
+                case DIV:
+                    return new Literal<>(l / r);
+                case MOD:
+                    return new Literal<>(l % r);
+                case LT:
+                    return new Literal<>(l < r);
+                case GT:
+                    return new Literal<>(l > r);
+                case LE:
+                    return new Literal<>(l <= r);
+                case GE:
+                    return new Literal<>(l >= r);
+                case EQUAL:
+                    // Float.equals, as LiteralArithmetic compares floats
+                    return new Literal<>(Float.floatToIntBits(l) == Float.floatToIntBits(r));
+                case NOT_EQUAL:
+                    return new Literal<>(Float.floatToIntBits(l) != Float.floatToIntBits(r));
+                default:
+                    return deoptimize(left, right);
+            }
+        }
+    }
+
+    static final class StringConcatenation extends BinaryNode {
+
+        private StringConcatenation(BinaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            if (!(left.getValue() instanceof String) && !(right.getValue() instanceof String)) {
+                return deoptimize(left, right);
+            }
+            return new Literal<>(left.getValue().toString() + right.getValue().toString());
+        }
+    }
+
+    static final class BoolOperation extends BinaryNode {
+
+        private BoolOperation(BinaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            if (!(left.getValue() instanceof Boolean) || !(right.getValue() instanceof Boolean)) {
+                return deoptimize(left, right);
+            }
+            boolean l = (Boolean) left.getValue();
+            boolean r = (Boolean) right.getValue();
+            switch (operator) {
+                case AND:
+                    return new Literal<>(l && r);
+                case OR:
+                    return new Literal<>(l || r);
+                case EQUAL:
+                    return new Literal<>(l == r);
+                case NOT_EQUAL:
+                    return new Literal<>(l != r);
+                default:
+                    return deoptimize(left, right);
+            }
+        }
+    }
+
+    static final class Generic extends BinaryNode {
+
+        private Generic(BinaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal left, Literal right) {
+            return context.operations.binary(operator, left, right, line, column);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import java.util.Arrays;
+
+/**
+ * Block of statements. A top-level block clears its slots when it is left, so that the functions it called no
+ * longer see its variables; {@code endSlot} equals {@code firstSlot} for the others.
+ */
+class BlockNode extends StatementNode {
+    private final StatementNode[] statements;
+    private final int firstSlot;
+    private final int endSlot;
+
+    BlockNode(int line, int column, StatementNode[] statements, int firstSlot, int endSlot) {
+        super(line, column);
+        this.statements = statements;
+        this.firstSlot = firstSlot;
+        this.endSlot = endSlot;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        try {
+            for (StatementNode statement : statements) {
+                statement.execute(frame);
+            }
+        } finally {
+            if (firstSlot < endSlot) {
+                Arrays.fill(frame, firstSlot, endSlot, null);
+            }
+        }
+    }
+}
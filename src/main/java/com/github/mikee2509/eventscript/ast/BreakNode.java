@@ -0,0 +1,16 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.control.BreakException;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class BreakNode extends StatementNode {
+
+    BreakNode(int line, int column) {
+        super(line, column);
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        throw new BreakException(position());
+    }
+}
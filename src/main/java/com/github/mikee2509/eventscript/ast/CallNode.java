@@ -0,0 +1,99 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.control.TailCallException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import java.util.Arrays;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
+
+/**
+ * Call of a script function. The function found at the call site last is cached with its node and parameter types,
+ * and used as long as the same function is found there. A call whose value is returned as it is may be run as a tail
+ * call, in place of the function returning it.
+ */
+class CallNode extends ExpressionNode {
+    private final Context context;
+    private final String name;
+    private final boolean local;
+    private final int slot;
+    private Target target;
+
+    private static final class Target {
+        private final Function function;
+        private final FunctionNode node;
+        private final Type[] parameterTypes;
+
+        private Target(Function function, FunctionNode node) {
+            this.function = function;
+            this.node = node;
+            this.parameterTypes = function.getParameterTypes();
+        }
+    }
+
+    CallNode(int line, int column, Context context, String name, boolean local, int slot,
+             ExpressionNode[] arguments) {
+        super(line, column, arguments);
+        this.context = context;
+        this.name = name;
+        this.local = local;
+        this.slot = slot;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Target target = target(frame);
+        return target.node.call(arguments(frame, target));
+    }
+
+    /**
+     * Runs the call as the value returned by {@code caller}. When that value passes the return check of the caller
+     * unchanged, the caller is left first and the call runs in its place, see {@link FunctionNode#call(Tuple)}.
+     */
+    Literal executeReturned(Declarable[] frame, Function caller) {
+        Target target = target(frame);
+        Tuple arguments = arguments(frame, target);
+        Returnable returnType = target.function.getReturnType();
+        if (returnType != VOID
+            && (context.typeChecked || returnType instanceof Type && returnType == caller.getReturnType())) {
+            throw new TailCallException(target.function, arguments);
+        }
+        return target.node.call(arguments);
+    }
+
+    private Target target(Declarable[] frame) {
+        Declarable declarable = local ? frame[slot] : context.loadGlobal(slot);
+        Target target = this.target;
+        if (target == null || target.function != declarable) {
+            if (!(declarable instanceof Function)) {
+                throw FunctionException.cannotResolve(position(), name);
+            }
+            target = new Target((Function) declarable, context.functions.get(declarable));
+            this.target = target;
+        }
+        return target;
+    }
+
+    /**
+     * Evaluates the arguments of a call. Returns {@code null} for a function without parameters.
+     */
+    private Tuple arguments(Declarable[] frame, Target target) {
+        Literal arguments = arguments(frame);
+        if (target.parameterTypes.length == 0 && arguments.isVoidLiteral()) {
+            return null;
+        }
+        if (arguments.isTupleLiteral()) {
+            Tuple tuple = (Tuple) arguments.getValue();
+            if (context.typeChecked || Arrays.equals(target.parameterTypes, tuple.types())) {
+                return tuple;
+            }
+        }
+        throw FunctionException.argumentException(position(), target.function);
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class ConstantNode extends ExpressionNode {
+    private final Literal value;
+
+    ConstantNode(int line, int column, Literal value) {
+        super(line, column);
+        this.value = value;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        return value;
+    }
+}
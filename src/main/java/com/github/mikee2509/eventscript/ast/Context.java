@@ -0,0 +1,64 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.jit.ScriptRuntime;
+import com.github.mikee2509.eventscript.runtime.Operations;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * State of one run shared by the nodes of its tree: the top-level frame and the functions declared in it. It is the
+ * runtime of the functions compiled by the {@code JitCompiler}, too.
+ */
+class Context implements ScriptRuntime {
+    private static final Logger log = Logger.getLogger(AstInterpreter.class.getName());
+
+    final Operations operations;
+    final boolean typeChecked;
+    final int[][] globalSlots;
+    final Declarable[] globals;
+    final Map<Function, FunctionNode> functions = new IdentityHashMap<>();
+    Tiering tiering;
+
+    Context(Operations operations, CompiledScript script) {
+        this.operations = operations;
+        this.typeChecked = script.isTypeChecked();
+        this.globalSlots = script.getGlobalSlots();
+        this.globals = new Declarable[script.getFrameSize()];
+    }
+
+    Declarable loadGlobal(int slot) {
+        for (int global : globalSlots[slot]) {
+            if (globals[global] != null) return globals[global];
+        }
+        return null;
+    }
+
+    boolean storeGlobal(int slot, Declarable value) {
+        for (int global : globalSlots[slot]) {
+            if (globals[global] != null) {
+                globals[global] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Literal call(int function, Literal[] arguments) {
+        Literal tuple = Operations.arguments(arguments);
+        return functions.get((Function) globals[function]).call(tuple.isVoidLiteral() ? null
+            : (Tuple) tuple.getValue());
+    }
+
+    @Override
+    public void speak(String text) {
+        log.info(text);
+    }
+}
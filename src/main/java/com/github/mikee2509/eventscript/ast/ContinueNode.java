@@ -0,0 +1,16 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.control.ContinueException;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class ContinueNode extends StatementNode {
+
+    ContinueNode(int line, int column) {
+        super(line, column);
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        throw new ContinueException(position());
+    }
+}
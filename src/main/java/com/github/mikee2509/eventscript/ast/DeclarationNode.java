@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class DeclarationNode extends StatementNode {
+    private final Context context;
+    private final int slot;
+    private final Type type;
+
+    DeclarationNode(int line, int column, Context context, int slot, Type type) {
+        super(line, column);
+        this.context = context;
+        this.slot = slot;
+        this.type = type;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        frame[slot] = context.operations.defaultValue(type, line, column);
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class DefinitionNode extends StatementNode {
+    private final Context context;
+    private final int slot;
+
+    DefinitionNode(int line, int column, Context context, int slot, ExpressionNode value) {
+        super(line, column, value);
+        this.context = context;
+        this.slot = slot;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        Literal value = children[0].execute(frame);
+        context.operations.checkDefinable(value, line, column);
+        frame[slot] = value;
+    }
+}
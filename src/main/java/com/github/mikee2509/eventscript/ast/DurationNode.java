@@ -0,0 +1,17 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+
+class DurationNode extends ExpressionNode {
+
+    DurationNode(int line, int column, ExpressionNode[] arguments) {
+        super(line, column, arguments);
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        return Literals.duration(arguments(frame), position());
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+abstract class ExpressionNode extends AstNode {
+    AstNode parent;
+
+    ExpressionNode(int line, int column, ExpressionNode... children) {
+        super(line, column, children);
+    }
+
+    abstract Literal execute(Declarable[] frame);
+
+    /**
+     * Replaces this node in its parent and returns the replacement, which takes over the children of this node.
+     */
+    <T extends ExpressionNode> T replace(T replacement) {
+        for (ExpressionNode child : replacement.children) {
+            child.parent = replacement;
+        }
+        parent.replaceChild(this, replacement);
+        return replacement;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class ExpressionStatementNode extends StatementNode {
+
+    ExpressionStatementNode(int line, int column, ExpressionNode expression) {
+        super(line, column, expression);
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        children[0].execute(frame);
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import org.antlr.v4.runtime.Token;
+
+import java.util.function.Function;
+
+/**
+ * Code which can only fail, like a {@code break} outside a loop, reported when it is reached.
+ */
+class FailNode extends ExpressionNode {
+    private final Function<Token, RuntimeException> error;
+
+    FailNode(int line, int column, Function<Token, RuntimeException> error) {
+        super(line, column);
+        this.error = error;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        throw error.apply(position());
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.control.BreakException;
+import com.github.mikee2509.eventscript.domain.exception.control.ContinueException;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import java.util.Arrays;
+
+/**
+ * For loop. Its children are the updates followed by the condition, if there is one. Slots are cleared when the
+ * loop is left as {@link BlockNode} does. Iterations of a loop in a function body count towards the promotion of the
+ * function, see {@link Tiering}.
+ */
+class ForNode extends StatementNode {
+    private final StatementNode[] init;
+    private final boolean conditional;
+    private final StatementNode body;
+    private final int firstSlot;
+    private final int endSlot;
+    private final FunctionNode function;
+    private int backEdges;
+
+    ForNode(int line, int column, StatementNode[] init, ExpressionNode[] children, boolean conditional,
+            StatementNode body, int firstSlot, int endSlot, FunctionNode function) {
+        super(line, column, children);
+        this.init = init;
+        this.conditional = conditional;
+        this.body = body;
+        this.firstSlot = firstSlot;
+        this.endSlot = endSlot;
+        this.function = function;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        int updates = conditional ? children.length - 1 : children.length;
+        try {
+            for (StatementNode statement : init) {
+                statement.execute(frame);
+            }
+            while (isTrue(frame)) {
+                try {
+                    body.execute(frame);
+                } catch (ContinueException ignored) {
+                }
+                for (int i = 0; i < updates; i++) {
+                    children[i].execute(frame);
+                }
+                if (function != null && function.tiering != null && ++backEdges >= function.tiering.threshold) {
+                    function.tiering.promote(function);
+                }
+            }
+        } catch (BreakException ignored) {
+        } finally {
+            if (firstSlot < endSlot) {
+                Arrays.fill(frame, firstSlot, endSlot, null);
+            }
+        }
+    }
+
+    private boolean isTrue(Declarable[] frame) {
+        if (!conditional) {
+            return true;
+        }
+        Literal value = children[children.length - 1].execute(frame);
+        return value.isBoolLiteral() && (Boolean) value.getValue();
+    }
+}
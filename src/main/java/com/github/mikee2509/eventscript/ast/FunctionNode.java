@@ -0,0 +1,115 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.FunctionDeclaration;
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.control.ReturnException;
+import com.github.mikee2509.eventscript.domain.exception.control.TailCallException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.jit.CompiledFunction;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
+
+/**
+ * Root of the tree of a function body. Every call runs it in a frame of its own, unless the function has been
+ * compiled to JVM code. With {@link Tiering}, calls are counted until the function is promoted.
+ * <p>
+ * The tree of the body is built when it is first needed, so that functions which are never called cost nothing.
+ */
+class FunctionNode {
+    final Function function;
+    final int line;
+    final int column;
+    final int frameSize;
+    private final Context context;
+    private final FunctionDeclaration declaration;
+    private volatile StatementNode[] body;
+    volatile CompiledFunction compiled;
+    Tiering tiering;
+    int invocations;
+    final AtomicBoolean promoted = new AtomicBoolean();
+
+    FunctionNode(Context context, FunctionDeclaration declaration) {
+        this.function = declaration.getFunction();
+        this.line = declaration.getLine();
+        this.column = declaration.getColumn();
+        this.frameSize = declaration.getFrameSize();
+        this.context = context;
+        this.declaration = declaration;
+    }
+
+    boolean isBuilt() {
+        return body != null;
+    }
+
+    /**
+     * Returns the tree of the body, built by the first thread to need it.
+     */
+    StatementNode[] body() {
+        StatementNode[] body = this.body;
+        if (body == null) {
+            synchronized (this) {
+                body = this.body;
+                if (body == null) {
+                    body = new AstBuilder(context).body(declaration);
+                    this.body = body;
+                }
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Runs the function. Tail calls made by the function run in a loop here, each in a frame of its own, so recursion
+     * through them takes no stack.
+     */
+    Literal call(Tuple arguments) {
+        FunctionNode node = this;
+        while (true) {
+            try {
+                return node.run(arguments);
+            } catch (TailCallException e) {
+                node = context.functions.get(e.getFunction());
+                arguments = e.getArguments();
+            }
+        }
+    }
+
+    private Literal run(Tuple arguments) {
+        CompiledFunction compiled = this.compiled;
+        if (compiled != null) {
+            return compiled.call(arguments);
+        }
+        if (tiering != null && !promoted.get()) {
+            tiering.invoked(this);
+        }
+        Declarable[] frame = new Declarable[frameSize];
+        if (arguments != null) {
+            System.arraycopy(arguments.literals(), 0, frame, 0, function.numParams());
+        }
+        Tuple returnTuple = null;
+        try {
+            for (StatementNode statement : body()) {
+                statement.execute(frame);
+            }
+        } catch (ReturnException e) {
+            returnTuple = e.getReturnTuple();
+        }
+
+        if (returnTuple == null) {
+            if (function.getReturnType() != VOID) {
+                throw FunctionException.missingReturnStatement(Node.position(line, column));
+            }
+            return Literal.voidLiteral();
+        } else if (returnTuple.size() == 1) {
+            return returnTuple.literals()[0];
+        } else {
+            return new Literal<>(returnTuple);
+        }
+    }
+}
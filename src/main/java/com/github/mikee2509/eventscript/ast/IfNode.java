@@ -0,0 +1,29 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class IfNode extends StatementNode {
+    private final Context context;
+    private final StatementNode thenBranch;
+    private final StatementNode elseBranch;
+
+    IfNode(int line, int column, Context context, ExpressionNode condition, StatementNode thenBranch,
+           StatementNode elseBranch) {
+        super(line, column, condition);
+        this.context = context;
+        this.thenBranch = thenBranch;
+        this.elseBranch = elseBranch;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        Literal condition = children[0].execute(frame);
+        context.operations.checkCondition(condition, line, column);
+        if ((Boolean) condition.getValue()) {
+            thenBranch.execute(frame);
+        } else if (elseBranch != null) {
+            elseBranch.execute(frame);
+        }
+    }
+}
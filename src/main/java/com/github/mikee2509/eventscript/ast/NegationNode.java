@@ -0,0 +1,18 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class NegationNode extends ExpressionNode {
+    private final Context context;
+
+    NegationNode(int line, int column, Context context, ExpressionNode operand) {
+        super(line, column, operand);
+        this.context = context;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        return context.operations.negation(children[0].execute(frame), line, column);
+    }
+}
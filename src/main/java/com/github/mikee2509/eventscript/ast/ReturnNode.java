@@ -0,0 +1,37 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.control.ReturnException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ReturnNode extends StatementNode {
+    private final Context context;
+    private final Function function;
+
+    ReturnNode(int line, int column, Context context, Function function, ExpressionNode[] values) {
+        super(line, column, values);
+        this.context = context;
+        this.function = function;
+    }
+
+    @Override
+    void execute(Declarable[] frame) {
+        List<Literal> values = new ArrayList<>(children.length);
+        if (children.length == 1 && children[0] instanceof CallNode) {
+            values.add(((CallNode) children[0]).executeReturned(frame, function));
+        } else {
+            for (ExpressionNode child : children) {
+                values.add(child.execute(frame));
+            }
+        }
+        if (context.typeChecked) {
+            throw new ReturnException(position(), values.isEmpty() ? null : Tuple.fromLiteralList(values));
+        }
+        throw new ReturnException(position(), function.returnTuple(values, position()));
+    }
+}
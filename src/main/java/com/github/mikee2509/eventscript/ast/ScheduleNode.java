@@ -0,0 +1,67 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.BuiltInFunction;
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import java.time.Duration;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * {@code OnInterval}: calls the first function passed to it, which must be schedulable, on a timer.
+ */
+class ScheduleNode extends ExpressionNode {
+    private final Context context;
+    private final int argumentsLine;
+    private final int argumentsColumn;
+
+    ScheduleNode(int line, int column, Context context, ExpressionNode[] arguments, int argumentsLine,
+                 int argumentsColumn) {
+        super(line, column, arguments);
+        this.context = context;
+        this.argumentsLine = argumentsLine;
+        this.argumentsColumn = argumentsColumn;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Literal arguments = arguments(frame);
+        FunctionNode function = context.functions.get(scheduledFunction(frame));
+        Tuple tuple = context.operations.schedule(BuiltInFunction.ON_INTERVAL.getName(), arguments, line, column);
+        Duration interval = (Duration) tuple.literals()[1].getValue();
+        Duration startDelay = (Duration) tuple.literals()[2].getValue();
+        // built here rather than by the timer thread
+        function.body();
+
+        Timer timer = new Timer();
+        timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    function.call(null);
+                }
+            },
+            startDelay.toMillis(),
+            interval.toMillis()
+        );
+
+        return Literal.voidLiteral();
+    }
+
+    private Function scheduledFunction(Declarable[] frame) {
+        for (ExpressionNode argument : children) {
+            if (argument instanceof VariableNode) {
+                Declarable declarable = ((VariableNode) argument).load(frame);
+                if (declarable instanceof Function) {
+                    if (!((Function) declarable).isSchedulable()) break;
+                    return (Function) declarable;
+                }
+            }
+        }
+        throw FunctionException.cannotSchedule(Node.position(argumentsLine, argumentsColumn));
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.BuiltInFunction;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class SpeakNode extends ExpressionNode {
+    private final Context context;
+
+    SpeakNode(int line, int column, Context context, ExpressionNode[] arguments) {
+        super(line, column, arguments);
+        this.context = context;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        context.speak(context.operations.speech(BuiltInFunction.SPEAK.getName(), arguments(frame), line, column));
+        return Literal.voidLiteral();
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+abstract class StatementNode extends AstNode {
+
+    StatementNode(int line, int column, ExpressionNode... children) {
+        super(line, column, children);
+    }
+
+    abstract void execute(Declarable[] frame);
+}
@@ -0,0 +1,46 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.jit.CompiledFunction;
+import com.github.mikee2509.eventscript.jit.JitCompiler;
+
+/**
+ * Promotes functions from the tree to JVM code once they are hot: when a function has been called
+ * {@code threshold} times, or one of its loops has looped back as often. Until then, and for good if the
+ * {@link JitCompiler} cannot compile it, the function runs in the tree, which costs nothing to set up.
+ * <p>
+ * The counters are plain fields, so threads racing on them may lose counts, which only delays a promotion. A
+ * function is compiled once, by the thread which promotes it, and is swapped in by publishing the compiled code in
+ * its {@link FunctionNode}. Calls starting afterwards, from any thread, run the compiled code; those already
+ * running, like a loop which made its function hot, finish in the tree.
+ */
+class Tiering {
+    final int threshold;
+    private final JitCompiler jit;
+    private final CompiledScript script;
+    private final Context context;
+
+    Tiering(int threshold, JitCompiler jit, CompiledScript script, Context context) {
+        this.threshold = threshold;
+        this.jit = jit;
+        this.script = script;
+        this.context = context;
+    }
+
+    void invoked(FunctionNode function) {
+        if (++function.invocations >= threshold) {
+            promote(function);
+        }
+    }
+
+    void promote(FunctionNode function) {
+        if (function.promoted.get() || !function.promoted.compareAndSet(false, true)) {
+            return;
+        }
+        CompiledFunction compiled = jit.compile(script, context, candidate -> candidate == function.function)
+            .get(function.function);
+        if (compiled != null) {
+            function.compiled = compiled;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class ToStringNode extends ExpressionNode {
+    private final Context context;
+
+    ToStringNode(int line, int column, Context context, ExpressionNode target) {
+        super(line, column, target);
+        this.context = context;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        return context.operations.toString(children[0].execute(frame), line, column);
+    }
+}
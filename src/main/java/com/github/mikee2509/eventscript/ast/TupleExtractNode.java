@@ -0,0 +1,20 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+class TupleExtractNode extends ExpressionNode {
+    private final Context context;
+    private final int index;
+
+    TupleExtractNode(int line, int column, Context context, ExpressionNode target, int index) {
+        super(line, column, target);
+        this.context = context;
+        this.index = index;
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        return context.operations.tupleExtract(children[0].execute(frame), index, line, column);
+    }
+}
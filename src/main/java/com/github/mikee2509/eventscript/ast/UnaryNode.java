@@ -0,0 +1,126 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.ir.UnaryOperator;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+/**
+ * Prefix operation specializing itself on its operand like {@link BinaryNode} does. The result of {@code ++} and
+ * {@code --} is stored back into the variable they are applied to.
+ */
+abstract class UnaryNode extends ExpressionNode {
+    final Context context;
+    final UnaryOperator operator;
+    private final VariableNode target;
+
+    private UnaryNode(int line, int column, Context context, UnaryOperator operator, ExpressionNode operand) {
+        super(line, column, operand);
+        this.context = context;
+        this.operator = operator;
+        this.target = operator.isUpdating() && operand instanceof VariableNode ? (VariableNode) operand : null;
+    }
+
+    private UnaryNode(UnaryNode node) {
+        super(node.line, node.column, node.children);
+        this.context = node.context;
+        this.operator = node.operator;
+        this.target = node.target;
+    }
+
+    static UnaryNode create(int line, int column, Context context, UnaryOperator operator, ExpressionNode operand) {
+        return new Uninitialized(line, column, context, operator, operand);
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Literal value = execute(children[0].execute(frame));
+        if (target != null) {
+            target.store(frame, value);
+        }
+        return value;
+    }
+
+    abstract Literal execute(Literal operand);
+
+    Literal deoptimize(Literal operand) {
+        return replace(new Generic(this)).execute(operand);
+    }
+
+    static final class Uninitialized extends UnaryNode {
+
+        private Uninitialized(int line, int column, Context context, UnaryOperator operator,
+                              ExpressionNode operand) {
+            super(line, column, context, operator, operand);
+        }
+
+        @Override
+        Literal execute(Literal operand) {
+            UnaryNode specialized = operand.getValue() instanceof Integer ? new IntOperation(this)
+                : operand.getValue() instanceof Float ? new FloatOperation(this)
+                : new Generic(this);
+            return replace(specialized).execute(operand);
+        }
+    }
+
+    static final class IntOperation extends UnaryNode {
+
+        private IntOperation(UnaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal operand) {
+            if (!(operand.getValue() instanceof Integer)) {
+                return deoptimize(operand);
+            }
+            int value = (Integer) operand.getValue();
+            switch (operator) {
+                case INCREMENT:
+                    return new Literal<>(value + 1);
+                case DECREMENT:
+                    return new Literal<>(value - 1);
+                case MINUS:
+                    return new Literal<>(-value);
+                default:
+                    return operand;
+            }
+        }
+    }
+
+    static final class FloatOperation extends UnaryNode {
+
+        private FloatOperation(UnaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal operand) {
+            if (!(operand.getValue() instanceof Float)) {
+                return deoptimize(operand);
+            }
+            float value = (Float) operand.getValue();
+            switch (operator) {
+                case INCREMENT:
+                    return new Literal<>(value + 1.0f);
+                case DECREMENT:
+                    return new Literal<>(value - 1.0f);
+                case MINUS:
+                    return new Literal<>(-value);
+                default:
+                    return operand;
+            }
+        }
+    }
+
+    static final class Generic extends UnaryNode {
+
+        private Generic(UnaryNode node) {
+            super(node);
+        }
+
+        @Override
+        Literal execute(Literal operand) {
+            return context.operations.unary(operator, operand, line, column);
+        }
+    }
+}
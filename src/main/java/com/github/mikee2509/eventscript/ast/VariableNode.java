@@ -0,0 +1,48 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+/**
+ * Reads a variable, local or global as resolved by the compiler. A function read as a value is void.
+ */
+class VariableNode extends ExpressionNode {
+    private final Context context;
+    final String name;
+    private final boolean local;
+    private final int slot;
+
+    VariableNode(int line, int column, Context context, String name, boolean local, int slot) {
+        super(line, column);
+        this.context = context;
+        this.name = name;
+        this.local = local;
+        this.slot = slot;
+    }
+
+    Declarable load(Declarable[] frame) {
+        return local ? frame[slot] : context.loadGlobal(slot);
+    }
+
+    boolean store(Declarable[] frame, Literal value) {
+        if (local) {
+            frame[slot] = value;
+            return true;
+        }
+        return context.storeGlobal(slot, value);
+    }
+
+    @Override
+    Literal execute(Declarable[] frame) {
+        Declarable declarable = load(frame);
+        if (declarable == null) {
+            throw ScopeException.undefinedVariable(position(), name);
+        }
+        if (declarable instanceof Function) {
+            return Literal.voidLiteral();
+        }
+        return (Literal) declarable;
+    }
+}
@@ -0,0 +1,724 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.CountedLoop;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import org.antlr.v4.runtime.Token;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.logging.Logger;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.*;
+
+/**
+ * Compiles every node of a {@link CompiledScript} once into a closure bound to what is known about it before the
+ * script runs: constants are bound as literals, variables to their frame slot or to the only top-level slot of a
+ * global, calls to the function they resolve to when that is known, and operators to the operation for the types of
+ * their operands, see {@link Operators}.
+ * <p>
+ * Types are known for constants, declared and defined local variables, parameters and the results of calls and
+ * operations whose types are known. This holds for scripts which are not type checked, too: a variable keeps the
+ * type of its definition and a function returns its declared type, or the script fails before. Where a type is not
+ * known, the closure checks the values like the {@code Interpreter} does, with {@link Operations}.
+ * <p>
+ * A compiler holds the top-level frame of one run.
+ */
+class ClosureCompiler implements NodeVisitor<Object> {
+    private static final Logger log = Logger.getLogger(ClosureEngine.class.getName());
+
+    private final Operations operations;
+    private final boolean typeChecked;
+    private final int[][] globalSlots;
+    private final Declarable[] globals;
+    private final Map<Function, FunctionClosure> functions = new IdentityHashMap<>();
+    private final List<Function> declared = new ArrayList<>();
+    private Map<Integer, Type> slotTypes = new HashMap<>();
+    private Function function;
+    private int loopDepth;
+
+    ClosureCompiler(Operations operations, CompiledScript script) {
+        this.operations = operations;
+        this.typeChecked = script.isTypeChecked();
+        this.globalSlots = script.getGlobalSlots();
+        this.globals = new Declarable[script.getFrameSize()];
+    }
+
+    /**
+     * Declares the functions of the script in the top-level frame, compiles their bodies and returns the top-level
+     * statements, to be run by {@link #run(Executor)}.
+     */
+    Executor compile(CompiledScript script) {
+        List<FunctionDeclaration> declarations = script.getFunctions();
+        for (int i = 0; i < declarations.size(); i++) {
+            FunctionDeclaration declaration = declarations.get(i);
+            globals[i] = declaration.getFunction();
+            declared.add(declaration.getFunction());
+            functions.put(declaration.getFunction(), new FunctionClosure(declaration.getFunction(),
+                declaration.getLine(), declaration.getColumn(), declaration.getFrameSize()));
+        }
+        for (FunctionDeclaration declaration : declarations) {
+            function = declaration.getFunction();
+            slotTypes = new HashMap<>();
+            List<Function.Parameter> parameters = function.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                slotTypes.put(i, parameters.get(i).getType());
+            }
+            functions.get(function).body = sequence(declaration.getBody());
+        }
+        function = null;
+        slotTypes = new HashMap<>();
+        return sequence(script.getStatements());
+    }
+
+    void run(Executor topLevel) {
+        topLevel.execute(new Frame(globals));
+    }
+
+    private boolean isTopLevel() {
+        return function == null;
+    }
+
+    private Executor statement(Statement statement) {
+        return (Executor) statement.accept(this);
+    }
+
+    private TypedEvaluator expression(Expression expression) {
+        return (TypedEvaluator) expression.accept(this);
+    }
+
+    private Evaluator[] evaluators(List<Expression> expressions) {
+        return expressions.stream().map(expression -> expression(expression).evaluator).toArray(Evaluator[]::new);
+    }
+
+    private static TypedEvaluator untyped(Evaluator evaluator) {
+        return new TypedEvaluator(evaluator, null);
+    }
+
+    /**
+     * Statements run one after another until one of them completes abruptly.
+     */
+    private Executor sequence(List<Statement> statements) {
+        Executor[] executors = statements.stream().map(this::statement).toArray(Executor[]::new);
+        if (executors.length == 1) {
+            return executors[0];
+        }
+        return frame -> {
+            for (Executor executor : executors) {
+                int completion = executor.execute(frame);
+                if (completion != Executor.NORMAL) {
+                    return completion;
+                }
+            }
+            return Executor.NORMAL;
+        };
+    }
+
+    /**
+     * Releases the slots of a top-level block once it completes, so that the functions called afterwards no longer
+     * see its variables.
+     */
+    private Executor releasing(Executor executor, int firstSlot, int endSlot) {
+        if (!isTopLevel() || firstSlot >= endSlot) {
+            return executor;
+        }
+        return frame -> {
+            try {
+                return executor.execute(frame);
+            } finally {
+                Arrays.fill(frame.slots, firstSlot, endSlot, null);
+            }
+        };
+    }
+
+    private static Executor fail(Node node, java.util.function.Function<Token, RuntimeException> error) {
+        Token position = node.position();
+        return frame -> {
+            throw error.apply(position);
+        };
+    }
+
+    private static Literal arguments(Evaluator[] arguments, Frame frame) {
+        Literal[] values = new Literal[arguments.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = arguments[i].evaluate(frame);
+        }
+        return Operations.arguments(values);
+    }
+
+    /**
+     * Returns the function a call resolves to whenever it runs, or {@code null} if it can only be told at runtime.
+     * Functions occupy the first slots of the top-level frame and are never redefined.
+     */
+    private Function callee(Call node) {
+        int slot;
+        if (node.isLocal()) {
+            if (!isTopLevel()) return null;
+            slot = node.getSlot();
+        } else {
+            int[] slots = globalSlots[node.getSlot()];
+            if (slots.length != 1) return null;
+            slot = slots[0];
+        }
+        return slot < declared.size() ? declared.get(slot) : null;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Declarable load(Frame frame);
+    }
+
+    @FunctionalInterface
+    private interface Store {
+        boolean store(Frame frame, Literal value);
+    }
+
+    private Loader loader(Variable node) {
+        int slot = node.getSlot();
+        if (node.isLocal()) {
+            return frame -> frame.slots[slot];
+        }
+        int[] slots = globalSlots[slot];
+        if (slots.length == 1) {
+            int global = slots[0];
+            return frame -> globals[global];
+        }
+        return frame -> {
+            for (int global : slots) {
+                if (globals[global] != null) return globals[global];
+            }
+            return null;
+        };
+    }
+
+    private Store store(Variable node) {
+        int slot = node.getSlot();
+        if (node.isLocal()) {
+            return (frame, value) -> {
+                frame.slots[slot] = value;
+                return true;
+            };
+        }
+        int[] slots = globalSlots[slot];
+        return (frame, value) -> {
+            for (int global : slots) {
+                if (globals[global] != null) {
+                    globals[global] = value;
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Object visitVariableDeclaration(VariableDeclaration node) {
+        int slot = node.getSlot();
+        Type type = node.getType();
+        int line = node.getLine();
+        int column = node.getColumn();
+        slotTypes.put(slot, type);
+        return (Executor) frame -> {
+            frame.slots[slot] = operations.defaultValue(type, line, column);
+            return Executor.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitVariableDefinition(VariableDefinition node) {
+        int slot = node.getSlot();
+        TypedEvaluator value = expression(node.getValue());
+        Evaluator evaluator = value.evaluator;
+        if (value.type != null && value.type != VOID) {
+            slotTypes.put(slot, value.type);
+            return (Executor) frame -> {
+                frame.slots[slot] = evaluator.evaluate(frame);
+                return Executor.NORMAL;
+            };
+        }
+        int line = node.getLine();
+        int column = node.getColumn();
+        return (Executor) frame -> {
+            Literal literal = evaluator.evaluate(frame);
+            operations.checkDefinable(literal, line, column);
+            frame.slots[slot] = literal;
+            return Executor.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitRedefinition(Redefinition node) {
+        Executor definition = statement(node.getDefinition());
+        Executor failure = fail(node, position -> ScopeException.alreadyDefined(position, node.getName()));
+        return (Executor) frame -> {
+            definition.execute(frame);
+            return failure.execute(frame);
+        };
+    }
+
+    @Override
+    public Object visitIfStatement(IfStatement node) {
+        Evaluator condition = condition(node, expression(node.getCondition()));
+        Executor thenBranch = statement(node.getThenBranch());
+        Executor elseBranch = node.getElseBranch() == null ? null : statement(node.getElseBranch());
+        if (elseBranch == null) {
+            return (Executor) frame -> (Boolean) condition.evaluate(frame).getValue() ? thenBranch.execute(frame)
+                : Executor.NORMAL;
+        }
+        return (Executor) frame -> (Boolean) condition.evaluate(frame).getValue() ? thenBranch.execute(frame)
+            : elseBranch.execute(frame);
+    }
+
+    private Evaluator condition(Node node, TypedEvaluator condition) {
+        Evaluator evaluator = condition.evaluator;
+        if (condition.type == BOOL) {
+            return evaluator;
+        }
+        int line = node.getLine();
+        int column = node.getColumn();
+        return frame -> {
+            Literal value = evaluator.evaluate(frame);
+            operations.checkCondition(value, line, column);
+            return value;
+        };
+    }
+
+    @Override
+    public Object visitBlock(Block node) {
+        return releasing(sequence(node.getStatements()), node.getFirstSlot(), node.getEndSlot());
+    }
+
+    @Override
+    public Object visitForStatement(ForStatement node) {
+        Executor init = sequence(node.getInit());
+        Evaluator condition = node.getCondition() == null ? null : expression(node.getCondition()).evaluator;
+        loopDepth++;
+        Executor body = statement(node.getBody());
+        loopDepth--;
+        Evaluator[] updates = evaluators(node.getUpdate());
+
+        CountedLoop counted = CountedLoop.match(node, isTopLevel());
+        if (counted != null && slotTypes.get(counted.getCounter().getSlot()) == INT) {
+            TypedEvaluator bound = expression(counted.getBound());
+            if (bound.type == INT) {
+                Executor loop = countedLoop(init, bound.evaluator, body, counted);
+                return releasing(loop, node.getFirstSlot(), node.getEndSlot());
+            }
+        }
+
+        Executor loop = frame -> {
+            init.execute(frame);
+            while (condition == null || isTrue(condition.evaluate(frame))) {
+                int completion = body.execute(frame);
+                if (completion == Executor.BREAK) {
+                    break;
+                } else if (completion == Executor.RETURN) {
+                    return completion;
+                }
+                for (Evaluator update : updates) {
+                    update.evaluate(frame);
+                }
+            }
+            return Executor.NORMAL;
+        };
+        return releasing(loop, node.getFirstSlot(), node.getEndSlot());
+    }
+
+    /**
+     * Runs a counted loop with a native counter, which is stored in its slot only for the code reading it.
+     */
+    private Executor countedLoop(Executor init, Evaluator bound, Executor body, CountedLoop counted) {
+        int slot = counted.getCounter().getSlot();
+        boolean inclusive = counted.isInclusive();
+        boolean store = counted.isCounterRead() || isTopLevel();
+        return frame -> {
+            init.execute(frame);
+            int end = (Integer) bound.evaluate(frame).getValue();
+            for (int i = (Integer) ((Literal) frame.slots[slot]).getValue(); inclusive ? i <= end : i < end; ) {
+                int completion = body.execute(frame);
+                if (completion == Executor.BREAK) {
+                    break;
+                } else if (completion == Executor.RETURN) {
+                    return completion;
+                }
+                i++;
+                if (store) {
+                    frame.slots[slot] = new Literal<>(i);
+                }
+            }
+            return Executor.NORMAL;
+        };
+    }
+
+    private static boolean isTrue(Literal condition) {
+        return condition.isBoolLiteral() && (Boolean) condition.getValue();
+    }
+
+    @Override
+    public Object visitReturnStatement(ReturnStatement node) {
+        if (isTopLevel()) {
+            return fail(node, ControlFlowException::returnWrongContext);
+        }
+        Function function = this.function;
+        Token position = node.position();
+        if (node.getValues().size() == 1 && node.getValues().get(0) instanceof Call) {
+            Evaluator call = call((Call) node.getValues().get(0), (frame, closure, arguments) -> {
+                if (isTailCall(closure.function, function)) {
+                    frame.tailCallee = closure;
+                    frame.tailArguments = arguments;
+                    return null;
+                }
+                return closure.call(arguments);
+            }).evaluator;
+            return (Executor) frame -> {
+                Literal value = call.evaluate(frame);
+                if (value != null) {
+                    setReturned(frame, function, Collections.singletonList(value), position);
+                }
+                return Executor.RETURN;
+            };
+        }
+        Evaluator[] values = evaluators(node.getValues());
+        return (Executor) frame -> {
+            List<Literal> literals = new ArrayList<>(values.length);
+            for (Evaluator value : values) {
+                literals.add(value.evaluate(frame));
+            }
+            setReturned(frame, function, literals, position);
+            return Executor.RETURN;
+        };
+    }
+
+    private void setReturned(Frame frame, Function function, List<Literal> literals, Token position) {
+        if (typeChecked) {
+            frame.returnTuple = literals.isEmpty() ? null : Tuple.fromLiteralList(literals);
+        } else {
+            frame.returnTuple = function.returnTuple(literals, position);
+        }
+    }
+
+    /**
+     * A call returned as it is can take the place of the calling function when the value it returns passes the
+     * return check of the caller unchanged.
+     */
+    private boolean isTailCall(Function callee, Function caller) {
+        Returnable returnType = callee.getReturnType();
+        return returnType != VOID
+            && (typeChecked || returnType instanceof Type && returnType == caller.getReturnType());
+    }
+
+    @Override
+    public Object visitBreakStatement(BreakStatement node) {
+        return loopDepth > 0 ? (Executor) frame -> Executor.BREAK : fail(node, ControlFlowException::breakWrongContext);
+    }
+
+    @Override
+    public Object visitContinueStatement(ContinueStatement node) {
+        return loopDepth > 0 ? (Executor) frame -> Executor.CONTINUE
+            : fail(node, ControlFlowException::continueWrongContext);
+    }
+
+    @Override
+    public Object visitExpressionStatement(ExpressionStatement node) {
+        Evaluator expression = expression(node.getExpression()).evaluator;
+        return (Executor) frame -> {
+            expression.evaluate(frame);
+            return Executor.NORMAL;
+        };
+    }
+
+    @Override
+    public Object visitConstant(Constant node) {
+        Literal value = node.getValue();
+        return new TypedEvaluator(frame -> value, value.getLiteralType());
+    }
+
+    @Override
+    public Object visitDatetimeConstructor(DatetimeConstructor node) {
+        Evaluator[] arguments = evaluators(node.getArguments());
+        Token position = node.position();
+        return new TypedEvaluator(frame -> Literals.datetime(arguments(arguments, frame), position), DATETIME);
+    }
+
+    @Override
+    public Object visitDurationConstructor(DurationConstructor node) {
+        Evaluator[] arguments = evaluators(node.getArguments());
+        Token position = node.position();
+        return new TypedEvaluator(frame -> Literals.duration(arguments(arguments, frame), position), DURATION);
+    }
+
+    @Override
+    public Object visitVariable(Variable node) {
+        Type type = node.isLocal() ? slotTypes.get(node.getSlot()) : null;
+        if (type != null) {
+            // a variable of a known type is read after its definition
+            int slot = node.getSlot();
+            return new TypedEvaluator(frame -> (Literal) frame.slots[slot], type);
+        }
+        Loader loader = loader(node);
+        Token position = node.position();
+        String name = node.getName();
+        return untyped(frame -> {
+            Declarable declarable = loader.load(frame);
+            if (declarable == null) {
+                throw ScopeException.undefinedVariable(position, name);
+            }
+            if (declarable instanceof Function) {
+                return Literal.voidLiteral();
+            }
+            return (Literal) declarable;
+        });
+    }
+
+    @Override
+    public Object visitUnary(Unary node) {
+        TypedEvaluator operand = expression(node.getOperand());
+        TypedEvaluator operation = Operators.unary(node.getOperator(), operand);
+        if (operation == null) {
+            UnaryOperator operator = node.getOperator();
+            Evaluator evaluator = operand.evaluator;
+            int line = node.getLine();
+            int column = node.getColumn();
+            operation = untyped(frame -> operations.unary(operator, evaluator.evaluate(frame), line, column));
+        }
+        if (!node.getOperator().isUpdating() || !(node.getOperand() instanceof Variable)) {
+            return operation;
+        }
+        Store store = store((Variable) node.getOperand());
+        Evaluator evaluator = operation.evaluator;
+        return new TypedEvaluator(frame -> {
+            Literal value = evaluator.evaluate(frame);
+            store.store(frame, value);
+            return value;
+        }, operation.type);
+    }
+
+    @Override
+    public Object visitNegation(Negation node) {
+        TypedEvaluator operand = expression(node.getOperand());
+        Evaluator evaluator = operand.evaluator;
+        if (operand.type == BOOL) {
+            return new TypedEvaluator(frame -> new Literal<>(!(Boolean) evaluator.evaluate(frame).getValue()), BOOL);
+        }
+        int line = node.getLine();
+        int column = node.getColumn();
+        return new TypedEvaluator(frame -> operations.negation(evaluator.evaluate(frame), line, column), BOOL);
+    }
+
+    @Override
+    public Object visitBinary(Binary node) {
+        TypedEvaluator left = expression(node.getLeft());
+        TypedEvaluator right = expression(node.getRight());
+        TypedEvaluator operation = Operators.binary(node.getOperator(), left, right);
+        if (operation != null) {
+            return operation;
+        }
+        BinaryOperator operator = node.getOperator();
+        Evaluator l = left.evaluator;
+        Evaluator r = right.evaluator;
+        int line = node.getLine();
+        int column = node.getColumn();
+        return untyped(frame -> operations.binary(operator, l.evaluate(frame), r.evaluate(frame), line, column));
+    }
+
+    @Override
+    public Object visitAssignment(Assignment node) {
+        if (!(node.getTarget() instanceof Variable)) {
+            Token position = node.position();
+            return untyped(frame -> {
+                throw OperationException.variableExpected(position);
+            });
+        }
+        Variable variable = (Variable) node.getTarget();
+        TypedEvaluator target = expression(variable);
+        TypedEvaluator value = expression(node.getValue());
+        Evaluator current = target.evaluator;
+        Evaluator evaluator = value.evaluator;
+        Store store = store(variable);
+        boolean checked = typeChecked || target.type != null && target.type == value.type;
+        int line = node.getLine();
+        int column = node.getColumn();
+        Token position = node.position();
+        String name = variable.getName();
+        return new TypedEvaluator(frame -> {
+            Literal currentValue = current.evaluate(frame);
+            Literal newValue = evaluator.evaluate(frame);
+            if (!checked) {
+                operations.checkAssignable(currentValue, newValue, line, column);
+            }
+            if (!store.store(frame, newValue)) {
+                //this should never happen
+                throw ScopeException.undefinedVariable(position, name);
+            }
+            return newValue;
+        }, target.type);
+    }
+
+    /**
+     * Runs a resolved call of a script function.
+     */
+    @FunctionalInterface
+    private interface Invoker {
+        Literal invoke(Frame frame, FunctionClosure closure, Tuple arguments);
+    }
+
+    @Override
+    public Object visitCall(Call node) {
+        return call(node, (frame, closure, arguments) -> closure.call(arguments));
+    }
+
+    private TypedEvaluator call(Call node, Invoker invoker) {
+        TypedEvaluator[] typedArguments = node.getArguments().stream().map(this::expression)
+            .toArray(TypedEvaluator[]::new);
+        Evaluator[] arguments = Arrays.stream(typedArguments).map(argument -> argument.evaluator)
+            .toArray(Evaluator[]::new);
+        Token position = node.position();
+        Function callee = callee(node);
+        if (callee != null) {
+            FunctionClosure closure = functions.get(callee);
+            Type type = callee.getReturnType() instanceof Type ? (Type) callee.getReturnType() : null;
+            if (arguments.length == 0) {
+                return new TypedEvaluator(callee.numParams() == 0 ? frame -> invoker.invoke(frame, closure, null)
+                    : frame -> {
+                        throw FunctionException.argumentException(position, callee);
+                    }, type);
+            }
+            boolean checked = typeChecked || callee.checkTypes(Arrays.stream(typedArguments)
+                .map(argument -> argument.type).toArray(Type[]::new));
+            return new TypedEvaluator(frame -> {
+                Literal values = arguments(arguments, frame);
+                Tuple tuple = (Tuple) values.getValue();
+                if (checked || callee.checkTypes(tuple.types())) {
+                    return invoker.invoke(frame, closure, tuple);
+                }
+                throw FunctionException.argumentException(position, callee);
+            }, type);
+        }
+
+        int slot = node.getSlot();
+        Loader loader = node.isLocal() ? frame -> frame.slots[slot]
+            : loader(new Variable(node.getLine(), node.getColumn(), node.getName(), false, node.getSlot()));
+        String name = node.getName();
+        return untyped(frame -> {
+            Declarable declarable = loader.load(frame);
+            if (!(declarable instanceof Function)) {
+                throw FunctionException.cannotResolve(position, name);
+            }
+            Function function = (Function) declarable;
+            Literal values = arguments(arguments, frame);
+            if (function.numParams() == 0 && values.isVoidLiteral()) {
+                return invoker.invoke(frame, functions.get(function), null);
+            }
+            if (values.isTupleLiteral()) {
+                Tuple tuple = (Tuple) values.getValue();
+                if (typeChecked || function.checkTypes(tuple.types())) {
+                    return invoker.invoke(frame, functions.get(function), tuple);
+                }
+            }
+            throw FunctionException.argumentException(position, function);
+        });
+    }
+
+    @Override
+    public Object visitBuiltInCall(BuiltInCall node) {
+        Evaluator[] arguments = evaluators(node.getArguments());
+        int line = node.getLine();
+        int column = node.getColumn();
+        String name = node.getName();
+        switch (node.getFunction()) {
+            case SPEAK:
+                return new TypedEvaluator(frame -> {
+                    log.info(operations.speech(name, arguments(arguments, frame), line, column));
+                    return Literal.voidLiteral();
+                }, VOID);
+            case ON_INTERVAL:
+                return new TypedEvaluator(schedule(node, arguments), VOID);
+            default:
+                Token position = node.position();
+                return untyped(frame -> {
+                    throw FunctionException.unimplementedFunction(position, name);
+                });
+        }
+    }
+
+    /**
+     * {@code OnInterval}: calls the first function passed to it, which must be schedulable, on a timer.
+     */
+    private Evaluator schedule(BuiltInCall node, Evaluator[] arguments) {
+        Loader[] functionLoaders = node.getArguments().stream()
+            .filter(argument -> argument instanceof Variable)
+            .map(argument -> loader((Variable) argument))
+            .toArray(Loader[]::new);
+        int line = node.getLine();
+        int column = node.getColumn();
+        String name = node.getName();
+        Token argumentsPosition = Node.position(node.getArgumentsLine(), node.getArgumentsColumn());
+        return frame -> {
+            Literal values = arguments(arguments, frame);
+            Function scheduled = null;
+            for (Loader loader : functionLoaders) {
+                Declarable declarable = loader.load(frame);
+                if (declarable instanceof Function) {
+                    if (((Function) declarable).isSchedulable()) scheduled = (Function) declarable;
+                    break;
+                }
+            }
+            if (scheduled == null) {
+                throw FunctionException.cannotSchedule(argumentsPosition);
+            }
+            FunctionClosure closure = functions.get(scheduled);
+            Tuple tuple = operations.schedule(name, values, line, column);
+            Duration interval = (Duration) tuple.literals()[1].getValue();
+            Duration startDelay = (Duration) tuple.literals()[2].getValue();
+
+            Timer timer = new Timer();
+            timer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        closure.call(null);
+                    }
+                },
+                startDelay.toMillis(),
+                interval.toMillis()
+            );
+            return Literal.voidLiteral();
+        };
+    }
+
+    @Override
+    public Object visitToStringCall(ToStringCall node) {
+        Evaluator target = expression(node.getTarget()).evaluator;
+        int line = node.getLine();
+        int column = node.getColumn();
+        return new TypedEvaluator(frame -> operations.toString(target.evaluate(frame), line, column), STRING);
+    }
+
+    @Override
+    public Object visitTupleExtract(TupleExtract node) {
+        Evaluator target = expression(node.getTarget()).evaluator;
+        int index = node.getIndex();
+        int line = node.getLine();
+        int column = node.getColumn();
+        return untyped(frame -> operations.tupleExtract(target.evaluate(frame), index, line, column));
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Operations;
+
+/**
+ * Executes a {@link CompiledScript} as a tree of closures compiled once before it runs, with the same output and
+ * errors as the {@code Interpreter}. Nothing is looked up or dispatched on while the closures run which could be
+ * decided by the {@link ClosureCompiler}; statements report how they complete instead of throwing, so that loops and
+ * calls need no exceptions to handle {@code break}, {@code continue} and {@code return}.
+ */
+public class ClosureEngine {
+    private final Operations operations;
+
+    public ClosureEngine(LiteralArithmetic la) {
+        this.operations = new Operations(la);
+    }
+
+    public void execute(CompiledScript script) {
+        ClosureCompiler compiler = new ClosureCompiler(operations, script);
+        compiler.run(compiler.compile(script));
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+
+@FunctionalInterface
+interface Evaluator {
+    Literal evaluate(Frame frame);
+}
@@ -0,0 +1,15 @@
+package com.github.mikee2509.eventscript.closure;
+
+/**
+ * Compiled statement. Instead of throwing, it returns how it completed: normally or by a {@code break},
+ * {@code continue} or {@code return} the enclosing loop or call handles.
+ */
+@FunctionalInterface
+interface Executor {
+    int NORMAL = 0;
+    int BREAK = 1;
+    int CONTINUE = 2;
+    int RETURN = 3;
+
+    int execute(Frame frame);
+}
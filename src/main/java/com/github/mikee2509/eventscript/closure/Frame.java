@@ -0,0 +1,19 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+/**
+ * Slots of the top level or of one call, and the values returned by the call once a return statement completes. A
+ * return statement making a tail call leaves the function to call and its arguments instead.
+ */
+class Frame {
+    final Declarable[] slots;
+    Tuple returnTuple;
+    FunctionClosure tailCallee;
+    Tuple tailArguments;
+
+    Frame(Declarable[] slots) {
+        this.slots = slots;
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
+
+class FunctionClosure {
+    final Function function;
+    private final int line;
+    private final int column;
+    private final int frameSize;
+    Executor body;
+
+    FunctionClosure(Function function, int line, int column, int frameSize) {
+        this.function = function;
+        this.line = line;
+        this.column = column;
+        this.frameSize = frameSize;
+    }
+
+    /**
+     * Runs the function in a frame of its own. Tail calls made by the function run in a loop here, so recursion
+     * through them takes no stack.
+     */
+    Literal call(Tuple arguments) {
+        FunctionClosure closure = this;
+        while (true) {
+            Frame frame = new Frame(new Declarable[closure.frameSize]);
+            if (arguments != null) {
+                System.arraycopy(arguments.literals(), 0, frame.slots, 0, closure.function.numParams());
+            }
+            closure.body.execute(frame);
+            if (frame.tailCallee != null) {
+                closure = frame.tailCallee;
+                arguments = frame.tailArguments;
+                continue;
+            }
+
+            Tuple returnTuple = frame.returnTuple;
+            if (returnTuple == null) {
+                if (closure.function.getReturnType() != VOID) {
+                    throw FunctionException.missingReturnStatement(Node.position(closure.line, closure.column));
+                }
+                return Literal.voidLiteral();
+            } else if (returnTuple.size() == 1) {
+                return returnTuple.literals()[0];
+            } else {
+                return new Literal<>(returnTuple);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.compiler.ir.BinaryOperator;
+import com.github.mikee2509.eventscript.compiler.ir.UnaryOperator;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.*;
+
+/**
+ * Selects the operation of an operator for the static types of its operands. Only the combinations whose result
+ * does not depend on anything but those types are selected here, with the semantics of {@code LiteralArithmetic}:
+ * ints stay ints, an int mixed with a float is widened and floats are compared for equality as {@code Float.equals}
+ * does. For anything else, {@code null} is returned and the caller falls back to {@code Operations}.
+ */
+final class Operators {
+
+    private Operators() {
+    }
+
+    static TypedEvaluator binary(BinaryOperator operator, TypedEvaluator left, TypedEvaluator right) {
+        Type l = left.type;
+        Type r = right.type;
+        if (l == INT && r == INT) {
+            return intOperation(operator, left.evaluator, right.evaluator);
+        }
+        if (isNumeric(l) && isNumeric(r) && operator.getKind() != BinaryOperator.Kind.LOGICAL) {
+            return floatOperation(operator, left.evaluator, right.evaluator);
+        }
+        if (operator == BinaryOperator.ADD && (l == STRING && r != null && r != TUPLE && r != VOID
+            || r == STRING && l != null && l != TUPLE && l != VOID)) {
+            Evaluator le = left.evaluator;
+            Evaluator re = right.evaluator;
+            return new TypedEvaluator(frame -> new Literal<>(le.evaluate(frame).getValue().toString()
+                + re.evaluate(frame).getValue().toString()), STRING);
+        }
+        if (l == BOOL && r == BOOL) {
+            return boolOperation(operator, left.evaluator, right.evaluator);
+        }
+        return null;
+    }
+
+    static TypedEvaluator unary(UnaryOperator operator, TypedEvaluator operand) {
+        Evaluator e = operand.evaluator;
+        if (operand.type == INT) {
+            switch (operator) {
+                case INCREMENT:
+                    return new TypedEvaluator(frame -> new Literal<>(intValue(e, frame) + 1), INT);
+                case DECREMENT:
+                    return new TypedEvaluator(frame -> new Literal<>(intValue(e, frame) - 1), INT);
+                case MINUS:
+                    return new TypedEvaluator(frame -> new Literal<>(-intValue(e, frame)), INT);
+                default:
+                    return operand;
+            }
+        }
+        if (operand.type == FLOAT) {
+            switch (operator) {
+                case INCREMENT:
+                    return new TypedEvaluator(frame -> new Literal<>(floatValue(e, frame) + 1.0f), FLOAT);
+                case DECREMENT:
+                    return new TypedEvaluator(frame -> new Literal<>(floatValue(e, frame) - 1.0f), FLOAT);
+                case MINUS:
+                    return new TypedEvaluator(frame -> new Literal<>(-floatValue(e, frame)), FLOAT);
+                default:
+                    return operand;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNumeric(Type type) {
+        return type == INT || type == FLOAT;
+    }
+
+    private static int intValue(Evaluator evaluator, Frame frame) {
+        return (Integer) evaluator.evaluate(frame).getValue();
+    }
+
+    private static float floatValue(Evaluator evaluator, Frame frame) {
+        return ((Number) evaluator.evaluate(frame).getValue()).floatValue();
+    }
+
+    private static boolean boolValue(Evaluator evaluator, Frame frame) {
+        return (Boolean) evaluator.evaluate(frame).getValue();
+    }
+
+    private static TypedEvaluator intOperation(BinaryOperator operator, Evaluator l, Evaluator r) {
+        switch (operator) {
+            case ADD:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) + intValue(r, frame)), INT);
+            case SUB:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) - intValue(r, frame)), INT);
+            case MUL:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) * intValue(r, frame)), INT);
+            case DIV:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) / intValue(r, frame)), INT);
+            case MOD:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) % intValue(r, frame)), INT);
+            case LT:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) < intValue(r, frame)), BOOL);
+            case GT:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) > intValue(r, frame)), BOOL);
+            case LE:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) <= intValue(r, frame)), BOOL);
+            case GE:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) >= intValue(r, frame)), BOOL);
+            case EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) == intValue(r, frame)), BOOL);
+            case NOT_EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(intValue(l, frame) != intValue(r, frame)), BOOL);
+            default:
+                return null;
+        }
+    }
+
+    private static TypedEvaluator floatOperation(BinaryOperator operator, Evaluator l, Evaluator r) {
+        switch (operator) {
+            case ADD:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) + floatValue(r, frame)), FLOAT);
+            case SUB:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) - floatValue(r, frame)), FLOAT);
+            case MUL:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) * floatValue(r, frame)), FLOAT);
+            case DIV:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) / floatValue(r, frame)), FLOAT);
+            case MOD:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) % floatValue(r, frame)), FLOAT);
+            case LT:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) < floatValue(r, frame)), BOOL);
+            case GT:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) > floatValue(r, frame)), BOOL);
+            case LE:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) <= floatValue(r, frame)), BOOL);
+            case GE:
+                return new TypedEvaluator(frame -> new Literal<>(floatValue(l, frame) >= floatValue(r, frame)), BOOL);
+            case EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(Float.floatToIntBits(floatValue(l, frame))
+                    == Float.floatToIntBits(floatValue(r, frame))), BOOL);
+            case NOT_EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(Float.floatToIntBits(floatValue(l, frame))
+                    != Float.floatToIntBits(floatValue(r, frame))), BOOL);
+            default:
+                return null;
+        }
+    }
+
+    private static TypedEvaluator boolOperation(BinaryOperator operator, Evaluator l, Evaluator r) {
+        switch (operator) {
+            case AND:
+                // both operands are evaluated, as the other engines do
+                return new TypedEvaluator(frame -> new Literal<>(boolValue(l, frame) & boolValue(r, frame)), BOOL);
+            case OR:
+                return new TypedEvaluator(frame -> new Literal<>(boolValue(l, frame) | boolValue(r, frame)), BOOL);
+            case EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(boolValue(l, frame) == boolValue(r, frame)), BOOL);
+            case NOT_EQUAL:
+                return new TypedEvaluator(frame -> new Literal<>(boolValue(l, frame) != boolValue(r, frame)), BOOL);
+            default:
+                return null;
+        }
+    }
+}
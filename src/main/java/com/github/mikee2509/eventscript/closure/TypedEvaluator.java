@@ -0,0 +1,17 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.domain.expression.Type;
+
+/**
+ * Compiled expression with the type of its value, or {@code null} when the type is only known at runtime, as for a
+ * global variable.
+ */
+class TypedEvaluator {
+    final Evaluator evaluator;
+    final Type type;
+
+    TypedEvaluator(Evaluator evaluator, Type type) {
+        this.evaluator = evaluator;
+        this.type = type;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.FunctionDeclaration;
+import com.github.mikee2509.eventscript.compiler.ir.Statement;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Executable form of a script: its functions and top-level statements lowered to the intermediate representation.
+ * It holds no reference to the parse tree or the token stream it was compiled from. A script marked as type checked
+ * has passed the {@link TypeChecker} with every type inferred.
+ * <p>
+ * Variables are resolved to slots of a frame when the script is compiled. The top-level frame has
+ * {@code frameSize} slots, the first of them holding the functions. Function bodies read top-level variables as
+ * globals: since the top-level scopes active at the time of the call are visible, each global is listed with every
+ * top-level slot of that name, innermost first, and the first one defined is used.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CompiledScript {
+    private final List<FunctionDeclaration> functions;
+    private final List<Statement> statements;
+    private final int frameSize;
+    private final int[][] globalSlots;
+    private final boolean typeChecked;
+}
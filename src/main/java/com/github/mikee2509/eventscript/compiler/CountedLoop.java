@@ -0,0 +1,62 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A loop of the form {@code for (var i = a; i < b; ++i)}, or with {@code <=}, whose counter is written only by its
+ * update and whose bound is a constant or a variable the loop does not write. An engine can run it with a native
+ * counter, evaluating the bound once; it still has to check that the counter and the bound are ints.
+ * <p>
+ * At the top level, a function called from the loop could write the counter or the bound through their names, so a
+ * loop there is only counted when it calls no functions.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CountedLoop {
+    private final VariableDefinition counter;
+    private final Expression bound;
+    private final boolean inclusive;
+    private final boolean counterRead;
+
+    /**
+     * Returns the counted form of a loop or {@code null} if it has none.
+     */
+    public static CountedLoop match(ForStatement loop, boolean topLevel) {
+        List<Statement> init = loop.getInit();
+        List<Expression> update = loop.getUpdate();
+        if (init.size() != 1 || !(init.get(0) instanceof VariableDefinition) || update.size() != 1
+            || !(loop.getCondition() instanceof Binary)) {
+            return null;
+        }
+        VariableDefinition counter = (VariableDefinition) init.get(0);
+        Binary condition = (Binary) loop.getCondition();
+        if (condition.getOperator() != BinaryOperator.LT && condition.getOperator() != BinaryOperator.LE
+            || !isCounter(condition.getLeft(), counter) || !isIncrement(update.get(0), counter)) {
+            return null;
+        }
+
+        LoopAnalysis analysis = LoopAnalysis.of(condition.getRight(), loop.getBody());
+        Expression bound = condition.getRight();
+        if (topLevel && analysis.calls || analysis.writtenSlots.contains(counter.getSlot())
+            || !(bound instanceof Constant || bound instanceof Variable) || !analysis.isInvariant(bound)) {
+            return null;
+        }
+        return new CountedLoop(counter, bound, condition.getOperator() == BinaryOperator.LE,
+            analysis.readSlots.contains(counter.getSlot()));
+    }
+
+    private static boolean isCounter(Expression expression, VariableDefinition counter) {
+        return expression instanceof Variable && ((Variable) expression).isLocal()
+            && ((Variable) expression).getSlot() == counter.getSlot();
+    }
+
+    private static boolean isIncrement(Expression expression, VariableDefinition counter) {
+        return expression instanceof Unary && ((Unary) expression).getOperator() == UnaryOperator.INCREMENT
+            && isCounter(((Unary) expression).getOperand(), counter);
+    }
+}
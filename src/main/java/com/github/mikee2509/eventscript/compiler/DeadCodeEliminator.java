@@ -0,0 +1,218 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Removes code that can never run. Statements following a {@code return}, {@code break} or {@code continue} in the
+ * same block are dropped, and so are the branches of an {@code if} whose condition is a constant. Conditions made
+ * of constants only, like {@code 1 > 2}, have been folded to one by the {@link ScriptCompiler}; the negation of a
+ * constant, which inlining may leave behind, is folded here.
+ * <p>
+ * Functions are then pruned unless the top-level statements reach them, through calls, functions passed to
+ * {@code OnInterval} or any other use of their names, directly or from the functions they reach. A name resolved
+ * through the globals of a function reaches every function among the top-level slots it may denote. The remaining
+ * functions keep their order, so the top-level slots following a pruned one move down.
+ */
+public class DeadCodeEliminator {
+
+    public CompiledScript eliminate(CompiledScript script) {
+        Pruning pruning = new Pruning();
+        List<Statement> statements = pruning.rewriteStatements(script.getStatements());
+        List<FunctionDeclaration> functions = new ArrayList<>();
+        boolean changed = statements != script.getStatements();
+        for (FunctionDeclaration declaration : script.getFunctions()) {
+            FunctionDeclaration pruned = pruning.rewrite(declaration);
+            functions.add(pruned);
+            changed |= pruned != declaration;
+        }
+
+        BitSet reached = reachable(functions, statements, script.getGlobalSlots());
+        if (reached.cardinality() == functions.size()) {
+            return changed ? new CompiledScript(functions, statements, script.getFrameSize(),
+                script.getGlobalSlots(), script.isTypeChecked()) : script;
+        }
+
+        // the new position of every slot and of the end of the frame
+        int[] slots = new int[script.getFrameSize() + 1];
+        List<FunctionDeclaration> kept = new ArrayList<>();
+        for (int slot = 0, removed = 0; slot < slots.length; slot++) {
+            slots[slot] = slot - removed;
+            if (slot < functions.size()) {
+                if (reached.get(slot)) {
+                    kept.add(functions.get(slot));
+                } else {
+                    removed++;
+                }
+            }
+        }
+        int[][] globalSlots = Arrays.stream(script.getGlobalSlots())
+            .map(global -> Arrays.stream(global)
+                .filter(slot -> slot >= functions.size() || reached.get(slot))
+                .map(slot -> slots[slot])
+                .toArray())
+            .toArray(int[][]::new);
+        return new CompiledScript(kept, new Renumbering(slots).rewriteStatements(statements),
+            slots[script.getFrameSize()], globalSlots, script.isTypeChecked());
+    }
+
+    private static BitSet reachable(List<FunctionDeclaration> functions, List<Statement> statements,
+                                    int[][] globalSlots) {
+        BitSet reached = new BitSet(functions.size());
+        Deque<Integer> pending = new ArrayDeque<>();
+        References topLevel = new References(functions.size(), globalSlots, true, reached, pending);
+        topLevel.rewriteStatements(statements);
+        References functionBody = new References(functions.size(), globalSlots, false, reached, pending);
+        while (!pending.isEmpty()) {
+            functionBody.rewriteStatements(functions.get(pending.pop()).getBody());
+        }
+        return reached;
+    }
+
+    /**
+     * Drops the statements which cannot run.
+     */
+    private static class Pruning extends IrRewriter {
+
+        @Override
+        List<Statement> rewriteStatements(List<Statement> statements) {
+            List<Statement> rewritten = super.rewriteStatements(statements);
+            for (int i = 0; i < rewritten.size() - 1; i++) {
+                Statement statement = rewritten.get(i);
+                if (statement instanceof ReturnStatement || statement instanceof BreakStatement
+                    || statement instanceof ContinueStatement) {
+                    return new ArrayList<>(rewritten.subList(0, i + 1));
+                }
+            }
+            return rewritten;
+        }
+
+        @Override
+        public Node visitIfStatement(IfStatement node) {
+            IfStatement statement = (IfStatement) super.visitIfStatement(node);
+            Boolean condition = constant(statement.getCondition());
+            if (condition == null) {
+                return statement;
+            }
+            return condition ? statement.getThenBranch() : statement.getElseBranch();
+        }
+
+        private static Boolean constant(Expression expression) {
+            if (expression instanceof Negation) {
+                Boolean operand = constant(((Negation) expression).getOperand());
+                return operand == null ? null : !operand;
+            }
+            if (expression instanceof Constant && ((Constant) expression).getValue().isBoolLiteral()) {
+                return (Boolean) ((Constant) expression).getValue().getValue();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Marks the functions named by the code it visits as reached, queueing those reached for the first time.
+     */
+    private static class References extends IrRewriter {
+        private final int functions;
+        private final int[][] globalSlots;
+        private final boolean topLevel;
+        private final BitSet reached;
+        private final Deque<Integer> pending;
+
+        private References(int functions, int[][] globalSlots, boolean topLevel, BitSet reached,
+                           Deque<Integer> pending) {
+            this.functions = functions;
+            this.globalSlots = globalSlots;
+            this.topLevel = topLevel;
+            this.reached = reached;
+            this.pending = pending;
+        }
+
+        private void reference(boolean local, int slot) {
+            if (local) {
+                if (topLevel) {
+                    reach(slot);
+                }
+            } else {
+                Arrays.stream(globalSlots[slot]).forEach(this::reach);
+            }
+        }
+
+        private void reach(int slot) {
+            if (slot < functions && !reached.get(slot)) {
+                reached.set(slot);
+                pending.push(slot);
+            }
+        }
+
+        @Override
+        public Node visitVariable(Variable node) {
+            reference(node.isLocal(), node.getSlot());
+            return node;
+        }
+
+        @Override
+        public Node visitCall(Call node) {
+            reference(node.isLocal(), node.getSlot());
+            return super.visitCall(node);
+        }
+    }
+
+    /**
+     * Moves the slots of the top-level frame to the positions left by the pruned functions.
+     */
+    private static class Renumbering extends IrRewriter {
+        private final int[] slots;
+
+        private Renumbering(int[] slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public Node visitVariable(Variable node) {
+            return node.isLocal() && slots[node.getSlot()] != node.getSlot() ? new Variable(node.getLine(),
+                node.getColumn(), node.getName(), true, slots[node.getSlot()]) : node;
+        }
+
+        @Override
+        public Node visitCall(Call node) {
+            Call call = (Call) super.visitCall(node);
+            return call.isLocal() && slots[call.getSlot()] != call.getSlot() ? new Call(call.getLine(),
+                call.getColumn(), call.getName(), true, slots[call.getSlot()], call.getArguments()) : call;
+        }
+
+        @Override
+        public Node visitVariableDeclaration(VariableDeclaration node) {
+            return slots[node.getSlot()] == node.getSlot() ? node : new VariableDeclaration(node.getLine(),
+                node.getColumn(), node.getName(), slots[node.getSlot()], node.getType());
+        }
+
+        @Override
+        public Node visitVariableDefinition(VariableDefinition node) {
+            VariableDefinition definition = (VariableDefinition) super.visitVariableDefinition(node);
+            return slots[definition.getSlot()] == definition.getSlot() ? definition
+                : new VariableDefinition(definition.getLine(), definition.getColumn(), definition.getName(),
+                slots[definition.getSlot()], definition.getValue());
+        }
+
+        @Override
+        public Node visitBlock(Block node) {
+            Block block = (Block) super.visitBlock(node);
+            return new Block(block.getLine(), block.getColumn(), block.getStatements(), slots[block.getFirstSlot()],
+                slots[block.getEndSlot()]);
+        }
+
+        @Override
+        public Node visitForStatement(ForStatement node) {
+            ForStatement loop = (ForStatement) super.visitForStatement(node);
+            return new ForStatement(loop.getLine(), loop.getColumn(), loop.getInit(), loop.getCondition(),
+                loop.getUpdate(), loop.getBody(), slots[loop.getFirstSlot()], slots[loop.getEndSlot()]);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces calls of small functions with the expression they return. A function is inlined when its body is a single
+ * {@code return} of one value, the expression is at most {@code maxSize} nodes, does not call the function itself and
+ * does not assign its parameters. The parameters are replaced with the arguments, which must be constants or local
+ * variables of the caller, so they are free of side effects and can be evaluated any number of times. When a variable
+ * is passed, the inlined expression may not call functions or assign, since a function called from the top level could
+ * change the variable that the parameter was bound to.
+ * <p>
+ * Names that are not local to the inlined function stay global variables, read from the top-level frame as they are
+ * when the function is called, so the inlined code sees none of the locals of its caller. Only calls resolved to a
+ * function by their slot are inlined, and only in type checked scripts, whose call arguments need no runtime checks.
+ */
+public class Inliner {
+    public static final int DEFAULT_MAX_SIZE = 24;
+
+    private final int maxSize;
+
+    public Inliner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public Inliner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public CompiledScript inline(CompiledScript script) {
+        if (!script.isTypeChecked()) {
+            return script;
+        }
+        List<FunctionDeclaration> functions = script.getFunctions();
+        Expression[] bodies = new Expression[functions.size()];
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = inlinable(script, functions.get(i), i);
+        }
+
+        CallRewriter topLevel = new CallRewriter(script, bodies, true);
+        CallRewriter functionBody = new CallRewriter(script, bodies, false);
+        List<Statement> statements = topLevel.rewriteStatements(script.getStatements());
+        List<FunctionDeclaration> declarations = null;
+        for (int i = 0; i < functions.size(); i++) {
+            FunctionDeclaration declaration = functions.get(i);
+            FunctionDeclaration rewritten = functionBody.rewrite(declaration);
+            if (rewritten != declaration && declarations == null) {
+                declarations = new ArrayList<>(functions);
+            }
+            if (declarations != null) {
+                declarations.set(i, rewritten);
+            }
+        }
+        if (statements == script.getStatements() && declarations == null) {
+            return script;
+        }
+        return new CompiledScript(declarations == null ? functions : declarations, statements,
+            script.getFrameSize(), script.getGlobalSlots(), true);
+    }
+
+    /**
+     * Returns the expression the function returns if its calls can be inlined, {@code null} otherwise.
+     */
+    private Expression inlinable(CompiledScript script, FunctionDeclaration declaration, int slot) {
+        Function function = declaration.getFunction();
+        if (!(function.getReturnType() instanceof Type) || function.getReturnType() == Type.VOID
+            || declaration.getBody().size() != 1 || !(declaration.getBody().get(0) instanceof ReturnStatement)) {
+            return null;
+        }
+        List<Expression> values = ((ReturnStatement) declaration.getBody().get(0)).getValues();
+        if (values.size() != 1) {
+            return null;
+        }
+        Inspector inspector = new Inspector(script, slot);
+        values.get(0).accept(inspector);
+        return inspector.size <= maxSize && !inspector.recursive && !inspector.assigns ? values.get(0) : null;
+    }
+
+    /**
+     * Measures an expression and finds what prevents inlining it.
+     */
+    private static class Inspector extends IrRewriter {
+        private final CompiledScript script;
+        private final int slot;
+        private int size;
+        private boolean recursive;
+        private boolean assigns;
+        private boolean calls;
+
+        private Inspector(CompiledScript script, int slot) {
+            this.script = script;
+            this.slot = slot;
+        }
+
+        @Override
+        Expression rewrite(Expression expression) {
+            if (expression != null) {
+                size++;
+            }
+            return super.rewrite(expression);
+        }
+
+        @Override
+        public Node visitUnary(Unary node) {
+            assigns |= node.getOperator().isUpdating();
+            return super.visitUnary(node);
+        }
+
+        @Override
+        public Node visitAssignment(Assignment node) {
+            assigns = true;
+            return super.visitAssignment(node);
+        }
+
+        @Override
+        public Node visitCall(Call node) {
+            calls = true;
+            // a local call in a function body calls a parameter, a global one may reach the function itself
+            recursive |= node.isLocal()
+                || Arrays.stream(script.getGlobalSlots()[node.getSlot()]).anyMatch(global -> global == slot);
+            return super.visitCall(node);
+        }
+
+        @Override
+        public Node visitBuiltInCall(BuiltInCall node) {
+            calls = true;
+            return super.visitBuiltInCall(node);
+        }
+    }
+
+    /**
+     * Replaces inlinable calls in the top-level statements or in function bodies.
+     */
+    private static class CallRewriter extends IrRewriter {
+        private final CompiledScript script;
+        private final Expression[] bodies;
+        private final boolean topLevel;
+
+        private CallRewriter(CompiledScript script, Expression[] bodies, boolean topLevel) {
+            this.script = script;
+            this.bodies = bodies;
+            this.topLevel = topLevel;
+        }
+
+        @Override
+        public Node visitCall(Call node) {
+            Call call = (Call) super.visitCall(node);
+            int function = resolve(call);
+            if (function < 0 || bodies[function] == null) {
+                return call;
+            }
+            FunctionDeclaration declaration = script.getFunctions().get(function);
+            List<Expression> arguments = call.getArguments();
+            if (arguments.size() != declaration.getFunction().numParams()) {
+                return call;
+            }
+            boolean variables = false;
+            for (Expression argument : arguments) {
+                if (argument instanceof Variable && ((Variable) argument).isLocal()) {
+                    variables = true;
+                } else if (!(argument instanceof Constant)) {
+                    return call;
+                }
+            }
+            if (variables && hasEffects(bodies[function])) {
+                return call;
+            }
+            return bodies[function].accept(new Substitution(arguments));
+        }
+
+        /**
+         * Returns the index of the function a call always reaches, or -1.
+         */
+        private int resolve(Call call) {
+            int functions = script.getFunctions().size();
+            if (call.isLocal()) {
+                return topLevel && call.getSlot() < functions ? call.getSlot() : -1;
+            }
+            int[] slots = script.getGlobalSlots()[call.getSlot()];
+            return slots.length == 1 && slots[0] < functions ? slots[0] : -1;
+        }
+
+        private boolean hasEffects(Expression expression) {
+            Inspector inspector = new Inspector(script, -1);
+            expression.accept(inspector);
+            return inspector.calls || inspector.assigns;
+        }
+    }
+
+    /**
+     * Replaces the parameters of an inlined function with the arguments of the call.
+     */
+    private static class Substitution extends IrRewriter {
+        private final List<Expression> arguments;
+
+        private Substitution(List<Expression> arguments) {
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Node visitVariable(Variable node) {
+            return node.isLocal() ? arguments.get(node.getSlot()) : node;
+        }
+    }
+}
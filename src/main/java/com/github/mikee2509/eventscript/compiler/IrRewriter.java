@@ -0,0 +1,212 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the passes transforming the intermediate representation. Every node is rewritten bottom-up, and a node
+ * whose children are all unchanged is returned as it is, so a pass copies only the paths leading to what it
+ * changes. Statements rewritten to {@code null} are dropped from their list.
+ */
+abstract class IrRewriter implements NodeVisitor<Node> {
+
+    Expression rewrite(Expression expression) {
+        return expression == null ? null : (Expression) expression.accept(this);
+    }
+
+    Statement rewrite(Statement statement) {
+        return (Statement) statement.accept(this);
+    }
+
+    Block rewrite(Block block) {
+        return block == null ? null : (Block) block.accept(this);
+    }
+
+    FunctionDeclaration rewrite(FunctionDeclaration declaration) {
+        List<Statement> body = rewriteStatements(declaration.getBody());
+        return body == declaration.getBody() ? declaration : new FunctionDeclaration(declaration.getLine(),
+            declaration.getColumn(), declaration.getFunction(), body, declaration.getFrameSize());
+    }
+
+    List<Expression> rewriteExpressions(List<Expression> expressions) {
+        List<Expression> result = null;
+        for (int i = 0; i < expressions.size(); i++) {
+            Expression expression = expressions.get(i);
+            Expression rewritten = rewrite(expression);
+            if (rewritten != expression && result == null) {
+                result = new ArrayList<>(expressions.subList(0, i));
+            }
+            if (result != null) {
+                result.add(rewritten);
+            }
+        }
+        return result == null ? expressions : result;
+    }
+
+    List<Statement> rewriteStatements(List<Statement> statements) {
+        List<Statement> result = null;
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            Statement rewritten = rewrite(statement);
+            if (rewritten != statement && result == null) {
+                result = new ArrayList<>(statements.subList(0, i));
+            }
+            if (result != null && rewritten != null) {
+                result.add(rewritten);
+            }
+        }
+        return result == null ? statements : result;
+    }
+
+    @Override
+    public Node visitConstant(Constant node) {
+        return node;
+    }
+
+    @Override
+    public Node visitDatetimeConstructor(DatetimeConstructor node) {
+        List<Expression> arguments = rewriteExpressions(node.getArguments());
+        return arguments == node.getArguments() ? node
+            : new DatetimeConstructor(node.getLine(), node.getColumn(), arguments);
+    }
+
+    @Override
+    public Node visitDurationConstructor(DurationConstructor node) {
+        List<Expression> arguments = rewriteExpressions(node.getArguments());
+        return arguments == node.getArguments() ? node
+            : new DurationConstructor(node.getLine(), node.getColumn(), arguments);
+    }
+
+    @Override
+    public Node visitVariable(Variable node) {
+        return node;
+    }
+
+    @Override
+    public Node visitUnary(Unary node) {
+        Expression operand = rewrite(node.getOperand());
+        return operand == node.getOperand() ? node
+            : new Unary(node.getLine(), node.getColumn(), node.getOperator(), operand);
+    }
+
+    @Override
+    public Node visitNegation(Negation node) {
+        Expression operand = rewrite(node.getOperand());
+        return operand == node.getOperand() ? node : new Negation(node.getLine(), node.getColumn(), operand);
+    }
+
+    @Override
+    public Node visitBinary(Binary node) {
+        Expression left = rewrite(node.getLeft());
+        Expression right = rewrite(node.getRight());
+        return left == node.getLeft() && right == node.getRight() ? node
+            : new Binary(node.getLine(), node.getColumn(), node.getOperator(), left, right);
+    }
+
+    @Override
+    public Node visitAssignment(Assignment node) {
+        Expression target = rewrite(node.getTarget());
+        Expression value = rewrite(node.getValue());
+        return target == node.getTarget() && value == node.getValue() ? node
+            : new Assignment(node.getLine(), node.getColumn(), target, value);
+    }
+
+    @Override
+    public Node visitCall(Call node) {
+        List<Expression> arguments = rewriteExpressions(node.getArguments());
+        return arguments == node.getArguments() ? node : new Call(node.getLine(), node.getColumn(), node.getName(),
+            node.isLocal(), node.getSlot(), arguments);
+    }
+
+    @Override
+    public Node visitBuiltInCall(BuiltInCall node) {
+        List<Expression> arguments = rewriteExpressions(node.getArguments());
+        return arguments == node.getArguments() ? node : new BuiltInCall(node.getLine(), node.getColumn(),
+            node.getFunction(), arguments, node.getArgumentsLine(), node.getArgumentsColumn());
+    }
+
+    @Override
+    public Node visitToStringCall(ToStringCall node) {
+        Expression target = rewrite(node.getTarget());
+        return target == node.getTarget() ? node : new ToStringCall(node.getLine(), node.getColumn(), target);
+    }
+
+    @Override
+    public Node visitTupleExtract(TupleExtract node) {
+        Expression target = rewrite(node.getTarget());
+        return target == node.getTarget() ? node
+            : new TupleExtract(node.getLine(), node.getColumn(), target, node.getIndex());
+    }
+
+    @Override
+    public Node visitVariableDeclaration(VariableDeclaration node) {
+        return node;
+    }
+
+    @Override
+    public Node visitVariableDefinition(VariableDefinition node) {
+        Expression value = rewrite(node.getValue());
+        return value == node.getValue() ? node
+            : new VariableDefinition(node.getLine(), node.getColumn(), node.getName(), node.getSlot(), value);
+    }
+
+    @Override
+    public Node visitRedefinition(Redefinition node) {
+        Statement definition = rewrite(node.getDefinition());
+        return definition == node.getDefinition() ? node
+            : new Redefinition(node.getLine(), node.getColumn(), node.getName(), definition);
+    }
+
+    @Override
+    public Node visitIfStatement(IfStatement node) {
+        Expression condition = rewrite(node.getCondition());
+        Block thenBranch = rewrite(node.getThenBranch());
+        Block elseBranch = rewrite(node.getElseBranch());
+        return condition == node.getCondition() && thenBranch == node.getThenBranch()
+            && elseBranch == node.getElseBranch() ? node
+            : new IfStatement(node.getLine(), node.getColumn(), condition, thenBranch, elseBranch);
+    }
+
+    @Override
+    public Node visitForStatement(ForStatement node) {
+        List<Statement> init = rewriteStatements(node.getInit());
+        Expression condition = rewrite(node.getCondition());
+        List<Expression> update = rewriteExpressions(node.getUpdate());
+        Block body = rewrite(node.getBody());
+        return init == node.getInit() && condition == node.getCondition() && update == node.getUpdate()
+            && body == node.getBody() ? node : new ForStatement(node.getLine(), node.getColumn(), init, condition,
+            update, body, node.getFirstSlot(), node.getEndSlot());
+    }
+
+    @Override
+    public Node visitReturnStatement(ReturnStatement node) {
+        List<Expression> values = rewriteExpressions(node.getValues());
+        return values == node.getValues() ? node : new ReturnStatement(node.getLine(), node.getColumn(), values);
+    }
+
+    @Override
+    public Node visitBreakStatement(BreakStatement node) {
+        return node;
+    }
+
+    @Override
+    public Node visitContinueStatement(ContinueStatement node) {
+        return node;
+    }
+
+    @Override
+    public Node visitExpressionStatement(ExpressionStatement node) {
+        Expression expression = rewrite(node.getExpression());
+        return expression == node.getExpression() ? node
+            : new ExpressionStatement(node.getLine(), node.getColumn(), expression);
+    }
+
+    @Override
+    public Node visitBlock(Block node) {
+        List<Statement> statements = rewriteStatements(node.getStatements());
+        return statements == node.getStatements() ? node : new Block(node.getLine(), node.getColumn(), statements,
+            node.getFirstSlot(), node.getEndSlot());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects the local slots a loop reads and writes and whether it calls script functions, which may change the
+ * top-level variables they see.
+ */
+class LoopAnalysis extends IrRewriter {
+    final Set<Integer> readSlots = new HashSet<>();
+    final Set<Integer> writtenSlots = new HashSet<>();
+    boolean calls;
+
+    static LoopAnalysis of(Node... nodes) {
+        LoopAnalysis analysis = new LoopAnalysis();
+        for (Node node : nodes) {
+            if (node != null) {
+                node.accept(analysis);
+            }
+        }
+        return analysis;
+    }
+
+    /**
+     * Returns whether an expression has the same value in every iteration and can be evaluated before the loop
+     * without failing. Division is excluded for an integer divisor of zero.
+     */
+    boolean isInvariant(Expression expression) {
+        if (expression instanceof Constant) {
+            return true;
+        } else if (expression instanceof Variable) {
+            Variable variable = (Variable) expression;
+            return variable.isLocal() && !writtenSlots.contains(variable.getSlot());
+        } else if (expression instanceof Binary) {
+            Binary binary = (Binary) expression;
+            return binary.getOperator() != BinaryOperator.DIV && binary.getOperator() != BinaryOperator.MOD
+                && isInvariant(binary.getLeft()) && isInvariant(binary.getRight());
+        } else if (expression instanceof Unary) {
+            Unary unary = (Unary) expression;
+            return !unary.getOperator().isUpdating() && isInvariant(unary.getOperand());
+        } else if (expression instanceof Negation) {
+            return isInvariant(((Negation) expression).getOperand());
+        } else if (expression instanceof ToStringCall) {
+            return isInvariant(((ToStringCall) expression).getTarget());
+        }
+        return false;
+    }
+
+    private void write(Expression target) {
+        if (target instanceof Variable && ((Variable) target).isLocal()) {
+            writtenSlots.add(((Variable) target).getSlot());
+        }
+    }
+
+    @Override
+    public Node visitVariable(Variable node) {
+        if (node.isLocal()) {
+            readSlots.add(node.getSlot());
+        }
+        return node;
+    }
+
+    @Override
+    public Node visitUnary(Unary node) {
+        if (node.getOperator().isUpdating()) {
+            write(node.getOperand());
+        }
+        return super.visitUnary(node);
+    }
+
+    @Override
+    public Node visitAssignment(Assignment node) {
+        write(node.getTarget());
+        return super.visitAssignment(node);
+    }
+
+    @Override
+    public Node visitCall(Call node) {
+        calls = true;
+        return super.visitCall(node);
+    }
+
+    @Override
+    public Node visitVariableDeclaration(VariableDeclaration node) {
+        writtenSlots.add(node.getSlot());
+        return node;
+    }
+
+    @Override
+    public Node visitVariableDefinition(VariableDefinition node) {
+        writtenSlots.add(node.getSlot());
+        return super.visitVariableDefinition(node);
+    }
+}
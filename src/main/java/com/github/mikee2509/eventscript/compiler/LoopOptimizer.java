@@ -0,0 +1,103 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hoists loop-invariant computations out of {@code for} loops. An operation whose operands are constants or local
+ * variables the loop does not write is evaluated once into a new slot defined right before the loop, and the loop
+ * reads that slot instead. Operations that can fail, like integer division, are left in place, so a hoisted
+ * computation changes nothing even when the loop body never runs or does not reach it.
+ * <p>
+ * Top-level loops calling functions are left as they are, since the functions could write the variables they read.
+ * At the top level, the loop and its hoisted slots are enclosed in a block which releases these slots. Only type
+ * checked scripts are optimized, where the hoisted operations cannot fail on the types of their operands.
+ */
+public class LoopOptimizer {
+    private static final String HOISTED_NAME = "<invariant>";
+
+    public CompiledScript optimize(CompiledScript script) {
+        if (!script.isTypeChecked()) {
+            return script;
+        }
+        Hoister topLevel = new Hoister(script.getFrameSize(), true);
+        List<Statement> statements = topLevel.rewriteStatements(script.getStatements());
+        List<FunctionDeclaration> functions = new ArrayList<>();
+        boolean changed = statements != script.getStatements();
+        for (FunctionDeclaration declaration : script.getFunctions()) {
+            Hoister hoister = new Hoister(declaration.getFrameSize(), false);
+            List<Statement> body = hoister.rewriteStatements(declaration.getBody());
+            if (body == declaration.getBody()) {
+                functions.add(declaration);
+            } else {
+                functions.add(new FunctionDeclaration(declaration.getLine(), declaration.getColumn(),
+                    declaration.getFunction(), body, hoister.frameSize));
+                changed = true;
+            }
+        }
+        return changed ? new CompiledScript(functions, statements, topLevel.frameSize, script.getGlobalSlots(), true)
+            : script;
+    }
+
+    /**
+     * Hoists from the loops of one frame, allocating slots past its end.
+     */
+    private static class Hoister extends IrRewriter {
+        private final boolean topLevel;
+        private int frameSize;
+
+        private Hoister(int frameSize, boolean topLevel) {
+            this.frameSize = frameSize;
+            this.topLevel = topLevel;
+        }
+
+        @Override
+        public Node visitForStatement(ForStatement node) {
+            // inner loops first, what they hoisted is then defined in the body of this one
+            ForStatement loop = (ForStatement) super.visitForStatement(node);
+            LoopAnalysis analysis = LoopAnalysis.of(loop);
+            if (topLevel && analysis.calls) {
+                return loop;
+            }
+            int firstSlot = frameSize;
+            Extraction extraction = new Extraction(analysis);
+            Expression condition = extraction.rewrite(loop.getCondition());
+            List<Expression> update = extraction.rewriteExpressions(loop.getUpdate());
+            Block body = extraction.rewrite(loop.getBody());
+            if (extraction.definitions.isEmpty()) {
+                return loop;
+            }
+            List<Statement> statements = new ArrayList<>(extraction.definitions);
+            statements.add(new ForStatement(loop.getLine(), loop.getColumn(), loop.getInit(), condition, update, body,
+                loop.getFirstSlot(), loop.getEndSlot()));
+            return new Block(loop.getLine(), loop.getColumn(), statements, firstSlot, frameSize);
+        }
+
+        /**
+         * Replaces the largest invariant operations of a loop with reads of the slots they are hoisted to.
+         */
+        private class Extraction extends IrRewriter {
+            private final LoopAnalysis analysis;
+            private final List<Statement> definitions = new ArrayList<>();
+
+            private Extraction(LoopAnalysis analysis) {
+                this.analysis = analysis;
+            }
+
+            @Override
+            Expression rewrite(Expression expression) {
+                if (expression == null || expression instanceof Constant || expression instanceof Variable
+                    || !analysis.isInvariant(expression)) {
+                    return super.rewrite(expression);
+                }
+                int slot = frameSize++;
+                int line = expression.getLine();
+                int column = expression.getColumn();
+                definitions.add(new VariableDefinition(line, column, HOISTED_NAME, slot, expression));
+                return new Variable(line, column, HOISTED_NAME, true, slot);
+            }
+        }
+    }
+}
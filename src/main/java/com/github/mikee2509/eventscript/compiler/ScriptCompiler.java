@@ -0,0 +1,575 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.EventScriptParserBaseVisitor;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.ParserException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+import com.github.mikee2509.eventscript.parser.util.StringLiterals;
+import com.github.mikee2509.eventscript.parser.visitor.TypeVisitor;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Lowers a parse tree into a {@link CompiledScript}. A tree with syntax errors is rejected rather than lowered as
+ * ANTLR recovered it, since what recovery made of the script is not what was written. Function signatures are
+ * resolved and checked here, the same way {@code ScriptVisitor} does before running any statement.
+ * <p>
+ * The result references no parser objects, so the tree and its token stream can be collected once the script is
+ * compiled. Identifiers are shared within the script and lists are sized to their contents, since many compiled
+ * scripts are kept resident at once. Operators and built-in functions are resolved to their IR enums here.
+ * <p>
+ * Literals are decoded once into a pool shared by the whole script. Operations, {@code toString} and the
+ * {@code datetime(...)} and {@code duration(...)} constructors whose operands are all constants are folded through
+ * the {@link Operations} the engines run them with, so they have the same result as at runtime; {@code datetime()}
+ * is left alone, as is anything that fails, which keeps its error for when it is reached.
+ * <p>
+ * Variables are resolved to frame slots. A name that is not defined in an enclosing scope is resolved to the
+ * top-level slots of that name, none if there are none, and a redefinition is lowered to a {@link Redefinition}, so
+ * that both fail when they are reached, as they do in {@code ScriptVisitor}. Top-level statements are lowered before
+ * function bodies, which need to know every top-level slot a global may be stored in. Functions defined again
+ * under the same name are dropped, since the first definition is the one that is called.
+ */
+public class ScriptCompiler {
+    private final TypeVisitor typeVisitor = new TypeVisitor();
+    private final StatementLowering statementLowering = new StatementLowering();
+    private final ExpressionLowering expressionLowering = new ExpressionLowering();
+    private final Operations operations = new Operations(new LiteralArithmetic());
+    private final Map<String, String> names = new HashMap<>();
+    private final Map<Object, Literal> constants = new HashMap<>();
+    private final Map<String, Integer> globals = new LinkedHashMap<>();
+    private Frame topLevel;
+    private Frame frame;
+
+    public CompiledScript compile(EventScriptParser.ScriptContext ctx) {
+        validate(ctx);
+        try {
+            List<EventScriptParser.FunctionContext> functionCtxs = new ArrayList<>();
+            List<Function> signatures = new ArrayList<>();
+            for (EventScriptParser.FunctionContext functionCtx : ctx.function()) {
+                Function function = signature(functionCtx);
+                if (signatures.stream().noneMatch(defined -> defined.getName().equals(function.getName()))) {
+                    functionCtxs.add(functionCtx);
+                    signatures.add(function);
+                }
+            }
+
+            frame = topLevel = new Frame();
+            signatures.forEach(function -> topLevel.define(function.getName()));
+            List<Statement> statements = statements(ctx.statement());
+
+            List<FunctionDeclaration> functions = new ArrayList<>();
+            for (int i = 0; i < signatures.size(); i++) {
+                functions.add(function(functionCtxs.get(i), signatures.get(i)));
+            }
+            int[][] globalSlots = globals.keySet().stream()
+                .map(topLevel::slotsOf)
+                .toArray(int[][]::new);
+            return new CompiledScript(compact(functions), statements, topLevel.size(), globalSlots, false);
+        } finally {
+            names.clear();
+            constants.clear();
+            globals.clear();
+            topLevel = frame = null;
+        }
+    }
+
+    private void validate(ParseTree tree) {
+        if (tree instanceof ErrorNode) {
+            throw syntaxError(((ErrorNode) tree).getSymbol());
+        }
+        if (tree instanceof ParserRuleContext) {
+            ParserRuleContext ctx = (ParserRuleContext) tree;
+            if (ctx.exception != null) {
+                Token offendingToken = ctx.exception.getOffendingToken();
+                throw syntaxError(offendingToken != null ? offendingToken : ctx.start);
+            }
+            for (int i = 0; i < ctx.getChildCount(); i++) {
+                validate(ctx.getChild(i));
+            }
+        }
+    }
+
+    private static ParserException syntaxError(Token token) {
+        return new ParserException(token, "Syntax error at '" + token.getText() + "'");
+    }
+
+    private Function signature(EventScriptParser.FunctionContext ctx) {
+        return Function.builder()
+            .name(name(ctx.IDENTIFIER()))
+            .parameters(parameters(ctx.parameterList()))
+            .returnType(returnType(ctx.returnType()))
+            .build();
+    }
+
+    private FunctionDeclaration function(EventScriptParser.FunctionContext ctx, Function function) {
+        frame = new Frame();
+        function.getParameters().forEach(parameter -> frame.define(parameter.getName()));
+        List<Statement> body = statements(ctx.block().statement());
+        return new FunctionDeclaration(line(ctx), column(ctx), function, body, frame.size());
+    }
+
+    private List<Function.Parameter> parameters(EventScriptParser.ParameterListContext ctx) {
+        if (ctx == null) {
+            return Collections.emptyList();
+        }
+        List<Function.Parameter> params = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (EventScriptParser.ParameterContext parameterCtx : ctx.parameter()) {
+            Type type = parameterCtx.type().accept(typeVisitor);
+            if (type == Type.VOID) throw FunctionException.voidParameter(parameterCtx.start);
+            String name = name(parameterCtx.IDENTIFIER());
+            if (names.add(name)) {
+                params.add(Function.Parameter.builder().name(name).type(type).build());
+            }
+        }
+        if (params.size() < ctx.parameter().size()) {
+            throw FunctionException.duplicateParameterNames(ctx.start);
+        }
+        return compact(params);
+    }
+
+    private Returnable returnType(EventScriptParser.ReturnTypeContext ctx) {
+        if (ctx == null) {
+            return Type.VOID;
+        }
+        if (ctx.type().size() == 1) {
+            return ctx.type(0).accept(typeVisitor);
+        }
+        Type[] types = ctx.type().stream()
+            .map(typeCtx -> typeCtx.accept(typeVisitor))
+            .toArray(Type[]::new);
+        return Tuple.builder()
+            .types(types)
+            .build();
+    }
+
+    private List<Statement> statements(List<EventScriptParser.StatementContext> statements) {
+        return compact(statements.stream()
+            .map(statementCtx -> statementCtx.accept(statementLowering))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+    }
+
+    private Block block(EventScriptParser.BlockOrStatementContext ctx) {
+        frame.enterScope();
+        int firstSlot = frame.size();
+        List<Statement> statements = ctx.block() != null ? statements(ctx.block().statement())
+            : statements(Collections.singletonList(ctx.statement()));
+        frame.exitScope();
+        return new Block(line(ctx), column(ctx), statements, firstSlot, frame.size());
+    }
+
+    /**
+     * Lowers the definition of a variable in the current scope, given the slot it is stored in. A name the scope
+     * already defines gets a slot no name resolves to, the definition failing as a {@link Redefinition}.
+     */
+    private Statement define(String name, ParserRuleContext ctx, IntFunction<Statement> definition) {
+        Integer slot = frame.define(name);
+        if (slot == null) {
+            return new Redefinition(line(ctx), column(ctx), name, definition.apply(frame.reserve()));
+        }
+        return definition.apply(slot);
+    }
+
+    /**
+     * Returns the index of a global, a name that is not defined in a scope enclosing the reference. It is looked up
+     * in the top-level slots of that name, so a name defined in none of them fails when it is referenced.
+     */
+    private int global(String name) {
+        return globals.computeIfAbsent(name, global -> globals.size());
+    }
+
+    private Expression expression(EventScriptParser.ExpressionContext ctx) {
+        return ctx.accept(expressionLowering);
+    }
+
+    private List<Expression> expressions(EventScriptParser.ExpressionListContext ctx) {
+        if (ctx == null) {
+            return Collections.emptyList();
+        }
+        return compact(ctx.expression().stream()
+            .map(this::expression)
+            .collect(Collectors.toList()));
+    }
+
+    private List<Expression> arguments(EventScriptParser.ParExpressionListContext ctx) {
+        return expressions(ctx.expressionList());
+    }
+
+    private Literal constant(Object value) {
+        return constants.computeIfAbsent(value, Literal::new);
+    }
+
+    private Expression fold(Expression expression, List<Expression> operands) {
+        Literal[] values = new Literal[operands.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!(operands.get(i) instanceof Constant)) return expression;
+            values[i] = ((Constant) operands.get(i)).getValue();
+        }
+        Literal value;
+        try {
+            value = evaluate(expression, values);
+        } catch (RuntimeException e) {
+            return expression;
+        }
+        return new Constant(expression.getLine(), expression.getColumn(), constant(value.getValue()));
+    }
+
+    /**
+     * Evaluates a foldable expression for the values of its operands.
+     */
+    private Literal evaluate(Expression expression, Literal[] values) {
+        int line = expression.getLine();
+        int column = expression.getColumn();
+        if (expression instanceof Unary) {
+            return operations.unary(((Unary) expression).getOperator(), values[0], line, column);
+        } else if (expression instanceof Negation) {
+            return operations.negation(values[0], line, column);
+        } else if (expression instanceof Binary) {
+            return operations.binary(((Binary) expression).getOperator(), values[0], values[1], line, column);
+        } else if (expression instanceof ToStringCall) {
+            return operations.toString(values[0], line, column);
+        } else if (expression instanceof DatetimeConstructor) {
+            return Literals.datetime(Operations.arguments(values), expression.position());
+        } else {
+            return Literals.duration(Operations.arguments(values), expression.position());
+        }
+    }
+
+    private String name(TerminalNode identifier) {
+        return names.computeIfAbsent(identifier.getText(), name -> name);
+    }
+
+    private static <T> List<T> compact(List<T> list) {
+        switch (list.size()) {
+            case 0:
+                return Collections.emptyList();
+            case 1:
+                return Collections.singletonList(list.get(0));
+            default:
+                return Collections.unmodifiableList(new ArrayList<>(list));
+        }
+    }
+
+    private static int line(ParserRuleContext ctx) {
+        return ctx.start.getLine();
+    }
+
+    private static int column(ParserRuleContext ctx) {
+        return ctx.start.getCharPositionInLine();
+    }
+
+    /**
+     * Slots of the top level or of one function body. Every definition gets a slot of its own, so the variables of
+     * a block occupy the slots allocated while it is lowered.
+     */
+    private static class Frame {
+        private final Deque<Map<String, Integer>> scopes = new ArrayDeque<>();
+        private final List<Integer> depths = new ArrayList<>();
+        private final Map<String, List<Integer>> slots = new HashMap<>();
+
+        private Frame() {
+            scopes.push(new HashMap<>());
+        }
+
+        private int size() {
+            return depths.size();
+        }
+
+        private void enterScope() {
+            scopes.push(new HashMap<>());
+        }
+
+        private void exitScope() {
+            scopes.pop();
+        }
+
+        /**
+         * Returns the slot of a new variable, or {@code null} if the name is already defined in the current scope.
+         */
+        private Integer define(String name) {
+            Map<String, Integer> scope = scopes.peek();
+            if (scope.containsKey(name)) {
+                return null;
+            }
+            int slot = size();
+            scope.put(name, slot);
+            depths.add(scopes.size());
+            slots.computeIfAbsent(name, key -> new ArrayList<>()).add(slot);
+            return slot;
+        }
+
+        /**
+         * Returns a new slot no name resolves to.
+         */
+        private int reserve() {
+            depths.add(scopes.size());
+            return size() - 1;
+        }
+
+        private Integer resolve(String name) {
+            for (Map<String, Integer> scope : scopes) {
+                Integer slot = scope.get(name);
+                if (slot != null) return slot;
+            }
+            return null;
+        }
+
+        /**
+         * Returns every slot of the given name, innermost first. Only one slot of a given depth can be live at once.
+         */
+        private int[] slotsOf(String name) {
+            return slots.getOrDefault(name, Collections.emptyList()).stream()
+                .sorted(Comparator.comparing((Integer slot) -> depths.get(slot)).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+    }
+
+    private class StatementLowering extends EventScriptParserBaseVisitor<Statement> {
+        @Override
+        public Statement visitVarDeclarationStmt(EventScriptParser.VarDeclarationStmtContext ctx) {
+            EventScriptParser.VariableDeclarationContext declaration = ctx.variableDeclaration();
+            String name = name(declaration.IDENTIFIER());
+            Type type = declaration.type().accept(typeVisitor);
+            return define(name, declaration,
+                slot -> new VariableDeclaration(line(declaration), column(declaration), name, slot, type));
+        }
+
+        @Override
+        public Statement visitVarDefinitionStmt(EventScriptParser.VarDefinitionStmtContext ctx) {
+            return variableDefinition(ctx.variableDefinition());
+        }
+
+        private Statement variableDefinition(EventScriptParser.VariableDefinitionContext ctx) {
+            // the value is lowered first, it may refer to a variable of the same name in an enclosing scope
+            Expression value = expression(ctx.expression());
+            String name = name(ctx.IDENTIFIER());
+            return define(name, ctx, slot -> new VariableDefinition(line(ctx), column(ctx), name, slot, value));
+        }
+
+        @Override
+        public Statement visitIfStmt(EventScriptParser.IfStmtContext ctx) {
+            Expression condition = expression(ctx.expression());
+            Block thenBranch = block(ctx.blockOrStatement(0));
+            Block elseBranch = ctx.ELSE() != null ? block(ctx.blockOrStatement(1)) : null;
+            return new IfStatement(line(ctx), column(ctx), condition, thenBranch, elseBranch);
+        }
+
+        @Override
+        public Statement visitForStmt(EventScriptParser.ForStmtContext ctx) {
+            frame.enterScope();
+            int firstSlot = frame.size();
+            List<Statement> init = new ArrayList<>();
+            if (ctx.forInit() != null) {
+                if (ctx.forInit().variableDefinition() != null) {
+                    init.add(variableDefinition(ctx.forInit().variableDefinition()));
+                } else {
+                    for (EventScriptParser.ExpressionContext initCtx : ctx.forInit().expressionList().expression()) {
+                        init.add(new ExpressionStatement(line(initCtx), column(initCtx), expression(initCtx)));
+                    }
+                }
+            }
+            Expression condition = ctx.expression() != null ? expression(ctx.expression()) : null;
+            List<Expression> update = expressions(ctx.forUpdate);
+            Block body = block(ctx.blockOrStatement());
+            frame.exitScope();
+            return new ForStatement(line(ctx), column(ctx), compact(init), condition, update, body, firstSlot,
+                frame.size());
+        }
+
+        @Override
+        public Statement visitReturnStmt(EventScriptParser.ReturnStmtContext ctx) {
+            return new ReturnStatement(line(ctx), column(ctx), expressions(ctx.expressionList()));
+        }
+
+        @Override
+        public Statement visitBreakStmt(EventScriptParser.BreakStmtContext ctx) {
+            return new BreakStatement(line(ctx), column(ctx));
+        }
+
+        @Override
+        public Statement visitContinueStmt(EventScriptParser.ContinueStmtContext ctx) {
+            return new ContinueStatement(line(ctx), column(ctx));
+        }
+
+        @Override
+        public Statement visitNoOpStmt(EventScriptParser.NoOpStmtContext ctx) {
+            return null;
+        }
+
+        @Override
+        public Statement visitExpressionStmt(EventScriptParser.ExpressionStmtContext ctx) {
+            return new ExpressionStatement(line(ctx), column(ctx), expression(ctx.statementExpression));
+        }
+    }
+
+    private class ExpressionLowering extends EventScriptParserBaseVisitor<Expression> {
+        @Override
+        public Expression visitLiteralExp(EventScriptParser.LiteralExpContext ctx) {
+            return ctx.literal().accept(this);
+        }
+
+        @Override
+        public Expression visitDecimalLiteral(EventScriptParser.DecimalLiteralContext ctx) {
+            return new Constant(line(ctx), column(ctx), constant(Integer.valueOf(ctx.getText())));
+        }
+
+        @Override
+        public Expression visitFloatLiteral(EventScriptParser.FloatLiteralContext ctx) {
+            return new Constant(line(ctx), column(ctx), constant(Float.valueOf(ctx.getText())));
+        }
+
+        @Override
+        public Expression visitStringLiteral(EventScriptParser.StringLiteralContext ctx) {
+            return new Constant(line(ctx), column(ctx), constant(StringLiterals.unescape(ctx.getText())));
+        }
+
+        @Override
+        public Expression visitBoolLiteral(EventScriptParser.BoolLiteralContext ctx) {
+            return new Constant(line(ctx), column(ctx), constant(ctx.getText().equals("true")));
+        }
+
+        @Override
+        public Expression visitDatetimeLiteral(EventScriptParser.DatetimeLiteralContext ctx) {
+            List<Expression> arguments = arguments(ctx.parExpressionList());
+            DatetimeConstructor datetime = new DatetimeConstructor(line(ctx), column(ctx), arguments);
+            // datetime() is the current time
+            return arguments.isEmpty() ? datetime : fold(datetime, arguments);
+        }
+
+        @Override
+        public Expression visitDurationLiteral(EventScriptParser.DurationLiteralContext ctx) {
+            List<Expression> arguments = arguments(ctx.parExpressionList());
+            return fold(new DurationConstructor(line(ctx), column(ctx), arguments), arguments);
+        }
+
+        @Override
+        public Expression visitIdentifierExp(EventScriptParser.IdentifierExpContext ctx) {
+            String name = name(ctx.IDENTIFIER());
+            Integer slot = frame.resolve(name);
+            if (slot != null) {
+                return new Variable(line(ctx), column(ctx), name, true, slot);
+            }
+            return new Variable(line(ctx), column(ctx), name, false, global(name));
+        }
+
+        @Override
+        public Expression visitLiteralFuncExp(EventScriptParser.LiteralFuncExpContext ctx) {
+            EventScriptParser.LiteralFunctionContext function = ctx.literalFunctionCall().literalFunction();
+            Expression target = expression(ctx.expression());
+            if (function instanceof EventScriptParser.TupleExtractFuncContext) {
+                String extract = ((EventScriptParser.TupleExtractFuncContext) function).TUPLE_EXTRACT().getText();
+                return new TupleExtract(line(function), column(function), target,
+                    Integer.parseInt(extract.substring(1)));
+            }
+            return fold(new ToStringCall(line(function), column(function), target),
+                Collections.singletonList(target));
+        }
+
+        @Override
+        public Expression visitFunctionExp(EventScriptParser.FunctionExpContext ctx) {
+            EventScriptParser.FunctionCallContext call = ctx.functionCall();
+            String name = name(call.IDENTIFIER());
+            Integer slot = frame.resolve(name);
+            if (slot != null) {
+                return new Call(line(call), column(call), name, true, slot, arguments(call.parExpressionList()));
+            }
+            return new Call(line(call), column(call), name, false, global(name), arguments(call.parExpressionList()));
+        }
+
+        @Override
+        public Expression visitBuiltInFuncExp(EventScriptParser.BuiltInFuncExpContext ctx) {
+            EventScriptParser.BuiltInFunctionCallContext call = ctx.builtInFunctionCall();
+            EventScriptParser.ParExpressionListContext arguments = call.parExpressionList();
+            return new BuiltInCall(line(call), column(call),
+                BuiltInFunction.fromTokenType(call.builtInFunction().start.getType()),
+                arguments(arguments), line(arguments), column(arguments));
+        }
+
+        @Override
+        public Expression visitUnaryExp(EventScriptParser.UnaryExpContext ctx) {
+            Expression operand = expression(ctx.expression());
+            return fold(new Unary(line(ctx), column(ctx), UnaryOperator.fromTokenType(ctx.prefix.getType()), operand),
+                Collections.singletonList(operand));
+        }
+
+        @Override
+        public Expression visitNegationExp(EventScriptParser.NegationExpContext ctx) {
+            Expression operand = expression(ctx.expression());
+            return fold(new Negation(line(ctx), column(ctx), operand), Collections.singletonList(operand));
+        }
+
+        @Override
+        public Expression visitMultiplicativeExp(EventScriptParser.MultiplicativeExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        @Override
+        public Expression visitAdditiveExp(EventScriptParser.AdditiveExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        @Override
+        public Expression visitRelationalExp(EventScriptParser.RelationalExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        @Override
+        public Expression visitEqualityExp(EventScriptParser.EqualityExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        @Override
+        public Expression visitLogicalAndExp(EventScriptParser.LogicalAndExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        @Override
+        public Expression visitLogicalOrExp(EventScriptParser.LogicalOrExpContext ctx) {
+            return binary(ctx, ctx.bop, ctx.expression(0), ctx.expression(1));
+        }
+
+        private Expression binary(ParserRuleContext ctx, Token operator, EventScriptParser.ExpressionContext left,
+                                  EventScriptParser.ExpressionContext right) {
+            Expression leftOperand = expression(left);
+            Expression rightOperand = expression(right);
+            return fold(new Binary(line(ctx), column(ctx), BinaryOperator.fromTokenType(operator.getType()),
+                leftOperand, rightOperand), Arrays.asList(leftOperand, rightOperand));
+        }
+
+        @Override
+        public Expression visitAssignmentExp(EventScriptParser.AssignmentExpContext ctx) {
+            return new Assignment(line(ctx), column(ctx), expression(ctx.expression(0)),
+                expression(ctx.expression(1)));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.mikee2509.eventscript.compiler;
+
+/**
+ * Layout of a compiled script image. All numbers are big-endian.
+ * <pre>
+ * header   magic:int version:short flags:short payloadLength:int payloadCrc32:int
+ * payload  constantCount:varint constant*  frameSize:varint  globalCount:varint global*
+ *          functionCount:varint function*  statementCount:varint statement*
+ * global   slotCount:varint slot:varint*
+ * </pre>
+ * A constant is a tag byte followed by its value; strings are UTF-8 with a varint length, durations are seconds as a
+ * long and nanoseconds as an int and datetimes are UTC epoch seconds as a long and nanoseconds as an int.
+ * Identifiers are stored as string constants and referenced by index. A node is a tag byte, its line and column as
+ * varints and then its fields in declaration order, booleans as a single byte. The only flag marks a type checked
+ * script. Increase {@link #VERSION} on every change of the layout.
+ */
+final class ScriptImageFormat {
+    static final int MAGIC = 0x45534349;
+    static final short VERSION = 4;
+    static final int HEADER_SIZE = 16;
+
+    static final short NO_FLAGS = 0;
+    static final short FLAG_TYPE_CHECKED = 1;
+
+    static final byte CONSTANT_BOOL = 1;
+    static final byte CONSTANT_INT = 2;
+    static final byte CONSTANT_FLOAT = 3;
+    static final byte CONSTANT_STRING = 4;
+    static final byte CONSTANT_DURATION = 5;
+    static final byte CONSTANT_DATETIME = 6;
+
+    static final byte RETURN_TYPE = 1;
+    static final byte RETURN_TUPLE = 2;
+
+    static final byte NONE = 0;
+    static final byte CONSTANT = 1;
+    static final byte DATETIME_CONSTRUCTOR = 2;
+    static final byte DURATION_CONSTRUCTOR = 3;
+    static final byte VARIABLE = 4;
+    static final byte UNARY = 5;
+    static final byte NEGATION = 6;
+    static final byte BINARY = 7;
+    static final byte ASSIGNMENT = 8;
+    static final byte CALL = 9;
+    static final byte BUILT_IN_CALL = 10;
+    static final byte TO_STRING_CALL = 11;
+    static final byte TUPLE_EXTRACT = 12;
+    static final byte VARIABLE_DECLARATION = 13;
+    static final byte VARIABLE_DEFINITION = 14;
+    static final byte IF_STATEMENT = 15;
+    static final byte FOR_STATEMENT = 16;
+    static final byte RETURN_STATEMENT = 17;
+    static final byte BREAK_STATEMENT = 18;
+    static final byte CONTINUE_STATEMENT = 19;
+    static final byte EXPRESSION_STATEMENT = 20;
+    static final byte BLOCK = 21;
+    static final byte FUNCTION_DECLARATION = 22;
+    static final byte REDEFINITION = 23;
+
+    private ScriptImageFormat() {
+    }
+}
@@ -0,0 +1,299 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.github.mikee2509.eventscript.compiler.ScriptImageFormat.*;
+
+/**
+ * Loads a binary image written by {@link ScriptImageWriter}. Files are memory-mapped and decoded in place, so
+ * loading a script never runs the lexer or the parser.
+ */
+public class ScriptImageReader {
+
+    public CompiledScript fromPath(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Compiled script " + path + " is too large to be loaded");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public CompiledScript read(byte[] image) throws IOException {
+        return read(ByteBuffer.wrap(image));
+    }
+
+    public CompiledScript read(ByteBuffer image) throws IOException {
+        ByteBuffer buffer = image.slice();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a compiled script");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled script version " + version + ", expected " + VERSION);
+        }
+        short flags = buffer.getShort();
+        int payloadLength = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (payloadLength != buffer.remaining()) {
+            throw new IOException("Compiled script is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Compiled script checksum mismatch");
+        }
+
+        try {
+            Decoder decoder = new Decoder(buffer);
+            int frameSize = decoder.readVarInt();
+            int[][] globalSlots = decoder.readGlobalSlots();
+            List<FunctionDeclaration> functions = decoder.readFunctions();
+            List<Statement> statements = decoder.readStatements();
+            if (buffer.hasRemaining()) {
+                throw new IOException("Unexpected data after compiled script");
+            }
+            return new CompiledScript(functions, statements, frameSize, globalSlots,
+                (flags & FLAG_TYPE_CHECKED) != 0);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new IOException("Compiled script is corrupted", e);
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private final Object[] constants;
+        private final Literal[] literals;
+
+        private Decoder(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            this.constants = new Object[readVarInt()];
+            this.literals = new Literal[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                constants[i] = readConstantValue();
+            }
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+        }
+
+        private Object readConstantValue() throws IOException {
+            byte tag = buffer.get();
+            switch (tag) {
+                case CONSTANT_BOOL:
+                    return buffer.get() != 0;
+                case CONSTANT_INT:
+                    return buffer.getInt();
+                case CONSTANT_FLOAT:
+                    return buffer.getFloat();
+                case CONSTANT_STRING:
+                    byte[] bytes = new byte[readVarInt()];
+                    buffer.get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                case CONSTANT_DURATION:
+                    return Duration.ofSeconds(buffer.getLong(), buffer.getInt());
+                case CONSTANT_DATETIME:
+                    return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                default:
+                    throw new IOException("Unknown constant tag " + tag);
+            }
+        }
+
+        private Object readConstant() {
+            return constants[readVarInt()];
+        }
+
+        /**
+         * Returns the literal of a constant, shared by every node using it like in the compiled script.
+         */
+        private Literal readLiteral() {
+            int index = readVarInt();
+            if (literals[index] == null) {
+                literals[index] = new Literal<>(constants[index]);
+            }
+            return literals[index];
+        }
+
+        private String readName() {
+            return (String) readConstant();
+        }
+
+        private Type readType() {
+            return Type.values()[buffer.get()];
+        }
+
+        private boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        private int[][] readGlobalSlots() {
+            int[][] globalSlots = new int[readVarInt()][];
+            for (int i = 0; i < globalSlots.length; i++) {
+                globalSlots[i] = new int[readVarInt()];
+                for (int j = 0; j < globalSlots[i].length; j++) {
+                    globalSlots[i][j] = readVarInt();
+                }
+            }
+            return globalSlots;
+        }
+
+        private List<FunctionDeclaration> readFunctions() throws IOException {
+            int count = readVarInt();
+            List<FunctionDeclaration> functions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                functions.add(readFunctionDeclaration());
+            }
+            return Collections.unmodifiableList(functions);
+        }
+
+        private FunctionDeclaration readFunctionDeclaration() throws IOException {
+            if (buffer.get() != FUNCTION_DECLARATION) {
+                throw new IOException("Missing FunctionDeclaration in compiled script");
+            }
+            return new FunctionDeclaration(readVarInt(), readVarInt(), readFunction(), readStatements(), readVarInt());
+        }
+
+        private List<Statement> readStatements() throws IOException {
+            int count = readVarInt();
+            List<Statement> statements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                statements.add(readNode(Statement.class));
+            }
+            return Collections.unmodifiableList(statements);
+        }
+
+        private List<Expression> readExpressions() throws IOException {
+            int count = readVarInt();
+            List<Expression> expressions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                expressions.add(readNode(Expression.class));
+            }
+            return Collections.unmodifiableList(expressions);
+        }
+
+        private <T extends Node> T readNode(Class<T> nodeClass) throws IOException {
+            T node = readOptional(nodeClass);
+            if (node == null) {
+                throw new IOException("Missing " + nodeClass.getSimpleName() + " in compiled script");
+            }
+            return node;
+        }
+
+        private <T extends Node> T readOptional(Class<T> nodeClass) throws IOException {
+            byte tag = buffer.get();
+            if (tag == NONE) {
+                return null;
+            }
+            int line = readVarInt();
+            int column = readVarInt();
+            return nodeClass.cast(readNode(tag, line, column));
+        }
+
+        private Node readNode(byte tag, int line, int column) throws IOException {
+            switch (tag) {
+                case CONSTANT:
+                    return new Constant(line, column, readLiteral());
+                case DATETIME_CONSTRUCTOR:
+                    return new DatetimeConstructor(line, column, readExpressions());
+                case DURATION_CONSTRUCTOR:
+                    return new DurationConstructor(line, column, readExpressions());
+                case VARIABLE:
+                    return new Variable(line, column, readName(), readBoolean(), readVarInt());
+                case UNARY:
+                    return new Unary(line, column, UnaryOperator.values()[readVarInt()], readNode(Expression.class));
+                case NEGATION:
+                    return new Negation(line, column, readNode(Expression.class));
+                case BINARY:
+                    return new Binary(line, column, BinaryOperator.values()[readVarInt()], readNode(Expression.class),
+                        readNode(Expression.class));
+                case ASSIGNMENT:
+                    return new Assignment(line, column, readNode(Expression.class), readNode(Expression.class));
+                case CALL:
+                    return new Call(line, column, readName(), readBoolean(), readVarInt(), readExpressions());
+                case BUILT_IN_CALL:
+                    return new BuiltInCall(line, column, BuiltInFunction.values()[readVarInt()], readExpressions(),
+                        readVarInt(), readVarInt());
+                case TO_STRING_CALL:
+                    return new ToStringCall(line, column, readNode(Expression.class));
+                case TUPLE_EXTRACT:
+                    return new TupleExtract(line, column, readNode(Expression.class), readVarInt());
+                case VARIABLE_DECLARATION:
+                    return new VariableDeclaration(line, column, readName(), readVarInt(), readType());
+                case VARIABLE_DEFINITION:
+                    return new VariableDefinition(line, column, readName(), readVarInt(),
+                        readNode(Expression.class));
+                case REDEFINITION:
+                    return new Redefinition(line, column, readName(), readNode(Statement.class));
+                case IF_STATEMENT:
+                    return new IfStatement(line, column, readNode(Expression.class), readNode(Block.class),
+                        readOptional(Block.class));
+                case FOR_STATEMENT:
+                    return new ForStatement(line, column, readStatements(), readOptional(Expression.class),
+                        readExpressions(), readNode(Block.class), readVarInt(), readVarInt());
+                case RETURN_STATEMENT:
+                    return new ReturnStatement(line, column, readExpressions());
+                case BREAK_STATEMENT:
+                    return new BreakStatement(line, column);
+                case CONTINUE_STATEMENT:
+                    return new ContinueStatement(line, column);
+                case EXPRESSION_STATEMENT:
+                    return new ExpressionStatement(line, column, readNode(Expression.class));
+                case BLOCK:
+                    return new Block(line, column, readStatements(), readVarInt(), readVarInt());
+                default:
+                    throw new IOException("Unknown node tag " + tag);
+            }
+        }
+
+        private Function readFunction() {
+            String name = readName();
+            int numParams = readVarInt();
+            List<Function.Parameter> parameters = new ArrayList<>(numParams);
+            for (int i = 0; i < numParams; i++) {
+                parameters.add(Function.Parameter.builder().name(readName()).type(readType()).build());
+            }
+            Returnable returnType;
+            if (buffer.get() == RETURN_TYPE) {
+                returnType = readType();
+            } else {
+                Type[] types = new Type[readVarInt()];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = readType();
+                }
+                returnType = Tuple.builder().types(types).build();
+            }
+            return Function.builder()
+                .name(name)
+                .parameters(parameters)
+                .returnType(returnType)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static com.github.mikee2509.eventscript.compiler.ScriptImageFormat.*;
+
+/**
+ * Serializes a {@link CompiledScript} into the binary image read by {@link ScriptImageReader}.
+ */
+public class ScriptImageWriter {
+
+    public byte[] write(CompiledScript script) {
+        Encoder encoder = new Encoder();
+        encoder.writeFrame(script.getFrameSize(), script.getGlobalSlots());
+        encoder.writeFunctions(script.getFunctions());
+        encoder.writeStatements(script.getStatements());
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        encoder.writeConstants(payload);
+        byte[] body = encoder.body.toByteArray();
+        payload.write(body, 0, body.length);
+        byte[] payloadBytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payloadBytes);
+
+        return ByteBuffer.allocate(HEADER_SIZE + payloadBytes.length)
+            .putInt(MAGIC)
+            .putShort(VERSION)
+            .putShort(script.isTypeChecked() ? FLAG_TYPE_CHECKED : NO_FLAGS)
+            .putInt(payloadBytes.length)
+            .putInt((int) crc.getValue())
+            .put(payloadBytes)
+            .array();
+    }
+
+    public void write(CompiledScript script, Path path) throws IOException {
+        Files.write(path, write(script));
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        writeInt(out, (int) (value >>> 32));
+        writeInt(out, (int) value);
+    }
+
+    private static class Encoder implements NodeVisitor<Void> {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final Map<Object, Integer> constants = new LinkedHashMap<>();
+
+        private void writeConstants(ByteArrayOutputStream out) {
+            writeVarInt(out, constants.size());
+            for (Object constant : constants.keySet()) {
+                if (constant instanceof Boolean) {
+                    out.write(CONSTANT_BOOL);
+                    out.write((Boolean) constant ? 1 : 0);
+                } else if (constant instanceof Integer) {
+                    out.write(CONSTANT_INT);
+                    writeInt(out, (Integer) constant);
+                } else if (constant instanceof Float) {
+                    out.write(CONSTANT_FLOAT);
+                    writeInt(out, Float.floatToRawIntBits((Float) constant));
+                } else if (constant instanceof Duration) {
+                    out.write(CONSTANT_DURATION);
+                    writeLong(out, ((Duration) constant).getSeconds());
+                    writeInt(out, ((Duration) constant).getNano());
+                } else if (constant instanceof LocalDateTime) {
+                    out.write(CONSTANT_DATETIME);
+                    writeLong(out, ((LocalDateTime) constant).toEpochSecond(ZoneOffset.UTC));
+                    writeInt(out, ((LocalDateTime) constant).getNano());
+                } else {
+                    byte[] bytes = ((String) constant).getBytes(StandardCharsets.UTF_8);
+                    out.write(CONSTANT_STRING);
+                    writeVarInt(out, bytes.length);
+                    out.write(bytes, 0, bytes.length);
+                }
+            }
+        }
+
+        private void writeConstant(Object value) {
+            Integer index = constants.get(value);
+            if (index == null) {
+                index = constants.size();
+                constants.put(value, index);
+            }
+            writeVarInt(body, index);
+        }
+
+        private void writeType(Type type) {
+            body.write(type.ordinal());
+        }
+
+        private void writeNode(byte tag, Node node) {
+            writeNode(tag, node.getLine(), node.getColumn());
+        }
+
+        private void writeNode(byte tag, int line, int column) {
+            body.write(tag);
+            writeVarInt(body, line);
+            writeVarInt(body, column);
+        }
+
+        private void writeFrame(int frameSize, int[][] globalSlots) {
+            writeVarInt(body, frameSize);
+            writeVarInt(body, globalSlots.length);
+            for (int[] slots : globalSlots) {
+                writeVarInt(body, slots.length);
+                for (int slot : slots) {
+                    writeVarInt(body, slot);
+                }
+            }
+        }
+
+        private void writeSlot(boolean local, int slot) {
+            body.write(local ? 1 : 0);
+            writeVarInt(body, slot);
+        }
+
+        private void writeFunctions(List<FunctionDeclaration> functions) {
+            writeVarInt(body, functions.size());
+            functions.forEach(this::writeFunction);
+        }
+
+        private void writeFunction(FunctionDeclaration declaration) {
+            Function function = declaration.getFunction();
+            writeNode(FUNCTION_DECLARATION, declaration.getLine(), declaration.getColumn());
+            writeConstant(function.getName());
+            writeVarInt(body, function.numParams());
+            for (Function.Parameter parameter : function.getParameters()) {
+                writeConstant(parameter.getName());
+                writeType(parameter.getType());
+            }
+            Returnable returnType = function.getReturnType();
+            if (returnType instanceof Type) {
+                body.write(RETURN_TYPE);
+                writeType((Type) returnType);
+            } else {
+                Type[] types = ((Tuple) returnType).types();
+                body.write(RETURN_TUPLE);
+                writeVarInt(body, types.length);
+                for (Type type : types) {
+                    writeType(type);
+                }
+            }
+            writeStatements(declaration.getBody());
+            writeVarInt(body, declaration.getFrameSize());
+        }
+
+        private void writeStatements(List<Statement> statements) {
+            writeVarInt(body, statements.size());
+            statements.forEach(statement -> statement.accept(this));
+        }
+
+        private void writeExpressions(List<Expression> expressions) {
+            writeVarInt(body, expressions.size());
+            expressions.forEach(expression -> expression.accept(this));
+        }
+
+        private void writeOptional(Node node) {
+            if (node == null) {
+                body.write(NONE);
+            } else {
+                node.accept(this);
+            }
+        }
+
+        @Override
+        public Void visitConstant(Constant node) {
+            writeNode(CONSTANT, node);
+            writeConstant(node.getValue().getValue());
+            return null;
+        }
+
+        @Override
+        public Void visitDatetimeConstructor(DatetimeConstructor node) {
+            writeNode(DATETIME_CONSTRUCTOR, node);
+            writeExpressions(node.getArguments());
+            return null;
+        }
+
+        @Override
+        public Void visitDurationConstructor(DurationConstructor node) {
+            writeNode(DURATION_CONSTRUCTOR, node);
+            writeExpressions(node.getArguments());
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(Variable node) {
+            writeNode(VARIABLE, node);
+            writeConstant(node.getName());
+            writeSlot(node.isLocal(), node.getSlot());
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(Unary node) {
+            writeNode(UNARY, node);
+            writeVarInt(body, node.getOperator().ordinal());
+            node.getOperand().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitNegation(Negation node) {
+            writeNode(NEGATION, node);
+            node.getOperand().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitBinary(Binary node) {
+            writeNode(BINARY, node);
+            writeVarInt(body, node.getOperator().ordinal());
+            node.getLeft().accept(this);
+            node.getRight().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(Assignment node) {
+            writeNode(ASSIGNMENT, node);
+            node.getTarget().accept(this);
+            node.getValue().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitCall(Call node) {
+            writeNode(CALL, node);
+            writeConstant(node.getName());
+            writeSlot(node.isLocal(), node.getSlot());
+            writeExpressions(node.getArguments());
+            return null;
+        }
+
+        @Override
+        public Void visitBuiltInCall(BuiltInCall node) {
+            writeNode(BUILT_IN_CALL, node);
+            writeVarInt(body, node.getFunction().ordinal());
+            writeExpressions(node.getArguments());
+            writeVarInt(body, node.getArgumentsLine());
+            writeVarInt(body, node.getArgumentsColumn());
+            return null;
+        }
+
+        @Override
+        public Void visitToStringCall(ToStringCall node) {
+            writeNode(TO_STRING_CALL, node);
+            node.getTarget().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitTupleExtract(TupleExtract node) {
+            writeNode(TUPLE_EXTRACT, node);
+            node.getTarget().accept(this);
+            writeVarInt(body, node.getIndex());
+            return null;
+        }
+
+        @Override
+        public Void visitVariableDeclaration(VariableDeclaration node) {
+            writeNode(VARIABLE_DECLARATION, node);
+            writeConstant(node.getName());
+            writeVarInt(body, node.getSlot());
+            writeType(node.getType());
+            return null;
+        }
+
+        @Override
+        public Void visitVariableDefinition(VariableDefinition node) {
+            writeNode(VARIABLE_DEFINITION, node);
+            writeConstant(node.getName());
+            writeVarInt(body, node.getSlot());
+            node.getValue().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitRedefinition(Redefinition node) {
+            writeNode(REDEFINITION, node);
+            writeConstant(node.getName());
+            node.getDefinition().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitIfStatement(IfStatement node) {
+            writeNode(IF_STATEMENT, node);
+            node.getCondition().accept(this);
+            node.getThenBranch().accept(this);
+            writeOptional(node.getElseBranch());
+            return null;
+        }
+
+        @Override
+        public Void visitForStatement(ForStatement node) {
+            writeNode(FOR_STATEMENT, node);
+            writeStatements(node.getInit());
+            writeOptional(node.getCondition());
+            writeExpressions(node.getUpdate());
+            node.getBody().accept(this);
+            writeVarInt(body, node.getFirstSlot());
+            writeVarInt(body, node.getEndSlot());
+            return null;
+        }
+
+        @Override
+        public Void visitReturnStatement(ReturnStatement node) {
+            writeNode(RETURN_STATEMENT, node);
+            writeExpressions(node.getValues());
+            return null;
+        }
+
+        @Override
+        public Void visitBreakStatement(BreakStatement node) {
+            writeNode(BREAK_STATEMENT, node);
+            return null;
+        }
+
+        @Override
+        public Void visitContinueStatement(ContinueStatement node) {
+            writeNode(CONTINUE_STATEMENT, node);
+            return null;
+        }
+
+        @Override
+        public Void visitExpressionStatement(ExpressionStatement node) {
+            writeNode(EXPRESSION_STATEMENT, node);
+            node.getExpression().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitBlock(Block node) {
+            writeNode(BLOCK, node);
+            writeStatements(node.getStatements());
+            writeVarInt(body, node.getFirstSlot());
+            writeVarInt(body, node.getEndSlot());
+            return null;
+        }
+    }
+}
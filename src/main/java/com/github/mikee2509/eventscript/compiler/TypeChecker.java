@@ -0,0 +1,498 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.LiteralException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static com.github.mikee2509.eventscript.domain.exception.Operation.*;
+import static com.github.mikee2509.eventscript.domain.expression.Type.*;
+
+/**
+ * Infers the type of every expression of a compiled script and reports the errors the {@code Interpreter} would
+ * only raise when the offending code runs, including code of functions that are only ever scheduled. An expression
+ * has a {@link Type}, a {@link Tuple} of types, {@link Type#TUPLE} for a tuple of unknown shape or {@code null}
+ * when its type cannot be inferred.
+ * <p>
+ * A function called from the top level sees the variables of its caller, so a name that is not local to a function
+ * has the type of the top-level variable of that name, or no known type when top-level variables of that name
+ * differ. The checked script is marked as type checked, which lets the interpreter skip its own checks, only when
+ * no type was unknown.
+ */
+public class TypeChecker implements NodeVisitor<Returnable> {
+    private static final Type[] SPEAKABLE_TYPES = {BOOL, FLOAT, INT, STRING};
+    private static final Type[] STRINGABLE_TYPES = {BOOL, DATETIME, DURATION, FLOAT, INT, STRING};
+    private static final Type[] SCHEDULE_PARAM_TYPES = {VOID, DURATION, DURATION};
+
+    @AllArgsConstructor
+    private static class Symbol {
+        private static final Symbol UNKNOWN = new Symbol(null, null);
+
+        private final Returnable type;
+        private final Function function;
+
+        private Returnable valueType() {
+            return function != null ? VOID : type;
+        }
+
+        private boolean sameAs(Symbol other) {
+            return function == other.function && Objects.equals(type, other.type);
+        }
+    }
+
+    private final Map<String, Symbol> globals = new HashMap<>();
+    private final Deque<Map<String, Symbol>> scopes = new ArrayDeque<>();
+    private Function function;
+    private int loopDepth;
+    private boolean returnSeen;
+    private boolean complete;
+
+    public CompiledScript check(CompiledScript script) {
+        globals.clear();
+        scopes.clear();
+        function = null;
+        complete = true;
+
+        Map<String, Symbol> rootScope = new HashMap<>();
+        for (FunctionDeclaration declaration : script.getFunctions()) {
+            Symbol symbol = new Symbol(null, declaration.getFunction());
+            rootScope.putIfAbsent(declaration.getFunction().getName(), symbol);
+            globals.putIfAbsent(declaration.getFunction().getName(), symbol);
+        }
+        scopes.push(rootScope);
+        loopDepth = 0;
+        check(script.getStatements());
+        scopes.clear();
+
+        for (FunctionDeclaration declaration : script.getFunctions()) {
+            checkFunction(declaration);
+        }
+        return new CompiledScript(script.getFunctions(), script.getStatements(), script.getFrameSize(),
+            script.getGlobalSlots(), complete);
+    }
+
+    private void checkFunction(FunctionDeclaration declaration) {
+        function = declaration.getFunction();
+        loopDepth = 0;
+        returnSeen = false;
+
+        Map<String, Symbol> parameters = new HashMap<>();
+        for (Function.Parameter parameter : function.getParameters()) {
+            parameters.put(parameter.getName(), new Symbol(parameter.getType(), null));
+        }
+        scopes.push(parameters);
+        check(declaration.getBody());
+        scopes.pop();
+
+        if (!returnSeen && function.getReturnType() != VOID) {
+            throw FunctionException.missingReturnStatement(declaration.position());
+        }
+        function = null;
+    }
+
+    private void check(List<Statement> statements) {
+        for (Statement statement : statements) {
+            statement.accept(this);
+        }
+    }
+
+    private Returnable infer(Expression expression) {
+        return expression.accept(this);
+    }
+
+    /**
+     * Returns the type of the literal an expression of the given type evaluates to.
+     */
+    private Type literalType(Returnable type) {
+        if (type == null) {
+            complete = false;
+            return null;
+        }
+        return type instanceof Tuple ? TUPLE : (Type) type;
+    }
+
+    /**
+     * Returns the literal types of the arguments of a call, or {@code null} when any of them is unknown.
+     */
+    private Type[] argumentTypes(List<Expression> arguments) {
+        Type[] types = arguments.stream()
+            .map(this::infer)
+            .map(this::literalType)
+            .toArray(Type[]::new);
+        return Stream.of(types).anyMatch(Objects::isNull) ? null : types;
+    }
+
+    private Symbol lookup(String identifier) {
+        for (Map<String, Symbol> scope : scopes) {
+            Symbol symbol = scope.get(identifier);
+            if (symbol != null) return symbol;
+        }
+        return function != null ? globals.get(identifier) : null;
+    }
+
+    private void define(Node position, String identifier, Returnable type) {
+        Map<String, Symbol> scope = scopes.peek();
+        if (scope.containsKey(identifier)) {
+            throw ScopeException.alreadyDefined(position.position(), identifier);
+        }
+        Symbol symbol = new Symbol(type, null);
+        scope.put(identifier, symbol);
+        if (function == null) {
+            globals.merge(identifier, symbol, (defined, other) -> defined.sameAs(other) ? defined : Symbol.UNKNOWN);
+        }
+    }
+
+    /**
+     * Records an assignment that changed the static type of a variable, which is only known from here on.
+     */
+    private void redefine(String identifier, Returnable type) {
+        complete = false;
+        for (Map<String, Symbol> scope : scopes) {
+            if (scope.containsKey(identifier)) {
+                scope.put(identifier, new Symbol(type, null));
+                if (function != null) return;
+                break;
+            }
+        }
+        globals.put(identifier, Symbol.UNKNOWN);
+    }
+
+    @Override
+    public Returnable visitVariableDeclaration(VariableDeclaration node) {
+        switch (node.getType()) {
+            case BOOL:
+            case DATETIME:
+            case DURATION:
+            case FLOAT:
+            case INT:
+            case STRING:
+                define(node, node.getName(), node.getType());
+                return null;
+            default:
+                throw ScopeException.cannotBeDefined(node.position(), node.getType());
+        }
+    }
+
+    @Override
+    public Returnable visitVariableDefinition(VariableDefinition node) {
+        Returnable value = infer(node.getValue());
+        if (value == VOID) {
+            throw ScopeException.cannotBeDefined(node.position(), VOID);
+        }
+        define(node, node.getName(), value);
+        return null;
+    }
+
+    @Override
+    public Returnable visitRedefinition(Redefinition node) {
+        // the name is defined in the current scope, so the definition is reported
+        return node.getDefinition().accept(this);
+    }
+
+    @Override
+    public Returnable visitIfStatement(IfStatement node) {
+        Type condition = literalType(infer(node.getCondition()));
+        if (condition != null && condition != BOOL) {
+            throw OperationException.differentTypeExpected(node.position(), BOOL);
+        }
+        node.getThenBranch().accept(this);
+        if (node.getElseBranch() != null) {
+            node.getElseBranch().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Returnable visitBlock(Block node) {
+        scopes.push(new HashMap<>());
+        check(node.getStatements());
+        scopes.pop();
+        return null;
+    }
+
+    @Override
+    public Returnable visitForStatement(ForStatement node) {
+        scopes.push(new HashMap<>());
+        loopDepth++;
+        check(node.getInit());
+        // a condition that is not a bool ends the loop, it is not an error
+        if (node.getCondition() != null) {
+            infer(node.getCondition());
+        }
+        node.getBody().accept(this);
+        node.getUpdate().forEach(this::infer);
+        loopDepth--;
+        scopes.pop();
+        return null;
+    }
+
+    @Override
+    public Returnable visitReturnStatement(ReturnStatement node) {
+        if (function == null) {
+            throw ControlFlowException.returnWrongContext(node.position());
+        }
+        returnSeen = true;
+        Type[] types = argumentTypes(node.getValues());
+        if (types != null) {
+            function.checkReturnTypes(types, node.position());
+        }
+        return null;
+    }
+
+    @Override
+    public Returnable visitBreakStatement(BreakStatement node) {
+        if (loopDepth == 0) {
+            throw ControlFlowException.breakWrongContext(node.position());
+        }
+        return null;
+    }
+
+    @Override
+    public Returnable visitContinueStatement(ContinueStatement node) {
+        if (loopDepth == 0) {
+            throw ControlFlowException.continueWrongContext(node.position());
+        }
+        return null;
+    }
+
+    @Override
+    public Returnable visitExpressionStatement(ExpressionStatement node) {
+        infer(node.getExpression());
+        return null;
+    }
+
+    @Override
+    public Returnable visitConstant(Constant node) {
+        return node.getValue().getLiteralType();
+    }
+
+    @Override
+    public Returnable visitDatetimeConstructor(DatetimeConstructor node) {
+        Type[] types = argumentTypes(node.getArguments());
+        if (types != null && types.length != 0
+            && (types.length < 5 || types.length > 6 || Stream.of(types).anyMatch(type -> type != INT))) {
+            throw LiteralException.wrongDatetimeParameters(node.position());
+        }
+        return DATETIME;
+    }
+
+    @Override
+    public Returnable visitDurationConstructor(DurationConstructor node) {
+        Type[] types = argumentTypes(node.getArguments());
+        if (types != null && (types.length > 4 || Stream.of(types).anyMatch(type -> type != INT))) {
+            throw LiteralException.wrongDurationParameters(node.position());
+        }
+        return DURATION;
+    }
+
+    @Override
+    public Returnable visitVariable(Variable node) {
+        Symbol symbol = lookup(node.getName());
+        if (symbol == null) {
+            throw ScopeException.undefinedVariable(node.position(), node.getName());
+        }
+        return symbol.valueType();
+    }
+
+    @Override
+    public Returnable visitUnary(Unary node) {
+        Type operand = literalType(infer(node.getOperand()));
+        if (operand == null || operand == INT || operand == FLOAT) {
+            return operand;
+        }
+        throw new OperationException(node.position(), operand, UNARY);
+    }
+
+    @Override
+    public Returnable visitNegation(Negation node) {
+        Type operand = literalType(infer(node.getOperand()));
+        if (operand == null || operand == BOOL) {
+            return BOOL;
+        }
+        throw new OperationException(node.position(), operand, NEGATION);
+    }
+
+    @Override
+    public Returnable visitBinary(Binary node) {
+        Type left = literalType(infer(node.getLeft()));
+        Type right = literalType(infer(node.getRight()));
+        BinaryOperator.Kind kind = node.getOperator().getKind();
+        if (left == null || right == null) {
+            return kind == BinaryOperator.Kind.ADDITIVE || kind == BinaryOperator.Kind.MULTIPLICATIVE ? null : BOOL;
+        }
+        switch (kind) {
+            case ADDITIVE:
+                return additive(node, left, right);
+            case MULTIPLICATIVE:
+                return multiplicative(node, left, right);
+            case RELATIONAL:
+                return relational(node, left, right);
+            case EQUALITY:
+                return BOOL;
+            default:
+                if (left != BOOL || right != BOOL) {
+                    throw OperationException.bothOperandsMustBeBool(node.position());
+                }
+                return BOOL;
+        }
+    }
+
+    private Type additive(Binary node, Type left, Type right) {
+        boolean add = node.getOperator() == BinaryOperator.ADD;
+        if (left == STRING || right == STRING) {
+            if (add) return STRING;
+        } else if (left == DATETIME && right == DURATION || left == DURATION && right == DATETIME && add) {
+            return DATETIME;
+        } else if (left == DURATION && right == DURATION) {
+            return DURATION;
+        } else if (numeric(left) && numeric(right)) {
+            return left == INT && right == INT ? INT : FLOAT;
+        }
+        throw new OperationException(node.position(), left, right, ADDITIVE);
+    }
+
+    private Type multiplicative(Binary node, Type left, Type right) {
+        if (numeric(left) && numeric(right)) {
+            return left == INT && right == INT ? INT : FLOAT;
+        }
+        throw new OperationException(node.position(), left, right, MULTIPLICATIVE);
+    }
+
+    private Type relational(Binary node, Type left, Type right) {
+        if (left == DATETIME && right == DATETIME || left == DURATION && right == DURATION
+            || numeric(left) && numeric(right)) {
+            return BOOL;
+        }
+        throw new OperationException(node.position(), left, right, RELATIONAL);
+    }
+
+    private static boolean numeric(Type type) {
+        return type == INT || type == FLOAT;
+    }
+
+    @Override
+    public Returnable visitAssignment(Assignment node) {
+        if (!(node.getTarget() instanceof Variable)) {
+            throw OperationException.variableExpected(node.position());
+        }
+        String identifier = ((Variable) node.getTarget()).getName();
+        Type current = literalType(visitVariable((Variable) node.getTarget()));
+        Returnable value = infer(node.getValue());
+        Type valueType = literalType(value);
+        if (current == null || valueType == null) {
+            return value;
+        }
+        if (current != valueType) {
+            throw OperationException.differentTypeExpected(node.position(), current);
+        }
+        Symbol symbol = lookup(identifier);
+        if (symbol.function != null || !value.equals(symbol.type)) {
+            redefine(identifier, value instanceof Tuple ? TUPLE : value);
+        }
+        return value;
+    }
+
+    @Override
+    public Returnable visitCall(Call node) {
+        Symbol symbol = lookup(node.getName());
+        if (symbol == null || symbol != Symbol.UNKNOWN && symbol.function == null) {
+            throw FunctionException.cannotResolve(node.position(), node.getName());
+        }
+        Type[] types = argumentTypes(node.getArguments());
+        if (symbol == Symbol.UNKNOWN) {
+            complete = false;
+            return null;
+        }
+        if (types != null && !symbol.function.checkTypes(types)) {
+            throw FunctionException.argumentException(node.position(), symbol.function);
+        }
+        return symbol.function.getReturnType();
+    }
+
+    @Override
+    public Returnable visitBuiltInCall(BuiltInCall node) {
+        switch (node.getFunction()) {
+            case SPEAK:
+                Type[] types = argumentTypes(node.getArguments());
+                if (types != null && (types.length != 1 || !Arrays.asList(SPEAKABLE_TYPES).contains(types[0]))) {
+                    throw FunctionException.argumentException(node.position(), node.getName(), STRING);
+                }
+                return VOID;
+            case ON_INTERVAL:
+                Type[] scheduleTypes = argumentTypes(node.getArguments());
+                checkScheduledFunction(node);
+                if (scheduleTypes != null && !Arrays.equals(scheduleTypes, SCHEDULE_PARAM_TYPES)) {
+                    throw FunctionException.argumentException(node.position(), node.getName(), SCHEDULE_PARAM_TYPES);
+                }
+                return VOID;
+            default:
+                throw FunctionException.unimplementedFunction(node.position(), node.getName());
+        }
+    }
+
+    /**
+     * Checks that the first argument naming a function names a schedulable one.
+     */
+    private void checkScheduledFunction(BuiltInCall node) {
+        for (Expression argument : node.getArguments()) {
+            if (argument instanceof Variable) {
+                Symbol symbol = lookup(((Variable) argument).getName());
+                if (symbol == Symbol.UNKNOWN) {
+                    complete = false;
+                    return;
+                }
+                if (symbol != null && symbol.function != null) {
+                    if (!symbol.function.isSchedulable()) break;
+                    return;
+                }
+            }
+        }
+        throw FunctionException.cannotSchedule(node.argumentsPosition());
+    }
+
+    @Override
+    public Returnable visitToStringCall(ToStringCall node) {
+        Type target = literalType(infer(node.getTarget()));
+        if (target != null && !Arrays.asList(STRINGABLE_TYPES).contains(target)) {
+            throw FunctionException.toStringException(node.position(), STRINGABLE_TYPES);
+        }
+        return STRING;
+    }
+
+    @Override
+    public Returnable visitTupleExtract(TupleExtract node) {
+        Returnable target = infer(node.getTarget());
+        Type targetType = literalType(target);
+        if (targetType == null) {
+            return null;
+        }
+        if (targetType != TUPLE) {
+            throw OperationException.differentTypeExpected(node.position(), TUPLE);
+        }
+        if (!(target instanceof Tuple)) {
+            complete = false;
+            return null;
+        }
+        Tuple tuple = (Tuple) target;
+        if (tuple.size() < node.getIndex()) {
+            throw OperationException.tupleExtractException(node.position(), tuple.size());
+        }
+        return tuple.types()[node.getIndex() - 1];
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Assignment extends Expression {
+    private final Expression target;
+    private final Expression value;
+
+    public Assignment(int line, int column, Expression target, Expression value) {
+        super(line, column);
+        this.target = target;
+        this.value = value;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitAssignment(this);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Arithmetic, relational, equality and logical operations.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Binary extends Expression {
+    private final BinaryOperator operator;
+    private final Expression left;
+    private final Expression right;
+
+    public Binary(int line, int column, BinaryOperator operator, Expression left, Expression right) {
+        super(line, column);
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitBinary(this);
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Binary operators resolved from their {@code EventScriptLexer} token types when a script is compiled. The kind
+ * selects the operand checks, the token type is what {@code LiteralArithmetic} expects.
+ */
+@Getter
+@AllArgsConstructor
+public enum BinaryOperator {
+    ADD(Kind.ADDITIVE, EventScriptLexer.ADD),
+    SUB(Kind.ADDITIVE, EventScriptLexer.SUB),
+    MUL(Kind.MULTIPLICATIVE, EventScriptLexer.MUL),
+    DIV(Kind.MULTIPLICATIVE, EventScriptLexer.DIV),
+    MOD(Kind.MULTIPLICATIVE, EventScriptLexer.MOD),
+    LT(Kind.RELATIONAL, EventScriptLexer.LT),
+    GT(Kind.RELATIONAL, EventScriptLexer.GT),
+    LE(Kind.RELATIONAL, EventScriptLexer.LE),
+    GE(Kind.RELATIONAL, EventScriptLexer.GE),
+    EQUAL(Kind.EQUALITY, EventScriptLexer.EQUAL),
+    NOT_EQUAL(Kind.EQUALITY, EventScriptLexer.NOTEQUAL),
+    AND(Kind.LOGICAL, EventScriptLexer.AND),
+    OR(Kind.LOGICAL, EventScriptLexer.OR);
+
+    public enum Kind {
+        ADDITIVE, MULTIPLICATIVE, RELATIONAL, EQUALITY, LOGICAL
+    }
+
+    private final Kind kind;
+    private final int tokenType;
+
+    public static BinaryOperator fromTokenType(int tokenType) {
+        for (BinaryOperator operator : values()) {
+            if (operator.tokenType == tokenType) return operator;
+        }
+        throw new IllegalArgumentException("Not a binary operator: " +
+            EventScriptLexer.VOCABULARY.getDisplayName(tokenType));
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Statements executed in their own subscope, lowered from {@code blockOrStatement}. The variables defined in the
+ * block, nested blocks included, occupy the frame slots from {@code firstSlot} up to {@code endSlot} exclusive.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Block extends Statement {
+    private final List<Statement> statements;
+    private final int firstSlot;
+    private final int endSlot;
+
+    public Block(int line, int column, List<Statement> statements, int firstSlot, int endSlot) {
+        super(line, column);
+        this.statements = statements;
+        this.firstSlot = firstSlot;
+        this.endSlot = endSlot;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitBlock(this);
+    }
+}
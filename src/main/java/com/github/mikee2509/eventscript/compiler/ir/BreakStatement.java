@@ -0,0 +1,15 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+public class BreakStatement extends Statement {
+    public BreakStatement(int line, int column) {
+        super(line, column);
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitBreakStatement(this);
+    }
+}
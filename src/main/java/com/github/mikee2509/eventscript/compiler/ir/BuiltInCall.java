@@ -0,0 +1,42 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.antlr.v4.runtime.Token;
+
+import java.util.List;
+
+/**
+ * Call of a built-in function. The position of the opening parenthesis is kept because scheduling errors are
+ * reported there.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class BuiltInCall extends Expression {
+    private final BuiltInFunction function;
+    private final List<Expression> arguments;
+    private final int argumentsLine;
+    private final int argumentsColumn;
+
+    public BuiltInCall(int line, int column, BuiltInFunction function, List<Expression> arguments, int argumentsLine,
+                       int argumentsColumn) {
+        super(line, column);
+        this.function = function;
+        this.arguments = arguments;
+        this.argumentsLine = argumentsLine;
+        this.argumentsColumn = argumentsColumn;
+    }
+
+    public String getName() {
+        return function.getName();
+    }
+
+    public Token argumentsPosition() {
+        return position(argumentsLine, argumentsColumn);
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitBuiltInCall(this);
+    }
+}
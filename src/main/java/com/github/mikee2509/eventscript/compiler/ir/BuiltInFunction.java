@@ -0,0 +1,51 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import lombok.Getter;
+
+/**
+ * Built-in functions resolved from the {@code EventScriptLexer} token type of their keyword when a script is
+ * compiled.
+ */
+@Getter
+public enum BuiltInFunction {
+    RING(EventScriptLexer.RING),
+    SPEAK(EventScriptLexer.SPEAK),
+    VIBRATE(EventScriptLexer.VIBRATE),
+    NOTIFY(EventScriptLexer.NOTIFY),
+    CALL(EventScriptLexer.CALL),
+    LAUNCH(EventScriptLexer.LAUNCH),
+    ADD_TO_CALENDAR(EventScriptLexer.ADD_TO_CALENDAR),
+    SET_RINGER_VOLUME(EventScriptLexer.SET_RINGER_VOLUME),
+    SET_MEDIA_VOLUME(EventScriptLexer.SET_MEDIA_VOLUME),
+    SET_ALARM_CLOCK(EventScriptLexer.SET_ALARM_CLOCK),
+    SET_WIFI(EventScriptLexer.SET_WIFI),
+    SET_FLASHLIGHT(EventScriptLexer.SET_FLASHLIGHT),
+    SET_BRIGHTNESS(EventScriptLexer.SET_BRIGHTNESS),
+    ON_INTERVAL(EventScriptLexer.ON_INTERVAL),
+    ON_TIME(EventScriptLexer.ON_TIME),
+    ON_LOCATION(EventScriptLexer.ON_LOCATION),
+    ON_MESSAGE(EventScriptLexer.ON_MESSAGE),
+    ON_WIFI_ENABLED(EventScriptLexer.ON_WIFI_ENABLED),
+    ON_WIFI_DISABLED(EventScriptLexer.ON_WIFI_DISABLED);
+
+    private final int tokenType;
+    /**
+     * The keyword as written in scripts.
+     */
+    private final String name;
+
+    BuiltInFunction(int tokenType) {
+        String literalName = EventScriptLexer.VOCABULARY.getLiteralName(tokenType);
+        this.tokenType = tokenType;
+        this.name = literalName.substring(1, literalName.length() - 1);
+    }
+
+    public static BuiltInFunction fromTokenType(int tokenType) {
+        for (BuiltInFunction function : values()) {
+            if (function.tokenType == tokenType) return function;
+        }
+        throw new IllegalArgumentException("Not a built-in function: " +
+            EventScriptLexer.VOCABULARY.getDisplayName(tokenType));
+    }
+}
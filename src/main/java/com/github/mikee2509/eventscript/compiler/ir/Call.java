@@ -0,0 +1,31 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The called function is looked up the same way as a {@link Variable}.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Call extends Expression {
+    private final String name;
+    private final boolean local;
+    private final int slot;
+    private final List<Expression> arguments;
+
+    public Call(int line, int column, String name, boolean local, int slot, List<Expression> arguments) {
+        super(line, column);
+        this.name = name;
+        this.local = local;
+        this.slot = slot;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitCall(this);
+    }
+}
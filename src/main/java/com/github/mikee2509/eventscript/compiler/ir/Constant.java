@@ -0,0 +1,24 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A decimal, float, string or bool literal evaluated at compile time.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Constant extends Expression {
+    private final Literal value;
+
+    public Constant(int line, int column, Literal value) {
+        super(line, column);
+        this.value = value;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitConstant(this);
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class DatetimeConstructor extends Expression {
+    private final List<Expression> arguments;
+
+    public DatetimeConstructor(int line, int column, List<Expression> arguments) {
+        super(line, column);
+        this.arguments = arguments;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitDatetimeConstructor(this);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+public abstract class Expression extends Node {
+    protected Expression(int line, int column) {
+        super(line, column);
+    }
+}
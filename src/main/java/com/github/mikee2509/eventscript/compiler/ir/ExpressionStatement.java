@@ -0,0 +1,20 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ExpressionStatement extends Statement {
+    private final Expression expression;
+
+    public ExpressionStatement(int line, int column, Expression expression) {
+        super(line, column);
+        this.expression = expression;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitExpressionStatement(this);
+    }
+}
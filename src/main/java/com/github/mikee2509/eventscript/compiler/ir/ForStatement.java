@@ -0,0 +1,37 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The condition is {@code null} when the loop has none. The loop occupies frame slots the same way a {@link Block}
+ * does.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ForStatement extends Statement {
+    private final List<Statement> init;
+    private final Expression condition;
+    private final List<Expression> update;
+    private final Block body;
+    private final int firstSlot;
+    private final int endSlot;
+
+    public ForStatement(int line, int column, List<Statement> init, Expression condition, List<Expression> update,
+                        Block body, int firstSlot, int endSlot) {
+        super(line, column);
+        this.init = init;
+        this.condition = condition;
+        this.update = update;
+        this.body = body;
+        this.firstSlot = firstSlot;
+        this.endSlot = endSlot;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitForStatement(this);
+    }
+}
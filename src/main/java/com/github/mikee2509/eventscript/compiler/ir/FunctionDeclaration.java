@@ -0,0 +1,31 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.antlr.v4.runtime.Token;
+
+import java.util.List;
+
+/**
+ * A script function with its resolved signature. The body statements run directly in the function scope, in a frame
+ * of {@code frameSize} slots whose first slots hold the parameters.
+ * <p>
+ * Functions are only declared at the top of a script, so a declaration is not a {@link Node}: it is never reached
+ * through a {@link NodeVisitor}, and the passes and engines walk its body themselves.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FunctionDeclaration {
+    private final int line;
+    private final int column;
+    private final Function function;
+    private final List<Statement> body;
+    private final int frameSize;
+
+    public Token position() {
+        return Node.position(line, column);
+    }
+}
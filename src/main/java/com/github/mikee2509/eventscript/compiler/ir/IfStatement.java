@@ -0,0 +1,27 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * The else branch is {@code null} when the statement has none.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class IfStatement extends Statement {
+    private final Expression condition;
+    private final Block thenBranch;
+    private final Block elseBranch;
+
+    public IfStatement(int line, int column, Expression condition, Block thenBranch, Block elseBranch) {
+        super(line, column);
+        this.condition = condition;
+        this.thenBranch = thenBranch;
+        this.elseBranch = elseBranch;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitIfStatement(this);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Negation extends Expression {
+    private final Expression operand;
+
+    public Negation(int line, int column, Expression operand) {
+        super(line, column);
+        this.operand = operand;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitNegation(this);
+    }
+}
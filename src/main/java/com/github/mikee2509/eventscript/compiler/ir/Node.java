@@ -0,0 +1,38 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * Immutable node of the intermediate representation executed instead of the parse tree. Every node remembers
+ * the source position of the rule it was lowered from, which is all that error messages need.
+ */
+@Getter
+@EqualsAndHashCode
+public abstract class Node {
+    private final int line;
+    private final int column;
+
+    protected Node(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
+    public abstract <R> R accept(NodeVisitor<R> visitor);
+
+    /**
+     * Returns a detached token carrying only this node's position, to be passed to exception factories.
+     */
+    public Token position() {
+        return position(line, column);
+    }
+
+    public static Token position(int line, int column) {
+        CommonToken token = new CommonToken(Token.INVALID_TYPE);
+        token.setLine(line);
+        token.setCharPositionInLine(column);
+        return token;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+public interface NodeVisitor<R> {
+    R visitConstant(Constant node);
+
+    R visitDatetimeConstructor(DatetimeConstructor node);
+
+    R visitDurationConstructor(DurationConstructor node);
+
+    R visitVariable(Variable node);
+
+    R visitUnary(Unary node);
+
+    R visitNegation(Negation node);
+
+    R visitBinary(Binary node);
+
+    R visitAssignment(Assignment node);
+
+    R visitCall(Call node);
+
+    R visitBuiltInCall(BuiltInCall node);
+
+    R visitToStringCall(ToStringCall node);
+
+    R visitTupleExtract(TupleExtract node);
+
+    R visitVariableDeclaration(VariableDeclaration node);
+
+    R visitVariableDefinition(VariableDefinition node);
+
+    R visitRedefinition(Redefinition node);
+
+    R visitIfStatement(IfStatement node);
+
+    R visitForStatement(ForStatement node);
+
+    R visitReturnStatement(ReturnStatement node);
+
+    R visitBreakStatement(BreakStatement node);
+
+    R visitContinueStatement(ContinueStatement node);
+
+    R visitExpressionStatement(ExpressionStatement node);
+
+    R visitBlock(Block node);
+}
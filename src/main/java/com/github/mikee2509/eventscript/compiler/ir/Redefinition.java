@@ -0,0 +1,26 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A variable defined again in the scope that already defines it. The {@code definition} runs first, storing into a
+ * slot no name resolves to, and then the redefinition fails, as the definition does in {@code ScriptVisitor}.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Redefinition extends Statement {
+    private final String name;
+    private final Statement definition;
+
+    public Redefinition(int line, int column, String name, Statement definition) {
+        super(line, column);
+        this.name = name;
+        this.definition = definition;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitRedefinition(this);
+    }
+}
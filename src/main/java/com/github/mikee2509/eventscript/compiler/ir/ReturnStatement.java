@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ReturnStatement extends Statement {
+    private final List<Expression> values;
+
+    public ReturnStatement(int line, int column, List<Expression> values) {
+        super(line, column);
+        this.values = values;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitReturnStatement(this);
+    }
+}
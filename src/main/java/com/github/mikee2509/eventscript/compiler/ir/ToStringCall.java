@@ -0,0 +1,23 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * {@code target.toString}, positioned at the {@code toString} token.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ToStringCall extends Expression {
+    private final Expression target;
+
+    public ToStringCall(int line, int column, Expression target) {
+        super(line, column);
+        this.target = target;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitToStringCall(this);
+    }
+}
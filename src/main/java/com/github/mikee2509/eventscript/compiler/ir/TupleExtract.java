@@ -0,0 +1,25 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * {@code target._N}, positioned at the {@code _N} token.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class TupleExtract extends Expression {
+    private final Expression target;
+    private final int index;
+
+    public TupleExtract(int line, int column, Expression target, int index) {
+        super(line, column);
+        this.target = target;
+        this.index = index;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitTupleExtract(this);
+    }
+}
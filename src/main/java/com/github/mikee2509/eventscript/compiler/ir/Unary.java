@@ -0,0 +1,25 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Prefix {@code + - ++ --}.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Unary extends Expression {
+    private final UnaryOperator operator;
+    private final Expression operand;
+
+    public Unary(int line, int column, UnaryOperator operator, Expression operand) {
+        super(line, column);
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitUnary(this);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Prefix operators resolved from their {@code EventScriptLexer} token types when a script is compiled.
+ */
+@Getter
+@AllArgsConstructor
+public enum UnaryOperator {
+    INCREMENT(EventScriptLexer.INC),
+    DECREMENT(EventScriptLexer.DEC),
+    PLUS(EventScriptLexer.ADD),
+    MINUS(EventScriptLexer.SUB);
+
+    private final int tokenType;
+
+    /**
+     * Returns whether the result is stored back into an operand naming a variable.
+     */
+    public boolean isUpdating() {
+        return this == INCREMENT || this == DECREMENT;
+    }
+
+    public static UnaryOperator fromTokenType(int tokenType) {
+        for (UnaryOperator operator : values()) {
+            if (operator.tokenType == tokenType) return operator;
+        }
+        throw new IllegalArgumentException("Not a unary operator: " +
+            EventScriptLexer.VOCABULARY.getDisplayName(tokenType));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A local variable is stored in {@code slot} of the running frame. A global one is a top-level variable read from a
+ * function body, found in the first defined of the top-level slots listed at index {@code slot} of
+ * {@code CompiledScript.getGlobalSlots()}.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class Variable extends Expression {
+    private final String name;
+    private final boolean local;
+    private final int slot;
+
+    public Variable(int line, int column, String name, boolean local, int slot) {
+        super(line, column);
+        this.name = name;
+        this.local = local;
+        this.slot = slot;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitVariable(this);
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class VariableDeclaration extends Statement {
+    private final String name;
+    private final int slot;
+    private final Type type;
+
+    public VariableDeclaration(int line, int column, String name, int slot, Type type) {
+        super(line, column);
+        this.name = name;
+        this.slot = slot;
+        this.type = type;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitVariableDeclaration(this);
+    }
+}
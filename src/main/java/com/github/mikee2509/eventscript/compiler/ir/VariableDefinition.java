@@ -0,0 +1,24 @@
+package com.github.mikee2509.eventscript.compiler.ir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class VariableDefinition extends Statement {
+    private final String name;
+    private final int slot;
+    private final Expression value;
+
+    public VariableDefinition(int line, int column, String name, int slot, Expression value) {
+        super(line, column);
+        this.name = name;
+        this.slot = slot;
+        this.value = value;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitVariableDefinition(this);
+    }
+}
@@ -13,13 +13,21 @@ public class OperationException extends ParserException {
     }
 
     public OperationException(Token token, Literal leftOperand, Literal rightOperand, Operation operation) {
+        this(token, leftOperand.getLiteralType(), rightOperand.getLiteralType(), operation);
+    }
+
+    public OperationException(Token token, Type leftOperand, Type rightOperand, Operation operation) {
         super(token, MessageFormat.format("Unsupported {0} operation between {1} and {2}",
-            operation.getName(), leftOperand.getLiteralType().getName(), rightOperand.getLiteralType().getName()));
+            operation.getName(), leftOperand.getName(), rightOperand.getName()));
     }
 
     public OperationException(Token token, Literal expression, Operation operation) {
+        this(token, expression.getLiteralType(), operation);
+    }
+
+    public OperationException(Token token, Type expression, Operation operation) {
         super(token, MessageFormat.format("Unsupported {0} operation on {1}", operation.getName(),
-            expression.getLiteralType().getName()));
+            expression.getName()));
     }
 
     public static OperationException bothOperandsMustBeBool(Token token) {
@@ -0,0 +1,21 @@
+package com.github.mikee2509.eventscript.domain.exception.control;
+
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import lombok.Getter;
+
+/**
+ * Leaves a function whose return statement calls another function, which is then run in place of the one left.
+ * It is thrown for every such call and never reaches the user, so it carries neither a message nor a stack trace.
+ */
+@Getter
+public class TailCallException extends RuntimeException {
+    private final Function function;
+    private final Tuple arguments;
+
+    public TailCallException(Function function, Tuple arguments) {
+        super(null, null, false, false);
+        this.function = function;
+        this.arguments = arguments;
+    }
+}
@@ -1,10 +1,12 @@
 package com.github.mikee2509.eventscript.domain.expression;
 
 import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
 import com.github.mikee2509.eventscript.domain.scope.Declarable;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import org.antlr.v4.runtime.Token;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,4 +43,34 @@ public class Function implements Declarable {
     public boolean isSchedulable() {
         return returnType == Type.VOID && numParams() == 0;
     }
+
+    /**
+     * Checks the types of the values of a return statement against the return type.
+     */
+    public void checkReturnTypes(Type[] types, Token token) {
+        if (returnType instanceof Type) {
+            Type requiredType = (Type) returnType;
+
+            if (requiredType == Type.VOID) {
+                if (types.length != 0) {
+                    throw FunctionException.returnTypeException(token, requiredType);
+                }
+            } else if (types.length != 1 || requiredType != types[0]) {
+                throw FunctionException.returnTypeException(token, requiredType);
+            }
+        } else {
+            Tuple requiredTuple = (Tuple) returnType;
+            if (types.length == 0 || !Arrays.equals(requiredTuple.types(), types)) {
+                throw FunctionException.returnTypeException(token, requiredTuple.types());
+            }
+        }
+    }
+
+    /**
+     * Checks the values of a return statement against the return type. Returns {@code null} for a void return.
+     */
+    public Tuple returnTuple(List<Literal> values, Token token) {
+        checkReturnTypes(values.stream().map(Literal::getLiteralType).toArray(Type[]::new), token);
+        return values.isEmpty() ? null : Tuple.fromLiteralList(values);
+    }
 }
@@ -0,0 +1,12 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+
+/**
+ * Entry point of a function compiled by the {@link JitCompiler}, called like an interpreted one: with its checked
+ * arguments, or {@code null} without parameters, returning its single result or void.
+ */
+public interface CompiledFunction {
+    Literal call(Tuple arguments);
+}
@@ -0,0 +1,146 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.FunctionDeclaration;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import lombok.extern.java.Log;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.springframework.asm.Opcodes.*;
+
+/**
+ * Compiles the functions of a type-checked script into a JVM class, so that HotSpot compiles script code like any
+ * other Java code. A function is compiled only if all of its body is, see {@link MethodCompiler}; the others stay
+ * with the engine, which compiled code calls back through the {@link ScriptRuntime}. Calls between compiled
+ * functions are direct static calls.
+ * <p>
+ * The class is defined by a class loader of its own, which is collected with the functions of the script.
+ */
+@Log
+public class JitCompiler {
+    private static final String CLASS_PREFIX = "com/github/mikee2509/eventscript/jit/generated/Script";
+    private static final AtomicInteger classCount = new AtomicInteger();
+
+    /**
+     * Returns the compiled functions of the script by function, none when the script is not type checked.
+     */
+    public Map<Function, CompiledFunction> compile(CompiledScript script, ScriptRuntime runtime) {
+        return compile(script, runtime, function -> true);
+    }
+
+    /**
+     * Compiles only the selected functions of the script, into a class of their own. Calls to the other functions
+     * go through the runtime, even if they have been compiled before.
+     */
+    public Map<Function, CompiledFunction> compile(CompiledScript script, ScriptRuntime runtime,
+                                                   Predicate<Function> selected) {
+        if (!script.isTypeChecked()) {
+            return Collections.emptyMap();
+        }
+        ScriptClass scriptClass = new ScriptClass(CLASS_PREFIX + classCount.incrementAndGet(), script);
+        List<FunctionDeclaration> functions = scriptClass.getFunctions();
+        // calls are compiled the same whether the callee is compiled or not, so one pass finds all compilable ones
+        for (int i = 0; i < functions.size(); i++) {
+            scriptClass.setCompiled(i, selected.test(functions.get(i).getFunction())
+                && isCompilable(scriptClass, functions.get(i)));
+        }
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, scriptClass.getName(), null, "java/lang/Object", null);
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, ScriptClass.RUNTIME_FIELD,
+            "Lcom/github/mikee2509/eventscript/jit/ScriptRuntime;", null, null).visitEnd();
+        boolean any = false;
+        for (int i = 0; i < functions.size(); i++) {
+            if (scriptClass.isCompiled(i)) {
+                Function function = functions.get(i).getFunction();
+                MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, ScriptClass.methodName(i),
+                    MethodCompiler.descriptor(function), null, null);
+                new MethodCompiler(scriptClass, functions.get(i), mv).compile();
+                any = true;
+            }
+        }
+        cw.visitEnd();
+        if (!any) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            Class<?> compiledClass = new ScriptClassLoader(JitCompiler.class.getClassLoader())
+                .define(scriptClass.getName().replace('/', '.'), cw.toByteArray());
+            compiledClass.getField(ScriptClass.RUNTIME_FIELD).set(null, runtime);
+            Map<Function, CompiledFunction> compiled = new IdentityHashMap<>();
+            for (int i = 0; i < functions.size(); i++) {
+                if (scriptClass.isCompiled(i)) {
+                    Function function = functions.get(i).getFunction();
+                    MethodType type = MethodType.fromMethodDescriptorString(MethodCompiler.descriptor(function),
+                        compiledClass.getClassLoader());
+                    MethodHandle method = MethodHandles.publicLookup().findStatic(compiledClass,
+                        ScriptClass.methodName(i), type);
+                    compiled.put(function, new MethodHandleFunction(method));
+                }
+            }
+            return compiled;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warning("Script functions left interpreted: " + e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static boolean isCompilable(ScriptClass scriptClass, FunctionDeclaration declaration) {
+        if (MethodCompiler.descriptor(declaration.getFunction()) == null) {
+            return false;
+        }
+        try {
+            new MethodCompiler(scriptClass, declaration, new MethodVisitor(ASM5) {
+            }).compile();
+            return true;
+        } catch (MethodCompiler.NotCompilable e) {
+            log.fine(() -> declaration.getFunction().getName() + " left interpreted: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static class MethodHandleFunction implements CompiledFunction {
+        private final MethodHandle method;
+
+        private MethodHandleFunction(MethodHandle method) {
+            this.method = method;
+        }
+
+        @Override
+        public Literal call(Tuple arguments) {
+            Object[] values = new Object[method.type().parameterCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = arguments.literals()[i].getValue();
+            }
+            Object result;
+            try {
+                result = method.invokeWithArguments(values);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+            return result == null ? Literal.voidLiteral() : new Literal<>(result);
+        }
+    }
+}
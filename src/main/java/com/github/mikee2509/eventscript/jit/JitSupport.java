@@ -0,0 +1,44 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+
+/**
+ * Conversions between literals and the values of compiled code, called from generated classes.
+ */
+public final class JitSupport {
+
+    private JitSupport() {
+    }
+
+    public static Literal box(int value) {
+        return new Literal<>(value);
+    }
+
+    public static Literal box(float value) {
+        return new Literal<>(value);
+    }
+
+    public static Literal box(boolean value) {
+        return new Literal<>(value);
+    }
+
+    public static Literal box(String value) {
+        return new Literal<>(value);
+    }
+
+    public static int unboxInt(Literal literal) {
+        return (Integer) literal.getValue();
+    }
+
+    public static float unboxFloat(Literal literal) {
+        return (Float) literal.getValue();
+    }
+
+    public static boolean unboxBool(Literal literal) {
+        return (Boolean) literal.getValue();
+    }
+
+    public static String unboxString(Literal literal) {
+        return (String) literal.getValue();
+    }
+}
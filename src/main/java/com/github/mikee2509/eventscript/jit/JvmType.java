@@ -0,0 +1,49 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import lombok.AllArgsConstructor;
+
+import static org.springframework.asm.Opcodes.*;
+
+/**
+ * Script types compiled code keeps in JVM values: int, float and bool as primitives, strings as references.
+ */
+@AllArgsConstructor
+enum JvmType {
+    INT("I", ILOAD, ISTORE, IRETURN, "unboxInt"),
+    FLOAT("F", FLOAD, FSTORE, FRETURN, "unboxFloat"),
+    BOOL("Z", ILOAD, ISTORE, IRETURN, "unboxBool"),
+    STRING("Ljava/lang/String;", ALOAD, ASTORE, ARETURN, "unboxString"),
+    VOID("V", -1, -1, RETURN, null);
+
+    final String descriptor;
+    final int loadOpcode;
+    final int storeOpcode;
+    final int returnOpcode;
+    final String unboxMethod;
+
+    /**
+     * Returns the type compiled code uses for the given one, {@code null} if it has none.
+     */
+    static JvmType of(Returnable type) {
+        if (type == Type.INT) return INT;
+        if (type == Type.FLOAT) return FLOAT;
+        if (type == Type.BOOL) return BOOL;
+        if (type == Type.STRING) return STRING;
+        if (type == Type.VOID) return VOID;
+        return null;
+    }
+
+    static JvmType ofValue(Object value) {
+        if (value instanceof Integer) return INT;
+        if (value instanceof Float) return FLOAT;
+        if (value instanceof Boolean) return BOOL;
+        if (value instanceof String) return STRING;
+        return null;
+    }
+
+    boolean isNumeric() {
+        return this == INT || this == FLOAT;
+    }
+}
@@ -0,0 +1,597 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.asm.Opcodes.*;
+
+/**
+ * Compiles one function body into a static method. Variables of the script become JVM locals of their own type, so
+ * int, float and bool values are never boxed; conditions, loops and returned calls of the function itself become
+ * jumps. Expressions are compiled in source order and keep the semantics of {@code Operations}, both operands of
+ * {@code &&} and {@code ||} included.
+ * <p>
+ * Only code whose types are known statically is compiled: anything else, like a global variable, a tuple or a
+ * statement failing at runtime, throws {@link NotCompilable} and the function stays interpreted.
+ */
+class MethodCompiler implements NodeVisitor<JvmType> {
+    private static final String LITERAL = "com/github/mikee2509/eventscript/domain/expression/Literal";
+    private static final String SUPPORT = "com/github/mikee2509/eventscript/jit/JitSupport";
+    private static final String RUNTIME = "com/github/mikee2509/eventscript/jit/ScriptRuntime";
+    private static final String STRING = "java/lang/String";
+
+    static class NotCompilable extends RuntimeException {
+        NotCompilable(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static class Local {
+        private final int index;
+        private final JvmType type;
+
+        private Local(int index, JvmType type) {
+            this.index = index;
+            this.type = type;
+        }
+    }
+
+    private static class Loop {
+        private final Label continueLabel;
+        private final Label breakLabel;
+
+        private Loop(Label continueLabel, Label breakLabel) {
+            this.continueLabel = continueLabel;
+            this.breakLabel = breakLabel;
+        }
+    }
+
+    private final ScriptClass scriptClass;
+    private final FunctionDeclaration declaration;
+    private final MethodVisitor mv;
+    private final Map<Integer, Local> locals = new HashMap<>();
+    private final Deque<Loop> loops = new ArrayDeque<>();
+    private final JvmType returnType;
+    private final Local[] parameters;
+    private final Label start = new Label();
+    private int nextLocal;
+
+    MethodCompiler(ScriptClass scriptClass, FunctionDeclaration declaration, MethodVisitor mv) {
+        this.scriptClass = scriptClass;
+        this.declaration = declaration;
+        this.mv = mv;
+        Function function = declaration.getFunction();
+        this.returnType = JvmType.of(function.getReturnType());
+        if (returnType == null) {
+            throw new NotCompilable("Return type " + function.getReturnType());
+        }
+        if (scriptClass.isOnTailCallCycle(function)) {
+            throw new NotCompilable("Tail calls back to " + function.getName());
+        }
+        parameters = new Local[function.numParams()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = define(nextLocal, JvmType.of(function.getParameters().get(i).getType()));
+        }
+    }
+
+    /**
+     * Returns the descriptor of the method compiled for a function, {@code null} when its signature has no JVM
+     * types.
+     */
+    static String descriptor(Function function) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Function.Parameter parameter : function.getParameters()) {
+            JvmType type = JvmType.of(parameter.getType());
+            if (type == null || type == JvmType.VOID) return null;
+            descriptor.append(type.descriptor);
+        }
+        JvmType returnType = JvmType.of(function.getReturnType());
+        return returnType == null ? null : descriptor.append(')').append(returnType.descriptor).toString();
+    }
+
+    void compile() {
+        mv.visitCode();
+        mv.visitLabel(start);
+        declaration.getBody().forEach(statement -> statement.accept(this));
+        if (returnType == JvmType.VOID) {
+            mv.visitInsn(RETURN);
+        } else {
+            position(declaration.getLine(), declaration.getColumn());
+            mv.visitMethodInsn(INVOKESTATIC, "com/github/mikee2509/eventscript/domain/exception/FunctionException",
+                "missingReturnStatement", "(Lorg/antlr/v4/runtime/Token;)" +
+                    "Lcom/github/mikee2509/eventscript/domain/exception/FunctionException;", false);
+            mv.visitInsn(ATHROW);
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void position(Node node) {
+        position(node.getLine(), node.getColumn());
+    }
+
+    private void position(int line, int column) {
+        mv.visitLdcInsn(line);
+        mv.visitLdcInsn(column);
+        mv.visitMethodInsn(INVOKESTATIC, "com/github/mikee2509/eventscript/compiler/ir/Node", "position",
+            "(II)Lorg/antlr/v4/runtime/Token;", false);
+    }
+
+    private Local define(int slot, JvmType type) {
+        if (type == null || type == JvmType.VOID) {
+            throw new NotCompilable("Variable without a JVM type");
+        }
+        Local local = new Local(nextLocal++, type);
+        locals.put(slot, local);
+        return local;
+    }
+
+    private Local local(Variable variable) {
+        Local local = variable.isLocal() ? locals.get(variable.getSlot()) : null;
+        if (local == null) {
+            throw new NotCompilable("Global variable " + variable.getName());
+        }
+        return local;
+    }
+
+    private JvmType compile(Expression expression) {
+        return expression.accept(this);
+    }
+
+    private void compile(Expression expression, JvmType expected) {
+        if (compile(expression) != expected) {
+            throw new NotCompilable("Expected " + expected);
+        }
+    }
+
+    private void toFloat(JvmType type) {
+        if (type == JvmType.INT) {
+            mv.visitInsn(I2F);
+        }
+    }
+
+    private void toText(JvmType type) {
+        if (type != JvmType.STRING) {
+            mv.visitMethodInsn(INVOKESTATIC, STRING, "valueOf", "(" + type.descriptor + ")L" + STRING + ";", false);
+        }
+    }
+
+    /**
+     * Converts the value below the top of the stack, all compiled values taking a single stack slot.
+     */
+    private void belowTop(Runnable conversion) {
+        mv.visitInsn(SWAP);
+        conversion.run();
+        mv.visitInsn(SWAP);
+    }
+
+    /**
+     * Pushes whether the condition of the given jump does not hold.
+     */
+    private JvmType pushUnless(int jumpOpcode) {
+        Label isFalse = new Label();
+        Label end = new Label();
+        mv.visitJumpInsn(jumpOpcode, isFalse);
+        mv.visitInsn(ICONST_1);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(isFalse);
+        mv.visitInsn(ICONST_0);
+        mv.visitLabel(end);
+        return JvmType.BOOL;
+    }
+
+    private void pop(JvmType type) {
+        if (type != JvmType.VOID) {
+            mv.visitInsn(POP);
+        }
+    }
+
+    @Override
+    public JvmType visitVariableDeclaration(VariableDeclaration node) {
+        Local local = define(node.getSlot(), JvmType.of(node.getType()));
+        switch (local.type) {
+            case FLOAT:
+                mv.visitInsn(FCONST_0);
+                break;
+            case STRING:
+                mv.visitLdcInsn("");
+                break;
+            default:
+                mv.visitInsn(ICONST_0);
+        }
+        mv.visitVarInsn(local.type.storeOpcode, local.index);
+        return null;
+    }
+
+    @Override
+    public JvmType visitVariableDefinition(VariableDefinition node) {
+        JvmType type = compile(node.getValue());
+        Local local = define(node.getSlot(), type);
+        mv.visitVarInsn(local.type.storeOpcode, local.index);
+        return null;
+    }
+
+    @Override
+    public JvmType visitRedefinition(Redefinition node) {
+        throw new NotCompilable("Redefinition of " + node.getName());
+    }
+
+    @Override
+    public JvmType visitIfStatement(IfStatement node) {
+        compile(node.getCondition(), JvmType.BOOL);
+        Label elseLabel = new Label();
+        Label end = new Label();
+        mv.visitJumpInsn(IFEQ, elseLabel);
+        node.getThenBranch().accept(this);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(elseLabel);
+        if (node.getElseBranch() != null) {
+            node.getElseBranch().accept(this);
+        }
+        mv.visitLabel(end);
+        return null;
+    }
+
+    @Override
+    public JvmType visitBlock(Block node) {
+        node.getStatements().forEach(statement -> statement.accept(this));
+        return null;
+    }
+
+    @Override
+    public JvmType visitForStatement(ForStatement node) {
+        node.getInit().forEach(statement -> statement.accept(this));
+        Label condition = new Label();
+        Label update = new Label();
+        Label end = new Label();
+        mv.visitLabel(condition);
+        if (node.getCondition() != null) {
+            compile(node.getCondition(), JvmType.BOOL);
+            mv.visitJumpInsn(IFEQ, end);
+        }
+        loops.push(new Loop(update, end));
+        node.getBody().accept(this);
+        loops.pop();
+        mv.visitLabel(update);
+        node.getUpdate().forEach(expression -> pop(compile(expression)));
+        mv.visitJumpInsn(GOTO, condition);
+        mv.visitLabel(end);
+        return null;
+    }
+
+    @Override
+    public JvmType visitReturnStatement(ReturnStatement node) {
+        List<Expression> values = node.getValues();
+        if (values.isEmpty() && returnType == JvmType.VOID) {
+            mv.visitInsn(RETURN);
+        } else if (values.size() == 1 && values.get(0) instanceof Call
+            && scriptClass.callee((Call) values.get(0)) == declaration.getFunction()) {
+            selfTailCall((Call) values.get(0));
+        } else if (values.size() == 1 && returnType != JvmType.VOID) {
+            compile(values.get(0), returnType);
+            mv.visitInsn(returnType.returnOpcode);
+        } else {
+            throw new NotCompilable("Return of " + values.size() + " values");
+        }
+        return null;
+    }
+
+    /**
+     * Compiles a call of the function itself whose value is returned: the arguments are stored in the parameters and
+     * the method starts over, so the recursion takes no stack.
+     */
+    private void selfTailCall(Call call) {
+        if (returnType == JvmType.VOID || call.getArguments().size() != parameters.length) {
+            throw new NotCompilable("Call of " + call.getName());
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            compile(call.getArguments().get(i), parameters[i].type);
+        }
+        for (int i = parameters.length - 1; i >= 0; i--) {
+            mv.visitVarInsn(parameters[i].type.storeOpcode, parameters[i].index);
+        }
+        mv.visitJumpInsn(GOTO, start);
+    }
+
+    @Override
+    public JvmType visitBreakStatement(BreakStatement node) {
+        if (loops.isEmpty()) {
+            throw new NotCompilable("Break outside loop");
+        }
+        mv.visitJumpInsn(GOTO, loops.peek().breakLabel);
+        return null;
+    }
+
+    @Override
+    public JvmType visitContinueStatement(ContinueStatement node) {
+        if (loops.isEmpty()) {
+            throw new NotCompilable("Continue outside loop");
+        }
+        mv.visitJumpInsn(GOTO, loops.peek().continueLabel);
+        return null;
+    }
+
+    @Override
+    public JvmType visitExpressionStatement(ExpressionStatement node) {
+        pop(compile(node.getExpression()));
+        return null;
+    }
+
+    @Override
+    public JvmType visitConstant(Constant node) {
+        Object value = node.getValue().getValue();
+        JvmType type = JvmType.ofValue(value);
+        if (type == null) {
+            throw new NotCompilable("Constant " + node.getValue());
+        }
+        if (type == JvmType.BOOL) {
+            mv.visitInsn((Boolean) value ? ICONST_1 : ICONST_0);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+        return type;
+    }
+
+    @Override
+    public JvmType visitDatetimeConstructor(DatetimeConstructor node) {
+        throw new NotCompilable("Datetime");
+    }
+
+    @Override
+    public JvmType visitDurationConstructor(DurationConstructor node) {
+        throw new NotCompilable("Duration");
+    }
+
+    @Override
+    public JvmType visitVariable(Variable node) {
+        Local local = local(node);
+        mv.visitVarInsn(local.type.loadOpcode, local.index);
+        return local.type;
+    }
+
+    @Override
+    public JvmType visitUnary(Unary node) {
+        JvmType type = compile(node.getOperand());
+        if (!type.isNumeric()) {
+            throw new NotCompilable("Unary operation on " + type);
+        }
+        boolean isInt = type == JvmType.INT;
+        switch (node.getOperator()) {
+            case INCREMENT:
+                mv.visitInsn(isInt ? ICONST_1 : FCONST_1);
+                mv.visitInsn(isInt ? IADD : FADD);
+                break;
+            case DECREMENT:
+                mv.visitInsn(isInt ? ICONST_1 : FCONST_1);
+                mv.visitInsn(isInt ? ISUB : FSUB);
+                break;
+            case MINUS:
+                mv.visitInsn(isInt ? INEG : FNEG);
+                break;
+            default:
+        }
+        if (node.getOperator().isUpdating() && node.getOperand() instanceof Variable) {
+            Local local = local((Variable) node.getOperand());
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(local.type.storeOpcode, local.index);
+        }
+        return type;
+    }
+
+    @Override
+    public JvmType visitNegation(Negation node) {
+        compile(node.getOperand(), JvmType.BOOL);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IXOR);
+        return JvmType.BOOL;
+    }
+
+    @Override
+    public JvmType visitBinary(Binary node) {
+        BinaryOperator operator = node.getOperator();
+        JvmType left = compile(node.getLeft());
+        JvmType right = compile(node.getRight());
+        boolean bothInt = left == JvmType.INT && right == JvmType.INT;
+        boolean bothNumeric = left.isNumeric() && right.isNumeric();
+
+        if (operator == BinaryOperator.ADD && (left == JvmType.STRING || right == JvmType.STRING)
+            && left != JvmType.VOID && right != JvmType.VOID) {
+            belowTop(() -> toText(left));
+            toText(right);
+            mv.visitMethodInsn(INVOKEVIRTUAL, STRING, "concat", "(L" + STRING + ";)L" + STRING + ";", false);
+            return JvmType.STRING;
+        }
+        switch (operator.getKind()) {
+            case ADDITIVE:
+            case MULTIPLICATIVE:
+                if (bothInt) {
+                    mv.visitInsn(arithmetic(operator, IADD, ISUB, IMUL, IDIV, IREM));
+                    return JvmType.INT;
+                }
+                if (bothNumeric) {
+                    belowTop(() -> toFloat(left));
+                    toFloat(right);
+                    mv.visitInsn(arithmetic(operator, FADD, FSUB, FMUL, FDIV, FREM));
+                    return JvmType.FLOAT;
+                }
+                break;
+            case RELATIONAL:
+                if (bothInt) {
+                    return pushUnless(relational(operator, IF_ICMPGE, IF_ICMPLE, IF_ICMPGT, IF_ICMPLT));
+                }
+                if (bothNumeric) {
+                    belowTop(() -> toFloat(left));
+                    toFloat(right);
+                    // NaN compares false, as the relational operators on primitive floats do
+                    boolean less = operator == BinaryOperator.LT || operator == BinaryOperator.LE;
+                    mv.visitInsn(less ? FCMPG : FCMPL);
+                    return pushUnless(relational(operator, IFGE, IFLE, IFGT, IFLT));
+                }
+                break;
+            case EQUALITY:
+                int unlessEqual = operator == BinaryOperator.EQUAL ? IF_ICMPNE : IF_ICMPEQ;
+                if (bothInt || left == JvmType.BOOL && right == JvmType.BOOL) {
+                    return pushUnless(unlessEqual);
+                }
+                if (bothNumeric) {
+                    // Float.equals, as LiteralArithmetic compares floats
+                    belowTop(() -> floatBits(left));
+                    floatBits(right);
+                    return pushUnless(unlessEqual);
+                }
+                if (left == JvmType.STRING && right == JvmType.STRING) {
+                    mv.visitMethodInsn(INVOKEVIRTUAL, STRING, "equals", "(Ljava/lang/Object;)Z", false);
+                    if (operator == BinaryOperator.NOT_EQUAL) {
+                        mv.visitInsn(ICONST_1);
+                        mv.visitInsn(IXOR);
+                    }
+                    return JvmType.BOOL;
+                }
+                if (left != right && left != JvmType.VOID && right != JvmType.VOID) {
+                    // values of different types are never equal
+                    mv.visitInsn(POP);
+                    mv.visitInsn(POP);
+                    mv.visitInsn(operator == BinaryOperator.EQUAL ? ICONST_0 : ICONST_1);
+                    return JvmType.BOOL;
+                }
+                break;
+            default:
+                if (left == JvmType.BOOL && right == JvmType.BOOL) {
+                    mv.visitInsn(operator == BinaryOperator.AND ? IAND : IOR);
+                    return JvmType.BOOL;
+                }
+        }
+        throw new NotCompilable(left + " " + operator + " " + right);
+    }
+
+    private void floatBits(JvmType type) {
+        toFloat(type);
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "floatToIntBits", "(F)I", false);
+    }
+
+    private static int arithmetic(BinaryOperator operator, int add, int sub, int mul, int div, int rem) {
+        switch (operator) {
+            case ADD:
+                return add;
+            case SUB:
+                return sub;
+            case MUL:
+                return mul;
+            case DIV:
+                return div;
+            default:
+                return rem;
+        }
+    }
+
+    /**
+     * Returns the jump taken when the relation does not hold.
+     */
+    private static int relational(BinaryOperator operator, int unlessLess, int unlessGreater, int unlessLessOrEqual,
+                                  int unlessGreaterOrEqual) {
+        switch (operator) {
+            case LT:
+                return unlessLess;
+            case GT:
+                return unlessGreater;
+            case LE:
+                return unlessLessOrEqual;
+            default:
+                return unlessGreaterOrEqual;
+        }
+    }
+
+    @Override
+    public JvmType visitAssignment(Assignment node) {
+        if (!(node.getTarget() instanceof Variable)) {
+            throw new NotCompilable("Assignment to an expression");
+        }
+        Local local = local((Variable) node.getTarget());
+        compile(node.getValue(), local.type);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(local.type.storeOpcode, local.index);
+        return local.type;
+    }
+
+    @Override
+    public JvmType visitCall(Call node) {
+        Function function = scriptClass.callee(node);
+        if (function == null) {
+            throw new NotCompilable("Call of " + node.getName() + " resolved at runtime");
+        }
+        JvmType returnType = JvmType.of(function.getReturnType());
+        List<Function.Parameter> parameters = function.getParameters();
+        if (returnType == null || parameters.size() != node.getArguments().size()) {
+            throw new NotCompilable("Call of " + node.getName());
+        }
+
+        String method = scriptClass.methodName(function);
+        if (method != null) {
+            for (int i = 0; i < parameters.size(); i++) {
+                compile(node.getArguments().get(i), JvmType.of(parameters.get(i).getType()));
+            }
+            mv.visitMethodInsn(INVOKESTATIC, scriptClass.getName(), method, descriptor(function), false);
+            return returnType;
+        }
+
+        // the function stays interpreted, it is called back through the runtime
+        mv.visitFieldInsn(GETSTATIC, scriptClass.getName(), ScriptClass.RUNTIME_FIELD, "L" + RUNTIME + ";");
+        mv.visitLdcInsn(scriptClass.index(function));
+        mv.visitLdcInsn(parameters.size());
+        mv.visitTypeInsn(ANEWARRAY, LITERAL);
+        for (int i = 0; i < parameters.size(); i++) {
+            JvmType type = JvmType.of(parameters.get(i).getType());
+            mv.visitInsn(DUP);
+            mv.visitLdcInsn(i);
+            compile(node.getArguments().get(i), type);
+            mv.visitMethodInsn(INVOKESTATIC, SUPPORT, "box", "(" + type.descriptor + ")L" + LITERAL + ";", false);
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitMethodInsn(INVOKEINTERFACE, RUNTIME, "call", "(I[L" + LITERAL + ";)L" + LITERAL + ";", true);
+        if (returnType == JvmType.VOID) {
+            mv.visitInsn(POP);
+        } else {
+            mv.visitMethodInsn(INVOKESTATIC, SUPPORT, returnType.unboxMethod,
+                "(L" + LITERAL + ";)" + returnType.descriptor, false);
+        }
+        return returnType;
+    }
+
+    @Override
+    public JvmType visitBuiltInCall(BuiltInCall node) {
+        if (node.getFunction() != BuiltInFunction.SPEAK || node.getArguments().size() != 1) {
+            throw new NotCompilable(node.getName());
+        }
+        mv.visitFieldInsn(GETSTATIC, scriptClass.getName(), ScriptClass.RUNTIME_FIELD, "L" + RUNTIME + ";");
+        JvmType type = compile(node.getArguments().get(0));
+        if (type == JvmType.VOID) {
+            throw new NotCompilable("Speak of void");
+        }
+        toText(type);
+        mv.visitMethodInsn(INVOKEINTERFACE, RUNTIME, "speak", "(L" + STRING + ";)V", true);
+        return JvmType.VOID;
+    }
+
+    @Override
+    public JvmType visitToStringCall(ToStringCall node) {
+        JvmType type = compile(node.getTarget());
+        if (type == JvmType.VOID) {
+            throw new NotCompilable("toString of void");
+        }
+        toText(type);
+        return JvmType.STRING;
+    }
+
+    @Override
+    public JvmType visitTupleExtract(TupleExtract node) {
+        throw new NotCompilable("Tuple");
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.Block;
+import com.github.mikee2509.eventscript.compiler.ir.Call;
+import com.github.mikee2509.eventscript.compiler.ir.Expression;
+import com.github.mikee2509.eventscript.compiler.ir.ForStatement;
+import com.github.mikee2509.eventscript.compiler.ir.FunctionDeclaration;
+import com.github.mikee2509.eventscript.compiler.ir.IfStatement;
+import com.github.mikee2509.eventscript.compiler.ir.ReturnStatement;
+import com.github.mikee2509.eventscript.compiler.ir.Statement;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class generated for a script: function {@code i} of the script is compiled to the static method
+ * {@code f<i>}, and compiled code reaches the engine through the static {@code runtime} field.
+ */
+class ScriptClass {
+    static final String RUNTIME_FIELD = "runtime";
+
+    @Getter
+    private final String name;
+    private final List<FunctionDeclaration> functions;
+    private final int[][] globalSlots;
+    private final Map<Function, Integer> indexes = new IdentityHashMap<>();
+    private final BitSet compiled = new BitSet();
+    private final BitSet tailCallCycles = new BitSet();
+
+    ScriptClass(String name, CompiledScript script) {
+        this.name = name;
+        this.functions = script.getFunctions();
+        this.globalSlots = script.getGlobalSlots();
+        for (int i = 0; i < functions.size(); i++) {
+            indexes.put(functions.get(i).getFunction(), i);
+        }
+        findTailCallCycles();
+    }
+
+    List<FunctionDeclaration> getFunctions() {
+        return functions;
+    }
+
+    int index(Function function) {
+        return indexes.get(function);
+    }
+
+    void setCompiled(int function, boolean isCompiled) {
+        compiled.set(function, isCompiled);
+    }
+
+    boolean isCompiled(int function) {
+        return compiled.get(function);
+    }
+
+    /**
+     * Returns the method compiled for a function, {@code null} if it stays interpreted.
+     */
+    String methodName(Function function) {
+        int index = index(function);
+        return compiled.get(index) ? methodName(index) : null;
+    }
+
+    static String methodName(int function) {
+        return "f" + function;
+    }
+
+    /**
+     * Returns whether a function tail calls other functions which tail call it in turn. The engine runs such calls
+     * in a loop, but compiled code would take a JVM frame for each of them, so these functions stay interpreted.
+     */
+    boolean isOnTailCallCycle(Function function) {
+        return tailCallCycles.get(index(function));
+    }
+
+    private void findTailCallCycles() {
+        BitSet[] tailCallees = new BitSet[functions.size()];
+        for (int i = 0; i < tailCallees.length; i++) {
+            tailCallees[i] = new BitSet();
+            addTailCallees(functions.get(i).getBody(), tailCallees[i]);
+            tailCallees[i].clear(i);
+        }
+        for (int i = 0; i < tailCallees.length; i++) {
+            BitSet reached = new BitSet();
+            Deque<Integer> pending = new ArrayDeque<>();
+            tailCallees[i].stream().forEach(pending::push);
+            while (!pending.isEmpty() && !reached.get(i)) {
+                int callee = pending.pop();
+                if (!reached.get(callee)) {
+                    reached.set(callee);
+                    tailCallees[callee].stream().forEach(pending::push);
+                }
+            }
+            tailCallCycles.set(i, reached.get(i));
+        }
+    }
+
+    private void addTailCallees(List<Statement> statements, BitSet tailCallees) {
+        for (Statement statement : statements) {
+            if (statement instanceof Block) {
+                addTailCallees(((Block) statement).getStatements(), tailCallees);
+            } else if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+                addTailCallees(ifStatement.getThenBranch().getStatements(), tailCallees);
+                if (ifStatement.getElseBranch() != null) {
+                    addTailCallees(ifStatement.getElseBranch().getStatements(), tailCallees);
+                }
+            } else if (statement instanceof ForStatement) {
+                addTailCallees(((ForStatement) statement).getBody().getStatements(), tailCallees);
+            } else if (statement instanceof ReturnStatement) {
+                List<Expression> values = ((ReturnStatement) statement).getValues();
+                Function callee = values.size() == 1 && values.get(0) instanceof Call ? callee((Call) values.get(0))
+                    : null;
+                if (callee != null) {
+                    tailCallees.set(index(callee));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the function a call always resolves to, {@code null} when it is only known at runtime. That is the
+     * case when a top-level variable of a block may hide the function, since the top-level scopes active at the
+     * time of the call are visible in its body.
+     */
+    Function callee(Call call) {
+        if (call.isLocal()) {
+            return null;
+        }
+        int[] slots = globalSlots[call.getSlot()];
+        if (slots.length != 1 || slots[0] >= functions.size()) {
+            return null;
+        }
+        return functions.get(slots[0]).getFunction();
+    }
+}
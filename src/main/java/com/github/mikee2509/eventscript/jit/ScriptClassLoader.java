@@ -0,0 +1,15 @@
+package com.github.mikee2509.eventscript.jit;
+
+/**
+ * Loader of the class generated for one script, so that the class is unloaded together with the script.
+ */
+class ScriptClassLoader extends ClassLoader {
+
+    ScriptClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    Class<?> define(String name, byte[] code) {
+        return defineClass(name, code, 0, code.length);
+    }
+}
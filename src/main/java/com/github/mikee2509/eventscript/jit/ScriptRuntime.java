@@ -0,0 +1,13 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+
+/**
+ * What compiled code needs from the engine running the script. Calls to functions which were not compiled go back
+ * to the engine, by the index of the function in the compiled script.
+ */
+public interface ScriptRuntime {
+    Literal call(int function, Literal[] arguments);
+
+    void speak(String text);
+}
@@ -0,0 +1,83 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.TokenSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Parses many scripts concurrently on a {@link ForkJoinPool}. Every worker thread keeps one lexer, token stream
+ * and parser which are rewound onto each new input instead of being allocated per script. The generated parser
+ * and lexer keep their DFA caches in static fields, so all workers warm up and share the same prediction state.
+ */
+public class BulkParser {
+    private final ParserCreator parserCreator;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<EventScriptParser> parsers;
+
+    public BulkParser() {
+        this(new ParserCreator());
+    }
+
+    public BulkParser(ParserCreator parserCreator) {
+        this(parserCreator, ForkJoinPool.commonPool());
+    }
+
+    public BulkParser(ParserCreator parserCreator, ForkJoinPool pool) {
+        this.parserCreator = parserCreator;
+        this.pool = pool;
+        this.parsers = ThreadLocal.withInitial(() -> parserCreator.fromCharStream(CharStreams.fromString("")));
+    }
+
+    /**
+     * Returns the parse trees in the order of the given sources.
+     */
+    public List<EventScriptParser.ScriptContext> parseAll(List<? extends CharStream> sources) {
+        return parseAll(sources, source -> source);
+    }
+
+    public List<EventScriptParser.ScriptContext> parsePaths(List<Path> paths) {
+        ScriptLoader scriptLoader = new ScriptLoader();
+        return parseAll(paths, path -> {
+            try {
+                return scriptLoader.fromPath(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> List<EventScriptParser.ScriptContext> parseAll(List<T> sources, Function<T, CharStream> loader) {
+        List<ForkJoinTask<EventScriptParser.ScriptContext>> tasks = sources.stream()
+            .map(source -> pool.submit(() -> parse(loader.apply(source))))
+            .collect(Collectors.toList());
+        return tasks.stream()
+            .map(ForkJoinTask::join)
+            .collect(Collectors.toList());
+    }
+
+    private EventScriptParser.ScriptContext parse(CharStream input) {
+        EventScriptParser parser = parsers.get();
+        CommonTokenStream tokenStream = (CommonTokenStream) parser.getTokenStream();
+        TokenSource lexer = tokenStream.getTokenSource();
+        if (lexer instanceof Lexer) {
+            ((Lexer) lexer).setInputStream(input);
+        } else {
+            lexer = parserCreator.createLexer(input);
+        }
+        tokenStream.setTokenSource(lexer);
+        parser.setTokenStream(tokenStream);
+        return parserCreator.parseScript(parser);
+    }
+}
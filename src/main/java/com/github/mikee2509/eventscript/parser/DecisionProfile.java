@@ -0,0 +1,41 @@
+package com.github.mikee2509.eventscript.parser;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.SortedSet;
+
+/**
+ * Prediction statistics of a single grammar decision. Lookahead is counted in tokens, time in nanoseconds.
+ * The max lookahead line is {@code -1} when the decision was never predicted beyond the DFA cache.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class DecisionProfile {
+    private final int decision;
+    private final String ruleName;
+    private final long invocations;
+    private final long timeInPrediction;
+    private final long sllLookahead;
+    private final long llFallbacks;
+    private final long llLookahead;
+    private final long maxLookahead;
+    private final int maxLookaheadLine;
+    private final int ambiguities;
+    private final int contextSensitivities;
+    private final int errors;
+    /**
+     * Source lines of the ambiguities, context sensitivities and errors reported for this decision.
+     */
+    private final SortedSet<Integer> eventLines;
+
+    @Override
+    public String toString() {
+        return String.format("decision %d (%s): %d invocations, %d us, SLL lookahead %d, LL fallbacks %d, " +
+                "LL lookahead %d, max lookahead %d at line %d, ambiguities %d, context sensitivities %d, errors %d, " +
+                "lines %s",
+            decision, ruleName, invocations, timeInPrediction / 1000, sllLookahead, llFallbacks, llLookahead,
+            maxLookahead, maxLookaheadLine, ambiguities, contextSensitivities, errors, eventLines);
+    }
+}
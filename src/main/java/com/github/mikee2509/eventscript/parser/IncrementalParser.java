@@ -0,0 +1,256 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.parser.lexer.TableDrivenLexer;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Reparses edited scripts by re-lexing and re-parsing only the top-level statement or function enclosing the
+ * edit. Every other subtree of the previous parse tree is reused as is, with the positions of the tokens that
+ * follow the edit shifted in place. Token indexes are not renumbered.
+ */
+public class IncrementalParser {
+    private final ParserCreator parserCreator;
+
+    public IncrementalParser() {
+        this(new ParserCreator());
+    }
+
+    public IncrementalParser(ParserCreator parserCreator) {
+        this.parserCreator = parserCreator;
+    }
+
+    private static class SyntaxErrorCounter extends BaseErrorListener {
+        private int errors;
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                int charPositionInLine, String msg, RecognitionException e) {
+            errors++;
+        }
+    }
+
+    private static class Position {
+        private int line;
+        private int column;
+
+        private Position(int line, int column) {
+            this.line = line;
+            this.column = column;
+        }
+
+        private Position advance(String text, int fromChar, int toChar) {
+            Position position = new Position(line, column);
+            for (int i = fromChar; i < toChar; i = text.offsetByCodePoints(i, 1)) {
+                if (text.charAt(i) == '\n') {
+                    position.line++;
+                    position.column = 0;
+                } else {
+                    position.column++;
+                }
+            }
+            return position;
+        }
+    }
+
+    public ParsedScript parse(String text) {
+        EventScriptParser parser = parserCreator.fromString(text);
+        SyntaxErrorCounter errorCounter = new SyntaxErrorCounter();
+        parser.addErrorListener(errorCounter);
+        TokenSource lexer = parser.getTokenStream().getTokenSource();
+        if (lexer instanceof TableDrivenLexer) {
+            ((TableDrivenLexer) lexer).addErrorListener(errorCounter);
+        } else {
+            ((Lexer) lexer).addErrorListener(errorCounter);
+        }
+        EventScriptParser.ScriptContext tree = parserCreator.parseScript(parser);
+        return new ParsedScript(text, tree, errorCounter.errors == 0, isBmpOnly(text));
+    }
+
+    /**
+     * Applies the edit to the previous script and reparses the result. The previous parse tree is taken over by
+     * the returned script and must not be used afterwards. Falls back to a full parse when the previous tree has
+     * syntax errors or when the edit cannot be confined to a single top-level statement or function.
+     */
+    public ParsedScript reparse(ParsedScript previous, TextEdit edit) {
+        String oldText = previous.getText();
+        int oldLength = previous.isBmpOnly() ? oldText.length() : oldText.codePointCount(0, oldText.length());
+        if (edit.getOffset() < 0 || edit.getLength() < 0 || edit.getEnd() > oldLength) {
+            throw new IndexOutOfBoundsException("Edit does not fit in the script text");
+        }
+
+        String text = oldText.substring(0, charIndex(oldText, previous.isBmpOnly(), edit.getOffset())) +
+            edit.getReplacement() +
+            oldText.substring(charIndex(oldText, previous.isBmpOnly(), edit.getEnd()));
+        if (!previous.isValid()) {
+            return parse(text);
+        }
+
+        ParsedScript reparsed = reparseEnclosingNode(previous, edit, text);
+        return reparsed != null ? reparsed : parse(text);
+    }
+
+    private ParsedScript reparseEnclosingNode(ParsedScript previous, TextEdit edit, String text) {
+        EventScriptParser.ScriptContext script = previous.getTree();
+        List<ParseTree> children = script.children;
+        int index = enclosingNode(children, edit);
+        if (index < 0) {
+            return null;
+        }
+
+        String oldText = previous.getText();
+        boolean oldBmpOnly = previous.isBmpOnly();
+        boolean bmpOnly = oldBmpOnly && isBmpOnly(edit.getReplacement());
+        ParserRuleContext oldNode = (ParserRuleContext) children.get(index);
+        int start = oldNode.start.getStartIndex();
+        int delta = edit.getReplacement().codePointCount(0, edit.getReplacement().length()) - edit.getLength();
+        int newEnd = oldNode.stop.getStopIndex() + 1 + delta;
+
+        ParserRuleContext newNode = parseRegion(oldNode,
+            text.substring(charIndex(text, bmpOnly, start), charIndex(text, bmpOnly, newEnd)));
+        if (newNode == null) {
+            return null;
+        }
+        relocate(newNode, start);
+
+        int startChar = charIndex(oldText, oldBmpOnly, start);
+        int editChar = charIndex(oldText, oldBmpOnly, edit.getOffset());
+        Position editStart = new Position(oldNode.start.getLine(), oldNode.start.getCharPositionInLine())
+            .advance(oldText, startChar, editChar);
+        Position oldEditEnd = editStart.advance(oldText, editChar, charIndex(oldText, oldBmpOnly, edit.getEnd()));
+        Position newEditEnd = editStart.advance(edit.getReplacement(), 0, edit.getReplacement().length());
+        if (delta != 0 || oldEditEnd.line != newEditEnd.line || oldEditEnd.column != newEditEnd.column) {
+            for (int i = index + 1; i < children.size(); i++) {
+                shift(children.get(i), delta, oldEditEnd, newEditEnd);
+            }
+        }
+
+        newNode.setParent(script);
+        newNode.invokingState = oldNode.invokingState;
+        children.set(index, newNode);
+        if (index == 0) {
+            script.start = newNode.start;
+        }
+        return new ParsedScript(text, script, true, bmpOnly);
+    }
+
+    private int enclosingNode(List<ParseTree> children, TextEdit edit) {
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            ParseTree child = children.get(middle);
+            if (!(child instanceof ParserRuleContext)) {
+                high = middle - 1;
+                continue;
+            }
+            ParserRuleContext node = (ParserRuleContext) child;
+            if (edit.getOffset() <= node.start.getStartIndex()) {
+                high = middle - 1;
+            } else if (edit.getOffset() > node.stop.getStopIndex()) {
+                low = middle + 1;
+            } else {
+                return edit.getEnd() <= node.stop.getStopIndex() + 1 ? middle : -1;
+            }
+        }
+        return -1;
+    }
+
+    private ParserRuleContext parseRegion(ParserRuleContext oldNode, String region) {
+        EventScriptLexer lexer = new EventScriptLexer(CharStreams.fromString(region));
+        lexer.setLine(oldNode.start.getLine());
+        lexer.setCharPositionInLine(oldNode.start.getCharPositionInLine());
+        SyntaxErrorCounter errorCounter = new SyntaxErrorCounter();
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(errorCounter);
+
+        EventScriptParser parser = new EventScriptParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+
+        ParserRuleContext newNode;
+        try {
+            if (oldNode instanceof EventScriptParser.FunctionContext) {
+                newNode = parser.function();
+            } else {
+                newNode = parser.statement();
+            }
+        } catch (ParseCancellationException e) {
+            return null;
+        }
+
+        boolean wholeRegionParsed = parser.getCurrentToken().getType() == Token.EOF;
+        return errorCounter.errors == 0 && wholeRegionParsed ? newNode : null;
+    }
+
+    private void relocate(ParserRuleContext node, int startIndex) {
+        forEachToken(node, token -> {
+            token.setText(token.getText());
+            token.setStartIndex(token.getStartIndex() + startIndex);
+            token.setStopIndex(token.getStopIndex() + startIndex);
+        });
+    }
+
+    private void shift(ParseTree tree, int delta, Position oldEditEnd, Position newEditEnd) {
+        forEachToken(tree, token -> {
+            // tokens of reused subtrees read their text from the stream they were lexed from
+            token.setText(token.getText());
+            token.setStartIndex(token.getStartIndex() + delta);
+            token.setStopIndex(token.getStopIndex() + delta);
+            if (token.getLine() == oldEditEnd.line) {
+                token.setCharPositionInLine(token.getCharPositionInLine() - oldEditEnd.column + newEditEnd.column);
+            }
+            token.setLine(token.getLine() - oldEditEnd.line + newEditEnd.line);
+        });
+    }
+
+    private interface TokenAction {
+        void apply(CommonToken token);
+    }
+
+    private void forEachToken(ParseTree tree, TokenAction action) {
+        Deque<ParseTree> pending = new ArrayDeque<>();
+        pending.push(tree);
+        while (!pending.isEmpty()) {
+            ParseTree current = pending.pop();
+            if (current instanceof TerminalNode) {
+                action.apply((CommonToken) ((TerminalNode) current).getSymbol());
+            } else {
+                for (int i = current.getChildCount() - 1; i >= 0; i--) {
+                    pending.push(current.getChild(i));
+                }
+            }
+        }
+    }
+
+    private static int charIndex(String text, boolean bmpOnly, int codePointIndex) {
+        return bmpOnly ? codePointIndex : text.offsetByCodePoints(0, codePointIndex);
+    }
+
+    private static boolean isBmpOnly(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.DecisionEventInfo;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.LookaheadEventInfo;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Result of {@link ParserCreator#profileScript(String)}: the parse tree together with the prediction statistics
+ * of every grammar decision that was invoked, the most expensive decision first.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ParseProfile {
+    private final EventScriptParser.ScriptContext tree;
+    private final long parseTime;
+    private final List<DecisionProfile> decisions;
+
+    static ParseProfile of(EventScriptParser parser, EventScriptParser.ScriptContext tree, long parseTime) {
+        List<DecisionProfile> decisions = Stream.of(parser.getParseInfo().getDecisionInfo())
+            .filter(info -> info.invocations > 0)
+            .map(info -> decisionProfile(parser, info))
+            .sorted(Comparator.comparingLong(DecisionProfile::getTimeInPrediction).reversed())
+            .collect(Collectors.toList());
+        return new ParseProfile(tree, parseTime, decisions);
+    }
+
+    private static DecisionProfile decisionProfile(EventScriptParser parser, DecisionInfo info) {
+        TokenStream tokens = parser.getTokenStream();
+        int ruleIndex = parser.getATN().decisionToState.get(info.decision).ruleIndex;
+
+        LookaheadEventInfo maxLookEvent = info.LL_MaxLook > info.SLL_MaxLook ? info.LL_MaxLookEvent
+            : info.SLL_MaxLookEvent;
+        SortedSet<Integer> eventLines = Stream.of(info.ambiguities, info.contextSensitivities, info.errors)
+            .flatMap(List::stream)
+            .map(event -> line(tokens, event))
+            .collect(Collectors.toCollection(TreeSet::new));
+
+        return new DecisionProfile(info.decision, parser.getRuleNames()[ruleIndex], info.invocations,
+            info.timeInPrediction, info.SLL_TotalLook, info.LL_Fallback, info.LL_TotalLook,
+            Math.max(info.SLL_MaxLook, info.LL_MaxLook), maxLookEvent != null ? line(tokens, maxLookEvent) : -1,
+            info.ambiguities.size(), info.contextSensitivities.size(), info.errors.size(), eventLines);
+    }
+
+    private static int line(TokenStream tokens, DecisionEventInfo event) {
+        return tokens.get(event.startIndex).getLine();
+    }
+
+    public long getTotalPredictionTime() {
+        return decisions.stream().mapToLong(DecisionProfile::getTimeInPrediction).sum();
+    }
+
+    /**
+     * Formats the given number of most expensive decisions, one per line.
+     */
+    public String report(int limit) {
+        StringBuilder report = new StringBuilder()
+            .append("Parsed in ").append(parseTime / 1000).append(" us, ")
+            .append(getTotalPredictionTime() / 1000).append(" us in prediction of ")
+            .append(decisions.size()).append(" decisions");
+        decisions.stream()
+            .limit(limit)
+            .forEach(decision -> report.append('\n').append(decision));
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report(decisions.size());
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Script text together with its parse tree, as produced and consumed by {@link IncrementalParser}.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ParsedScript {
+    private final String text;
+    private final EventScriptParser.ScriptContext tree;
+    private final boolean valid;
+    @Getter(AccessLevel.PACKAGE)
+    private final boolean bmpOnly;
+}
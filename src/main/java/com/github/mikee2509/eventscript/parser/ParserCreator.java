@@ -2,15 +2,126 @@ package com.github.mikee2509.eventscript.parser;
 
 import com.github.mikee2509.eventscript.EventScriptLexer;
 import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.parser.lexer.TableDrivenLexer;
+import com.github.mikee2509.eventscript.parser.pratt.PrattParser;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CodePointCharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class ParserCreator {
+    public enum LexerType {
+        ANTLR,
+        TABLE_DRIVEN
+    }
+
+    public enum ParserType {
+        ANTLR,
+        PRATT
+    }
+
+    private final LexerType lexerType;
+    private final ParserType parserType;
+
+    public ParserCreator() {
+        this(LexerType.ANTLR);
+    }
+
+    public ParserCreator(LexerType lexerType) {
+        this(lexerType, ParserType.ANTLR);
+    }
+
+    public ParserCreator(LexerType lexerType, ParserType parserType) {
+        this.lexerType = lexerType;
+        this.parserType = parserType;
+    }
+
     public EventScriptParser fromString(String input) {
-        CodePointCharStream inputStream = CharStreams.fromString(input);
-        EventScriptLexer lexer = new EventScriptLexer(inputStream);
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        return fromCharStream(CharStreams.fromString(input));
+    }
+
+    public EventScriptParser fromCharStream(CharStream inputStream) {
+        CommonTokenStream tokenStream = new CommonTokenStream(createLexer(inputStream));
         return new EventScriptParser(tokenStream);
     }
+
+    public TokenSource createLexer(CharStream inputStream) {
+        if (lexerType == LexerType.TABLE_DRIVEN) {
+            return new TableDrivenLexer(inputStream);
+        }
+        return new EventScriptLexer(inputStream);
+    }
+
+    /**
+     * Parses the whole script in two stages. The first pass uses SLL prediction and bails out on the first
+     * syntax error; only when it fails is the input parsed again with full LL prediction and the parser's
+     * regular error reporting and recovery. With {@link ParserType#PRATT} both stages are preceded by the
+     * hand-written {@link PrattParser}, which handles every valid script on its own.
+     */
+    public EventScriptParser.ScriptContext parseScript(String input) {
+        return parseScript(fromString(input));
+    }
+
+    public EventScriptParser.ScriptContext parseScript(CharStream input) {
+        return parseScript(fromCharStream(input));
+    }
+
+    EventScriptParser.ScriptContext parseScript(EventScriptParser parser) {
+        if (parserType == ParserType.PRATT) {
+            EventScriptParser.ScriptContext script = new PrattParser(parser.getTokenStream()).parseScript();
+            if (script != null) {
+                return script;
+            }
+            parser.reset();
+        }
+
+        ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        List<ANTLRErrorListener> errorListeners = new ArrayList<>(parser.getErrorListeners());
+
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.removeErrorListeners();
+        EventScriptParser.ScriptContext script;
+        try {
+            script = parser.script();
+        } catch (ParseCancellationException e) {
+            script = null;
+        }
+
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        parser.setErrorHandler(errorHandler);
+        errorListeners.forEach(parser::addErrorListener);
+        if (script != null) {
+            return script;
+        }
+        parser.reset();
+        return parser.script();
+    }
+
+    /**
+     * Parses the script once with ANTLR's profiling simulator and full LL prediction, so that the decisions
+     * which fall back from SLL show up in the profile. The {@link ParserType} is ignored, only the generated
+     * parser has decisions to profile.
+     */
+    public ParseProfile profileScript(String input) {
+        return profileScript(CharStreams.fromString(input));
+    }
+
+    public ParseProfile profileScript(CharStream input) {
+        EventScriptParser parser = fromCharStream(input);
+        parser.setProfile(true);
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+
+        long start = System.nanoTime();
+        EventScriptParser.ScriptContext script = parser.script();
+        return ParseProfile.of(parser, script, System.nanoTime() - start);
+    }
 }
@@ -0,0 +1,100 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ScriptCompiler;
+import com.github.mikee2509.eventscript.compiler.TypeChecker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU cache of compiled scripts keyed by a SHA-256 hash of the script text. A hit returns the
+ * previously compiled form without running the lexer or the parser again.
+ */
+public class ScriptCache<T> {
+    private final int maxSize;
+    private final Function<String, T> compiler;
+    private final Map<String, T> entries;
+
+    public ScriptCache(int maxSize, Function<String, T> compiler) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.compiler = compiler;
+        this.entries = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > ScriptCache.this.maxSize;
+            }
+        };
+    }
+
+    public static ScriptCache<EventScriptParser.ScriptContext> parseTreeCache(ParserCreator parserCreator,
+                                                                              int maxSize) {
+        return new ScriptCache<>(maxSize, parserCreator::parseScript);
+    }
+
+    /**
+     * Caches scripts lowered by the {@link ScriptCompiler} and checked by the {@link TypeChecker}, so type errors
+     * surface when a script is loaded. Unlike {@link #parseTreeCache} the entries retain no parse trees or tokens,
+     * which keeps large caches small.
+     */
+    public static ScriptCache<CompiledScript> compiledScriptCache(ParserCreator parserCreator, int maxSize) {
+        return new ScriptCache<>(maxSize, script ->
+            new TypeChecker().check(new ScriptCompiler().compile(parserCreator.parseScript(script))));
+    }
+
+    public T get(String script) {
+        String key = hash(script);
+        synchronized (entries) {
+            T cached = entries.get(key);
+            if (cached != null) return cached;
+        }
+
+        T compiled = compiler.apply(script);
+        synchronized (entries) {
+            T concurrentlyCompiled = entries.putIfAbsent(key, compiled);
+            return concurrentlyCompiled != null ? concurrentlyCompiled : compiled;
+        }
+    }
+
+    public boolean contains(String script) {
+        String key = hash(script);
+        synchronized (entries) {
+            return entries.containsKey(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    static String hash(String script) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] bytes = digest.digest(script.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
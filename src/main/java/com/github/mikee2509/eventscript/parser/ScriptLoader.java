@@ -0,0 +1,77 @@
+package com.github.mikee2509.eventscript.parser;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads UTF-8 scripts straight into the code point buffer consumed by the lexer. Files are memory-mapped and
+ * other inputs are streamed through a channel, so the script text is never copied into intermediate strings.
+ */
+public class ScriptLoader {
+    public static final String STDIN_SOURCE_NAME = "<stdin>";
+    private static final int DECODE_BUFFER_SIZE = 8192;
+
+    public CodePointCharStream fromPath(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Script " + path + " is too large to be loaded");
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return decode(bytes, (int) size, path.toString());
+        }
+    }
+
+    public CodePointCharStream fromStream(InputStream inputStream, String sourceName) throws IOException {
+        return CharStreams.fromChannel(Channels.newChannel(inputStream), StandardCharsets.UTF_8,
+            DECODE_BUFFER_SIZE, CodingErrorAction.REPLACE, sourceName, -1);
+    }
+
+    public CodePointCharStream fromStdin() throws IOException {
+        return fromStream(System.in, STDIN_SOURCE_NAME);
+    }
+
+    private CodePointCharStream decode(ByteBuffer bytes, int size, String sourceName)
+        throws CharacterCodingException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CodePointBuffer.Builder codePoints = CodePointBuffer.builder(size);
+        CharBuffer chars = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            appendDecoded(codePoints, chars);
+        } while (result.isOverflow());
+
+        decoder.flush(chars);
+        appendDecoded(codePoints, chars);
+        return CodePointCharStream.fromBuffer(codePoints.build(), sourceName);
+    }
+
+    private void appendDecoded(CodePointBuffer.Builder codePoints, CharBuffer chars) {
+        chars.flip();
+        codePoints.append(chars);
+        // a high surrogate left at the end of the buffer stays there until its low surrogate is decoded
+        chars.compact();
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.mikee2509.eventscript.parser;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Replacement of {@code length} code points starting at code point {@code offset} with {@code replacement}.
+ */
+@Getter
+@AllArgsConstructor
+public class TextEdit {
+    private final int offset;
+    private final int length;
+    private final String replacement;
+
+    public static TextEdit insert(int offset, String text) {
+        return new TextEdit(offset, 0, text);
+    }
+
+    public static TextEdit delete(int offset, int length) {
+        return new TextEdit(offset, length, "");
+    }
+
+    public int getEnd() {
+        return offset + length;
+    }
+}
@@ -0,0 +1,442 @@
+package com.github.mikee2509.eventscript.parser.lexer;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written replacement for {@link EventScriptLexer}. Scans a copy of the input as a {@code char[]} with a
+ * switch over the first character of each token and looks identifiers up in a perfect-hash keyword table. Emits
+ * the same token types, channels, positions and error reports as the generated lexer, including its longest-match
+ * and error recovery behaviour. Token text is read lazily from the original {@link CharStream}.
+ */
+public class TableDrivenLexer implements TokenSource {
+    private static final int KEYWORD_TABLE_SIZE = 128;
+    private static final char[][] KEYWORDS = new char[KEYWORD_TABLE_SIZE][];
+    private static final int[] KEYWORD_TYPES = new int[KEYWORD_TABLE_SIZE];
+    private static final int KEYWORD_SEED;
+
+    static {
+        List<String> keywords = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        for (int type = 1; type <= EventScriptLexer.VOCABULARY.getMaxTokenType(); type++) {
+            String literal = EventScriptLexer.VOCABULARY.getLiteralName(type);
+            if (literal != null && Character.isLetter(literal.charAt(1))) {
+                keywords.add(literal.substring(1, literal.length() - 1));
+                types.add(type);
+            }
+        }
+        keywords.add("true");
+        types.add(EventScriptLexer.BOOL_LITERAL);
+        keywords.add("false");
+        types.add(EventScriptLexer.BOOL_LITERAL);
+
+        KEYWORD_SEED = findSeed(keywords);
+        for (int i = 0; i < keywords.size(); i++) {
+            char[] keyword = keywords.get(i).toCharArray();
+            int slot = keywordSlot(KEYWORD_SEED, keyword, 0, keyword.length);
+            KEYWORDS[slot] = keyword;
+            KEYWORD_TYPES[slot] = types.get(i);
+        }
+    }
+
+    private final CharStream input;
+    private final Pair<TokenSource, CharStream> source;
+    private final char[] buffer;
+    private final List<ANTLRErrorListener> errorListeners = new ArrayList<>();
+    private TokenFactory<?> factory = CommonTokenFactory.DEFAULT;
+
+    private int position;
+    private int index;
+    private int line = 1;
+    private int charPositionInLine;
+
+    private int tokenStartPosition;
+    private int tokenStartIndex;
+    private int tokenStartLine;
+    private int tokenStartCharPositionInLine;
+
+    public TableDrivenLexer(CharStream input) {
+        this.input = input;
+        this.source = new Pair<>(this, input);
+        this.buffer = input.size() > 0 ? input.getText(Interval.of(0, input.size() - 1)).toCharArray() : new char[0];
+        this.errorListeners.add(ConsoleErrorListener.INSTANCE);
+    }
+
+    private static int findSeed(List<String> keywords) {
+        for (int seed = 1; seed < 1 << 20; seed++) {
+            boolean[] used = new boolean[KEYWORD_TABLE_SIZE];
+            boolean perfect = true;
+            for (String keyword : keywords) {
+                int slot = keywordSlot(seed, keyword.toCharArray(), 0, keyword.length());
+                if (used[slot]) {
+                    perfect = false;
+                    break;
+                }
+                used[slot] = true;
+            }
+            if (perfect) {
+                return seed;
+            }
+        }
+        throw new IllegalStateException("No perfect hash found for the keyword table");
+    }
+
+    private static int keywordSlot(int seed, char[] text, int from, int length) {
+        int hash = (text[from] * 31 + text[from + length - 1]) * seed + length;
+        hash ^= hash >>> 16;
+        return hash & (KEYWORD_TABLE_SIZE - 1);
+    }
+
+    public void addErrorListener(ANTLRErrorListener listener) {
+        errorListeners.add(listener);
+    }
+
+    public void removeErrorListeners() {
+        errorListeners.clear();
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public void setCharPositionInLine(int charPositionInLine) {
+        this.charPositionInLine = charPositionInLine;
+    }
+
+    @Override
+    public Token nextToken() {
+        while (true) {
+            tokenStartPosition = position;
+            tokenStartIndex = index;
+            tokenStartLine = line;
+            tokenStartCharPositionInLine = charPositionInLine;
+            if (position >= buffer.length) {
+                return createToken(Token.EOF, Token.DEFAULT_CHANNEL);
+            }
+
+            int type = scanToken();
+            if (type == Token.INVALID_TYPE) {
+                reportError();
+                continue;
+            }
+            boolean hidden = type == EventScriptLexer.WS || type == EventScriptLexer.COMMENT ||
+                type == EventScriptLexer.LINE_COMMENT;
+            return createToken(type, hidden ? Token.HIDDEN_CHANNEL : Token.DEFAULT_CHANNEL);
+        }
+    }
+
+    /**
+     * Consumes one token and returns its type, or {@link Token#INVALID_TYPE} after consuming the characters that
+     * the generated lexer would drop on a recognition error.
+     */
+    private int scanToken() {
+        char c = buffer[position];
+        switch (c) {
+            case '\r':
+            case '\n':
+                do {
+                    consumeNewline();
+                } while (is('\r') || is('\n'));
+                return EventScriptLexer.NL;
+            case ' ':
+            case '\t':
+            case '\f':
+                do {
+                    consume();
+                } while (is(' ') || is('\t') || is('\f'));
+                return EventScriptLexer.WS;
+            case '(':
+                return single(EventScriptLexer.LPAREN);
+            case ')':
+                return single(EventScriptLexer.RPAREN);
+            case '{':
+                return single(EventScriptLexer.LBRACE);
+            case '}':
+                return single(EventScriptLexer.RBRACE);
+            case ';':
+                return single(EventScriptLexer.SEMI);
+            case ',':
+                return single(EventScriptLexer.COMMA);
+            case '.':
+                return single(EventScriptLexer.DOT);
+            case '*':
+                return single(EventScriptLexer.MUL);
+            case '%':
+                return single(EventScriptLexer.MOD);
+            case ':':
+                return single(EventScriptLexer.COLON);
+            case '=':
+                return oneOrTwo('=', EventScriptLexer.EQUAL, EventScriptLexer.ASSIGN);
+            case '>':
+                return oneOrTwo('=', EventScriptLexer.GE, EventScriptLexer.GT);
+            case '<':
+                return oneOrTwo('=', EventScriptLexer.LE, EventScriptLexer.LT);
+            case '!':
+                return oneOrTwo('=', EventScriptLexer.NOTEQUAL, EventScriptLexer.BANG);
+            case '+':
+                return oneOrTwo('+', EventScriptLexer.INC, EventScriptLexer.ADD);
+            case '-':
+                consume();
+                if (is('-')) return single(EventScriptLexer.DEC);
+                if (is('>')) return single(EventScriptLexer.ARROW);
+                return EventScriptLexer.SUB;
+            case '&':
+                return pair('&', EventScriptLexer.AND);
+            case '|':
+                return pair('|', EventScriptLexer.OR);
+            case '/':
+                return slash();
+            case '"':
+                return string();
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return number();
+            default:
+                if (isLetter(Character.codePointAt(buffer, position))) {
+                    return identifier();
+                }
+                if (Character.isHighSurrogate(c)) {
+                    // a lone high surrogate can only start a surrogate pair, so the character after it fails
+                    consume();
+                }
+                return fail();
+        }
+    }
+
+    private int single(int type) {
+        consume();
+        return type;
+    }
+
+    private int oneOrTwo(char second, int twoCharType, int oneCharType) {
+        consume();
+        return is(second) ? single(twoCharType) : oneCharType;
+    }
+
+    private int pair(char second, int type) {
+        consume();
+        return is(second) ? single(type) : fail();
+    }
+
+    private int slash() {
+        consume();
+        if (is('/')) {
+            while (position < buffer.length && !is('\r') && !is('\n')) {
+                consume();
+            }
+            return EventScriptLexer.LINE_COMMENT;
+        }
+        if (!is('*')) {
+            return EventScriptLexer.DIV;
+        }
+
+        for (int end = position + 1; end + 1 < buffer.length; end++) {
+            if (buffer[end] == '*' && buffer[end + 1] == '/') {
+                while (position < end + 2) {
+                    consumeNewline();
+                }
+                return EventScriptLexer.COMMENT;
+            }
+        }
+        // without a closing "*/" the longest match is the division operator alone
+        return EventScriptLexer.DIV;
+    }
+
+    private int string() {
+        consume();
+        while (position < buffer.length) {
+            char c = buffer[position];
+            if (c == '"') {
+                return single(EventScriptLexer.STRING_LITERAL);
+            } else if (c == '\r' || c == '\n') {
+                return fail();
+            } else if (c == '\\') {
+                consume();
+                if (position >= buffer.length || "btnfr\"'\\".indexOf(buffer[position]) < 0) {
+                    return fail();
+                }
+            }
+            consume();
+        }
+        return fail();
+    }
+
+    private int number() {
+        int digitsEnd = position;
+        while (digitsEnd < buffer.length && isDigit(buffer[digitsEnd])) {
+            digitsEnd++;
+        }
+        if (digitsEnd + 1 < buffer.length && buffer[digitsEnd] == '.' && isDigit(buffer[digitsEnd + 1])) {
+            digitsEnd += 2;
+            while (digitsEnd < buffer.length && isDigit(buffer[digitsEnd])) {
+                digitsEnd++;
+            }
+            consumeAscii(digitsEnd);
+            return EventScriptLexer.FLOAT_LITERAL;
+        }
+        consumeAscii(buffer[position] == '0' ? position + 1 : digitsEnd);
+        return EventScriptLexer.DECIMAL_LITERAL;
+    }
+
+    private int identifier() {
+        consume();
+        while (position < buffer.length) {
+            int codePoint = Character.codePointAt(buffer, position);
+            if (!isLetter(codePoint) && !isDigit(codePoint)) {
+                break;
+            }
+            consume();
+        }
+
+        int start = tokenStartPosition;
+        int length = position - start;
+        int slot = keywordSlot(KEYWORD_SEED, buffer, start, length);
+        char[] keyword = KEYWORDS[slot];
+        if (keyword != null && regionMatches(keyword, start, length)) {
+            return KEYWORD_TYPES[slot];
+        }
+        if (length >= 2 && buffer[start] == '_' && buffer[start + 1] >= '1' && buffer[start + 1] <= '9' &&
+            allDigits(start + 2, position)) {
+            return EventScriptLexer.TUPLE_EXTRACT;
+        }
+        return EventScriptLexer.IDENTIFIER;
+    }
+
+    /**
+     * Mirrors the recovery of the generated lexer, which drops everything up to and including the character on
+     * which no rule could continue.
+     */
+    private int fail() {
+        if (position < buffer.length) {
+            consumeNewline();
+        }
+        return Token.INVALID_TYPE;
+    }
+
+    private void reportError() {
+        String text = input.getText(Interval.of(tokenStartIndex, index - 1));
+        String message = "token recognition error at: '" + escape(text) + "'";
+        for (ANTLRErrorListener listener : errorListeners) {
+            listener.syntaxError(null, null, tokenStartLine, tokenStartCharPositionInLine, message, null);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    private Token createToken(int type, int channel) {
+        return factory.create(source, type, null, channel, tokenStartIndex, index - 1,
+            tokenStartLine, tokenStartCharPositionInLine);
+    }
+
+    private boolean regionMatches(char[] keyword, int start, int length) {
+        if (keyword.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyword[i] != buffer[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean allDigits(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isDigit(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean is(char c) {
+        return position < buffer.length && buffer[position] == c;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(int codePoint) {
+        if (codePoint < 0x80) {
+            return codePoint >= 'a' && codePoint <= 'z' || codePoint >= 'A' && codePoint <= 'Z' ||
+                codePoint == '$' || codePoint == '_';
+        }
+        return codePoint < 0xD800 || codePoint > 0xDBFF;
+    }
+
+    private void consume() {
+        position += Character.charCount(Character.codePointAt(buffer, position));
+        index++;
+        charPositionInLine++;
+    }
+
+    private void consumeNewline() {
+        if (buffer[position] == '\n') {
+            position++;
+            index++;
+            line++;
+            charPositionInLine = 0;
+        } else {
+            consume();
+        }
+    }
+
+    private void consumeAscii(int end) {
+        int count = end - position;
+        position = end;
+        index += count;
+        charPositionInLine += count;
+    }
+
+    @Override
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+        return charPositionInLine;
+    }
+
+    @Override
+    public CharStream getInputStream() {
+        return input;
+    }
+
+    @Override
+    public String getSourceName() {
+        return input.getSourceName();
+    }
+
+    @Override
+    public void setTokenFactory(TokenFactory<?> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public TokenFactory<?> getTokenFactory() {
+        return factory;
+    }
+}
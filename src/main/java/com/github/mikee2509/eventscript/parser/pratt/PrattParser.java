@@ -0,0 +1,622 @@
+package com.github.mikee2509.eventscript.parser.pratt;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.EventScriptParser.*;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+/**
+ * Hand-written parser producing the same parse trees as {@link EventScriptParser}. Statements are parsed by plain
+ * recursive descent and expressions by precedence climbing, so long operator chains are built in a loop instead
+ * of through ANTLR's precedence predicates and adaptive prediction. The parser only recognizes valid scripts;
+ * on the first unexpected token it gives up and leaves error reporting to the generated parser.
+ */
+public class PrattParser {
+    private static final int ASSIGNMENT_PRECEDENCE = 1;
+    private static final int NEGATION_OPERAND_PRECEDENCE = 8;
+    private static final int UNARY_OPERAND_PRECEDENCE = 9;
+    private static final int NO_PRECEDENCE = -1;
+
+    private final TokenStream input;
+    private boolean matchedEof;
+
+    public PrattParser(TokenStream input) {
+        this.input = input;
+    }
+
+    private static class SyntaxError extends RuntimeException {
+        private SyntaxError() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Parses the token stream from its current position. Returns {@code null} on a syntax error, leaving the
+     * stream at the offending token.
+     */
+    public ScriptContext parseScript() {
+        try {
+            return script();
+        } catch (SyntaxError e) {
+            return null;
+        }
+    }
+
+    private ScriptContext script() {
+        ScriptContext ctx = enter(null, new ScriptContext(null, -1));
+        while (la(1) != EventScriptParser.FUNC && la(1) != Token.EOF) {
+            statement(ctx);
+        }
+        while (la(1) == EventScriptParser.FUNC) {
+            function(ctx);
+        }
+        match(ctx, Token.EOF);
+        return exit(ctx);
+    }
+
+    private StatementContext statement(ParserRuleContext parent) {
+        StatementContext base = new StatementContext(parent, -1);
+        switch (la(1)) {
+            case EventScriptParser.VAR:
+                if (la(3) == EventScriptParser.COLON) {
+                    VarDeclarationStmtContext ctx = enter(parent, new VarDeclarationStmtContext(base));
+                    variableDeclaration(ctx);
+                    eos(ctx);
+                    return exit(ctx);
+                } else {
+                    VarDefinitionStmtContext ctx = enter(parent, new VarDefinitionStmtContext(base));
+                    variableDefinition(ctx);
+                    eos(ctx);
+                    return exit(ctx);
+                }
+            case EventScriptParser.IF: {
+                IfStmtContext ctx = enter(parent, new IfStmtContext(base));
+                match(ctx, EventScriptParser.IF);
+                match(ctx, EventScriptParser.LPAREN);
+                expression(ctx, 0);
+                match(ctx, EventScriptParser.RPAREN);
+                blockOrStatement(ctx);
+                if (la(1) == EventScriptParser.ELSE) {
+                    match(ctx, EventScriptParser.ELSE);
+                    blockOrStatement(ctx);
+                }
+                return exit(ctx);
+            }
+            case EventScriptParser.FOR: {
+                ForStmtContext ctx = enter(parent, new ForStmtContext(base));
+                match(ctx, EventScriptParser.FOR);
+                match(ctx, EventScriptParser.LPAREN);
+                if (la(1) != EventScriptParser.SEMI) {
+                    forInit(ctx);
+                }
+                match(ctx, EventScriptParser.SEMI);
+                if (la(1) != EventScriptParser.SEMI) {
+                    expression(ctx, 0);
+                }
+                match(ctx, EventScriptParser.SEMI);
+                if (la(1) != EventScriptParser.RPAREN) {
+                    ctx.forUpdate = expressionList(ctx);
+                }
+                match(ctx, EventScriptParser.RPAREN);
+                blockOrStatement(ctx);
+                return exit(ctx);
+            }
+            case EventScriptParser.RETURN: {
+                ReturnStmtContext ctx = enter(parent, new ReturnStmtContext(base));
+                match(ctx, EventScriptParser.RETURN);
+                if (!isEos(la(1))) {
+                    expressionList(ctx);
+                }
+                eos(ctx);
+                return exit(ctx);
+            }
+            case EventScriptParser.BREAK: {
+                BreakStmtContext ctx = enter(parent, new BreakStmtContext(base));
+                match(ctx, EventScriptParser.BREAK);
+                eos(ctx);
+                return exit(ctx);
+            }
+            case EventScriptParser.CONTINUE: {
+                ContinueStmtContext ctx = enter(parent, new ContinueStmtContext(base));
+                match(ctx, EventScriptParser.CONTINUE);
+                eos(ctx);
+                return exit(ctx);
+            }
+            case EventScriptParser.NL:
+            case EventScriptParser.SEMI: {
+                NoOpStmtContext ctx = enter(parent, new NoOpStmtContext(base));
+                eos(ctx);
+                return exit(ctx);
+            }
+            default: {
+                ExpressionStmtContext ctx = enter(parent, new ExpressionStmtContext(base));
+                ctx.statementExpression = expression(ctx, 0);
+                eos(ctx);
+                return exit(ctx);
+            }
+        }
+    }
+
+    private EosContext eos(ParserRuleContext parent) {
+        EosContext ctx = enter(parent, new EosContext(parent, -1));
+        if (la(1) == EventScriptParser.SEMI) {
+            match(ctx, EventScriptParser.SEMI);
+            if (la(1) == EventScriptParser.NL) {
+                match(ctx, EventScriptParser.NL);
+            }
+        } else {
+            match(ctx, EventScriptParser.NL);
+        }
+        return exit(ctx);
+    }
+
+    private static boolean isEos(int type) {
+        return type == EventScriptParser.NL || type == EventScriptParser.SEMI;
+    }
+
+    private VariableDeclarationContext variableDeclaration(ParserRuleContext parent) {
+        VariableDeclarationContext ctx = enter(parent, new VariableDeclarationContext(parent, -1));
+        match(ctx, EventScriptParser.VAR);
+        match(ctx, EventScriptParser.IDENTIFIER);
+        match(ctx, EventScriptParser.COLON);
+        type(ctx);
+        return exit(ctx);
+    }
+
+    private VariableDefinitionContext variableDefinition(ParserRuleContext parent) {
+        VariableDefinitionContext ctx = enter(parent, new VariableDefinitionContext(parent, -1));
+        match(ctx, EventScriptParser.VAR);
+        match(ctx, EventScriptParser.IDENTIFIER);
+        match(ctx, EventScriptParser.ASSIGN);
+        expression(ctx, 0);
+        return exit(ctx);
+    }
+
+    private ForInitContext forInit(ParserRuleContext parent) {
+        ForInitContext ctx = enter(parent, new ForInitContext(parent, -1));
+        if (la(1) == EventScriptParser.VAR) {
+            variableDefinition(ctx);
+        } else {
+            expressionList(ctx);
+        }
+        return exit(ctx);
+    }
+
+    /**
+     * Parses an expression whose binary operators all bind at least as tightly as {@code minPrecedence}, using
+     * the precedence levels of the generated parser. The result is attached to {@code parent} once complete,
+     * like ANTLR does for left-recursive rules.
+     */
+    private ExpressionContext expression(ParserRuleContext parent, int minPrecedence) {
+        Token start = input.LT(1);
+        ExpressionContext left = primaryExpression(parent);
+        while (true) {
+            int precedence = binaryPrecedence(la(1));
+            if (precedence < minPrecedence) {
+                break;
+            }
+            ExpressionContext binary = binaryExpression(new ExpressionContext(parent, -1));
+            binary.start = start;
+            left.setParent(binary);
+            binary.addChild(left);
+            Token operator = consume(binary);
+            if (operator.getType() == EventScriptParser.DOT) {
+                ((LiteralFuncExpContext) binary).bop = operator;
+                literalFunctionCall(binary);
+            } else {
+                setBinaryOperator(binary, operator);
+                expression(binary, precedence == ASSIGNMENT_PRECEDENCE ? precedence : precedence + 1);
+            }
+            left = exit(binary);
+        }
+        if (parent != null) {
+            parent.addChild(left);
+        }
+        return left;
+    }
+
+    private ExpressionContext primaryExpression(ParserRuleContext parent) {
+        ExpressionContext base = new ExpressionContext(parent, -1);
+        switch (la(1)) {
+            case EventScriptParser.DECIMAL_LITERAL:
+            case EventScriptParser.FLOAT_LITERAL:
+            case EventScriptParser.DATETIME:
+            case EventScriptParser.DURATION:
+            case EventScriptParser.STRING_LITERAL:
+            case EventScriptParser.BOOL_LITERAL: {
+                LiteralExpContext ctx = enter(null, new LiteralExpContext(base));
+                literal(ctx);
+                return exit(ctx);
+            }
+            case EventScriptParser.IDENTIFIER:
+                if (la(2) == EventScriptParser.LPAREN) {
+                    FunctionExpContext ctx = enter(null, new FunctionExpContext(base));
+                    functionCall(ctx);
+                    return exit(ctx);
+                } else {
+                    IdentifierExpContext ctx = enter(null, new IdentifierExpContext(base));
+                    match(ctx, EventScriptParser.IDENTIFIER);
+                    return exit(ctx);
+                }
+            case EventScriptParser.ADD:
+            case EventScriptParser.SUB:
+            case EventScriptParser.INC:
+            case EventScriptParser.DEC: {
+                UnaryExpContext ctx = enter(null, new UnaryExpContext(base));
+                ctx.prefix = consume(ctx);
+                expression(ctx, UNARY_OPERAND_PRECEDENCE);
+                return exit(ctx);
+            }
+            case EventScriptParser.BANG: {
+                NegationExpContext ctx = enter(null, new NegationExpContext(base));
+                ctx.prefix = consume(ctx);
+                expression(ctx, NEGATION_OPERAND_PRECEDENCE);
+                return exit(ctx);
+            }
+            default: {
+                if (la(1) < EventScriptParser.RING || la(1) > EventScriptParser.ON_WIFI_DISABLED) {
+                    throw new SyntaxError();
+                }
+                BuiltInFuncExpContext ctx = enter(null, new BuiltInFuncExpContext(base));
+                builtInFunctionCall(ctx);
+                return exit(ctx);
+            }
+        }
+    }
+
+    private static int binaryPrecedence(int type) {
+        switch (type) {
+            case EventScriptParser.DOT:
+                return 12;
+            case EventScriptParser.MUL:
+            case EventScriptParser.DIV:
+            case EventScriptParser.MOD:
+                return 7;
+            case EventScriptParser.ADD:
+            case EventScriptParser.SUB:
+                return 6;
+            case EventScriptParser.LE:
+            case EventScriptParser.GE:
+            case EventScriptParser.GT:
+            case EventScriptParser.LT:
+                return 5;
+            case EventScriptParser.EQUAL:
+            case EventScriptParser.NOTEQUAL:
+                return 4;
+            case EventScriptParser.AND:
+                return 3;
+            case EventScriptParser.OR:
+                return 2;
+            case EventScriptParser.ASSIGN:
+                return ASSIGNMENT_PRECEDENCE;
+            default:
+                return NO_PRECEDENCE;
+        }
+    }
+
+    private ExpressionContext binaryExpression(ExpressionContext base) {
+        switch (la(1)) {
+            case EventScriptParser.DOT:
+                return new LiteralFuncExpContext(base);
+            case EventScriptParser.MUL:
+            case EventScriptParser.DIV:
+            case EventScriptParser.MOD:
+                return new MultiplicativeExpContext(base);
+            case EventScriptParser.ADD:
+            case EventScriptParser.SUB:
+                return new AdditiveExpContext(base);
+            case EventScriptParser.LE:
+            case EventScriptParser.GE:
+            case EventScriptParser.GT:
+            case EventScriptParser.LT:
+                return new RelationalExpContext(base);
+            case EventScriptParser.EQUAL:
+            case EventScriptParser.NOTEQUAL:
+                return new EqualityExpContext(base);
+            case EventScriptParser.AND:
+                return new LogicalAndExpContext(base);
+            case EventScriptParser.OR:
+                return new LogicalOrExpContext(base);
+            default:
+                return new AssignmentExpContext(base);
+        }
+    }
+
+    private static void setBinaryOperator(ExpressionContext ctx, Token operator) {
+        if (ctx instanceof MultiplicativeExpContext) {
+            ((MultiplicativeExpContext) ctx).bop = operator;
+        } else if (ctx instanceof AdditiveExpContext) {
+            ((AdditiveExpContext) ctx).bop = operator;
+        } else if (ctx instanceof RelationalExpContext) {
+            ((RelationalExpContext) ctx).bop = operator;
+        } else if (ctx instanceof EqualityExpContext) {
+            ((EqualityExpContext) ctx).bop = operator;
+        } else if (ctx instanceof LogicalAndExpContext) {
+            ((LogicalAndExpContext) ctx).bop = operator;
+        } else if (ctx instanceof LogicalOrExpContext) {
+            ((LogicalOrExpContext) ctx).bop = operator;
+        } else {
+            ((AssignmentExpContext) ctx).bop = operator;
+        }
+    }
+
+    private LiteralContext literal(ParserRuleContext parent) {
+        LiteralContext base = new LiteralContext(parent, -1);
+        LiteralContext ctx;
+        switch (la(1)) {
+            case EventScriptParser.DECIMAL_LITERAL:
+                ctx = enter(parent, new DecimalLiteralContext(base));
+                break;
+            case EventScriptParser.FLOAT_LITERAL:
+                ctx = enter(parent, new FloatLiteralContext(base));
+                break;
+            case EventScriptParser.DATETIME:
+                ctx = enter(parent, new DatetimeLiteralContext(base));
+                break;
+            case EventScriptParser.DURATION:
+                ctx = enter(parent, new DurationLiteralContext(base));
+                break;
+            case EventScriptParser.STRING_LITERAL:
+                ctx = enter(parent, new StringLiteralContext(base));
+                break;
+            case EventScriptParser.BOOL_LITERAL:
+                ctx = enter(parent, new BoolLiteralContext(base));
+                break;
+            default:
+                throw new SyntaxError();
+        }
+        Token token = consume(ctx);
+        if (token.getType() == EventScriptParser.DATETIME || token.getType() == EventScriptParser.DURATION) {
+            parExpressionList(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private FunctionCallContext functionCall(ParserRuleContext parent) {
+        FunctionCallContext ctx = enter(parent, new FunctionCallContext(parent, -1));
+        match(ctx, EventScriptParser.IDENTIFIER);
+        parExpressionList(ctx);
+        return exit(ctx);
+    }
+
+    private BuiltInFunctionCallContext builtInFunctionCall(ParserRuleContext parent) {
+        BuiltInFunctionCallContext ctx = enter(parent, new BuiltInFunctionCallContext(parent, -1));
+        builtInFunction(ctx);
+        parExpressionList(ctx);
+        return exit(ctx);
+    }
+
+    private BuiltInFunctionContext builtInFunction(ParserRuleContext parent) {
+        BuiltInFunctionContext ctx = builtInFunctionContext(la(1), new BuiltInFunctionContext(parent, -1));
+        if (ctx == null) {
+            throw new SyntaxError();
+        }
+        enter(parent, ctx);
+        consume(ctx);
+        return exit(ctx);
+    }
+
+    private static BuiltInFunctionContext builtInFunctionContext(int type, BuiltInFunctionContext base) {
+        switch (type) {
+            case EventScriptParser.RING:
+                return new RingFuncContext(base);
+            case EventScriptParser.SPEAK:
+                return new SpeakFuncContext(base);
+            case EventScriptParser.VIBRATE:
+                return new VibrateFuncContext(base);
+            case EventScriptParser.NOTIFY:
+                return new NotifyFuncContext(base);
+            case EventScriptParser.CALL:
+                return new CallFuncContext(base);
+            case EventScriptParser.LAUNCH:
+                return new LaunchFuncContext(base);
+            case EventScriptParser.ADD_TO_CALENDAR:
+                return new AddToCalendarFuncContext(base);
+            case EventScriptParser.SET_RINGER_VOLUME:
+                return new SetRingerVolumeFuncContext(base);
+            case EventScriptParser.SET_MEDIA_VOLUME:
+                return new SetMediaVolumeFuncContext(base);
+            case EventScriptParser.SET_ALARM_CLOCK:
+                return new SetAlarmClockFuncContext(base);
+            case EventScriptParser.SET_WIFI:
+                return new SetWifiFuncContext(base);
+            case EventScriptParser.SET_FLASHLIGHT:
+                return new SetFlashlightFuncContext(base);
+            case EventScriptParser.SET_BRIGHTNESS:
+                return new SetBrightnessFuncContext(base);
+            case EventScriptParser.ON_INTERVAL:
+                return new OnIntervalScheduleFuncContext(base);
+            case EventScriptParser.ON_TIME:
+                return new OnTimeScheduleFuncContext(base);
+            case EventScriptParser.ON_LOCATION:
+                return new OnLocationScheduleFuncContext(base);
+            case EventScriptParser.ON_MESSAGE:
+                return new OnMessageScheduleFuncContext(base);
+            case EventScriptParser.ON_WIFI_ENABLED:
+                return new OnWifiEnabledScheduleFuncContext(base);
+            case EventScriptParser.ON_WIFI_DISABLED:
+                return new OnWifiDisabledScheduleFuncContext(base);
+            default:
+                return null;
+        }
+    }
+
+    private LiteralFunctionCallContext literalFunctionCall(ParserRuleContext parent) {
+        LiteralFunctionCallContext ctx = enter(parent, new LiteralFunctionCallContext(parent, -1));
+        literalFunction(ctx);
+        if (la(1) == EventScriptParser.LPAREN) {
+            parExpressionList(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private LiteralFunctionContext literalFunction(ParserRuleContext parent) {
+        LiteralFunctionContext base = new LiteralFunctionContext(parent, -1);
+        LiteralFunctionContext ctx;
+        if (la(1) == EventScriptParser.TO_STRING) {
+            ctx = enter(parent, new ToStringFuncContext(base));
+        } else if (la(1) == EventScriptParser.TUPLE_EXTRACT) {
+            ctx = enter(parent, new TupleExtractFuncContext(base));
+        } else {
+            throw new SyntaxError();
+        }
+        consume(ctx);
+        return exit(ctx);
+    }
+
+    private ParExpressionListContext parExpressionList(ParserRuleContext parent) {
+        ParExpressionListContext ctx = enter(parent, new ParExpressionListContext(parent, -1));
+        match(ctx, EventScriptParser.LPAREN);
+        if (la(1) != EventScriptParser.RPAREN) {
+            expressionList(ctx);
+        }
+        match(ctx, EventScriptParser.RPAREN);
+        return exit(ctx);
+    }
+
+    private ExpressionListContext expressionList(ParserRuleContext parent) {
+        ExpressionListContext ctx = enter(parent, new ExpressionListContext(parent, -1));
+        expression(ctx, 0);
+        while (la(1) == EventScriptParser.COMMA) {
+            match(ctx, EventScriptParser.COMMA);
+            expression(ctx, 0);
+        }
+        return exit(ctx);
+    }
+
+    private TypeContext type(ParserRuleContext parent) {
+        TypeContext ctx = enter(parent, new TypeContext(parent, -1));
+        switch (la(1)) {
+            case EventScriptParser.BOOL:
+            case EventScriptParser.DATETIME:
+            case EventScriptParser.DURATION:
+            case EventScriptParser.FLOAT:
+            case EventScriptParser.FUNC:
+            case EventScriptParser.INT:
+            case EventScriptParser.STRING:
+            case EventScriptParser.VOID:
+                consume(ctx);
+                return exit(ctx);
+            default:
+                throw new SyntaxError();
+        }
+    }
+
+    private FunctionContext function(ParserRuleContext parent) {
+        FunctionContext ctx = enter(parent, new FunctionContext(parent, -1));
+        match(ctx, EventScriptParser.FUNC);
+        match(ctx, EventScriptParser.IDENTIFIER);
+        match(ctx, EventScriptParser.LPAREN);
+        if (la(1) == EventScriptParser.IDENTIFIER) {
+            parameterList(ctx);
+        }
+        match(ctx, EventScriptParser.RPAREN);
+        if (la(1) == EventScriptParser.ARROW) {
+            match(ctx, EventScriptParser.ARROW);
+            returnType(ctx);
+        }
+        block(ctx);
+        while (isEos(la(1))) {
+            eos(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private ParameterListContext parameterList(ParserRuleContext parent) {
+        ParameterListContext ctx = enter(parent, new ParameterListContext(parent, -1));
+        parameter(ctx);
+        while (la(1) == EventScriptParser.COMMA) {
+            match(ctx, EventScriptParser.COMMA);
+            parameter(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private ParameterContext parameter(ParserRuleContext parent) {
+        ParameterContext ctx = enter(parent, new ParameterContext(parent, -1));
+        match(ctx, EventScriptParser.IDENTIFIER);
+        match(ctx, EventScriptParser.COLON);
+        type(ctx);
+        return exit(ctx);
+    }
+
+    private ReturnTypeContext returnType(ParserRuleContext parent) {
+        ReturnTypeContext ctx = enter(parent, new ReturnTypeContext(parent, -1));
+        if (la(1) == EventScriptParser.LPAREN) {
+            match(ctx, EventScriptParser.LPAREN);
+            type(ctx);
+            while (la(1) == EventScriptParser.COMMA) {
+                match(ctx, EventScriptParser.COMMA);
+                type(ctx);
+            }
+            match(ctx, EventScriptParser.RPAREN);
+        } else {
+            type(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private BlockContext block(ParserRuleContext parent) {
+        BlockContext ctx = enter(parent, new BlockContext(parent, -1));
+        match(ctx, EventScriptParser.LBRACE);
+        if (la(1) == EventScriptParser.NL) {
+            match(ctx, EventScriptParser.NL);
+        }
+        while (la(1) != EventScriptParser.RBRACE) {
+            statement(ctx);
+        }
+        match(ctx, EventScriptParser.RBRACE);
+        if (la(1) == EventScriptParser.NL) {
+            match(ctx, EventScriptParser.NL);
+        }
+        return exit(ctx);
+    }
+
+    private BlockOrStatementContext blockOrStatement(ParserRuleContext parent) {
+        BlockOrStatementContext ctx = enter(parent, new BlockOrStatementContext(parent, -1));
+        if (la(1) == EventScriptParser.LBRACE) {
+            block(ctx);
+        } else {
+            statement(ctx);
+        }
+        return exit(ctx);
+    }
+
+    private int la(int i) {
+        return input.LA(i);
+    }
+
+    private <T extends ParserRuleContext> T enter(ParserRuleContext parent, T ctx) {
+        ctx.start = input.LT(1);
+        if (parent != null) {
+            parent.addChild(ctx);
+        }
+        return ctx;
+    }
+
+    private <T extends ParserRuleContext> T exit(T ctx) {
+        // like the generated parser, rules that end at EOF stop on the EOF token itself
+        ctx.stop = matchedEof ? input.LT(1) : input.LT(-1);
+        return ctx;
+    }
+
+    private Token match(ParserRuleContext ctx, int type) {
+        if (la(1) != type) {
+            throw new SyntaxError();
+        }
+        return consume(ctx);
+    }
+
+    private Token consume(ParserRuleContext ctx) {
+        Token token = input.LT(1);
+        ctx.addChild(new TerminalNodeImpl(token));
+        if (token.getType() == Token.EOF) {
+            matchedEof = true;
+        } else {
+            input.consume();
+        }
+        return token;
+    }
+}
@@ -2,7 +2,6 @@ package com.github.mikee2509.eventscript.parser.util;
 
 import com.github.mikee2509.eventscript.EventScriptLexer;
 import com.github.mikee2509.eventscript.domain.expression.Literal;
-import org.antlr.v4.runtime.Token;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -10,35 +9,47 @@ import java.time.LocalDateTime;
 
 @Service
 public class LiteralArithmetic {
-    public Literal<Integer> decimalAdditiveOperation(Literal<Integer> left, Literal<Integer> right, Token bop) {
-        if (bop.getType() == EventScriptLexer.ADD) {
+    public Literal<Integer> decimalAdditiveOperation(Literal<Integer> left, Literal<Integer> right, int operator) {
+        if (operator == EventScriptLexer.ADD) {
             return new Literal<>(left.getValue() + right.getValue());
         } else {
             return new Literal<>(left.getValue() - right.getValue());
         }
     }
 
-    public Literal<Float> floatAdditiveOperation(Literal<Number> left, Literal<Number> right, Token bop) {
-        if (bop.getType() == EventScriptLexer.ADD) {
+    public Literal<Float> floatAdditiveOperation(Literal<Number> left, Literal<Number> right, int operator) {
+        if (operator == EventScriptLexer.ADD) {
             return new Literal<>(left.getValue().floatValue() + right.getValue().floatValue());
         } else {
             return new Literal<>(left.getValue().floatValue() - right.getValue().floatValue());
         }
     }
 
-    public Literal<Integer> decimalMultiplicativeOperation(Literal<Integer> left, Literal<Integer> right, Token bop) {
-        switch (bop.getType()) {
+    public Literal<Integer> decimalMultiplicativeOperation(Literal<Integer> left, Literal<Integer> right,
+                                                           int operator) {
+        switch (operator) {
             case EventScriptLexer.MUL:
                 return new Literal<>(left.getValue() * right.getValue());
             case EventScriptLexer.DIV:
-                return new Literal<>(left.getValue() / right.getValue());
+                return new Literal<>(left.getValue() / divisor(right));
             default:
-                return new Literal<>(left.getValue() % right.getValue());
+                return new Literal<>(left.getValue() % divisor(right));
         }
     }
 
-    public Literal<Float> floatMultiplicativeOperation(Literal<Number> left, Literal<Number> right, Token bop) {
-        switch (bop.getType()) {
+    /**
+     * Fails on a zero divisor explicitly, since the JVM drops the message of its own exception once the division
+     * has thrown often enough to be compiled.
+     */
+    private static int divisor(Literal<Integer> right) {
+        if (right.getValue() == 0) {
+            throw new ArithmeticException("/ by zero");
+        }
+        return right.getValue();
+    }
+
+    public Literal<Float> floatMultiplicativeOperation(Literal<Number> left, Literal<Number> right, int operator) {
+        switch (operator) {
             case EventScriptLexer.MUL:
                 return new Literal<>(left.getValue().floatValue() * right.getValue().floatValue());
             case EventScriptLexer.DIV:
@@ -48,48 +59,48 @@ public class LiteralArithmetic {
         }
     }
 
-    public Literal<Boolean> floatEqualityOperation(Literal<Number> left, Literal<Number> right, Token bop) {
+    public Literal<Boolean> floatEqualityOperation(Literal<Number> left, Literal<Number> right, int operator) {
         Float floatLeft = left.getValue().floatValue();
         Float floatRight = right.getValue().floatValue();
-        if (bop.getType() == EventScriptLexer.EQUAL) {
+        if (operator == EventScriptLexer.EQUAL) {
             return new Literal<>(floatLeft.equals(floatRight));
         } else {
             return new Literal<>(!floatLeft.equals(floatRight));
         }
     }
 
-    public Literal<Boolean> decimalRelationalOperation(Literal<Integer> left, Literal<Integer> right, Token bop) {
+    public Literal<Boolean> decimalRelationalOperation(Literal<Integer> left, Literal<Integer> right, int operator) {
         int intLeft = left.getValue();
         int intRight = right.getValue();
-        return relationalOperation(bop, intLeft < intRight, intLeft > intRight, intLeft <= intRight,
+        return relationalOperation(operator, intLeft < intRight, intLeft > intRight, intLeft <= intRight,
             intLeft >= intRight);
     }
 
-    public Literal<Boolean> floatRelationalOperation(Literal<Number> left, Literal<Number> right, Token bop) {
+    public Literal<Boolean> floatRelationalOperation(Literal<Number> left, Literal<Number> right, int operator) {
         float floatLeft = left.getValue().floatValue();
         float floatRight = right.getValue().floatValue();
-        return relationalOperation(bop, floatLeft < floatRight, floatLeft > floatRight, floatLeft <= floatRight,
+        return relationalOperation(operator, floatLeft < floatRight, floatLeft > floatRight, floatLeft <= floatRight,
             floatLeft >= floatRight);
     }
 
     public Literal<Boolean> durationRelationalOperation(Literal<Duration> leftLiteral, Literal<Duration> rightLiteral,
-                                                        Token bop) {
+                                                        int operator) {
         Duration left = leftLiteral.getValue();
         Duration right = rightLiteral.getValue();
-        return relationalOperation(bop, left.compareTo(right) < 0, left.compareTo(right) > 0,
+        return relationalOperation(operator, left.compareTo(right) < 0, left.compareTo(right) > 0,
             left.compareTo(right) <= 0, left.compareTo(right) >= 0);
     }
 
     public Literal<Boolean> datetimeRelationalOperation(Literal<LocalDateTime> leftLiteral,
-                                                        Literal<LocalDateTime> rightLiteral, Token bop) {
+                                                        Literal<LocalDateTime> rightLiteral, int operator) {
         LocalDateTime left = leftLiteral.getValue();
         LocalDateTime right = rightLiteral.getValue();
-        return relationalOperation(bop, left.compareTo(right) < 0, left.compareTo(right) > 0,
+        return relationalOperation(operator, left.compareTo(right) < 0, left.compareTo(right) > 0,
             left.compareTo(right) <= 0, left.compareTo(right) >= 0);
     }
 
-    private Literal<Boolean> relationalOperation(Token bop, boolean lt, boolean gt, boolean le, boolean ge) {
-        switch (bop.getType()) {
+    private Literal<Boolean> relationalOperation(int operator, boolean lt, boolean gt, boolean le, boolean ge) {
+        switch (operator) {
             case EventScriptLexer.LT:
                 return new Literal<>(lt);
             case EventScriptLexer.GT:
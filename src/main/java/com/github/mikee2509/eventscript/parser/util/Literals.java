@@ -0,0 +1,104 @@
+package com.github.mikee2509.eventscript.parser.util;
+
+import com.github.mikee2509.eventscript.domain.exception.LiteralException;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import org.antlr.v4.runtime.Token;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.stream.Stream;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.INT;
+
+/**
+ * Literal semantics shared by every execution engine.
+ */
+public final class Literals {
+    private Literals() {
+    }
+
+    private static Integer getIntValue(Tuple tuple, int i) {
+        return (Integer) tuple.literals()[i].getValue();
+    }
+
+    /**
+     * Evaluates {@code datetime(...)} for its evaluated parameter list, which is void for {@code datetime()}.
+     */
+    public static Literal datetime(Literal parameters, Token token) {
+        if (parameters.isVoidLiteral()) {
+            return new Literal<>(LocalDateTime.now());
+        } else if (parameters.isTupleLiteral()) {
+            Tuple tuple = (Tuple) parameters.getValue();
+            if (tuple.size() < 5 || tuple.size() > 6 || Stream.of(tuple.types()).anyMatch(t -> t != INT)) {
+                throw LiteralException.wrongDatetimeParameters(token);
+            }
+            LocalDateTime time = LocalDateTime.of(getIntValue(tuple, 0), getIntValue(tuple, 1), getIntValue(tuple, 2),
+                getIntValue(tuple, 3), getIntValue(tuple, 4));
+            if (tuple.size() == 6) {
+                time = time.withSecond(getIntValue(tuple, 5));
+            }
+            return new Literal<>(time);
+        } else {
+            throw LiteralException.wrongDatetimeParameters(token);
+        }
+    }
+
+    /**
+     * Evaluates {@code duration(...)} for its evaluated parameter list, which is void for {@code duration()}.
+     */
+    public static Literal duration(Literal parameters, Token token) {
+        if (parameters.isVoidLiteral()) {
+            return new Literal<>(Duration.ZERO);
+        } else if (parameters.isTupleLiteral()) {
+            Tuple tuple = (Tuple) parameters.getValue();
+            if (tuple.size() > 4 || Stream.of(tuple.types()).anyMatch(t -> t != INT)) {
+                throw LiteralException.wrongDurationParameters(token);
+            }
+            Duration duration = Duration.ofSeconds(getIntValue(tuple, 0));
+            if (tuple.size() > 1) {
+                duration = duration.plusMinutes(getIntValue(tuple, 1));
+            }
+            if (tuple.size() > 2) {
+                duration = duration.plusHours(getIntValue(tuple, 2));
+            }
+            if (tuple.size() > 3) {
+                duration = duration.plusDays(getIntValue(tuple, 3));
+            }
+            return new Literal<>(duration);
+        } else {
+            throw LiteralException.wrongDurationParameters(token);
+        }
+    }
+
+    /**
+     * Formats a literal the way {@code toString} does.
+     */
+    public static String format(Literal literal) {
+        if (literal.isDatetimeLiteral()) {
+            LocalDateTime date = (LocalDateTime) literal.getValue();
+            return date.format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
+        }
+        if (literal.isDurationLiteral()) {
+            Duration duration = (Duration) literal.getValue();
+            StringBuilder d = new StringBuilder();
+            if (duration.getSeconds() >= 86400) {
+                d.append(duration.toDays()).append("d ");
+                duration = duration.minusDays(duration.toDays());
+            }
+            if (duration.getSeconds() >= 3600) {
+                d.append(duration.toHours()).append("h ");
+                duration = duration.minusHours(duration.toHours());
+            }
+            if (duration.getSeconds() >= 60) {
+                d.append(duration.toMinutes()).append("m ");
+                duration = duration.minusMinutes(duration.toMinutes());
+            }
+            d.append(duration.getSeconds()).append("s");
+            return d.toString();
+        }
+        return literal.getValue().toString();
+    }
+}
@@ -4,8 +4,21 @@ import com.github.mikee2509.eventscript.domain.expression.Function;
 import com.github.mikee2509.eventscript.domain.scope.Declarable;
 import com.github.mikee2509.eventscript.domain.scope.Scope;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Besides the current scope, it tracks which names functions are bound to. The version of function bindings changes
+ * whenever such a name is defined, assigned or goes out of scope, so that what a function name resolved to can be
+ * cached until then.
+ */
 public class ScopeManager {
     private Scope scope;
+    private final Set<String> functionNames = new HashSet<>();
+    private final Set<Scope> rebindingScopes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int functionBindingsVersion;
 
     public ScopeManager() {
         this.scope = new Scope();
@@ -24,6 +37,9 @@ public class ScopeManager {
     }
 
     public void abandonScope() {
+        if (!rebindingScopes.isEmpty() && rebindingScopes.remove(scope)) {
+            functionBindingsVersion++;
+        }
         scope = scope.getParentScope();
     }
 
@@ -32,7 +48,19 @@ public class ScopeManager {
     }
 
     public boolean defineSymbol(String identifier, Declarable value) {
-        return scope.defineSymbol(identifier, value);
+        if (!scope.defineSymbol(identifier, value)) {
+            return false;
+        }
+        if (value instanceof Function) {
+            functionNames.add(identifier);
+        } else if (!functionNames.contains(identifier)) {
+            return true;
+        }
+        if (!isRootScope()) {
+            rebindingScopes.add(scope);
+        }
+        functionBindingsVersion++;
+        return true;
     }
 
     public Declarable lookupSymbol(String identifier) {
@@ -40,7 +68,17 @@ public class ScopeManager {
     }
 
     public boolean updateSymbol(String identifier, Declarable value) {
-        return scope.updateSymbol(identifier, value);
+        if (!scope.updateSymbol(identifier, value)) {
+            return false;
+        }
+        if (functionNames.contains(identifier)) {
+            functionBindingsVersion++;
+        }
+        return true;
+    }
+
+    public int getFunctionBindingsVersion() {
+        return functionBindingsVersion;
     }
 
     public boolean isRootScope() {
@@ -0,0 +1,46 @@
+package com.github.mikee2509.eventscript.parser.util;
+
+public final class StringLiterals {
+    private StringLiterals() {
+    }
+
+    /**
+     * Strips the quotes of a {@code STRING_LITERAL} token text and replaces its escape sequences in a single pass.
+     */
+    public static String unescape(String literalText) {
+        int end = literalText.length() - 1;
+        int escape = literalText.indexOf('\\', 1);
+        if (escape < 0 || escape >= end) {
+            return literalText.substring(1, end);
+        }
+        StringBuilder string = new StringBuilder(end - 1);
+        string.append(literalText, 1, escape);
+        for (int i = escape; i < end; i++) {
+            char c = literalText.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                string.append(escaped(literalText.charAt(++i)));
+            } else {
+                string.append(c);
+            }
+        }
+        return string.toString();
+    }
+
+    private static char escaped(char c) {
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            default:
+                // the lexer only accepts escaped quotes and backslashes otherwise
+                return c;
+        }
+    }
+}
@@ -4,24 +4,27 @@ import com.github.mikee2509.eventscript.EventScriptLexer;
 import com.github.mikee2509.eventscript.EventScriptParser;
 import com.github.mikee2509.eventscript.EventScriptParserBaseVisitor;
 import com.github.mikee2509.eventscript.domain.exception.FunctionException;
-import com.github.mikee2509.eventscript.domain.exception.LiteralException;
 import com.github.mikee2509.eventscript.domain.exception.OperationException;
 import com.github.mikee2509.eventscript.domain.exception.ScopeException;
 import com.github.mikee2509.eventscript.domain.exception.control.ReturnException;
 import com.github.mikee2509.eventscript.domain.expression.Function;
 import com.github.mikee2509.eventscript.domain.expression.Literal;
 import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
 import com.github.mikee2509.eventscript.domain.scope.Declarable;
 import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.util.Literals;
 import com.github.mikee2509.eventscript.parser.util.ScopeManager;
+import com.github.mikee2509.eventscript.parser.util.StringLiterals;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import static com.github.mikee2509.eventscript.domain.exception.Operation.*;
-import static com.github.mikee2509.eventscript.domain.expression.Type.INT;
 import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
 
 public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
@@ -29,6 +32,8 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
     private LiteralArithmetic la;
     private FunctionVisitor functionVisitor;
     private FunctionCallListener functionCallListener = (ctx) -> {};
+    private final Map<EventScriptParser.FunctionCallContext, CallSite> callSites =
+        Collections.synchronizedMap(new IdentityHashMap<>());
 
     public ExpressionVisitor(ScopeManager scope, LiteralArithmetic la, FunctionVisitor functionVisitor) {
         this.scope = scope;
@@ -42,6 +47,31 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
         functionVisitor.setFunctionCallListener(functionCallListener);
     }
 
+    /**
+     * Drops the inline caches, which hold on to the call sites of the visited tree. Calls scheduled by the script
+     * fill them again as they run, but those keep the tree reachable anyway.
+     */
+    public void clearCallSites() {
+        callSites.clear();
+    }
+
+    /**
+     * Inline cache of a call site: the function its name resolved to, with the parameter types arguments are
+     * checked against. It holds as long as no function name is bound anew. Caches are keyed by the identity of
+     * the call site's node.
+     */
+    private static class CallSite {
+        private final Function function;
+        private final Type[] parameterTypes;
+        private final int functionBindingsVersion;
+
+        private CallSite(Function function, Type[] parameterTypes, int functionBindingsVersion) {
+            this.function = function;
+            this.parameterTypes = parameterTypes;
+            this.functionBindingsVersion = functionBindingsVersion;
+        }
+    }
+
     private interface LiteralOperation {
         Literal execute();
     }
@@ -56,70 +86,19 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
         return new Literal<>(Float.valueOf(ctx.getText()));
     }
 
-    private Integer getIntValue(Tuple tuple, int i) {
-        return (Integer) tuple.literals()[i].getValue();
-    }
-
     @Override
     public Literal visitDatetimeLiteral(EventScriptParser.DatetimeLiteralContext ctx) {
-        Literal parameters = ctx.parExpressionList().accept(this);
-        if (parameters.isVoidLiteral()) {
-            return new Literal<>(LocalDateTime.now());
-        } else if (parameters.isTupleLiteral()) {
-            Tuple tuple = (Tuple) parameters.getValue();
-            if (tuple.size() < 5 || tuple.size() > 6 || Stream.of(tuple.types()).anyMatch(t -> t != INT)) {
-                throw LiteralException.wrongDatetimeParameters(ctx.start);
-            }
-            LocalDateTime time = LocalDateTime.of(getIntValue(tuple, 0), getIntValue(tuple, 1), getIntValue(tuple, 2),
-                getIntValue(tuple, 3), getIntValue(tuple, 4));
-            if (tuple.size() == 6) {
-                time = time.withSecond(getIntValue(tuple, 5));
-            }
-            return new Literal<>(time);
-        } else {
-            throw LiteralException.wrongDatetimeParameters(ctx.start);
-        }
+        return Literals.datetime(ctx.parExpressionList().accept(this), ctx.start);
     }
 
     @Override
     public Literal visitDurationLiteral(EventScriptParser.DurationLiteralContext ctx) {
-        Literal parameters = ctx.parExpressionList().accept(this);
-        if (parameters.isVoidLiteral()) {
-            return new Literal<>(Duration.ZERO);
-        } else if (parameters.isTupleLiteral()) {
-            Tuple tuple = (Tuple) parameters.getValue();
-            if (tuple.size() > 4 || Stream.of(tuple.types()).anyMatch(t -> t != INT)) {
-                throw LiteralException.wrongDurationParameters(ctx.start);
-            }
-            Duration duration = Duration.ofSeconds(getIntValue(tuple, 0));
-            if (tuple.size() > 1) {
-                duration = duration.plusMinutes(getIntValue(tuple, 1));
-            }
-            if (tuple.size() > 2) {
-                duration = duration.plusHours(getIntValue(tuple, 2));
-            }
-            if (tuple.size() > 3) {
-                duration = duration.plusDays(getIntValue(tuple, 3));
-            }
-            return new Literal<>(duration);
-        } else {
-            throw LiteralException.wrongDurationParameters(ctx.start);
-        }
+        return Literals.duration(ctx.parExpressionList().accept(this), ctx.start);
     }
 
     @Override
     public Literal visitStringLiteral(EventScriptParser.StringLiteralContext ctx) {
-        String string = ctx.getText().substring(1, ctx.getText().length() - 1);
-        String replacedString = string
-            .replaceAll("\\\\b", "\b")
-            .replaceAll("\\\\t", "\t")
-            .replaceAll("\\\\n", "\n")
-            .replaceAll("\\\\f", "\f")
-            .replaceAll("\\\\r", "\r")
-            .replaceAll("\\\\\"", "\"")
-            .replaceAll("\\\\\'", "\'")
-            .replaceAll("\\\\\\\\", Matcher.quoteReplacement("\\"));
-        return new Literal<>(replacedString);
+        return new Literal<>(StringLiterals.unescape(ctx.getText()));
     }
 
     @Override
@@ -166,8 +145,8 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
         }
 
         Literal result = applyOperation(left, right,
-            () -> la.decimalAdditiveOperation(left, right, ctx.bop),
-            () -> la.floatAdditiveOperation(left, right, ctx.bop));
+            () -> la.decimalAdditiveOperation(left, right, ctx.bop.getType()),
+            () -> la.floatAdditiveOperation(left, right, ctx.bop.getType()));
 
         if (result != null) {
             return result;
@@ -182,8 +161,8 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
         Literal right = ctx.expression(1).accept(this);
 
         Literal result = applyOperation(left, right,
-            () -> la.decimalMultiplicativeOperation(left, right, ctx.bop),
-            () -> la.floatMultiplicativeOperation(left, right, ctx.bop));
+            () -> la.decimalMultiplicativeOperation(left, right, ctx.bop.getType()),
+            () -> la.floatMultiplicativeOperation(left, right, ctx.bop.getType()));
 
         if (result != null) return result;
         throw new OperationException(ctx.start, left, right, MULTIPLICATIVE);
@@ -292,7 +271,7 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
 
         Literal result = applyOperation(left, right,
             () -> null,
-            () -> la.floatEqualityOperation(left, right, ctx.bop));
+            () -> la.floatEqualityOperation(left, right, ctx.bop.getType()));
 
         if (result != null) return result;
 
@@ -309,15 +288,15 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
         Literal right = ctx.expression(1).accept(this);
 
         if (left.isDatetimeLiteral() && right.isDatetimeLiteral()) {
-            return la.datetimeRelationalOperation(left, right, ctx.bop);
+            return la.datetimeRelationalOperation(left, right, ctx.bop.getType());
         }
         if (left.isDurationLiteral() && right.isDurationLiteral()) {
-            return la.durationRelationalOperation(left, right, ctx.bop);
+            return la.durationRelationalOperation(left, right, ctx.bop.getType());
         }
 
         Literal result = applyOperation(left, right,
-            () -> la.decimalRelationalOperation(left, right, ctx.bop),
-            () -> la.floatRelationalOperation(left, right, ctx.bop));
+            () -> la.decimalRelationalOperation(left, right, ctx.bop.getType()),
+            () -> la.floatRelationalOperation(left, right, ctx.bop.getType()));
 
         if (result != null) return result;
 
@@ -386,25 +365,35 @@ public class ExpressionVisitor extends EventScriptParserBaseVisitor<Literal> {
 
     @Override
     public Literal visitFunctionCall(EventScriptParser.FunctionCallContext ctx) {
-        String funcName = ctx.IDENTIFIER().getText();
-        Declarable declarable = scope.lookupSymbol(funcName);
-        if (!(declarable instanceof Function)) {
-            throw FunctionException.cannotResolve(ctx.start, funcName);
+        CallSite callSite = callSites.get(ctx);
+        if (callSite == null || callSite.functionBindingsVersion != scope.getFunctionBindingsVersion()) {
+            callSite = resolve(ctx);
+            callSites.put(ctx, callSite);
         }
-        Function function = (Function) declarable;
+        Function function = callSite.function;
         Literal paramsLiteral = ctx.parExpressionList().accept(this);
         if (function.numParams() == 0 && paramsLiteral.isVoidLiteral()) {
             return callFunction(function);
         }
         if (paramsLiteral.isTupleLiteral()) {
             Tuple tuple = (Tuple) paramsLiteral.getValue();
-            if (function.checkTypes(tuple.types())) {
+            if (Arrays.equals(callSite.parameterTypes, tuple.types())) {
                 return callFunction(function, tuple);
             }
         }
         throw FunctionException.argumentException(ctx.start, function);
     }
 
+    private CallSite resolve(EventScriptParser.FunctionCallContext ctx) {
+        String funcName = ctx.IDENTIFIER().getText();
+        Declarable declarable = scope.lookupSymbol(funcName);
+        if (!(declarable instanceof Function)) {
+            throw FunctionException.cannotResolve(ctx.start, funcName);
+        }
+        Function function = (Function) declarable;
+        return new CallSite(function, function.getParameterTypes(), scope.getFunctionBindingsVersion());
+    }
+
     private Literal callFunction(Function function) {
         return callFunction(function, null);
     }
@@ -8,12 +8,10 @@ import com.github.mikee2509.eventscript.domain.expression.Function;
 import com.github.mikee2509.eventscript.domain.expression.Literal;
 import com.github.mikee2509.eventscript.domain.expression.Tuple;
 import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.parser.util.Literals;
 import lombok.extern.java.Log;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.FormatStyle;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -75,29 +73,7 @@ public class FunctionVisitor extends EventScriptParserBaseVisitor<Literal> {
         Literal expression = getLiteralFuncExpression(ctx);
         Type[] stringableTypes = {BOOL, DATETIME, DURATION, FLOAT, INT, STRING};
         if (Stream.of(stringableTypes).anyMatch(type -> type == expression.getLiteralType())) {
-            if (expression.isDatetimeLiteral()) {
-                LocalDateTime date = (LocalDateTime) expression.getValue();
-                return new Literal<>(date.format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)));
-            }
-            if (expression.isDurationLiteral()) {
-                Duration duration = (Duration) expression.getValue();
-                StringBuilder d = new StringBuilder();
-                if (duration.getSeconds() >= 86400) {
-                    d.append(duration.toDays()).append("d ");
-                    duration = duration.minusDays(duration.toDays());
-                }
-                if (duration.getSeconds() >= 3600) {
-                    d.append(duration.toHours()).append("h ");
-                    duration = duration.minusHours(duration.toHours());
-                }
-                if (duration.getSeconds() >= 60) {
-                    d.append(duration.toMinutes()).append("m ");
-                    duration = duration.minusMinutes(duration.toMinutes());
-                }
-                d.append(duration.getSeconds()).append("s");
-                return new Literal<>(d.toString());
-            }
-            return new Literal<>(expression.getValue().toString());
+            return new Literal<>(Literals.format(expression));
         } else {
             throw FunctionException.toStringException(ctx.start, stringableTypes);
         }
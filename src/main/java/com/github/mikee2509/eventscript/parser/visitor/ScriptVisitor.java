@@ -26,7 +26,11 @@ public class ScriptVisitor extends EventScriptParserBaseVisitor<Void> {
     @Override
     public Void visitScript(EventScriptParser.ScriptContext ctx) {
         ctx.function().forEach(this::visitFunction);
-        ctx.statement().forEach(statementContext -> statementContext.accept(statementVisitor));
+        try {
+            ctx.statement().forEach(statementContext -> statementContext.accept(statementVisitor));
+        } finally {
+            statementVisitor.clearCallSites();
+        }
         return null;
     }
 
@@ -2,7 +2,6 @@ package com.github.mikee2509.eventscript.parser.visitor;
 
 import com.github.mikee2509.eventscript.EventScriptParser;
 import com.github.mikee2509.eventscript.EventScriptParserBaseVisitor;
-import com.github.mikee2509.eventscript.domain.exception.FunctionException;
 import com.github.mikee2509.eventscript.domain.exception.OperationException;
 import com.github.mikee2509.eventscript.domain.exception.ScopeException;
 import com.github.mikee2509.eventscript.domain.exception.control.BreakException;
@@ -10,8 +9,6 @@ import com.github.mikee2509.eventscript.domain.exception.control.ContinueExcepti
 import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
 import com.github.mikee2509.eventscript.domain.exception.control.ReturnException;
 import com.github.mikee2509.eventscript.domain.expression.Literal;
-import com.github.mikee2509.eventscript.domain.expression.Returnable;
-import com.github.mikee2509.eventscript.domain.expression.Tuple;
 import com.github.mikee2509.eventscript.domain.expression.Type;
 import com.github.mikee2509.eventscript.domain.scope.Declarable;
 import com.github.mikee2509.eventscript.parser.util.ScopeManager;
@@ -19,12 +16,11 @@ import org.antlr.v4.runtime.Token;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static com.github.mikee2509.eventscript.domain.expression.Type.BOOL;
-import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
 
 public class StatementVisitor extends EventScriptParserBaseVisitor<Void> {
     private ScopeManager scope;
@@ -38,6 +34,10 @@ public class StatementVisitor extends EventScriptParserBaseVisitor<Void> {
         expressionVisitor.setFunctionCallListener(functionContext -> functionContext.block().accept(this));
     }
 
+    public void clearCallSites() {
+        expressionVisitor.clearCallSites();
+    }
+
     @Override
     public Void visitVariableDeclaration(EventScriptParser.VariableDeclarationContext ctx) {
         Type type = ctx.type().accept(typeVisitor);
@@ -170,44 +170,12 @@ public class StatementVisitor extends EventScriptParserBaseVisitor<Void> {
         if (!scope.isFunctionScope()) {
             throw ControlFlowException.returnWrongContext(ctx.start);
         }
-        List<Literal> returnValues = null;
+        List<Literal> returnValues = Collections.emptyList();
         if (ctx.expressionList() != null) {
             returnValues = ctx.expressionList().expression().stream()
                 .map(expCtx -> expCtx.accept(expressionVisitor))
                 .collect(Collectors.toList());
         }
-
-        Returnable returnType = scope.getFunction().getReturnType();
-        if (returnType instanceof Type) {
-            Type requiredType = (Type) returnType;
-
-            if (requiredType == VOID) {
-                if (returnValues == null) {
-                    throw new ReturnException(ctx.start, null);
-                } else {
-                    throw FunctionException.returnTypeException(ctx.start, requiredType);
-                }
-            }
-
-            if (returnValues == null || returnValues.size() != 1 ||
-                requiredType != returnValues.get(0).getLiteralType()) {
-                throw FunctionException.returnTypeException(ctx.start, requiredType);
-            }
-
-            Tuple tuple = Tuple.creator().add(returnValues.get(0)).create();
-            throw new ReturnException(ctx.start, tuple);
-        } else {
-            Tuple requiredTuple = (Tuple) returnType;
-            if (returnValues == null) {
-                throw FunctionException.returnTypeException(ctx.start, requiredTuple.types());
-            }
-
-            Type[] valueTypes = returnValues.stream().map(Literal::getLiteralType).toArray(Type[]::new);
-            if (Arrays.equals(requiredTuple.types(), valueTypes)) {
-                throw new ReturnException(ctx.start, Tuple.fromLiteralList(returnValues));
-            } else {
-                throw FunctionException.returnTypeException(ctx.start, requiredTuple.types());
-            }
-        }
+        throw new ReturnException(ctx.start, scope.getFunction().returnTuple(returnValues, ctx.start));
     }
 }
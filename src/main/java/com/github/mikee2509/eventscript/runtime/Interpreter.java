@@ -0,0 +1,475 @@
+package com.github.mikee2509.eventscript.runtime;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.exception.control.BreakException;
+import com.github.mikee2509.eventscript.domain.exception.control.ContinueException;
+import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
+import com.github.mikee2509.eventscript.domain.exception.control.ReturnException;
+import com.github.mikee2509.eventscript.domain.exception.control.TailCallException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Returnable;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.stream.Collectors;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
+
+/**
+ * Executes a {@link CompiledScript} with the same semantics and errors as {@code ScriptVisitor} has for the parse
+ * tree the script was compiled from, except that a tree with syntax errors, which {@code ScriptVisitor} runs as
+ * ANTLR recovered it, is rejected by the {@code ScriptCompiler} before anything runs. The type checks of
+ * assignments, calls and returns are skipped for scripts the {@code TypeChecker} has fully checked.
+ * <p>
+ * Variables live in the slots the compiler resolved them to: the top level has one frame for the whole run and
+ * every call gets a frame of its own. A scheduled call runs on its timer thread with a frame, current function and
+ * loop depth of its own, sharing only the top-level frame with the rest of the script. The slots of a top-level
+ * block are cleared when it is left, so that the functions it called no longer see its variables. A function
+ * returning what another call returns is left before that call runs, so recursion in tail position runs in
+ * constant stack space.
+ */
+@Log
+public class Interpreter implements NodeVisitor<Literal> {
+    private final Operations operations;
+    private final Map<Function, FunctionDeclaration> declarations;
+    private boolean typeChecked;
+    private int[][] globalSlots;
+    private Declarable[] globals;
+    private Declarable[] frame;
+    private Function function;
+    private int loopDepth;
+
+    public Interpreter(LiteralArithmetic la) {
+        this.operations = new Operations(la);
+        this.declarations = new IdentityHashMap<>();
+    }
+
+    /**
+     * Creates the execution state of a scheduled call, which runs the functions of the script being executed by
+     * {@code interpreter} next to it.
+     */
+    private Interpreter(Interpreter interpreter) {
+        this.operations = interpreter.operations;
+        this.declarations = interpreter.declarations;
+        this.typeChecked = interpreter.typeChecked;
+        this.globalSlots = interpreter.globalSlots;
+        this.globals = interpreter.globals;
+    }
+
+    public void execute(CompiledScript script) {
+        typeChecked = script.isTypeChecked();
+        globalSlots = script.getGlobalSlots();
+        globals = frame = new Declarable[script.getFrameSize()];
+        List<FunctionDeclaration> functions = script.getFunctions();
+        for (int i = 0; i < functions.size(); i++) {
+            declarations.put(functions.get(i).getFunction(), functions.get(i));
+            globals[i] = functions.get(i).getFunction();
+        }
+        execute(script.getStatements());
+    }
+
+    private void execute(List<Statement> statements) {
+        for (Statement statement : statements) {
+            statement.accept(this);
+        }
+    }
+
+    private Literal evaluate(Expression expression) {
+        return expression.accept(this);
+    }
+
+    private Literal evaluateArguments(List<Expression> arguments) {
+        Literal[] values = new Literal[arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = evaluate(arguments.get(i));
+        }
+        return Operations.arguments(values);
+    }
+
+    private Declarable load(boolean local, int slot) {
+        if (local) {
+            return frame[slot];
+        }
+        for (int global : globalSlots[slot]) {
+            if (globals[global] != null) return globals[global];
+        }
+        return null;
+    }
+
+    private boolean store(Variable variable, Declarable value) {
+        if (variable.isLocal()) {
+            frame[variable.getSlot()] = value;
+            return true;
+        }
+        for (int global : globalSlots[variable.getSlot()]) {
+            if (globals[global] != null) {
+                globals[global] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void release(int firstSlot, int endSlot) {
+        if (frame == globals) {
+            Arrays.fill(globals, firstSlot, endSlot, null);
+        }
+    }
+
+    @Override
+    public Literal visitVariableDeclaration(VariableDeclaration node) {
+        frame[node.getSlot()] = operations.defaultValue(node.getType(), node.getLine(), node.getColumn());
+        return null;
+    }
+
+    @Override
+    public Literal visitVariableDefinition(VariableDefinition node) {
+        Literal value = evaluate(node.getValue());
+        operations.checkDefinable(value, node.getLine(), node.getColumn());
+        frame[node.getSlot()] = value;
+        return null;
+    }
+
+    @Override
+    public Literal visitRedefinition(Redefinition node) {
+        node.getDefinition().accept(this);
+        throw ScopeException.alreadyDefined(node.position(), node.getName());
+    }
+
+    @Override
+    public Literal visitIfStatement(IfStatement node) {
+        Literal condition = evaluate(node.getCondition());
+        operations.checkCondition(condition, node.getLine(), node.getColumn());
+        if ((Boolean) condition.getValue()) {
+            node.getThenBranch().accept(this);
+        } else if (node.getElseBranch() != null) {
+            node.getElseBranch().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Literal visitBlock(Block node) {
+        try {
+            execute(node.getStatements());
+        } finally {
+            release(node.getFirstSlot(), node.getEndSlot());
+        }
+        return null;
+    }
+
+    @Override
+    public Literal visitForStatement(ForStatement node) {
+        loopDepth++;
+        try {
+            execute(node.getInit());
+            while (isTrue(node.getCondition())) {
+                try {
+                    node.getBody().accept(this);
+                } catch (ContinueException ignored) {
+                }
+                node.getUpdate().forEach(this::evaluate);
+            }
+        } catch (BreakException ignored) {
+        } finally {
+            loopDepth--;
+            release(node.getFirstSlot(), node.getEndSlot());
+        }
+        return null;
+    }
+
+    private boolean isTrue(Expression condition) {
+        if (condition == null) {
+            return true;
+        }
+        Literal value = evaluate(condition);
+        return value.isBoolLiteral() && (Boolean) value.getValue();
+    }
+
+    @Override
+    public Literal visitReturnStatement(ReturnStatement node) {
+        if (function == null) {
+            throw ControlFlowException.returnWrongContext(node.position());
+        }
+        List<Literal> values;
+        if (node.getValues().size() == 1 && node.getValues().get(0) instanceof Call) {
+            Call call = (Call) node.getValues().get(0);
+            Function callee = resolve(call);
+            Tuple arguments = arguments(call, callee);
+            if (isTailCall(callee)) {
+                throw new TailCallException(callee, arguments);
+            }
+            values = Collections.singletonList(callFunction(callee, arguments));
+        } else {
+            values = node.getValues().stream()
+                .map(this::evaluate)
+                .collect(Collectors.toList());
+        }
+        if (typeChecked) {
+            throw new ReturnException(node.position(), values.isEmpty() ? null : Tuple.fromLiteralList(values));
+        }
+        throw new ReturnException(node.position(), function.returnTuple(values, node.position()));
+    }
+
+    @Override
+    public Literal visitBreakStatement(BreakStatement node) {
+        if (loopDepth > 0) {
+            throw new BreakException(node.position());
+        } else {
+            throw ControlFlowException.breakWrongContext(node.position());
+        }
+    }
+
+    @Override
+    public Literal visitContinueStatement(ContinueStatement node) {
+        if (loopDepth > 0) {
+            throw new ContinueException(node.position());
+        } else {
+            throw ControlFlowException.continueWrongContext(node.position());
+        }
+    }
+
+    @Override
+    public Literal visitExpressionStatement(ExpressionStatement node) {
+        evaluate(node.getExpression());
+        return null;
+    }
+
+    @Override
+    public Literal visitConstant(Constant node) {
+        return node.getValue();
+    }
+
+    @Override
+    public Literal visitDatetimeConstructor(DatetimeConstructor node) {
+        return Literals.datetime(evaluateArguments(node.getArguments()), node.position());
+    }
+
+    @Override
+    public Literal visitDurationConstructor(DurationConstructor node) {
+        return Literals.duration(evaluateArguments(node.getArguments()), node.position());
+    }
+
+    @Override
+    public Literal visitVariable(Variable node) {
+        Declarable declarable = load(node.isLocal(), node.getSlot());
+        if (declarable == null) {
+            throw ScopeException.undefinedVariable(node.position(), node.getName());
+        }
+        if (declarable instanceof Function) {
+            declarable = Literal.voidLiteral();
+        }
+        return (Literal) declarable;
+    }
+
+    @Override
+    public Literal visitUnary(Unary node) {
+        Literal value = operations.unary(node.getOperator(), evaluate(node.getOperand()), node.getLine(),
+            node.getColumn());
+        if (node.getOperator().isUpdating() && node.getOperand() instanceof Variable) {
+            store((Variable) node.getOperand(), value);
+        }
+        return value;
+    }
+
+    @Override
+    public Literal visitNegation(Negation node) {
+        return operations.negation(evaluate(node.getOperand()), node.getLine(), node.getColumn());
+    }
+
+    @Override
+    public Literal visitBinary(Binary node) {
+        Literal left = evaluate(node.getLeft());
+        Literal right = evaluate(node.getRight());
+        return operations.binary(node.getOperator(), left, right, node.getLine(), node.getColumn());
+    }
+
+    @Override
+    public Literal visitAssignment(Assignment node) {
+        if (!(node.getTarget() instanceof Variable)) {
+            throw OperationException.variableExpected(node.position());
+        }
+        Variable variable = (Variable) node.getTarget();
+        Literal currentValue = visitVariable(variable);
+        Literal newValue = evaluate(node.getValue());
+        if (!typeChecked) {
+            operations.checkAssignable(currentValue, newValue, node.getLine(), node.getColumn());
+        }
+        if (!store(variable, newValue)) {
+            //this should never happen
+            throw ScopeException.undefinedVariable(node.position(), variable.getName());
+        }
+        return newValue;
+    }
+
+    @Override
+    public Literal visitCall(Call node) {
+        Function function = resolve(node);
+        return callFunction(function, arguments(node, function));
+    }
+
+    private Function resolve(Call node) {
+        Declarable declarable = load(node.isLocal(), node.getSlot());
+        if (!(declarable instanceof Function)) {
+            throw FunctionException.cannotResolve(node.position(), node.getName());
+        }
+        return (Function) declarable;
+    }
+
+    /**
+     * Evaluates the arguments of a call. Returns {@code null} for a function without parameters.
+     */
+    private Tuple arguments(Call node, Function function) {
+        Literal arguments = evaluateArguments(node.getArguments());
+        if (function.numParams() == 0 && arguments.isVoidLiteral()) {
+            return null;
+        }
+        if (arguments.isTupleLiteral()) {
+            Tuple tuple = (Tuple) arguments.getValue();
+            if (typeChecked || function.checkTypes(tuple.types())) {
+                return tuple;
+            }
+        }
+        throw FunctionException.argumentException(node.position(), function);
+    }
+
+    /**
+     * A call returned as it is can take the place of the running function when the value it returns passes the
+     * return check of the running function unchanged.
+     */
+    private boolean isTailCall(Function callee) {
+        Returnable returnType = callee.getReturnType();
+        return returnType != VOID
+            && (typeChecked || returnType instanceof Type && returnType == function.getReturnType());
+    }
+
+    /**
+     * Runs a function in a frame of its own. Tail calls made by the function run in a loop reusing that frame, so
+     * recursion through them takes no stack.
+     */
+    private Literal callFunction(Function function, Tuple arguments) {
+        Declarable[] callerFrame = frame;
+        Function caller = this.function;
+        int callerLoopDepth = loopDepth;
+        try {
+            while (true) {
+                FunctionDeclaration declaration = declarations.get(function);
+                if (frame == callerFrame || frame.length != declaration.getFrameSize()) {
+                    frame = new Declarable[declaration.getFrameSize()];
+                } else {
+                    Arrays.fill(frame, null);
+                }
+                this.function = function;
+                loopDepth = 0;
+                Tuple returnTuple = null;
+                try {
+                    if (arguments != null) {
+                        System.arraycopy(arguments.literals(), 0, frame, 0, function.numParams());
+                    }
+                    execute(declaration.getBody());
+                } catch (ReturnException e) {
+                    returnTuple = e.getReturnTuple();
+                } catch (TailCallException e) {
+                    function = e.getFunction();
+                    arguments = e.getArguments();
+                    continue;
+                }
+
+                if (returnTuple == null) {
+                    if (function.getReturnType() != VOID) {
+                        throw FunctionException.missingReturnStatement(declaration.position());
+                    }
+                    return Literal.voidLiteral();
+                } else if (returnTuple.size() == 1) {
+                    return returnTuple.literals()[0];
+                } else {
+                    return new Literal<>(returnTuple);
+                }
+            }
+        } finally {
+            frame = callerFrame;
+            this.function = caller;
+            loopDepth = callerLoopDepth;
+        }
+    }
+
+    @Override
+    public Literal visitBuiltInCall(BuiltInCall node) {
+        switch (node.getFunction()) {
+            case SPEAK:
+                log.info(operations.speech(node.getName(), evaluateArguments(node.getArguments()), node.getLine(),
+                    node.getColumn()));
+                return Literal.voidLiteral();
+            case ON_INTERVAL:
+                return onInterval(node);
+            default:
+                throw FunctionException.unimplementedFunction(node.position(), node.getName());
+        }
+    }
+
+    private Literal onInterval(BuiltInCall node) {
+        Literal arguments = evaluateArguments(node.getArguments());
+        Function function = scheduledFunction(node);
+        Tuple tuple = operations.schedule(node.getName(), arguments, node.getLine(), node.getColumn());
+        Duration interval = (Duration) tuple.literals()[1].getValue();
+        Duration startDelay = (Duration) tuple.literals()[2].getValue();
+
+        Timer timer = new Timer();
+        timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    new Interpreter(Interpreter.this).callFunction(function, null);
+                }
+            },
+            startDelay.toMillis(),
+            interval.toMillis()
+        );
+
+        return Literal.voidLiteral();
+    }
+
+    /**
+     * Returns the first argument naming a function, which must be schedulable.
+     */
+    private Function scheduledFunction(BuiltInCall node) {
+        for (Expression argument : node.getArguments()) {
+            if (argument instanceof Variable) {
+                Variable variable = (Variable) argument;
+                Declarable declarable = load(variable.isLocal(), variable.getSlot());
+                if (declarable instanceof Function) {
+                    if (!((Function) declarable).isSchedulable()) break;
+                    return (Function) declarable;
+                }
+            }
+        }
+        throw FunctionException.cannotSchedule(node.argumentsPosition());
+    }
+
+    @Override
+    public Literal visitToStringCall(ToStringCall node) {
+        return operations.toString(evaluate(node.getTarget()), node.getLine(), node.getColumn());
+    }
+
+    @Override
+    public Literal visitTupleExtract(TupleExtract node) {
+        return operations.tupleExtract(evaluate(node.getTarget()), node.getIndex(), node.getLine(),
+            node.getColumn());
+    }
+}
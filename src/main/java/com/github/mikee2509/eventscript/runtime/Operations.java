@@ -0,0 +1,270 @@
+package com.github.mikee2509.eventscript.runtime;
+
+import com.github.mikee2509.eventscript.compiler.ir.BinaryOperator;
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.compiler.ir.UnaryOperator;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static com.github.mikee2509.eventscript.domain.exception.Operation.*;
+import static com.github.mikee2509.eventscript.domain.expression.Type.*;
+
+/**
+ * Semantics of the operations on literals shared by the execution engines of compiled scripts. Errors are reported
+ * at the given line and column, the position of the node being executed.
+ */
+public class Operations {
+    private static final Type[] SPEAKABLE_TYPES = {BOOL, FLOAT, INT, STRING};
+    private static final Type[] STRINGABLE_TYPES = {BOOL, DATETIME, DURATION, FLOAT, INT, STRING};
+    private static final Type[] SCHEDULE_PARAM_TYPES = {VOID, DURATION, DURATION};
+
+    private final LiteralArithmetic la;
+
+    public Operations(LiteralArithmetic la) {
+        this.la = la;
+    }
+
+    /**
+     * Returns the argument list of a call: void without arguments, a tuple otherwise.
+     */
+    public static Literal arguments(Literal[] values) {
+        if (values.length == 0) {
+            return Literal.voidLiteral();
+        }
+        Tuple.Creator creator = Tuple.creator();
+        for (Literal value : values) {
+            creator.add(value);
+        }
+        return new Literal<>(creator.create());
+    }
+
+    public Literal defaultValue(Type type, int line, int column) {
+        switch (type) {
+            case BOOL:
+                return new Literal<>(false);
+            case DATETIME:
+                return new Literal<>(LocalDateTime.now());
+            case DURATION:
+                return new Literal<>(Duration.ZERO);
+            case FLOAT:
+                return new Literal<>(0.0f);
+            case INT:
+                return new Literal<>(0);
+            case STRING:
+                return new Literal<>("");
+            default:
+                throw ScopeException.cannotBeDefined(Node.position(line, column), type);
+        }
+    }
+
+    public void checkDefinable(Literal value, int line, int column) {
+        if (value.isVoidLiteral()) {
+            throw ScopeException.cannotBeDefined(Node.position(line, column), value.getLiteralType());
+        }
+    }
+
+    public void checkAssignable(Literal currentValue, Literal newValue, int line, int column) {
+        if (!newValue.isOfSameType(currentValue)) {
+            throw OperationException.differentTypeExpected(Node.position(line, column), currentValue.getLiteralType());
+        }
+    }
+
+    public void checkCondition(Literal condition, int line, int column) {
+        if (!condition.isBoolLiteral()) {
+            throw OperationException.differentTypeExpected(Node.position(line, column), BOOL);
+        }
+    }
+
+    public Literal unary(UnaryOperator operator, Literal operand, int line, int column) {
+        switch (operator) {
+            case INCREMENT:
+                return operand.isDecimalLiteral() ? new Literal<>((Integer) operand.getValue() + 1)
+                    : new Literal<>(floatOperand(operand, line, column) + 1.0f);
+            case DECREMENT:
+                return operand.isDecimalLiteral() ? new Literal<>((Integer) operand.getValue() - 1)
+                    : new Literal<>(floatOperand(operand, line, column) - 1.0f);
+            case PLUS:
+                floatOrDecimalOperand(operand, line, column);
+                return operand;
+            case MINUS:
+                return operand.isDecimalLiteral() ? new Literal<>(-(Integer) operand.getValue())
+                    : new Literal<>(-floatOperand(operand, line, column));
+        }
+        throw new OperationException(Node.position(line, column), operand, UNARY);
+    }
+
+    private static Float floatOperand(Literal operand, int line, int column) {
+        floatOrDecimalOperand(operand, line, column);
+        return (Float) operand.getValue();
+    }
+
+    private static void floatOrDecimalOperand(Literal operand, int line, int column) {
+        if (!operand.isDecimalLiteral() && !operand.isFloatLiteral()) {
+            throw new OperationException(Node.position(line, column), operand, UNARY);
+        }
+    }
+
+    public Literal negation(Literal operand, int line, int column) {
+        if (operand.isBoolLiteral()) {
+            return new Literal<>(!(Boolean) operand.getValue());
+        } else {
+            throw new OperationException(Node.position(line, column), operand, NEGATION);
+        }
+    }
+
+    public Literal binary(BinaryOperator operator, Literal left, Literal right, int line, int column) {
+        switch (operator.getKind()) {
+            case ADDITIVE:
+                return additive(operator, left, right, line, column);
+            case MULTIPLICATIVE:
+                return multiplicative(operator, left, right, line, column);
+            case RELATIONAL:
+                return relational(operator, left, right, line, column);
+            case EQUALITY:
+                return equality(operator, left, right);
+            default:
+                return logical(operator, left, right, line, column);
+        }
+    }
+
+    private Literal additive(BinaryOperator operator, Literal left, Literal right, int line, int column) {
+        if (left.isStringLiteral() || right.isStringLiteral()) {
+            if (operator == BinaryOperator.ADD) {
+                return new Literal<>(left.getValue().toString() + right.getValue().toString());
+            } else {
+                throw new OperationException(Node.position(line, column), left, right, ADDITIVE);
+            }
+        }
+        if (left.isDatetimeLiteral() && right.isDurationLiteral()) {
+            LocalDateTime date = (LocalDateTime) left.getValue();
+            Duration duration = (Duration) right.getValue();
+            return new Literal<>(operator == BinaryOperator.ADD ? date.plus(duration) : date.minus(duration));
+        }
+        if (left.isDurationLiteral() && right.isDatetimeLiteral() && operator == BinaryOperator.ADD) {
+            return new Literal<>(((LocalDateTime) right.getValue()).plus((Duration) left.getValue()));
+        }
+        if (left.isDurationLiteral() && right.isDurationLiteral()) {
+            Duration leftDuration = (Duration) left.getValue();
+            Duration rightDuration = (Duration) right.getValue();
+            return new Literal<>(operator == BinaryOperator.ADD ? leftDuration.plus(rightDuration)
+                : leftDuration.minus(rightDuration));
+        }
+        if (bothDecimal(left, right)) {
+            return la.decimalAdditiveOperation(left, right, operator.getTokenType());
+        }
+        if (bothNumeric(left, right)) {
+            return la.floatAdditiveOperation(left, right, operator.getTokenType());
+        }
+        throw new OperationException(Node.position(line, column), left, right, ADDITIVE);
+    }
+
+    private Literal multiplicative(BinaryOperator operator, Literal left, Literal right, int line, int column) {
+        if (bothDecimal(left, right)) {
+            return la.decimalMultiplicativeOperation(left, right, operator.getTokenType());
+        }
+        if (bothNumeric(left, right)) {
+            return la.floatMultiplicativeOperation(left, right, operator.getTokenType());
+        }
+        throw new OperationException(Node.position(line, column), left, right, MULTIPLICATIVE);
+    }
+
+    private Literal relational(BinaryOperator operator, Literal left, Literal right, int line, int column) {
+        if (left.isDatetimeLiteral() && right.isDatetimeLiteral()) {
+            return la.datetimeRelationalOperation(left, right, operator.getTokenType());
+        }
+        if (left.isDurationLiteral() && right.isDurationLiteral()) {
+            return la.durationRelationalOperation(left, right, operator.getTokenType());
+        }
+        if (bothDecimal(left, right)) {
+            return la.decimalRelationalOperation(left, right, operator.getTokenType());
+        }
+        if (bothNumeric(left, right)) {
+            return la.floatRelationalOperation(left, right, operator.getTokenType());
+        }
+        throw new OperationException(Node.position(line, column), left, right, RELATIONAL);
+    }
+
+    private Literal equality(BinaryOperator operator, Literal left, Literal right) {
+        if (bothNumeric(left, right) && !bothDecimal(left, right)) {
+            return la.floatEqualityOperation(left, right, operator.getTokenType());
+        }
+        boolean equal = left.getValue().equals(right.getValue());
+        return new Literal<>(operator == BinaryOperator.EQUAL ? equal : !equal);
+    }
+
+    private static Literal logical(BinaryOperator operator, Literal left, Literal right, int line, int column) {
+        if (left.isBoolLiteral() && right.isBoolLiteral()) {
+            boolean leftValue = (Boolean) left.getValue();
+            boolean rightValue = (Boolean) right.getValue();
+            return new Literal<>(operator == BinaryOperator.AND ? leftValue && rightValue : leftValue || rightValue);
+        }
+        throw OperationException.bothOperandsMustBeBool(Node.position(line, column));
+    }
+
+    private static boolean bothDecimal(Literal left, Literal right) {
+        return left.isDecimalLiteral() && right.isDecimalLiteral();
+    }
+
+    private static boolean bothNumeric(Literal left, Literal right) {
+        return (left.isDecimalLiteral() || left.isFloatLiteral())
+            && (right.isDecimalLiteral() || right.isFloatLiteral());
+    }
+
+    public Literal toString(Literal target, int line, int column) {
+        if (Stream.of(STRINGABLE_TYPES).anyMatch(type -> type == target.getLiteralType())) {
+            return new Literal<>(Literals.format(target));
+        } else {
+            throw FunctionException.toStringException(Node.position(line, column), STRINGABLE_TYPES);
+        }
+    }
+
+    public Literal tupleExtract(Literal target, int index, int line, int column) {
+        if (!target.isTupleLiteral()) {
+            throw OperationException.differentTypeExpected(Node.position(line, column), TUPLE);
+        }
+        Tuple tuple = (Tuple) target.getValue();
+        if (tuple.size() < index) {
+            throw OperationException.tupleExtractException(Node.position(line, column), tuple.size());
+        }
+        return tuple.literals()[index - 1];
+    }
+
+    /**
+     * Returns the text {@code Speak} says for its argument list.
+     */
+    public String speech(String name, Literal arguments, int line, int column) {
+        if (!arguments.isTupleLiteral()) {
+            throw FunctionException.argumentException(Node.position(line, column), name, STRING);
+        }
+        Tuple tuple = (Tuple) arguments.getValue();
+        if (tuple.size() != 1 || Stream.of(SPEAKABLE_TYPES).noneMatch(type -> type == tuple.types()[0])) {
+            throw FunctionException.argumentException(Node.position(line, column), name, STRING);
+        }
+        return tuple.literals()[0].getValue().toString();
+    }
+
+    /**
+     * Checks the argument list of {@code OnInterval} and returns it as a tuple.
+     */
+    public Tuple schedule(String name, Literal arguments, int line, int column) {
+        if (!arguments.isTupleLiteral()) {
+            throw FunctionException.argumentException(Node.position(line, column), name, SCHEDULE_PARAM_TYPES);
+        }
+        Tuple tuple = (Tuple) arguments.getValue();
+        if (!Arrays.equals(tuple.types(), SCHEDULE_PARAM_TYPES)) {
+            throw FunctionException.argumentException(Node.position(line, column), name, SCHEDULE_PARAM_TYPES);
+        }
+        return tuple;
+    }
+}
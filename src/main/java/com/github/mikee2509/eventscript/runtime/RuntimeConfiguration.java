@@ -0,0 +1,37 @@
+package com.github.mikee2509.eventscript.runtime;
+
+import com.github.mikee2509.eventscript.ast.AstInterpreter;
+import com.github.mikee2509.eventscript.closure.ClosureEngine;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.vm.VirtualMachine;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+@Configuration
+public class RuntimeConfiguration {
+
+    @Bean
+    @Scope("prototype")
+    public Interpreter interpreter() {
+        return new Interpreter(new LiteralArithmetic());
+    }
+
+    @Bean
+    @Scope("prototype")
+    public VirtualMachine virtualMachine() {
+        return new VirtualMachine(new LiteralArithmetic());
+    }
+
+    @Bean
+    @Scope("prototype")
+    public AstInterpreter astInterpreter() {
+        return new AstInterpreter(new LiteralArithmetic());
+    }
+
+    @Bean
+    @Scope("prototype")
+    public ClosureEngine closureEngine() {
+        return new ClosureEngine(new LiteralArithmetic());
+    }
+}
@@ -0,0 +1,359 @@
+package com.github.mikee2509.eventscript.vm;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mikee2509.eventscript.vm.Opcode.*;
+
+/**
+ * Compiles a {@link CompiledScript} into bytecode for the {@link VirtualMachine}. Slots resolved by the
+ * {@code ScriptCompiler} are used as they are. Loops and conditions become jumps; the slots of top-level blocks are
+ * released where control leaves them, including through {@code break} and {@code continue}. Statements which can
+ * only fail, like a {@code break} outside a loop, compile to an instruction failing the same way at runtime.
+ */
+public class BytecodeCompiler {
+
+    public BytecodeScript compile(CompiledScript script) {
+        Map<Object, Integer> constants = new LinkedHashMap<>();
+        Chunk topLevel = new ChunkCompiler(constants, null).compileTopLevel(script.getStatements(),
+            script.getFrameSize());
+        List<Chunk> functions = new ArrayList<>();
+        for (FunctionDeclaration declaration : script.getFunctions()) {
+            functions.add(new ChunkCompiler(constants, declaration.getFunction()).compileFunction(declaration));
+        }
+        return new BytecodeScript(topLevel, functions, constants.keySet().toArray(), script.getGlobalSlots(),
+            script.isTypeChecked());
+    }
+
+    private static class Loop {
+        private final List<Integer> breaks = new ArrayList<>();
+        private final List<Integer> continues = new ArrayList<>();
+    }
+
+    private static class ChunkCompiler implements NodeVisitor<Void> {
+        private final Map<Object, Integer> constants;
+        private final Function function;
+        private final Deque<Loop> loops = new ArrayDeque<>();
+        private int[] code = new int[64];
+        private int[] lines = new int[64];
+        private int[] columns = new int[64];
+        private int size;
+
+        private ChunkCompiler(Map<Object, Integer> constants, Function function) {
+            this.constants = constants;
+            this.function = function;
+        }
+
+        private Chunk compileTopLevel(List<Statement> statements, int frameSize) {
+            statements.forEach(statement -> statement.accept(this));
+            emit(null, HALT);
+            return chunk(0, 0, frameSize);
+        }
+
+        private Chunk compileFunction(FunctionDeclaration declaration) {
+            declaration.getBody().forEach(statement -> statement.accept(this));
+            emit(declaration.getLine(), declaration.getColumn(), RETURN_VOID);
+            return chunk(declaration.getLine(), declaration.getColumn(), declaration.getFrameSize());
+        }
+
+        private Chunk chunk(int line, int column, int frameSize) {
+            return new Chunk(function, line, column, frameSize, Arrays.copyOf(code, size),
+                Arrays.copyOf(lines, size), Arrays.copyOf(columns, size));
+        }
+
+        /**
+         * Appends an instruction and returns the index of its first operand.
+         */
+        private int emit(Node position, int opcode, int... operands) {
+            return position == null ? emit(0, 0, opcode, operands)
+                : emit(position.getLine(), position.getColumn(), opcode, operands);
+        }
+
+        private int emit(int line, int column, int opcode, int... operands) {
+            if (size + 1 + operands.length > code.length) {
+                int capacity = Math.max(code.length * 2, size + 1 + operands.length);
+                code = Arrays.copyOf(code, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+            }
+            lines[size] = line;
+            columns[size] = column;
+            code[size++] = opcode;
+            for (int operand : operands) {
+                code[size++] = operand;
+            }
+            return size - operands.length;
+        }
+
+        private void patch(int operand, int target) {
+            code[operand] = target;
+        }
+
+        private int constant(Object value) {
+            return constants.computeIfAbsent(value, key -> constants.size());
+        }
+
+        private boolean isTopLevel() {
+            return function == null;
+        }
+
+        private void release(int firstSlot, int endSlot) {
+            if (isTopLevel() && firstSlot < endSlot) {
+                emit(null, RELEASE, firstSlot, endSlot);
+            }
+        }
+
+        private void load(Variable variable, int localOpcode, int globalOpcode) {
+            emit(variable, variable.isLocal() ? localOpcode : globalOpcode, variable.getSlot(),
+                constant(variable.getName()));
+        }
+
+        private void store(Node position, Variable variable) {
+            if (variable.isLocal()) {
+                emit(position, STORE, variable.getSlot());
+            } else {
+                emit(position, STORE_GLOBAL, variable.getSlot(), constant(variable.getName()));
+            }
+        }
+
+        private void arguments(List<Expression> arguments) {
+            arguments.forEach(argument -> argument.accept(this));
+        }
+
+        @Override
+        public Void visitVariableDeclaration(VariableDeclaration node) {
+            emit(node, DECLARE, node.getSlot(), node.getType().ordinal());
+            return null;
+        }
+
+        @Override
+        public Void visitVariableDefinition(VariableDefinition node) {
+            node.getValue().accept(this);
+            emit(node, DEFINE, node.getSlot());
+            return null;
+        }
+
+        @Override
+        public Void visitRedefinition(Redefinition node) {
+            node.getDefinition().accept(this);
+            emit(node, REDEFINED, constant(node.getName()));
+            return null;
+        }
+
+        @Override
+        public Void visitIfStatement(IfStatement node) {
+            node.getCondition().accept(this);
+            int elseJump = emit(node, JUMP_IF_FALSE, 0);
+            node.getThenBranch().accept(this);
+            if (node.getElseBranch() == null) {
+                patch(elseJump, size);
+            } else {
+                int endJump = emit(null, JUMP, 0);
+                patch(elseJump, size);
+                node.getElseBranch().accept(this);
+                patch(endJump, size);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitBlock(Block node) {
+            node.getStatements().forEach(statement -> statement.accept(this));
+            release(node.getFirstSlot(), node.getEndSlot());
+            return null;
+        }
+
+        @Override
+        public Void visitForStatement(ForStatement node) {
+            node.getInit().forEach(statement -> statement.accept(this));
+            int conditionStart = size;
+            int exitJump = -1;
+            if (node.getCondition() != null) {
+                node.getCondition().accept(this);
+                exitJump = emit(node, JUMP_UNLESS_TRUE, 0);
+            }
+
+            Loop loop = new Loop();
+            loops.push(loop);
+            Block body = node.getBody();
+            body.getStatements().forEach(statement -> statement.accept(this));
+            loops.pop();
+
+            loop.continues.forEach(operand -> patch(operand, size));
+            release(body.getFirstSlot(), body.getEndSlot());
+            for (Expression update : node.getUpdate()) {
+                update.accept(this);
+                emit(null, POP);
+            }
+            emit(null, JUMP, conditionStart);
+
+            if (exitJump >= 0) {
+                patch(exitJump, size);
+            }
+            loop.breaks.forEach(operand -> patch(operand, size));
+            release(node.getFirstSlot(), node.getEndSlot());
+            return null;
+        }
+
+        @Override
+        public Void visitReturnStatement(ReturnStatement node) {
+            if (isTopLevel()) {
+                emit(node, FAIL, RETURN_OUTSIDE_FUNCTION);
+                return null;
+            }
+            arguments(node.getValues());
+            emit(node, RETURN, node.getValues().size());
+            return null;
+        }
+
+        @Override
+        public Void visitBreakStatement(BreakStatement node) {
+            if (loops.isEmpty()) {
+                emit(node, FAIL, BREAK_OUTSIDE_LOOP);
+            } else {
+                loops.peek().breaks.add(emit(node, JUMP, 0));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitContinueStatement(ContinueStatement node) {
+            if (loops.isEmpty()) {
+                emit(node, FAIL, CONTINUE_OUTSIDE_LOOP);
+            } else {
+                loops.peek().continues.add(emit(node, JUMP, 0));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitExpressionStatement(ExpressionStatement node) {
+            node.getExpression().accept(this);
+            emit(null, POP);
+            return null;
+        }
+
+        @Override
+        public Void visitConstant(Constant node) {
+            emit(node, CONST, constant(node.getValue()));
+            return null;
+        }
+
+        @Override
+        public Void visitDatetimeConstructor(DatetimeConstructor node) {
+            arguments(node.getArguments());
+            emit(node, DATETIME, node.getArguments().size());
+            return null;
+        }
+
+        @Override
+        public Void visitDurationConstructor(DurationConstructor node) {
+            arguments(node.getArguments());
+            emit(node, DURATION, node.getArguments().size());
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(Variable node) {
+            load(node, LOAD, LOAD_GLOBAL);
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(Unary node) {
+            node.getOperand().accept(this);
+            emit(node, UNARY, node.getOperator().ordinal());
+            if (node.getOperator().isUpdating() && node.getOperand() instanceof Variable) {
+                emit(null, DUP);
+                store(node, (Variable) node.getOperand());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitNegation(Negation node) {
+            node.getOperand().accept(this);
+            emit(node, NEGATE);
+            return null;
+        }
+
+        @Override
+        public Void visitBinary(Binary node) {
+            node.getLeft().accept(this);
+            node.getRight().accept(this);
+            emit(node, BINARY, node.getOperator().ordinal());
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(Assignment node) {
+            if (!(node.getTarget() instanceof Variable)) {
+                emit(node, FAIL, VARIABLE_EXPECTED);
+                return null;
+            }
+            Variable variable = (Variable) node.getTarget();
+            variable.accept(this);
+            node.getValue().accept(this);
+            emit(node, ASSIGN);
+            emit(null, DUP);
+            store(node, variable);
+            return null;
+        }
+
+        @Override
+        public Void visitCall(Call node) {
+            emit(node, node.isLocal() ? CALLEE : CALLEE_GLOBAL, node.getSlot(), constant(node.getName()));
+            arguments(node.getArguments());
+            emit(node, CALL, node.getArguments().size());
+            return null;
+        }
+
+        @Override
+        public Void visitBuiltInCall(BuiltInCall node) {
+            switch (node.getFunction()) {
+                case SPEAK:
+                    arguments(node.getArguments());
+                    emit(node, SPEAK, node.getArguments().size());
+                    break;
+                case ON_INTERVAL:
+                    // functions are passed as they are, the scheduled one is the first of them
+                    for (Expression argument : node.getArguments()) {
+                        if (argument instanceof Variable) {
+                            load((Variable) argument, REF, REF_GLOBAL);
+                        } else {
+                            argument.accept(this);
+                        }
+                    }
+                    emit(node, SCHEDULE, node.getArguments().size(), node.getArgumentsLine(),
+                        node.getArgumentsColumn());
+                    break;
+                default:
+                    emit(node, UNIMPLEMENTED, node.getFunction().ordinal());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitToStringCall(ToStringCall node) {
+            node.getTarget().accept(this);
+            emit(node, TO_STRING);
+            return null;
+        }
+
+        @Override
+        public Void visitTupleExtract(TupleExtract node) {
+            node.getTarget().accept(this);
+            emit(node, TUPLE_EXTRACT, node.getIndex());
+            return null;
+        }
+    }
+}
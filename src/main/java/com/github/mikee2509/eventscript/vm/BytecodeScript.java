@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.vm;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A script compiled by the {@link BytecodeCompiler}. Function chunks are in the order of the functions of the
+ * compiled script, which is the order of their slots in the top-level frame. The constant pool holds the literals
+ * pushed by the code and the names used to report errors.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class BytecodeScript {
+    private final Chunk topLevel;
+    private final List<Chunk> functions;
+    private final Object[] constants;
+    private final int[][] globalSlots;
+    private final boolean typeChecked;
+}
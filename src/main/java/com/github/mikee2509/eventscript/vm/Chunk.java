@@ -0,0 +1,22 @@
+package com.github.mikee2509.eventscript.vm;
+
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Code of a function body or of the top level. The line and column of the node an instruction was compiled from
+ * are kept at the index of its opcode, to report errors. The function is {@code null} for the top level.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class Chunk {
+    private final Function function;
+    private final int line;
+    private final int column;
+    private final int frameSize;
+    private final int[] code;
+    private final int[] lines;
+    private final int[] columns;
+}
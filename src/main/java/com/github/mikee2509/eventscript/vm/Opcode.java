@@ -0,0 +1,82 @@
+package com.github.mikee2509.eventscript.vm;
+
+/**
+ * Instruction set of the {@link VirtualMachine}. An instruction is its opcode followed by its operands, all stored
+ * in the {@code int[]} code of a {@link Chunk}. Operands named after a slot index the running frame, a global one
+ * indexes {@code BytecodeScript.getGlobalSlots()}, a constant or a name indexes the constant pool and a target is an
+ * absolute index into the code.
+ */
+final class Opcode {
+    /** constant: push the constant */
+    static final int CONST = 0;
+    /** slot name: push the variable, void for a function */
+    static final int LOAD = 1;
+    /** global name: push the global, void for a function */
+    static final int LOAD_GLOBAL = 2;
+    /** slot name: push the variable as it is, functions included */
+    static final int REF = 3;
+    /** global name: push the global as it is, functions included */
+    static final int REF_GLOBAL = 4;
+    /** slot: pop into the variable */
+    static final int STORE = 5;
+    /** global name: pop into the global */
+    static final int STORE_GLOBAL = 6;
+    /** slot: pop into a new variable */
+    static final int DEFINE = 7;
+    /** slot type: define a variable holding the default value of the type */
+    static final int DECLARE = 8;
+    /** pop the new and the current value of a variable, push the new one once it is checked */
+    static final int ASSIGN = 9;
+    static final int POP = 10;
+    static final int DUP = 11;
+    /** operator */
+    static final int UNARY = 12;
+    static final int NEGATE = 13;
+    /** operator */
+    static final int BINARY = 14;
+    static final int TO_STRING = 15;
+    /** index */
+    static final int TUPLE_EXTRACT = 16;
+    /** count: pop the arguments, push the datetime */
+    static final int DATETIME = 17;
+    /** count: pop the arguments, push the duration */
+    static final int DURATION = 18;
+    /** count */
+    static final int SPEAK = 19;
+    /** count argumentsLine argumentsColumn */
+    static final int SCHEDULE = 20;
+    /** function: fail on a built-in function without implementation */
+    static final int UNIMPLEMENTED = 21;
+    /** name: fail as the variable is already defined */
+    static final int REDEFINED = 22;
+    /** error: fail with one of the errors below */
+    static final int FAIL = 23;
+    /** target */
+    static final int JUMP = 24;
+    /** target: pop the condition of an if statement, jump when it is false */
+    static final int JUMP_IF_FALSE = 25;
+    /** target: pop the condition of a loop, jump unless it is true */
+    static final int JUMP_UNLESS_TRUE = 26;
+    /** first end: clear the slots of a top-level block */
+    static final int RELEASE = 27;
+    /** slot name: push the called function */
+    static final int CALLEE = 28;
+    /** global name: push the called function */
+    static final int CALLEE_GLOBAL = 29;
+    /** count: pop the arguments and the function, call it */
+    static final int CALL = 30;
+    /** count: pop the returned values, return them to the caller */
+    static final int RETURN = 31;
+    /** return from the end of a function body */
+    static final int RETURN_VOID = 32;
+    /** end of the top-level code */
+    static final int HALT = 33;
+
+    static final int VARIABLE_EXPECTED = 0;
+    static final int BREAK_OUTSIDE_LOOP = 1;
+    static final int CONTINUE_OUTSIDE_LOOP = 2;
+    static final int RETURN_OUTSIDE_FUNCTION = 3;
+
+    private Opcode() {
+    }
+}
@@ -0,0 +1,399 @@
+package com.github.mikee2509.eventscript.vm;
+
+import com.github.mikee2509.eventscript.compiler.ir.BinaryOperator;
+import com.github.mikee2509.eventscript.compiler.ir.BuiltInFunction;
+import com.github.mikee2509.eventscript.compiler.ir.Node;
+import com.github.mikee2509.eventscript.compiler.ir.UnaryOperator;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.OperationException;
+import com.github.mikee2509.eventscript.domain.exception.ScopeException;
+import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.domain.scope.Declarable;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.util.Literals;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import lombok.extern.java.Log;
+import org.antlr.v4.runtime.Token;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import static com.github.mikee2509.eventscript.domain.expression.Type.VOID;
+import static com.github.mikee2509.eventscript.vm.Opcode.*;
+
+/**
+ * Executes a {@link BytecodeScript} with the same output and errors as the {@code Interpreter} has for the compiled
+ * script it was generated from, and so as {@code ScriptVisitor} has for any script without syntax errors. Calls
+ * do not recurse on the Java stack: every run, the top level or a scheduled call, keeps its own stack of frames
+ * and a single operand stack, while the top-level frame is shared.
+ */
+@Log
+public class VirtualMachine {
+    private static final UnaryOperator[] UNARY_OPERATORS = UnaryOperator.values();
+    private static final BinaryOperator[] BINARY_OPERATORS = BinaryOperator.values();
+    private static final BuiltInFunction[] BUILT_IN_FUNCTIONS = BuiltInFunction.values();
+    private static final Type[] TYPES = Type.values();
+
+    private final Operations operations;
+    private final Map<Function, Chunk> chunks = new IdentityHashMap<>();
+    private Object[] constants;
+    private int[][] globalSlots;
+    private boolean typeChecked;
+    private Declarable[] globals;
+
+    public VirtualMachine(LiteralArithmetic la) {
+        this.operations = new Operations(la);
+    }
+
+    public void execute(BytecodeScript script) {
+        constants = script.getConstants();
+        globalSlots = script.getGlobalSlots();
+        typeChecked = script.isTypeChecked();
+        globals = new Declarable[script.getTopLevel().getFrameSize()];
+        List<Chunk> functions = script.getFunctions();
+        for (int i = 0; i < functions.size(); i++) {
+            chunks.put(functions.get(i).getFunction(), functions.get(i));
+            globals[i] = functions.get(i).getFunction();
+        }
+        new Execution().run(script.getTopLevel(), globals);
+    }
+
+    private static class CallFrame {
+        private final Chunk chunk;
+        private final Declarable[] frame;
+        private final int pc;
+
+        private CallFrame(Chunk chunk, Declarable[] frame, int pc) {
+            this.chunk = chunk;
+            this.frame = frame;
+            this.pc = pc;
+        }
+    }
+
+    private class Execution {
+        private final Deque<CallFrame> callers = new ArrayDeque<>();
+        private Declarable[] stack = new Declarable[64];
+        private int sp;
+
+        private void push(Declarable value) {
+            if (sp == stack.length) {
+                stack = Arrays.copyOf(stack, sp * 2);
+            }
+            stack[sp++] = value;
+        }
+
+        private Literal pop() {
+            return (Literal) stack[--sp];
+        }
+
+        private Literal[] pop(int count) {
+            Literal[] values = new Literal[count];
+            sp -= count;
+            System.arraycopy(stack, sp, values, 0, count);
+            return values;
+        }
+
+        private Declarable loadGlobal(int slot) {
+            for (int global : globalSlots[slot]) {
+                if (globals[global] != null) return globals[global];
+            }
+            return null;
+        }
+
+        private boolean storeGlobal(int slot, Declarable value) {
+            for (int global : globalSlots[slot]) {
+                if (globals[global] != null) {
+                    globals[global] = value;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Declarable defined(Declarable declarable, int name, Chunk chunk, int start) {
+            if (declarable == null) {
+                throw ScopeException.undefinedVariable(position(chunk, start), (String) constants[name]);
+            }
+            return declarable;
+        }
+
+        private Token position(Chunk chunk, int start) {
+            return Node.position(chunk.getLines()[start], chunk.getColumns()[start]);
+        }
+
+        private void run(Chunk chunk, Declarable[] frame) {
+            int[] code = chunk.getCode();
+            int pc = 0;
+            while (true) {
+                int start = pc;
+                int line = chunk.getLines()[start];
+                int column = chunk.getColumns()[start];
+                switch (code[pc++]) {
+                    case CONST:
+                        push((Literal) constants[code[pc++]]);
+                        break;
+                    case LOAD:
+                    case LOAD_GLOBAL: {
+                        int slot = code[pc++];
+                        int name = code[pc++];
+                        Declarable declarable = code[start] == LOAD ? frame[slot] : loadGlobal(slot);
+                        push(defined(declarable, name, chunk, start) instanceof Function ? Literal.voidLiteral()
+                            : declarable);
+                        break;
+                    }
+                    case REF:
+                    case REF_GLOBAL: {
+                        int slot = code[pc++];
+                        int name = code[pc++];
+                        Declarable declarable = code[start] == REF ? frame[slot] : loadGlobal(slot);
+                        push(defined(declarable, name, chunk, start));
+                        break;
+                    }
+                    case STORE:
+                        frame[code[pc++]] = pop();
+                        break;
+                    case STORE_GLOBAL: {
+                        int slot = code[pc++];
+                        int name = code[pc++];
+                        if (!storeGlobal(slot, pop())) {
+                            //this should never happen
+                            throw ScopeException.undefinedVariable(position(chunk, start), (String) constants[name]);
+                        }
+                        break;
+                    }
+                    case DEFINE: {
+                        Literal value = pop();
+                        operations.checkDefinable(value, line, column);
+                        frame[code[pc++]] = value;
+                        break;
+                    }
+                    case DECLARE: {
+                        int slot = code[pc++];
+                        frame[slot] = operations.defaultValue(TYPES[code[pc++]], line, column);
+                        break;
+                    }
+                    case ASSIGN: {
+                        Literal newValue = pop();
+                        Literal currentValue = pop();
+                        if (!typeChecked) {
+                            operations.checkAssignable(currentValue, newValue, line, column);
+                        }
+                        push(newValue);
+                        break;
+                    }
+                    case POP:
+                        sp--;
+                        break;
+                    case DUP:
+                        push(stack[sp - 1]);
+                        break;
+                    case UNARY:
+                        push(operations.unary(UNARY_OPERATORS[code[pc++]], pop(), line, column));
+                        break;
+                    case NEGATE:
+                        push(operations.negation(pop(), line, column));
+                        break;
+                    case BINARY: {
+                        Literal right = pop();
+                        Literal left = pop();
+                        push(operations.binary(BINARY_OPERATORS[code[pc++]], left, right, line, column));
+                        break;
+                    }
+                    case TO_STRING:
+                        push(operations.toString(pop(), line, column));
+                        break;
+                    case TUPLE_EXTRACT:
+                        push(operations.tupleExtract(pop(), code[pc++], line, column));
+                        break;
+                    case DATETIME:
+                        push(Literals.datetime(Operations.arguments(pop(code[pc++])), position(chunk, start)));
+                        break;
+                    case DURATION:
+                        push(Literals.duration(Operations.arguments(pop(code[pc++])), position(chunk, start)));
+                        break;
+                    case SPEAK:
+                        log.info(operations.speech(BuiltInFunction.SPEAK.getName(),
+                            Operations.arguments(pop(code[pc++])), line, column));
+                        push(Literal.voidLiteral());
+                        break;
+                    case SCHEDULE: {
+                        int count = code[pc++];
+                        int argumentsLine = code[pc++];
+                        int argumentsColumn = code[pc++];
+                        Declarable[] values = Arrays.copyOfRange(stack, sp - count, sp);
+                        sp -= count;
+                        schedule(values, line, column, Node.position(argumentsLine, argumentsColumn));
+                        push(Literal.voidLiteral());
+                        break;
+                    }
+                    case UNIMPLEMENTED:
+                        throw FunctionException.unimplementedFunction(position(chunk, start),
+                            BUILT_IN_FUNCTIONS[code[pc]].getName());
+                    case REDEFINED:
+                        throw ScopeException.alreadyDefined(position(chunk, start), (String) constants[code[pc]]);
+                    case FAIL:
+                        throw failure(code[pc], position(chunk, start));
+                    case JUMP:
+                        pc = code[pc];
+                        break;
+                    case JUMP_IF_FALSE: {
+                        Literal condition = pop();
+                        operations.checkCondition(condition, line, column);
+                        pc = (Boolean) condition.getValue() ? pc + 1 : code[pc];
+                        break;
+                    }
+                    case JUMP_UNLESS_TRUE: {
+                        Literal condition = pop();
+                        pc = condition.isBoolLiteral() && (Boolean) condition.getValue() ? pc + 1 : code[pc];
+                        break;
+                    }
+                    case RELEASE:
+                        Arrays.fill(globals, code[pc], code[pc + 1], null);
+                        pc += 2;
+                        break;
+                    case CALLEE:
+                    case CALLEE_GLOBAL: {
+                        int slot = code[pc++];
+                        int name = code[pc++];
+                        Declarable declarable = code[start] == CALLEE ? frame[slot] : loadGlobal(slot);
+                        if (!(declarable instanceof Function)) {
+                            throw FunctionException.cannotResolve(position(chunk, start), (String) constants[name]);
+                        }
+                        push(declarable);
+                        break;
+                    }
+                    case CALL: {
+                        Literal arguments = Operations.arguments(pop(code[pc++]));
+                        Function function = (Function) stack[--sp];
+                        Declarable[] callee = enter(function, arguments, chunk, start);
+                        callers.push(new CallFrame(chunk, frame, pc));
+                        chunk = chunks.get(function);
+                        frame = callee;
+                        code = chunk.getCode();
+                        pc = 0;
+                        break;
+                    }
+                    case RETURN:
+                    case RETURN_VOID: {
+                        Tuple returnTuple = null;
+                        if (code[start] == RETURN) {
+                            List<Literal> values = Arrays.asList(pop(code[pc]));
+                            if (typeChecked) {
+                                returnTuple = values.isEmpty() ? null : Tuple.fromLiteralList(values);
+                            } else {
+                                returnTuple = chunk.getFunction().returnTuple(values, position(chunk, start));
+                            }
+                        }
+                        Literal result = result(chunk, returnTuple);
+                        if (callers.isEmpty()) {
+                            return;
+                        }
+                        CallFrame caller = callers.pop();
+                        chunk = caller.chunk;
+                        frame = caller.frame;
+                        code = chunk.getCode();
+                        pc = caller.pc;
+                        push(result);
+                        break;
+                    }
+                    case HALT:
+                        return;
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + code[start] + " at " + start);
+                }
+            }
+        }
+
+        private Declarable[] enter(Function function, Literal arguments, Chunk chunk, int start) {
+            Declarable[] frame = new Declarable[chunks.get(function).getFrameSize()];
+            if (function.numParams() == 0 && arguments.isVoidLiteral()) {
+                return frame;
+            }
+            if (arguments.isTupleLiteral()) {
+                Tuple tuple = (Tuple) arguments.getValue();
+                if (typeChecked || function.checkTypes(tuple.types())) {
+                    System.arraycopy(tuple.literals(), 0, frame, 0, function.numParams());
+                    return frame;
+                }
+            }
+            throw FunctionException.argumentException(position(chunk, start), function);
+        }
+
+        private Literal result(Chunk chunk, Tuple returnTuple) {
+            if (returnTuple == null) {
+                if (chunk.getFunction().getReturnType() != VOID) {
+                    throw FunctionException.missingReturnStatement(Node.position(chunk.getLine(),
+                        chunk.getColumn()));
+                }
+                return Literal.voidLiteral();
+            } else if (returnTuple.size() == 1) {
+                return returnTuple.literals()[0];
+            } else {
+                return new Literal<>(returnTuple);
+            }
+        }
+
+        /**
+         * Schedules the first of the passed functions, which must be schedulable, the others are passed as void.
+         */
+        private void schedule(Declarable[] values, int line, int column, Token argumentsPosition) {
+            Function function = null;
+            boolean schedulable = false;
+            Literal[] arguments = new Literal[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Function) {
+                    if (function == null) {
+                        function = (Function) values[i];
+                        schedulable = function.isSchedulable();
+                    }
+                    arguments[i] = Literal.voidLiteral();
+                } else {
+                    arguments[i] = (Literal) values[i];
+                }
+            }
+            if (!schedulable) {
+                throw FunctionException.cannotSchedule(argumentsPosition);
+            }
+            Tuple tuple = operations.schedule(BuiltInFunction.ON_INTERVAL.getName(), Operations.arguments(arguments),
+                line, column);
+            Duration interval = (Duration) tuple.literals()[1].getValue();
+            Duration startDelay = (Duration) tuple.literals()[2].getValue();
+
+            Chunk chunk = chunks.get(function);
+            Timer timer = new Timer();
+            timer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        new Execution().run(chunk, new Declarable[chunk.getFrameSize()]);
+                    }
+                },
+                startDelay.toMillis(),
+                interval.toMillis()
+            );
+        }
+
+        private RuntimeException failure(int error, Token position) {
+            switch (error) {
+                case VARIABLE_EXPECTED:
+                    return OperationException.variableExpected(position);
+                case BREAK_OUTSIDE_LOOP:
+                    return ControlFlowException.breakWrongContext(position);
+                case CONTINUE_OUTSIDE_LOOP:
+                    return ControlFlowException.continueWrongContext(position);
+                default:
+                    return ControlFlowException.returnWrongContext(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.mikee2509.eventscript;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ScriptCompiler;
+import com.github.mikee2509.eventscript.compiler.TypeChecker;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Interpreter;
+
+import java.util.List;
+
+/**
+ * Compiles scripts and runs them on the {@link Interpreter}, which the other engines are compared with.
+ */
+public final class TestScripts {
+
+    private TestScripts() {
+    }
+
+    public static CompiledScript compile(String input) {
+        return new ScriptCompiler().compile(new ParserCreator().parseScript(input));
+    }
+
+    public static CompiledScript compile(String input, boolean typeCheck) {
+        CompiledScript compiled = compile(input);
+        return typeCheck ? new TypeChecker().check(compiled) : compiled;
+    }
+
+    public static List<String> interpret(CompiledScript script) {
+        return new TestUtils(Interpreter.class).captureRun(() ->
+            new Interpreter(new LiteralArithmetic()).execute(script));
+    }
+
+    public static List<String> interpret(String input, boolean typeCheck) {
+        return new TestUtils(Interpreter.class).captureRun(() ->
+            new Interpreter(new LiteralArithmetic()).execute(compile(input, typeCheck)));
+    }
+}
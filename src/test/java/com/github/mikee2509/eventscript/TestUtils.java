@@ -0,0 +1,67 @@
+package com.github.mikee2509.eventscript;
+
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+@AllArgsConstructor
+public class TestUtils {
+    private Logger logger;
+
+    public TestUtils(Class<?> loggingClass) {
+        this(Logger.getLogger(loggingClass.getName()));
+    }
+
+    public List<String> captureLogs(Code code) {
+        return capture(code, record -> true, false);
+    }
+
+    /**
+     * Captures what a script run logs on the calling thread, followed by the runtime exception ending it, if any.
+     * Calls scheduled by this or an earlier run log on timer threads and are left out.
+     */
+    public List<String> captureRun(Code code) {
+        int threadId = (int) Thread.currentThread().getId();
+        return capture(code, record -> record.getThreadID() == threadId, true);
+    }
+
+    private List<String> capture(Code code, Predicate<LogRecord> filter, boolean recordError) {
+        List<String> logRecords = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (filter.test(record)) {
+                    logRecords.add(record.getMessage());
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() throws SecurityException {
+            }
+        };
+
+        logger.addHandler(handler);
+        try {
+            code.execute();
+        } catch (RuntimeException e) {
+            if (!recordError) throw e;
+            logRecords.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            logger.removeHandler(handler);
+        }
+        return logRecords;
+    }
+
+    public interface Code {
+        void execute();
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Interpreter;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AstInterpreterTest {
+    //@formatter:off
+    private static final String MIXED =
+        "Speak(fib(15))\n" +
+        "var p = divmod(17, 5)\n" +
+        "Speak(p._1.toString + \" \" + p._2.toString)\n" +
+        "Speak(duration(5, 4, 3, 2).toString)\n" +
+        "Speak(datetime(2018, 5, 1, 12, 30, 15) + duration(0, 0, 1) > datetime(2018, 5, 1, 12, 0))\n" +
+        "var x = 10\n" +
+        "for (var i = 0; i < 10; ++i) { if (i == 2) continue; if (i == 5) break; x = x - i; }\n" +
+        "if (x > 3) { var y = -x; Speak(y); } else Speak(x)\n" +
+        "var f: float;\n" +
+        "for (var i = 0; i < 3; ++i) { f = f + 0.5 * f + 1.0; Speak(f == 1.0 || f >= 2.5); Speak(--f); }\n" +
+        "var s = \"\"\n" +
+        "for (var i = 0; i < 3; ++i) { s = s + i; var b = i < 2; Speak(s + b + f); }\n" +
+        "\n" +
+        "func fib(n: int) -> int {\n" +
+        "    if (n < 2) return n;\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "}\n" +
+        "func divmod(a: int, b: int) -> (int, int) {\n" +
+        "    return a / b, a % b\n" +
+        "}\n";
+
+    private static final String GLOBALS =
+        "var x = 1\n" +
+        "show()\n" +
+        "if (true) { var x = 2; show(); bump(); show(); }\n" +
+        "show()\n" +
+        "for (var i = 0; i < 2; ++i) { if (i == 1) show(); var x = i + 10; show(); }\n" +
+        "if (true) { var x = \"a\"; show(); }\n" +
+        "\n" +
+        "func show() {\n    Speak(x + 1)\n}\n" +
+        "func bump() {\n    x = x + 1\n}\n";
+    //@formatter:on
+
+    private List<String> execute(String input, boolean typeCheck) {
+        return new TestUtils(AstInterpreter.class).captureRun(() ->
+            new AstInterpreter(new LiteralArithmetic()).execute(compile(input, typeCheck)));
+    }
+
+    private void assertSameAsInterpreter(String input) {
+        assertThat(execute(input, false)).isEqualTo(interpret(input, false));
+    }
+
+    @Test
+    public void outputMatchesInterpreter() {
+        assertThat(execute(MIXED, false)).startsWith("610", "3 2").hasSize(14);
+        assertSameAsInterpreter(MIXED);
+        assertThat(execute(MIXED, true)).isEqualTo(interpret(MIXED, true));
+        assertThat(execute(GLOBALS, false)).containsExactly("2", "3", "4", "2", "11", "2", "12", "a1");
+        assertSameAsInterpreter(GLOBALS);
+    }
+
+    @Test
+    public void operatorsSpecializeAndDeoptimize() {
+        CompiledScript script = compile(GLOBALS, false);
+        Context context = new Context(new Operations(new LiteralArithmetic()), script);
+        StatementNode[] statements = new AstBuilder(context).build(script);
+        FunctionNode show = context.functions.get(script.getFunctions().get(0).getFunction());
+        AstNode speak = show.body()[0].children[0];
+        assertThat(speak.children[0]).isInstanceOf(BinaryNode.Uninitialized.class);
+
+        statements[0].execute(context.globals);
+        statements[1].execute(context.globals);
+        assertThat(speak.children[0]).isInstanceOf(BinaryNode.IntOperation.class);
+        assertThat(speak.children[0].parent).isSameAs(speak);
+
+        statements[5].execute(context.globals);
+        assertThat(speak.children[0]).isInstanceOf(BinaryNode.Generic.class);
+        assertThat(speak.children[0].children[0].parent).isSameAs(speak.children[0]);
+    }
+
+    @Test
+    public void tailCallsRunInConstantStack() {
+        String input = "Speak(countdown(100000))\n" +
+            "Speak(sum(100000, 0))\n" +
+            "Speak(isEven(100001))\n" +
+            "\n" +
+            "func countdown(n: int) -> string {\n    if (n == 0) return \"done\";\n    return countdown(n - 1)\n}\n" +
+            "func sum(n: int, total: int) -> int {\n" +
+            "    if (n == 0) return total;\n    return sum(n - 1, total + n)\n}\n" +
+            "func isEven(n: int) -> bool {\n    if (n == 0) return true;\n    return isOdd(n - 1)\n}\n" +
+            "func isOdd(n: int) -> bool {\n    if (n == 0) return false;\n    return isEven(n - 1)\n}\n";
+
+        assertThat(execute(input, false)).containsExactly("done", "705082704", "false");
+        assertThat(execute(input, true)).containsExactly("done", "705082704", "false");
+        assertSameAsInterpreter("Speak(f())\nfunc f() -> float { return g(); }\nfunc g() -> int { return 1; }");
+        assertSameAsInterpreter("Speak(f())\nfunc f() -> int { return g(); }\nfunc g() {}");
+    }
+
+    @Test
+    public void errorsMatchInterpreter() {
+        assertSameAsInterpreter("Speak(\"before\")\nvar a = 1 + true\n");
+        assertSameAsInterpreter("Speak(\"a\")\nif (false) Speak(undefined)\nvar a = 1\nvar a = 2\n");
+        assertSameAsInterpreter("var a = 1\nvar b = 2.5\nSpeak(a + b)\nSpeak(b + a)\nSpeak(a && b)\n");
+        assertSameAsInterpreter("var s = \"x\"\nvar t = s - 1\n");
+        assertSameAsInterpreter("var b = true\nvar c = -b\n");
+        assertSameAsInterpreter("f(1)\nfunc f(a: float) {}");
+        assertSameAsInterpreter("f()\nfunc f() -> int {}");
+        assertSameAsInterpreter("g()\nfunc g() -> (int, int) { return 1; }");
+        assertSameAsInterpreter("break\n");
+        assertSameAsInterpreter("for (;;) { f(); }\nfunc f() { continue; }");
+        assertSameAsInterpreter("if (true) { return; }\n");
+        assertSameAsInterpreter("var t = datetime(1, 2)\n");
+        assertSameAsInterpreter("  Ring()\n");
+        assertSameAsInterpreter("var a = 1\na = 2.5\n");
+        assertSameAsInterpreter("1 = 2\n");
+        assertSameAsInterpreter("if (1) Speak(1)\n");
+        assertSameAsInterpreter("var v: void;\n");
+        assertSameAsInterpreter("OnInterval(h, duration(1), duration())\nfunc h(a: int) {}");
+    }
+}
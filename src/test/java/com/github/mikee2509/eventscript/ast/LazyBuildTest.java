@@ -0,0 +1,113 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ScriptCompiler;
+import com.github.mikee2509.eventscript.compiler.TypeChecker;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.jit.JitCompiler;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Operations;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyBuildTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "Speak(twice(4))\n" +
+        "\n" +
+        "func twice(n: int) -> int {\n" +
+        "    return add(n, n)\n" +
+        "}\n" +
+        "func add(a: int, b: int) -> int {\n" +
+        "    return a + b\n" +
+        "}\n" +
+        "func unused() {\n" +
+        "    for (var i = 0; i < 3; ++i) { Speak(i); }\n" +
+        "}\n";
+    //@formatter:on
+
+    private ParserCreator parserCreator;
+
+    @Before
+    public void setUp() {
+        parserCreator = new ParserCreator();
+    }
+
+    private CompiledScript compile(String input) {
+        return new TypeChecker().check(new ScriptCompiler().compile(parserCreator.parseScript(input)));
+    }
+
+    private static FunctionNode function(Context context, CompiledScript script, String name) {
+        return script.getFunctions().stream()
+            .filter(declaration -> declaration.getFunction().getName().equals(name))
+            .map(declaration -> context.functions.get(declaration.getFunction()))
+            .findFirst().orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Test
+    public void onlyCalledFunctionsAreBuilt() {
+        CompiledScript script = compile(SCRIPT);
+        Context context = new AstInterpreter(new LiteralArithmetic()).run(script);
+
+        assertThat(function(context, script, "twice").isBuilt()).isTrue();
+        assertThat(function(context, script, "add").isBuilt()).isTrue();
+        assertThat(function(context, script, "unused").isBuilt()).isFalse();
+    }
+
+    @Test
+    public void compiledFunctionsNeedNoTree() {
+        CompiledScript script = compile("var greeting = greet()\n" + SCRIPT +
+            "func greet() -> string {\n    return \"hi \" + twice(1)\n}\n");
+        Context context = new AstInterpreter(new LiteralArithmetic(), new JitCompiler()).run(script);
+
+        // compiled functions call each other directly, the trees of their bodies are not needed
+        assertThat(function(context, script, "twice").isBuilt()).isFalse();
+        assertThat(function(context, script, "greet").isBuilt()).isFalse();
+        assertThat(context.globals[script.getFunctions().size()]).isEqualTo(new Literal<>("hi 2"));
+    }
+
+    @Test
+    public void bodiesAreBuiltInBackground() throws InterruptedException {
+        CompiledScript script = compile(SCRIPT);
+        Context context = new AstInterpreter(new LiteralArithmetic(), null, 0, true).run(script);
+
+        FunctionNode unused = function(context, script, "unused");
+        for (int i = 0; i < 100 && !unused.isBuilt(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(unused.isBuilt()).isTrue();
+    }
+
+    @Test
+    public void firstCallsFromManyThreadsBuildOnce() throws Exception {
+        CompiledScript script = compile(SCRIPT);
+        Context context = new Context(new Operations(new LiteralArithmetic()), script);
+        new AstBuilder(context).build(script);
+        FunctionNode twice = function(context, script, "twice");
+        Tuple arguments = Tuple.creator().add(new Literal<>(21)).create();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Literal>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> twice.call(arguments)));
+            }
+            for (Future<Literal> result : results) {
+                assertThat(result.get().getValue()).isEqualTo(42);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(twice.body()).isSameAs(twice.body());
+    }
+}
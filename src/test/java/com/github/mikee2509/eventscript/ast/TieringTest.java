@@ -0,0 +1,119 @@
+package com.github.mikee2509.eventscript.ast;
+
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.jit.JitCompiler;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TieringTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var t = 0\n" +
+        "for (var i = 0; i < 20; ++i) { t = t + sum(i); }\n" +
+        "Speak(t)\n" +
+        "Speak(spin(50))\n" +
+        "greet()\n" +
+        "\n" +
+        "func sum(n: int) -> int {\n" +
+        "    var s = 0\n" +
+        "    for (var i = 0; i < n; ++i) { s = s + i; }\n" +
+        "    return s\n" +
+        "}\n" +
+        "func spin(n: int) -> int {\n" +
+        "    var s = 0\n" +
+        "    for (var i = 0; i < n; ++i) { s = s + i % 3; }\n" +
+        "    return s\n" +
+        "}\n" +
+        "func greet() {\n" +
+        "    Speak(\"t=\" + t)\n" +
+        "}\n" +
+        "func cold() -> int {\n" +
+        "    return 1\n" +
+        "}\n";
+    //@formatter:on
+
+    private static FunctionNode function(Context context, CompiledScript script, String name) {
+        return script.getFunctions().stream()
+            .filter(declaration -> declaration.getFunction().getName().equals(name))
+            .map(declaration -> context.functions.get(declaration.getFunction()))
+            .findFirst().orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Test
+    public void hotFunctionsArePromoted() {
+        CompiledScript script = compile(SCRIPT, true);
+        List<Context> context = new ArrayList<>();
+        List<String> output = new TestUtils(AstInterpreter.class).captureRun(() ->
+            context.add(new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), 10).run(script)));
+
+        assertThat(output).containsExactly("1140", "49", "t=1140");
+        assertThat(output).isEqualTo(interpret(script));
+        // sum by its calls, spin by the iterations of its loop in a single call
+        assertThat(function(context.get(0), script, "sum").compiled).isNotNull();
+        assertThat(function(context.get(0), script, "spin").compiled).isNotNull();
+        assertThat(function(context.get(0), script, "greet").compiled).isNull();
+        assertThat(function(context.get(0), script, "cold").compiled).isNull();
+        assertThat(function(context.get(0), script, "cold").promoted.get()).isFalse();
+    }
+
+    @Test
+    public void coldFunctionsStayInTree() {
+        CompiledScript script = compile(SCRIPT, true);
+        Context context = new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), 1000).run(script);
+
+        assertThat(function(context, script, "sum").compiled).isNull();
+        assertThat(function(context, script, "sum").invocations).isEqualTo(20);
+        assertThat(function(context, script, "spin").compiled).isNull();
+    }
+
+    @Test
+    public void uncheckedScriptsStayInTree() {
+        CompiledScript script = compile(SCRIPT, false);
+        List<Context> context = new ArrayList<>();
+        List<String> output = new TestUtils(AstInterpreter.class).captureRun(() ->
+            context.add(new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), 10).run(script)));
+
+        assertThat(output).containsExactly("1140", "49", "t=1140");
+        assertThat(function(context.get(0), script, "sum").promoted.get()).isTrue();
+        assertThat(function(context.get(0), script, "sum").compiled).isNull();
+    }
+
+    @Test
+    public void promotionIsSafeAcrossThreads() throws Exception {
+        CompiledScript script = compile("func sum(n: int) -> int {\n" +
+            "    var s = 0\n" +
+            "    for (var i = 0; i < n; ++i) { s = s + i; }\n" +
+            "    return s\n" +
+            "}\n", true);
+        Context context = new AstInterpreter(new LiteralArithmetic(), new JitCompiler(), 50).run(script);
+        FunctionNode sum = function(context, script, "sum");
+        Tuple arguments = Tuple.creator().add(new Literal<>(100)).create();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Literal>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> sum.call(arguments)));
+            }
+            for (Future<Literal> result : results) {
+                assertThat(result.get().getValue()).isEqualTo(4950);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(sum.compiled).isNotNull();
+    }
+}
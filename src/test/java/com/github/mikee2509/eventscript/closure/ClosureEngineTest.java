@@ -0,0 +1,168 @@
+package com.github.mikee2509.eventscript.closure;
+
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ir.BinaryOperator;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Interpreter;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClosureEngineTest {
+    //@formatter:off
+    private static final String MIXED =
+        "Speak(fib(15))\n" +
+        "var p = divmod(17, 5)\n" +
+        "Speak(p._1.toString + \" \" + p._2.toString)\n" +
+        "Speak(duration(5, 4, 3, 2).toString)\n" +
+        "Speak(datetime(2018, 5, 1, 12, 30, 15) + duration(0, 0, 1) > datetime(2018, 5, 1, 12, 0))\n" +
+        "var x = 10\n" +
+        "for (var i = 0; i < 10; ++i) { if (i == 2) continue; if (i == 5) break; x = x - i; }\n" +
+        "if (x > 3) { var y = -x; Speak(y); } else Speak(x)\n" +
+        "var f: float;\n" +
+        "for (var i = 0; i < 3; ++i) { f = f + 0.5 * f + 1.0; Speak(f == 1.0 || f >= 2.5); Speak(--f); }\n" +
+        "var s = \"\"\n" +
+        "for (var i = 0; i < 3; ++i) { s = s + i; var b = i < 2; Speak(s + b + f); }\n" +
+        "var e = 1 == 1.0\n" +
+        "Speak(s + duration(1) + !true + e + 7 % 2.5)\n" +
+        "Speak(find(7))\n" +
+        "\n" +
+        "func fib(n: int) -> int {\n" +
+        "    if (n < 2) return n;\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "}\n" +
+        "func divmod(a: int, b: int) -> (int, int) {\n" +
+        "    return a / b, a % b\n" +
+        "}\n" +
+        "func find(n: int) -> int {\n" +
+        "    for (var i = 0;; ++i) { for (var j = 0; j < i; ++j) { if (i * j == n) return j; } }\n" +
+        "}\n";
+
+    private static final String GLOBALS =
+        "var x = 1\n" +
+        "show()\n" +
+        "if (true) { var x = 2; show(); bump(); show(); }\n" +
+        "show()\n" +
+        "for (var i = 0; i < 2; ++i) { if (i == 1) show(); var x = i + 10; show(); }\n" +
+        "if (true) { var x = \"a\"; show(); }\n" +
+        "\n" +
+        "func show() {\n    Speak(x + 1)\n}\n" +
+        "func bump() {\n    x = x + 1\n}\n";
+    //@formatter:on
+
+    private List<String> execute(String input, boolean typeCheck) {
+        return new TestUtils(ClosureEngine.class).captureRun(() ->
+            new ClosureEngine(new LiteralArithmetic()).execute(compile(input, typeCheck)));
+    }
+
+    private void assertSameAsInterpreter(String input) {
+        assertThat(execute(input, false)).isEqualTo(interpret(input, false));
+    }
+
+    @Test
+    public void outputMatchesInterpreter() {
+        assertThat(execute(MIXED, false)).startsWith("610", "3 2").hasSize(16);
+        assertSameAsInterpreter(MIXED);
+        assertThat(execute(MIXED, true)).isEqualTo(interpret(MIXED, true));
+        assertThat(execute(GLOBALS, false)).containsExactly("2", "3", "4", "2", "11", "2", "12", "a1");
+        assertSameAsInterpreter(GLOBALS);
+    }
+
+    @Test
+    public void countedLoopsMatchInterpreter() {
+        String input = "var n = 5\n" +
+            "var total = 0\n" +
+            "for (var i = 0; i < n; ++i) total = total + i\n" +
+            "Speak(total)\n" +
+            "for (var i = 3; i <= 6; ++i) { if (i == 4) continue; if (i == 6) break; Speak(i); }\n" +
+            "for (var i = 0.5; i < 2; ++i) Speak(i)\n" +
+            "for (var i = 0; i < n; ++i) { n = n - 1; Speak(n); }\n" +
+            "Speak(first(10) + count(4))\n" +
+            "\n" +
+            "func first(limit: int) -> int {\n" +
+            "    for (var i = 1; i <= limit; ++i) { if (i * i > limit) return i; }\n" +
+            "    return 0\n" +
+            "}\n" +
+            "func count(limit: int) -> int {\n" +
+            "    var c = 0\n" +
+            "    for (var i = 0; i < limit; ++i) c = c + 2\n" +
+            "    return c\n" +
+            "}\n";
+
+        assertThat(execute(input, true)).containsExactly("10", "3", "5", "0.5", "1.5", "4", "3", "2", "12")
+            .isEqualTo(interpret(input, true));
+        assertSameAsInterpreter(input);
+    }
+
+    @Test
+    public void operatorsAreSelectedForStaticTypes() {
+        TypedEvaluator one = new TypedEvaluator(frame -> new Literal<>(1), Type.INT);
+        TypedEvaluator half = new TypedEvaluator(frame -> new Literal<>(0.5f), Type.FLOAT);
+        TypedEvaluator text = new TypedEvaluator(frame -> new Literal<>("a"), Type.STRING);
+        TypedEvaluator unknown = new TypedEvaluator(frame -> new Literal<>(2), null);
+        TypedEvaluator duration = new TypedEvaluator(frame -> new Literal<>(Duration.ZERO), Type.DURATION);
+
+        assertThat(Operators.binary(BinaryOperator.DIV, one, one).type).isEqualTo(Type.INT);
+        assertThat(Operators.binary(BinaryOperator.DIV, one, half).evaluator.evaluate(null).getValue())
+            .isEqualTo(2.0f);
+        assertThat(Operators.binary(BinaryOperator.EQUAL, half, one).type).isEqualTo(Type.BOOL);
+        assertThat(Operators.binary(BinaryOperator.ADD, text, one).evaluator.evaluate(null).getValue())
+            .isEqualTo("a1");
+        assertThat(Operators.binary(BinaryOperator.ADD, one, unknown)).isNull();
+        assertThat(Operators.binary(BinaryOperator.AND, one, one)).isNull();
+        assertThat(Operators.binary(BinaryOperator.ADD, duration, duration)).isNull();
+    }
+
+    @Test
+    public void tailCallsRunInConstantStack() {
+        String input = "Speak(countdown(100000))\n" +
+            "Speak(sum(100000, 0))\n" +
+            "Speak(isEven(100001))\n" +
+            "\n" +
+            "func countdown(n: int) -> string {\n    if (n == 0) return \"done\";\n    return countdown(n - 1)\n}\n" +
+            "func sum(n: int, total: int) -> int {\n" +
+            "    if (n == 0) return total;\n    return sum(n - 1, total + n)\n}\n" +
+            "func isEven(n: int) -> bool {\n    if (n == 0) return true;\n    return isOdd(n - 1)\n}\n" +
+            "func isOdd(n: int) -> bool {\n    if (n == 0) return false;\n    return isEven(n - 1)\n}\n";
+
+        assertThat(execute(input, false)).containsExactly("done", "705082704", "false");
+        assertThat(execute(input, true)).containsExactly("done", "705082704", "false");
+        assertSameAsInterpreter("Speak(f())\nfunc f() -> float { return g(); }\nfunc g() -> int { return 1; }");
+        assertSameAsInterpreter("Speak(f())\nfunc f() -> int { return g(); }\nfunc g() {}");
+    }
+
+    @Test
+    public void errorsMatchInterpreter() {
+        assertSameAsInterpreter("Speak(\"before\")\nvar a = 1 + true\n");
+        assertSameAsInterpreter("Speak(\"a\")\nif (false) Speak(undefined)\nvar a = 1\nvar a = 2\n");
+        assertSameAsInterpreter("var a = 1\nvar b = 2.5\nSpeak(a + b)\nSpeak(b + a)\nSpeak(a && b)\n");
+        assertSameAsInterpreter("var s = \"x\"\nvar t = s - 1\n");
+        assertSameAsInterpreter("var b = true\nvar c = -b\n");
+        assertSameAsInterpreter("Speak(1 / 0)\n");
+        assertSameAsInterpreter("f(1)\nfunc f(a: float) {}");
+        assertSameAsInterpreter("f()\nfunc f(a: int) {}");
+        assertSameAsInterpreter("f()\nfunc f() -> int {}");
+        assertSameAsInterpreter("var a = f()\nfunc f() {}");
+        assertSameAsInterpreter("g()\nfunc g() -> (int, int) { return 1; }");
+        assertSameAsInterpreter("break\n");
+        assertSameAsInterpreter("for (;;) { f(); }\nfunc f() { continue; }");
+        assertSameAsInterpreter("if (true) { return; }\n");
+        assertSameAsInterpreter("var t = datetime(1, 2)\n");
+        assertSameAsInterpreter("  Ring()\n");
+        assertSameAsInterpreter("var a = 1\na = 2.5\n");
+        assertSameAsInterpreter("1 = 2\n");
+        assertSameAsInterpreter("if (1) Speak(1)\n");
+        assertSameAsInterpreter("var v: void;\n");
+        assertSameAsInterpreter("f()\nfunc f() { Speak(y); }");
+        assertSameAsInterpreter("var x = 1\nx()\n");
+        assertSameAsInterpreter("OnInterval(h, duration(1), duration())\nfunc h(a: int) {}");
+    }
+}
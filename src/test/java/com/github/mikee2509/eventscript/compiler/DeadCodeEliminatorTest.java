@@ -0,0 +1,71 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import org.junit.Test;
+
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeadCodeEliminatorTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var x = 2\n" +
+        "if (false) { unused(); }\n" +
+        "if (!false) { Speak(twice(x)); } else Speak(0)\n" +
+        "for (var i = 0; i < 3; ++i) { if (i == 1) { show(i); break; Speak(\"never\"); } }\n" +
+        "if (true) { var x = 5; show(x); }\n" +
+        "Speak(x)\n" +
+        "\n" +
+        "func unused() {\n    helper()\n}\n" +
+        "func helper() {\n    Speak(\"helper\")\n}\n" +
+        "func twice(a: int) -> int {\n    return a * 2\n    Speak(\"after return\")\n}\n" +
+        "func show(v: int) {\n    Speak(v + x)\n}\n" +
+        "func orphan() {\n    Speak(x)\n}\n";
+    //@formatter:on
+
+    @Test
+    public void unreachableCodeIsRemoved() {
+        CompiledScript script = compile(SCRIPT);
+        CompiledScript eliminated = new DeadCodeEliminator().eliminate(script);
+
+        assertThat(eliminated.getFunctions()).extracting(declaration -> declaration.getFunction().getName())
+            .containsExactly("twice", "show");
+        assertThat(eliminated.getFunctions().get(0).getBody()).hasSize(1);
+        assertThat(eliminated.getFrameSize()).isEqualTo(script.getFrameSize() - 3);
+        assertThat(eliminated.getStatements()).hasSize(5);
+        assertThat(eliminated.getStatements().get(1)).isInstanceOf(Block.class);
+        assertThat(((VariableDefinition) eliminated.getStatements().get(0)).getSlot()).isEqualTo(2);
+    }
+
+    @Test
+    public void outputMatchesOriginalScript() {
+        CompiledScript script = compile(SCRIPT);
+
+        assertThat(interpret(new DeadCodeEliminator().eliminate(script))).isEqualTo(interpret(script))
+            .containsExactly("4", "3", "10", "2");
+        CompiledScript checked = new TypeChecker().check(script);
+        assertThat(interpret(new DeadCodeEliminator().eliminate(checked))).isEqualTo(interpret(checked));
+    }
+
+    @Test
+    public void foldedConditionsArePruned() {
+        CompiledScript script = compile("if (1 > 2) { gone(); } else Speak(\"kept\")\n" +
+            "if (2 * 3 == 6) Speak(\"six\")\n" +
+            "\n" +
+            "func gone() {\n    Speak(\"gone\")\n}\n");
+        CompiledScript eliminated = new DeadCodeEliminator().eliminate(script);
+
+        assertThat(eliminated.getFunctions()).isEmpty();
+        assertThat(eliminated.getStatements()).hasSize(2).allMatch(statement -> statement instanceof Block);
+        assertThat(interpret(eliminated)).containsExactly("kept", "six");
+    }
+
+    @Test
+    public void scriptsWithoutDeadCodeAreLeftAlone() {
+        CompiledScript script = compile("Speak(f())\nfunc f() -> int {\n    return 1\n}\n");
+
+        assertThat(new DeadCodeEliminator().eliminate(script)).isSameAs(script);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import org.junit.Test;
+
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InlinerTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var x = 3\n" +
+        "var k = 10\n" +
+        "Speak(square(x) + square(4))\n" +
+        "Speak(scaled(x))\n" +
+        "if (true) { var k = 100; Speak(scaled(2)); }\n" +
+        "Speak(fact(5))\n" +
+        "Speak(twice(x))\n" +
+        "Speak(twice(5))\n" +
+        "Speak(square(x + 1))\n" +
+        "\n" +
+        "func square(a: int) -> int {\n    return a * a\n}\n" +
+        "func scaled(a: int) -> int {\n    return a * k\n}\n" +
+        "func fact(n: int) -> int {\n    if (n < 2) return 1;\n    return n * fact(n - 1)\n}\n" +
+        "func twice(a: int) -> int {\n    return square(a) + square(a)\n}\n";
+    //@formatter:on
+
+    private static Expression spoken(CompiledScript script, int statement) {
+        return ((BuiltInCall) ((ExpressionStatement) script.getStatements().get(statement)).getExpression())
+            .getArguments().get(0);
+    }
+
+    @Test
+    public void smallFunctionsAreInlined() {
+        CompiledScript script = new Inliner().inline(compile(SCRIPT, true));
+
+        Binary sum = (Binary) spoken(script, 2);
+        assertThat(sum.getLeft()).isEqualTo(new Binary(12, 11, BinaryOperator.MUL,
+            new Variable(3, 13, "x", true, 4), new Variable(3, 13, "x", true, 4)));
+        assertThat(sum.getRight()).isInstanceOf(Binary.class);
+        assertThat(((Binary) spoken(script, 3)).getRight()).isInstanceOf(Variable.class)
+            .matches(k -> !((Variable) k).isLocal());
+        assertThat(spoken(script, 5)).isInstanceOf(Call.class);
+        assertThat(spoken(script, 6)).isInstanceOf(Call.class);
+        assertThat(spoken(script, 7)).isInstanceOf(Binary.class);
+        assertThat(spoken(script, 8)).isInstanceOf(Call.class);
+        assertThat(script.getFunctions().get(3).getBody().get(0))
+            .matches(statement -> ((ReturnStatement) statement).getValues().get(0) instanceof Binary);
+        assertThat(((Binary) ((ReturnStatement) script.getFunctions().get(3).getBody().get(0)).getValues().get(0))
+            .getLeft()).isInstanceOf(Binary.class);
+    }
+
+    @Test
+    public void outputMatchesUninlinedScript() {
+        CompiledScript script = compile(SCRIPT, true);
+
+        assertThat(interpret(new Inliner().inline(script))).isEqualTo(interpret(script))
+            .containsExactly("25", "30", "200", "120", "18", "50", "16");
+    }
+
+    @Test
+    public void scriptsThatAreNotTypeCheckedAreLeftAlone() {
+        CompiledScript script = compile(SCRIPT);
+
+        assertThat(new Inliner().inline(script)).isSameAs(script);
+        assertThat(new Inliner(0).inline(compile("Speak(one())\nfunc one() -> int {\n    return 1\n}\n", true)))
+            .matches(inlined -> spoken(inlined, 0) instanceof Constant);
+    }
+}
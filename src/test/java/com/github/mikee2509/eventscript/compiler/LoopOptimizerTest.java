@@ -0,0 +1,60 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import org.junit.Test;
+
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoopOptimizerTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var a = 3\n" +
+        "var b = 4\n" +
+        "var s = \"\"\n" +
+        "for (var i = 0; i < a * b; ++i) { if (i % 5 == 0) s = s + a.toString; }\n" +
+        "Speak(s)\n" +
+        "for (var i = 0; i < 2; ++i) { a = a + 1; Speak(a * b); }\n" +
+        "for (var i = 0; i < 2; ++i) { Speak(scale(i)); }\n" +
+        "for (var i = 0; i < 1; ++i) { Speak(a / 0); }\n" +
+        "\n" +
+        "func scale(x: int) -> int {\n" +
+        "    var total = 0\n" +
+        "    for (var j = 0; j < 3; ++j) { for (var k = 0; k < 2; ++k) total = total + x * 10 + j * 2; }\n" +
+        "    return total + b\n" +
+        "}\n";
+    //@formatter:on
+
+    @Test
+    public void invariantOperationsAreHoisted() {
+        CompiledScript script = compile(SCRIPT, true);
+        CompiledScript optimized = new LoopOptimizer().optimize(script);
+
+        Block hoisted = (Block) optimized.getStatements().get(3);
+        assertThat(hoisted.getStatements()).hasSize(3);
+        assertThat(((VariableDefinition) hoisted.getStatements().get(0)).getValue()).isInstanceOf(Binary.class);
+        assertThat(((VariableDefinition) hoisted.getStatements().get(1)).getValue()).isInstanceOf(ToStringCall.class);
+        assertThat(hoisted.getFirstSlot()).isEqualTo(script.getFrameSize());
+        assertThat(optimized.getFrameSize()).isEqualTo(script.getFrameSize() + 2);
+        assertThat(optimized.getStatements().subList(5, 8)).isEqualTo(script.getStatements().subList(5, 8));
+        assertThat(optimized.getFunctions().get(0).getFrameSize())
+            .isGreaterThan(script.getFunctions().get(0).getFrameSize());
+    }
+
+    @Test
+    public void outputMatchesUnoptimizedScript() {
+        CompiledScript script = compile(SCRIPT, true);
+
+        assertThat(interpret(new LoopOptimizer().optimize(script))).isEqualTo(interpret(script))
+            .containsExactly("333", "16", "20", "16", "76", "ArithmeticException: / by zero");
+    }
+
+    @Test
+    public void scriptsThatAreNotTypeCheckedAreLeftAlone() {
+        CompiledScript script = compile(SCRIPT);
+
+        assertThat(new LoopOptimizer().optimize(script)).isSameAs(script);
+    }
+}
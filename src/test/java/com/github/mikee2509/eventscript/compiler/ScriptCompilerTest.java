@@ -0,0 +1,239 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.compiler.ir.*;
+import com.github.mikee2509.eventscript.domain.exception.FunctionException;
+import com.github.mikee2509.eventscript.domain.exception.ParserException;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.domain.expression.Type;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ScriptCompilerTest {
+    private static final String PROJECT_PACKAGE = "com.github.mikee2509.";
+
+    private ParserCreator parserCreator;
+    private ScriptCompiler compiler;
+
+    @Before
+    public void setUp() {
+        parserCreator = new ParserCreator();
+        compiler = new ScriptCompiler();
+    }
+
+    private CompiledScript compile(String input) {
+        EventScriptParser parser = parserCreator.fromString(input);
+        parser.removeErrorListeners();
+        return compiler.compile(parser.script());
+    }
+
+    @Test
+    public void lowersExpressionsWithPositions() {
+        CompiledScript script = compile("var a = 1 + 2 * x.toString\n  Speak(\"a\\tb\")\nfunc x() {}");
+
+        assertThat(script.getFunctions()).hasSize(1);
+        assertThat(script.getStatements()).containsExactly(
+            new VariableDefinition(1, 0, "a", 1,
+                new Binary(1, 8, BinaryOperator.ADD,
+                    new Constant(1, 8, new Literal<>(1)),
+                    new Binary(1, 12, BinaryOperator.MUL,
+                        new Constant(1, 12, new Literal<>(2)),
+                        new ToStringCall(1, 18, new Variable(1, 16, "x", true, 0))))),
+            new ExpressionStatement(2, 2,
+                new BuiltInCall(2, 2, BuiltInFunction.SPEAK,
+                    Collections.singletonList(new Constant(2, 8, new Literal<>("a\tb"))), 2, 7)));
+    }
+
+    @Test
+    public void resolvesOperatorsAndBuiltInFunctions() {
+        CompiledScript script = compile("OnInterval(f, duration(1), duration())\n" +
+            "var b = -f <= 2 != 3 % f > 5 || --f == 6 && true\nfunc f() {}");
+
+        BuiltInCall onInterval = (BuiltInCall) ((ExpressionStatement) script.getStatements().get(0)).getExpression();
+        assertThat(onInterval.getFunction()).isEqualTo(BuiltInFunction.ON_INTERVAL);
+        assertThat(onInterval.getName()).isEqualTo("OnInterval");
+
+        Binary or = (Binary) ((VariableDefinition) script.getStatements().get(1)).getValue();
+        Binary notEqual = (Binary) or.getLeft();
+        Binary and = (Binary) or.getRight();
+        assertThat(or.getOperator()).isEqualTo(BinaryOperator.OR);
+        assertThat(notEqual.getOperator()).isEqualTo(BinaryOperator.NOT_EQUAL);
+        assertThat(((Binary) notEqual.getLeft()).getOperator()).isEqualTo(BinaryOperator.LE);
+        assertThat(((Unary) ((Binary) notEqual.getLeft()).getLeft()).getOperator()).isEqualTo(UnaryOperator.MINUS);
+        assertThat(((Binary) notEqual.getRight()).getOperator()).isEqualTo(BinaryOperator.GT);
+        assertThat(and.getOperator()).isEqualTo(BinaryOperator.AND);
+        assertThat(((Unary) ((Binary) and.getLeft()).getLeft()).getOperator()).isEqualTo(UnaryOperator.DECREMENT);
+    }
+
+    @Test
+    public void foldsConstantExpressions() {
+        CompiledScript script = compile("var a = 1 + 2 * 3\n" +
+            "var b = a > 1 || !false && \"x\\\\n\\t\" + 1 + \"y\".toString == \"\"\n" +
+            "var c = duration(30, 1) + duration() - duration(-30)\n" +
+            "var d = datetime()\n" +
+            "var e = \"x\\\\n\\t\" - 1\n");
+
+        assertThat(script.getStatements()).extracting(statement -> ((VariableDefinition) statement).getValue())
+            .containsExactly(
+                new Constant(1, 8, new Literal<>(7)),
+                new Binary(2, 8, BinaryOperator.OR,
+                    new Binary(2, 8, BinaryOperator.GT, new Variable(2, 8, "a", true, 0),
+                        new Constant(2, 12, new Literal<>(1))),
+                    new Constant(2, 17, new Literal<>(false))),
+                new Constant(3, 8, new Literal<>(Duration.ofSeconds(120))),
+                new DatetimeConstructor(4, 8, Collections.emptyList()),
+                new Binary(5, 8, BinaryOperator.SUB, new Constant(5, 8, new Literal<>("x\\n\t")),
+                    new Constant(5, 19, new Literal<>(1))));
+        Binary b = (Binary) ((VariableDefinition) script.getStatements().get(1)).getValue();
+        Binary e = (Binary) ((VariableDefinition) script.getStatements().get(4)).getValue();
+        assertThat(((Constant) e.getRight()).getValue()).isSameAs(((Constant) ((Binary) b.getLeft()).getRight())
+            .getValue());
+    }
+
+    @Test
+    public void resolvesFunctionSignatures() {
+        CompiledScript script = compile("func pair(a: int, b: float) -> (int, float) {\n    return a, b\n}\n" +
+            "func nothing() {}");
+
+        assertThat(script.getFunctions()).extracting(FunctionDeclaration::getFunction).containsExactly(
+            Function.builder()
+                .name("pair")
+                .parameters(Arrays.asList(
+                    Function.Parameter.builder().name("a").type(Type.INT).build(),
+                    Function.Parameter.builder().name("b").type(Type.FLOAT).build()))
+                .returnType(Tuple.builder().types(new Type[]{Type.INT, Type.FLOAT}).build())
+                .build(),
+            Function.builder()
+                .name("nothing")
+                .parameters(Collections.emptyList())
+                .returnType(Type.VOID)
+                .build());
+        assertThat(script.getFunctions().get(0).getBody()).containsExactly(new ReturnStatement(2, 4,
+            Arrays.asList(new Variable(2, 11, "a", true, 0), new Variable(2, 14, "b", true, 1))));
+    }
+
+    @Test
+    public void resolvesVariablesToFrameSlots() {
+        CompiledScript script = compile("var x = 1\n" +
+            "if (true) { var x = x + 1; var y = 2; show(); } else { var x = 3; }\n" +
+            "for (var i = 0; i < 2; ++i) { var y = i; }\n" +
+            "func show() {\n    var y = x\n    y = y + 1\n}\n" +
+            "func show() {}\n");
+
+        assertThat(script.getFunctions()).hasSize(1);
+        assertThat(script.getFrameSize()).isEqualTo(7);
+        IfStatement ifStatement = (IfStatement) script.getStatements().get(1);
+        Block thenBranch = ifStatement.getThenBranch();
+        assertThat(thenBranch.getFirstSlot()).isEqualTo(2);
+        assertThat(thenBranch.getEndSlot()).isEqualTo(4);
+        assertThat(((VariableDefinition) thenBranch.getStatements().get(0)).getValue())
+            .isEqualTo(new Binary(2, 20, BinaryOperator.ADD, new Variable(2, 20, "x", true, 1),
+                new Constant(2, 24, new Literal<>(1))));
+        assertThat(((ExpressionStatement) thenBranch.getStatements().get(2)).getExpression())
+            .isEqualTo(new Call(2, 38, "show", true, 0, Collections.emptyList()));
+        assertThat(ifStatement.getElseBranch().getFirstSlot()).isEqualTo(4);
+        ForStatement forStatement = (ForStatement) script.getStatements().get(2);
+        assertThat(forStatement.getFirstSlot()).isEqualTo(5);
+        assertThat(forStatement.getEndSlot()).isEqualTo(7);
+
+        FunctionDeclaration show = script.getFunctions().get(0);
+        assertThat(show.getFrameSize()).isEqualTo(1);
+        assertThat(show.getBody()).containsExactly(
+            new VariableDefinition(5, 4, "y", 0, new Variable(5, 12, "x", false, 0)),
+            new ExpressionStatement(6, 4, new Assignment(6, 4, new Variable(6, 4, "y", true, 0),
+                new Binary(6, 8, BinaryOperator.ADD, new Variable(6, 8, "y", true, 0),
+                    new Constant(6, 12, new Literal<>(1))))));
+        assertThat(script.getGlobalSlots()).isEqualTo(new int[][]{{2, 4, 1}});
+    }
+
+    @Test
+    public void compiledScriptRetainsNoParserObjects() throws IllegalAccessException {
+        CompiledScript script = compile("var count = 1\nfor (var i = 0; i < 3; ++i) count = count * add(i, 2)\n" +
+            "func add(a: int, b: int) -> int {\n    return a + b\n}\n");
+
+        Set<Object> reachable = reachableObjects(script);
+        assertThat(reachable).isNotEmpty().noneMatch(object -> object.getClass().getName().startsWith("org.antlr."));
+        assertThat(reachable.stream().filter(object -> "count".equals(object) || "i".equals(object))).hasSize(2);
+    }
+
+    /**
+     * Returns the objects reachable from the given one. Only the fields of the classes of this project are followed,
+     * collections and maps are walked through their elements and any other object is a leaf.
+     */
+    private static Set<Object> reachableObjects(Object root) throws IllegalAccessException {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>(Collections.singleton(root));
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object instanceof Enum || !visited.add(object)) continue;
+            if (object instanceof Object[]) {
+                Stream.of((Object[]) object).filter(Objects::nonNull).forEach(pending::push);
+            } else if (object instanceof Collection) {
+                ((Collection<?>) object).stream().filter(Objects::nonNull).forEach(pending::push);
+            } else if (object instanceof Map) {
+                ((Map<?, ?>) object).forEach((key, value) -> Stream.of(key, value).filter(Objects::nonNull)
+                    .forEach(pending::push));
+            }
+            for (Class<?> type = object.getClass(); type != null && type.getName().startsWith(PROJECT_PACKAGE);
+                 type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) continue;
+                    field.setAccessible(true);
+                    Object value = field.get(object);
+                    if (value != null) pending.push(value);
+                }
+            }
+        }
+        return visited;
+    }
+
+    @Test
+    public void rejectsInvalidScripts() {
+        assertThatExceptionOfType(ParserException.class)
+            .isThrownBy(() -> compile("var a = (1 + \nvar b = 2\n"))
+            .withMessageStartingWith("line 1:8");
+        assertThatExceptionOfType(FunctionException.class)
+            .isThrownBy(() -> compile("func f(a: int, a: float) {}"))
+            .withMessage("line 1:7 Duplicate parameter names");
+        assertThatExceptionOfType(FunctionException.class)
+            .isThrownBy(() -> compile("func f(a: int, b: void) {}"))
+            .withMessage("line 1:15 Function parameter cannot be of void type");
+    }
+
+    @Test
+    public void lowersNameErrorsToCodeFailingWhenReached() {
+        CompiledScript script = compile("if (false) { var a = 1; }\nSpeak(a)\nvar b: int\nvar b = 2\n" +
+            "func f(a: int) {\n    var a = 1\n    g()\n}");
+
+        assertThat(((ExpressionStatement) script.getStatements().get(1)).getExpression()).isEqualTo(
+            new BuiltInCall(2, 0, BuiltInFunction.SPEAK, Collections.singletonList(new Variable(2, 6, "a", false, 0)),
+                2, 5));
+        assertThat(script.getStatements().get(3)).isEqualTo(new Redefinition(4, 0, "b",
+            new VariableDefinition(4, 0, "b", 3, new Constant(4, 8, new Literal<>(2)))));
+        assertThat(script.getFrameSize()).isEqualTo(4);
+        assertThat(script.getFunctions().get(0).getBody()).containsExactly(
+            new Redefinition(6, 4, "a", new VariableDefinition(6, 4, "a", 1, new Constant(6, 12, new Literal<>(1)))),
+            new ExpressionStatement(7, 4, new Call(7, 4, "g", false, 1, Collections.emptyList())));
+        assertThat(script.getGlobalSlots()).isEqualTo(new int[][]{{1}, {}});
+    }
+}
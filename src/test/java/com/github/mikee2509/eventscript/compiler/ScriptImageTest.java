@@ -0,0 +1,93 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ScriptImageTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var globalHeight = 1\n" +
+        "var flag: bool;\n" +
+        "OnInterval(action, duration(1, 2), duration())\n" +
+        "if (!flag && 2.5 >= 1) flag = true\n" +
+        "else { var d = datetime(2018, 5, 1, 12, 0) - duration(0, 0, 1); }\n" +
+        "\n" +
+        "func action() {\n" +
+        "    for (var i = 1; i <= globalHeight; ++i) {\n" +
+        "        if (i % 2 == 0) continue\n" +
+        "        Speak(\"zażółć \\\"\" + pair(i, 0.5)._2.toString)\n" +
+        "    }\n" +
+        "    for (globalHeight = 0, --globalHeight; ; globalHeight = globalHeight - -1) { break; }\n" +
+        "}\n" +
+        "\n" +
+        "func pair(a: int, b: float) -> (int, float) {\n" +
+        "    return a, b\n" +
+        "}\n";
+    //@formatter:on
+
+    private CompiledScript compiled;
+    private ScriptImageWriter writer;
+    private ScriptImageReader reader;
+
+    @Before
+    public void setUp() {
+        compiled = new ScriptCompiler().compile(new ParserCreator().parseScript(SCRIPT));
+        writer = new ScriptImageWriter();
+        reader = new ScriptImageReader();
+    }
+
+    @Test
+    public void imageRoundTrips() throws IOException {
+        byte[] image = writer.write(compiled);
+
+        assertThat(reader.read(image)).isEqualTo(compiled);
+        assertThat(writer.write(reader.read(image))).isEqualTo(image);
+
+        CompiledScript checked = new TypeChecker().check(compiled);
+        assertThat(checked.isTypeChecked()).isTrue();
+        assertThat(reader.read(writer.write(checked))).isEqualTo(checked);
+    }
+
+    @Test
+    public void mappedFileRoundTrips() throws IOException {
+        Path file = Files.createTempFile("script", ".esc");
+        try {
+            writer.write(compiled, file);
+            assertThat(reader.fromPath(file)).isEqualTo(compiled);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void damagedImagesAreRejected() {
+        byte[] image = writer.write(compiled);
+
+        byte[] flipped = image.clone();
+        flipped[flipped.length / 2] ^= 1;
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> reader.read(flipped))
+            .withMessage("Compiled script checksum mismatch");
+
+        byte[] newerVersion = image.clone();
+        ByteBuffer.wrap(newerVersion).putShort(4, (short) (ScriptImageFormat.VERSION + 1));
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> reader.read(newerVersion))
+            .withMessageStartingWith("Unsupported compiled script version");
+
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> reader.read(Arrays.copyOf(image, image.length - 1)))
+            .withMessage("Compiled script is truncated");
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> reader.read(SCRIPT.getBytes()))
+            .withMessage("Not a compiled script");
+    }
+}
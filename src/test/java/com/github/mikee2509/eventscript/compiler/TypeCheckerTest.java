@@ -0,0 +1,79 @@
+package com.github.mikee2509.eventscript.compiler;
+
+import com.github.mikee2509.eventscript.domain.exception.ParserException;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TypeCheckerTest {
+    private ParserCreator parserCreator;
+    private TypeChecker typeChecker;
+
+    @Before
+    public void setUp() {
+        parserCreator = new ParserCreator();
+        typeChecker = new TypeChecker();
+    }
+
+    private CompiledScript check(String input) {
+        return typeChecker.check(new ScriptCompiler().compile(parserCreator.parseScript(input)));
+    }
+
+    private void assertRejected(String input, String message) {
+        assertThatExceptionOfType(ParserException.class).isThrownBy(() -> check(input)).withMessage(message);
+    }
+
+    @Test
+    public void wellTypedScriptIsMarkedAsChecked() {
+        CompiledScript script = check("var total = 0.5\n" +
+            "var p = divmod(17, 5)\n" +
+            "for (var i = 0; i < p._1; ++i) total = total + i * 2\n" +
+            "if (total >= 3 && datetime() > datetime() - duration(1)) Speak(p._2.toString + \"!\")\n" +
+            "OnInterval(tick, duration(5), duration())\n" +
+            "\n" +
+            "func divmod(a: int, b: int) -> (int, int) {\n" +
+            "    return a / b, a % b\n" +
+            "}\n" +
+            "func tick() {\n" +
+            "    total = total * 2\n" +
+            "}\n");
+
+        assertThat(script.isTypeChecked()).isTrue();
+        assertThat(script.getStatements()).hasSize(5);
+    }
+
+    @Test
+    public void errorsAreReportedBeforeTheScriptRuns() {
+        assertRejected("Speak(\"before\")\nvar a = 1 + true\n",
+            "line 2:8 Unsupported additive operation between int and bool");
+        assertRejected("var a = 1\na = 2.5\n", "line 2:0 int type expected");
+        assertRejected("f(1)\nfunc f(a: float) {}", "line 1:0 Function f expects parameter of type float");
+        assertRejected("func g() -> (int, int) { return 1; }", "line 1:25 Function returns: (int, int)");
+        assertRejected("func f() -> int {}", "line 1:0 Missing return statement");
+        assertRejected("if (1) Speak(1)\n", "line 1:0 bool type expected");
+        assertRejected("var e = 5._2\n", "line 1:10 tuple type expected");
+        assertRejected("var t = datetime(1, 2)\n", "line 1:8 Datetime constructor takes 5 or 6 ints as parameters");
+        assertRejected("for (;;) { var a = 1; var a = 2; }\n", "line 1:22 'a' is already defined in this scope");
+        assertRejected("Speak(undefined)\n", "line 1:6 Variable 'undefined' is not defined in this scope");
+        assertRejected("break\n", "line 1:0 Break outside for loop");
+    }
+
+    @Test
+    public void scheduledFunctionsAreChecked() {
+        assertRejected("OnInterval(tick, duration(5), duration())\nfunc tick() {\n    Speak(tick.toString)\n}",
+            "line 3:15 toString can only be invoked on types: bool, datetime, duration, float, int, string");
+        assertRejected("OnInterval(tick, duration(5), 1)\nfunc tick() {}",
+            "line 1:0 Function OnInterval expects parameters of types (void, duration, duration)");
+    }
+
+    @Test
+    public void globalsOfDifferentTypesAreNotAssumed() {
+        CompiledScript script = check("if (true) { var x = 1; f(); } else { var x = \"one\"; f(); }\n" +
+            "func f() {\n    Speak(x)\n}\n");
+
+        assertThat(script.isTypeChecked()).isFalse();
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.mikee2509.eventscript.jit;
+
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.ast.AstInterpreter;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.domain.expression.Function;
+import com.github.mikee2509.eventscript.domain.expression.Literal;
+import com.github.mikee2509.eventscript.domain.expression.Tuple;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JitCompilerTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "Speak(fib(20))\n" +
+        "printTriangle(3)\n" +
+        "Speak(mean(3, 4))\n" +
+        "Speak(checks(7, 2.5))\n" +
+        "var greeting = \"hi\"\n" +
+        "Speak(greet(2))\n" +
+        "Speak(later(1))\n" +
+        "\n" +
+        "func fib(n: int) -> int {\n" +
+        "    if (n < 2) return n;\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "}\n" +
+        "func printTriangle(height: int) {\n" +
+        "    var line : string\n" +
+        "    for (var i = 1; ; ++i) {\n" +
+        "        if (i > height) break;\n" +
+        "        line = \"\"\n" +
+        "        for (var j = 0; j < i; ++j) {\n" +
+        "            if (j == 1) continue;\n" +
+        "            line = line + \"*\" + j\n" +
+        "        }\n" +
+        "        Speak(line)\n" +
+        "    }\n" +
+        "}\n" +
+        "func mean(a: int, b: int) -> float {\n" +
+        "    var sum = a + b * 1.0\n" +
+        "    return sum / 2 + -0.0\n" +
+        "}\n" +
+        "func checks(a: int, f: float) -> string {\n" +
+        "    var b = a > f && !false || a == 7.0\n" +
+        "    var c = a % 4 != 3 == b\n" +
+        "    f = --f * 2\n" +
+        "    var d = \"x\" == \"x\" != \"x\" + a == \"x7\"\n" +
+        "    return b.toString + \" \" + c + \" \" + f + \" \" + a / 2 + \" \" + d\n" +
+        "}\n" +
+        "func greet(n: int) -> string {\n" +
+        "    return greeting + n\n" +
+        "}\n" +
+        "func later(days: int) -> bool {\n" +
+        "    return datetime(2018, 1, 1, 0, 0) + duration(days) > datetime(2018, 1, 1, 0, 0)\n" +
+        "}\n";
+    //@formatter:on
+
+    private static final ScriptRuntime NO_RUNTIME = new ScriptRuntime() {
+        @Override
+        public Literal call(int function, Literal[] arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void speak(String text) {
+        }
+    };
+
+    private List<String> execute(String input) {
+        return new TestUtils(AstInterpreter.class).captureRun(() ->
+            new AstInterpreter(new LiteralArithmetic(), new JitCompiler()).execute(compile(input, true)));
+    }
+
+    @Test
+    public void compilesFunctionsWithStaticTypes() {
+        CompiledScript script = compile(SCRIPT, true);
+        assertThat(script.isTypeChecked()).isTrue();
+        Map<Function, CompiledFunction> compiled = new JitCompiler().compile(script, NO_RUNTIME);
+
+        assertThat(compiled.keySet()).extracting(Function::getName)
+            .containsExactlyInAnyOrder("fib", "printTriangle", "mean", "checks");
+        Function fib = script.getFunctions().get(0).getFunction();
+        Tuple arguments = Tuple.fromLiteralList(Arrays.asList(new Literal<>(10)));
+        assertThat(compiled.get(fib).call(arguments)).isEqualTo(new Literal<>(55));
+    }
+
+    @Test
+    public void outputMatchesInterpreter() {
+        assertThat(execute(SCRIPT)).startsWith("6765", "*0", "*0", "*0*2", "3.5").hasSize(8);
+        assertThat(execute(SCRIPT)).isEqualTo(interpret(SCRIPT, true));
+    }
+
+    @Test
+    public void compiledCodeCallsInterpretedFunctions() {
+        String input = "var x = 3\n" +
+            "Speak(twice(5))\n" +
+            "Speak(twice(-1))\n" +
+            "\n" +
+            "func twice(n: int) -> int {\n" +
+            "    return plus(n, n)\n" +
+            "}\n" +
+            "func plus(a: int, b: int) -> int {\n" +
+            "    return a + b + x - x\n" +
+            "}\n";
+
+        assertThat(execute(input)).containsExactly("10", "-2");
+        assertThat(new JitCompiler().compile(compile(input, true), NO_RUNTIME).keySet())
+            .extracting(Function::getName)
+            .containsExactly("twice");
+    }
+
+    @Test
+    public void tailCallsRunInConstantStack() {
+        String input = "Speak(countdown(100000))\n" +
+            "Speak(sum(100000, 0))\n" +
+            "Speak(isEven(100001))\n" +
+            "\n" +
+            "func countdown(n: int) -> string {\n    if (n == 0) return \"done\";\n    return countdown(n - 1)\n}\n" +
+            "func sum(n: int, total: int) -> int {\n" +
+            "    if (n == 0) return total;\n    return sum(n - 1, total + n)\n}\n" +
+            "func isEven(n: int) -> bool {\n    if (n == 0) return true;\n    return isOdd(n - 1)\n}\n" +
+            "func isOdd(n: int) -> bool {\n    if (n == 0) return false;\n    return isEven(n - 1)\n}\n";
+
+        assertThat(execute(input)).containsExactly("done", "705082704", "false");
+        assertThat(new JitCompiler().compile(compile(input, true), NO_RUNTIME).keySet())
+            .extracting(Function::getName)
+            .containsExactlyInAnyOrder("countdown", "sum");
+    }
+
+    @Test
+    public void errorsMatchInterpreter() {
+        String division = "Speak(divide(1, 0))\nfunc divide(a: int, b: int) -> int {\n    return a / b\n}\n";
+        assertThat(execute(division)).isEqualTo(interpret(division, true));
+        String missingReturn = "Speak(sign(1))\nSpeak(sign(0))\n" +
+            "func sign(a: int) -> int {\n    if (a > 0) return 1;\n}\n";
+        assertThat(execute(missingReturn)).isEqualTo(interpret(missingReturn, true));
+    }
+}
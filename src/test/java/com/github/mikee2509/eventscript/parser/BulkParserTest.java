@@ -0,0 +1,90 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkParserTest {
+    private ForkJoinPool pool;
+    private ParserCreator parserCreator;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        parserCreator = new ParserCreator();
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static String script(int i) {
+        return "var a" + i + " = " + i + " * 2 + 1\n" +
+            "func f" + i + "(x: int) -> int {\n" +
+            "    if (x > " + i + ") {\n" +
+            "        return x - 1\n" +
+            "    }\n" +
+            "    return f" + i + "(x + 1)\n" +
+            "}\n";
+    }
+
+    private static String treeText(EventScriptParser.ScriptContext script) {
+        return script.toStringTree(Arrays.asList(EventScriptParser.ruleNames)) + " " + script.getText();
+    }
+
+    @Test
+    public void parsesInSourceOrder() {
+        List<String> scripts = IntStream.range(0, 500)
+            .mapToObj(i -> i % 50 == 0 ? "var broken = (" + i + "\n" : script(i))
+            .collect(Collectors.toList());
+        List<CharStream> sources = scripts.stream().map(CharStreams::fromString).collect(Collectors.toList());
+
+        List<EventScriptParser.ScriptContext> trees = new BulkParser(parserCreator, pool).parseAll(sources);
+
+        assertThat(trees).hasSize(scripts.size());
+        for (int i = 0; i < scripts.size(); i++) {
+            assertThat(treeText(trees.get(i))).isEqualTo(treeText(parserCreator.parseScript(scripts.get(i))));
+        }
+    }
+
+    @Test
+    public void parsesFilesWithTableDrivenLexer() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                Path path = Files.createTempFile("script", ".es");
+                Files.write(path, script(i).getBytes(StandardCharsets.UTF_8));
+                paths.add(path);
+            }
+
+            ParserCreator tableDriven = new ParserCreator(ParserCreator.LexerType.TABLE_DRIVEN);
+            List<EventScriptParser.ScriptContext> trees = new BulkParser(tableDriven, pool).parsePaths(paths);
+
+            for (int i = 0; i < paths.size(); i++) {
+                assertThat(treeText(trees.get(i))).isEqualTo(treeText(parserCreator.parseScript(script(i))));
+                assertThat(trees.get(i).start.getInputStream().getSourceName()).isEqualTo(paths.get(i).toString());
+            }
+        } finally {
+            for (Path path : paths) {
+                Files.delete(path);
+            }
+        }
+    }
+}
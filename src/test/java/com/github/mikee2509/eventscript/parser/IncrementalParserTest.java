@@ -0,0 +1,113 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncrementalParserTest {
+    private IncrementalParser incrementalParser;
+
+    //@formatter:off
+    private static final String SCRIPT =
+        "var globalHeight = 1\n" +
+        "OnInterval(action, duration(1), duration())\n" +
+        "\n" +
+        "func action() {\n" +
+        "    printTriangle(globalHeight)\n" +
+        "    ++globalHeight\n" +
+        "}\n" +
+        "\n" +
+        "func printTriangle(height: int) {\n" +
+        "    for (var i = 1; i <= height; ++i) {\n" +
+        "        Speak(\"*\")\n" +
+        "    }\n" +
+        "}\n";
+    //@formatter:on
+
+    @Before
+    public void setUp() {
+        incrementalParser = new IncrementalParser();
+    }
+
+    private static List<String> tokens(ParseTree tree) {
+        List<String> tokens = new ArrayList<>();
+        collectTokens(tree, tokens);
+        return tokens;
+    }
+
+    private static void collectTokens(ParseTree tree, List<String> tokens) {
+        if (tree instanceof TerminalNode) {
+            Token token = ((TerminalNode) tree).getSymbol();
+            tokens.add(token.getType() + " '" + token.getText() + "' " + token.getLine() + ":" +
+                token.getCharPositionInLine() + " " + token.getStartIndex() + "-" + token.getStopIndex());
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectTokens(tree.getChild(i), tokens);
+        }
+    }
+
+    private void assertSameAsFullParse(ParsedScript script) {
+        ParsedScript fullParse = incrementalParser.parse(script.getText());
+        assertThat(script.getTree().toStringTree()).isEqualTo(fullParse.getTree().toStringTree());
+        assertThat(tokens(script.getTree())).isEqualTo(tokens(fullParse.getTree()));
+    }
+
+    @Test
+    public void editInsideFunctionReusesOtherFunctions() {
+        ParsedScript script = incrementalParser.parse(SCRIPT);
+        EventScriptParser.FunctionContext action = script.getTree().function(0);
+        EventScriptParser.FunctionContext printTriangle = script.getTree().function(1);
+        EventScriptParser.StatementContext firstStatement = script.getTree().statement(0);
+
+        int offset = SCRIPT.indexOf("++globalHeight");
+        ParsedScript edited = incrementalParser.reparse(script,
+            TextEdit.insert(offset, "Speak(\"line\")\n    "));
+
+        assertThat(edited.isValid()).isTrue();
+        assertThat(edited.getTree()).isSameAs(script.getTree());
+        assertThat(edited.getTree().function(0)).isNotSameAs(action);
+        assertThat(edited.getTree().function(1)).isSameAs(printTriangle);
+        assertThat(edited.getTree().statement(0)).isSameAs(firstStatement);
+        assertSameAsFullParse(edited);
+    }
+
+    @Test
+    public void editInsideStatementShiftsFollowingTokens() {
+        ParsedScript script = incrementalParser.parse(SCRIPT);
+        EventScriptParser.FunctionContext printTriangle = script.getTree().function(1);
+
+        int offset = SCRIPT.indexOf("1\n");
+        ParsedScript edited = incrementalParser.reparse(script,
+            new TextEdit(offset, 1, "10 /* two\nlines */ + 2 * 3"));
+        edited = incrementalParser.reparse(edited, TextEdit.delete(edited.getText().indexOf(" + 2"), 8));
+        edited = incrementalParser.reparse(edited,
+            TextEdit.insert(edited.getText().indexOf("printTriangle("), "😀 + "));
+
+        assertThat(edited.isValid()).isTrue();
+        assertThat(edited.getTree().function(1)).isSameAs(printTriangle);
+        assertSameAsFullParse(edited);
+    }
+
+    @Test
+    public void editThatBreaksNodeBoundariesFallsBackToFullParse() {
+        ParsedScript script = incrementalParser.parse(SCRIPT);
+        EventScriptParser.FunctionContext printTriangle = script.getTree().function(1);
+
+        int offset = SCRIPT.indexOf("}\n\nfunc printTriangle");
+        ParsedScript edited = incrementalParser.reparse(script, TextEdit.delete(offset, 1));
+
+        assertThat(edited.isValid()).isFalse();
+        ParsedScript fixed = incrementalParser.reparse(edited, TextEdit.insert(offset, "}"));
+        assertThat(fixed.isValid()).isTrue();
+        assertThat(fixed.getTree().function(1)).isNotSameAs(printTriangle);
+        assertSameAsFullParse(fixed);
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParserCreatorTest {
+    private ParserCreator parserCreator;
+
+    //@formatter:off
+    private static final String SCRIPT =
+        "var globalHeight = 1                               \n" +
+        "OnInterval(action, duration(1), duration())        \n" +
+        "                                                   \n" +
+        "func action() {                                    \n" +
+        "    if (globalHeight % 2 == 0) {                   \n" +
+        "        Speak(\"even \" + globalHeight.toString)   \n" +
+        "    }                                              \n" +
+        "    for (var i = 1; i <= globalHeight; ++i) {      \n" +
+        "        globalHeight = globalHeight * 2 - i        \n" +
+        "    }                                              \n" +
+        "}                                                    ";
+    //@formatter:on
+
+    @Before
+    public void setUp() {
+        parserCreator = new ParserCreator();
+    }
+
+    private static class CollectingErrorListener extends BaseErrorListener {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                int charPositionInLine, String msg, RecognitionException e) {
+            errors.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+
+    private String fullLLTree(String input) {
+        EventScriptParser parser = parserCreator.fromString(input);
+        parser.removeErrorListeners();
+        return parser.script().toStringTree(parser);
+    }
+
+    @Test
+    public void twoStageParseMatchesFullLL() {
+        EventScriptParser parser = parserCreator.fromString(SCRIPT);
+        EventScriptParser.ScriptContext script = parserCreator.parseScript(parser);
+
+        assertThat(script.toStringTree(parser)).isEqualTo(fullLLTree(SCRIPT));
+        assertThat(parser.getNumberOfSyntaxErrors()).isZero();
+        assertThat(parser.getInterpreter().getPredictionMode()).isEqualTo(PredictionMode.LL);
+    }
+
+    @Test
+    public void syntaxErrorsAreReportedByFallbackPass() {
+        String input = "var a = (1 + \nvar b = 2\n";
+        EventScriptParser parser = parserCreator.fromString(input);
+        CollectingErrorListener listener = new CollectingErrorListener();
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+
+        EventScriptParser.ScriptContext script = parserCreator.parseScript(parser);
+
+        assertThat(listener.errors).isNotEmpty();
+        assertThat(script.toStringTree(parser)).isEqualTo(fullLLTree(input));
+        assertThat(parser.getErrorListeners()).hasSize(1);
+        assertThat(parser.getErrorListeners().get(0)).isSameAs(listener);
+    }
+
+    @Test
+    public void profileReportsInvokedDecisions() {
+        ParseProfile profile = parserCreator.profileScript(SCRIPT);
+        EventScriptParser parser = parserCreator.fromString(SCRIPT);
+
+        assertThat(profile.getTree().toStringTree(parser)).isEqualTo(fullLLTree(SCRIPT));
+        assertThat(profile.getDecisions()).isNotEmpty()
+            .allSatisfy(decision -> {
+                assertThat(decision.getInvocations()).isPositive();
+                assertThat(decision.getMaxLookaheadLine()).isBetween(-1, 11);
+            })
+            .extracting(DecisionProfile::getRuleName).contains("statement", "expression");
+        assertThat(profile.getDecisions()).extracting(DecisionProfile::getTimeInPrediction)
+            .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(profile.report(3)).startsWith("Parsed in ").hasLineCount(4);
+    }
+
+    @Test
+    public void profileMapsPredictionErrorsToLines() {
+        ParseProfile profile = parserCreator.profileScript("var a = 1\nvar b = x 2\nvar c = 3\n");
+
+        assertThat(profile.getDecisions()).filteredOn(decision -> decision.getErrors() > 0)
+            .isNotEmpty()
+            .allSatisfy(decision -> assertThat(decision.getEventLines()).containsExactly(2));
+    }
+}
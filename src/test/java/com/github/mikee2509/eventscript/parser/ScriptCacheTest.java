@@ -0,0 +1,71 @@
+package com.github.mikee2509.eventscript.parser;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void hitSkipsCompilation() {
+        AtomicInteger compilations = new AtomicInteger();
+        ScriptCache<String> cache = new ScriptCache<>(4, input -> {
+            compilations.incrementAndGet();
+            return input.toUpperCase();
+        });
+
+        assertThat(cache.get("var a = 1")).isEqualTo("VAR A = 1");
+        assertThat(cache.get("var a = 1")).isEqualTo("VAR A = 1");
+        assertThat(compilations.get()).isEqualTo(1);
+
+        cache.get("var b = 2");
+        assertThat(compilations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        ScriptCache<String> cache = new ScriptCache<>(2, input -> input);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        assertThat(cache.contains("c")).isTrue();
+    }
+
+    @Test
+    public void parseTreeCacheReturnsSameTree() {
+        ScriptCache<EventScriptParser.ScriptContext> cache = ScriptCache.parseTreeCache(new ParserCreator(), 8);
+        String script = "var apple = 2\n++apple\n";
+
+        EventScriptParser.ScriptContext first = cache.get(script);
+        EventScriptParser.ScriptContext second = cache.get(script);
+        assertThat(second).isSameAs(first);
+        assertThat(first.statement()).hasSize(2);
+    }
+
+    @Test
+    public void compiledScriptCacheReturnsSameScript() {
+        ScriptCache<CompiledScript> cache = ScriptCache.compiledScriptCache(new ParserCreator(), 8);
+        String script = "var apple = 2\n++apple\n";
+
+        CompiledScript first = cache.get(script);
+        assertThat(cache.get(script)).isSameAs(first);
+        assertThat(first.getStatements()).hasSize(2);
+    }
+
+    @Test
+    public void sizeMustBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> {
+            new ScriptCache<>(0, input -> input);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.mikee2509.eventscript.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScriptLoaderTest {
+    private ScriptLoader scriptLoader;
+
+    @Before
+    public void setUp() {
+        scriptLoader = new ScriptLoader();
+    }
+
+    private static String largeScript() {
+        return IntStream.range(0, 2_000)
+            .mapToObj(i -> "var zmiennaą" + i + " = \"😀 " + i + "\"\n")
+            .collect(Collectors.joining());
+    }
+
+    @Test
+    public void mappedFileMatchesSource() throws IOException {
+        String script = largeScript();
+        Path file = Files.createTempFile("script", ".es");
+        try {
+            Files.write(file, script.getBytes(StandardCharsets.UTF_8));
+            CharStream stream = scriptLoader.fromPath(file);
+
+            assertThat(stream.toString()).isEqualTo(script);
+            assertThat(stream.size()).isEqualTo(script.codePointCount(0, script.length()));
+            assertThat(stream.getSourceName()).isEqualTo(file.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        Path file = Files.createTempFile("script", ".es");
+        try {
+            assertThat(scriptLoader.fromPath(file).size()).isZero();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void streamedInputMatchesSource() throws IOException {
+        String script = largeScript();
+        CharStream stream = scriptLoader.fromStream(
+            new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), ScriptLoader.STDIN_SOURCE_NAME);
+
+        assertThat(stream.toString()).isEqualTo(script);
+        assertThat(new ParserCreator().parseScript(stream).statement()).hasSize(2_000);
+    }
+}
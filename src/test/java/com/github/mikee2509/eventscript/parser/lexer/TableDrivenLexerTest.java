@@ -0,0 +1,119 @@
+package com.github.mikee2509.eventscript.parser.lexer;
+
+import com.github.mikee2509.eventscript.EventScriptLexer;
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TableDrivenLexerTest {
+    //@formatter:off
+    private static final String SCRIPT =
+        "var globalHeight = 1\r\n" +
+        "OnInterval(action, duration(1), duration())\n" +
+        "\n" +
+        "/* multi\n   line */ func action() -> void {\n" +
+        "    if (globalHeight % 2 == 0 && !false || globalHeight != 7) { // comment\n" +
+        "        Speak(\"even \\\"quoted\\\"\\n \" + globalHeight.toString)\n" +
+        "    }\n" +
+        "    var t = pair(1, 2.5)\n" +
+        "    Notify(t._1.toString, t._2.toString)\n" +
+        "    for (var i = 1; i <= globalHeight; ++i) {\n" +
+        "        globalHeight = globalHeight * 2 - -i / 3 + 4 >= 5\n" +
+        "    }\n" +
+        "    var zażółć😀 = $_x1 + _0 + _10a\n" +
+        "}\n";
+    //@formatter:on
+
+    private static class CollectingErrorListener extends BaseErrorListener {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                int charPositionInLine, String msg, RecognitionException e) {
+            errors.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+
+    private static List<String> tokens(TokenSource lexer) {
+        List<String> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.nextToken();
+            tokens.add(token.getType() + " " + token.getChannel() + " '" + token.getText() + "' " +
+                token.getLine() + ":" + token.getCharPositionInLine() + " " +
+                token.getStartIndex() + "-" + token.getStopIndex());
+        } while (token.getType() != Token.EOF);
+        return tokens;
+    }
+
+    private static void assertSameAsGenerated(String input) {
+        CollectingErrorListener expectedErrors = new CollectingErrorListener();
+        EventScriptLexer generated = new EventScriptLexer(CharStreams.fromString(input));
+        generated.removeErrorListeners();
+        generated.addErrorListener(expectedErrors);
+
+        CollectingErrorListener actualErrors = new CollectingErrorListener();
+        TableDrivenLexer tableDriven = new TableDrivenLexer(CharStreams.fromString(input));
+        tableDriven.removeErrorListeners();
+        tableDriven.addErrorListener(actualErrors);
+
+        assertThat(tokens(tableDriven)).isEqualTo(tokens(generated));
+        assertThat(actualErrors.errors).isEqualTo(expectedErrors.errors);
+    }
+
+    @Test
+    public void scriptTokensMatchGeneratedLexer() {
+        assertSameAsGenerated(SCRIPT);
+        assertSameAsGenerated("");
+    }
+
+    @Test
+    public void everyKeywordMatchesGeneratedLexer() {
+        StringBuilder input = new StringBuilder("true false ");
+        for (int type = 1; type <= EventScriptLexer.VOCABULARY.getMaxTokenType(); type++) {
+            String literal = EventScriptLexer.VOCABULARY.getLiteralName(type);
+            if (literal != null) {
+                String text = literal.substring(1, literal.length() - 1);
+                input.append(text).append(' ').append(text).append("x ");
+            }
+        }
+        assertSameAsGenerated(input.toString());
+    }
+
+    @Test
+    public void longestMatchMatchesGeneratedLexer() {
+        assertSameAsGenerated("007 00.5 1. 1.5.3 _1 _12 _1a _0");
+        assertSameAsGenerated("a/*/b */c /* unterminated");
+        assertSameAsGenerated("a--->b <== >=> !!= ++++");
+    }
+
+    @Test
+    public void recognitionErrorsMatchGeneratedLexer() {
+        assertSameAsGenerated("a & b | c # d");
+        assertSameAsGenerated("var s = \"unterminated\nvar t = \"bad \\q\" + \"ok\"\n");
+        assertSameAsGenerated("a\uD800b c");
+    }
+
+    @Test
+    public void parserCreatorUsesSelectedLexer() {
+        ParserCreator antlr = new ParserCreator();
+        ParserCreator tableDriven = new ParserCreator(ParserCreator.LexerType.TABLE_DRIVEN);
+        EventScriptParser parser = tableDriven.fromString(SCRIPT);
+
+        assertThat(parser.getTokenStream().getTokenSource()).isInstanceOf(TableDrivenLexer.class);
+        assertThat(parser.script().toStringTree(parser))
+            .isEqualTo(antlr.parseScript(SCRIPT).toStringTree(parser));
+        assertThat(parser.getNumberOfSyntaxErrors()).isZero();
+    }
+}
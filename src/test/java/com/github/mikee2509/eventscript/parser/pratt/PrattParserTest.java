@@ -0,0 +1,149 @@
+package com.github.mikee2509.eventscript.parser.pratt;
+
+import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrattParserTest {
+    private ParserCreator parserCreator;
+
+    //@formatter:off
+    private static final String SCRIPT =
+        "var globalHeight = 1\n" +
+        "var flag: bool;\n" +
+        "OnInterval(action, duration(1), duration())\n" +
+        "a = b = -c.toString + d * e % f - g / h.toString(1) >= 2 == !x && y || z\n" +
+        "if (a) b = 1\n" +
+        "else if (!--c.toString.toString) {\n" +
+        "} else { d = datetime(2018, 5); }\n" +
+        "\n" +
+        "func action() {\n" +
+        "    if (globalHeight % 2 == 0 || globalHeight < 10 && globalHeight > 1) {\n" +
+        "        Speak(\"even \" + globalHeight.toString)\n" +
+        "    }\n" +
+        "    for (var i = 1; i <= globalHeight; ++i) {\n" +
+        "        globalHeight = globalHeight * 2 - +i\n" +
+        "        continue\n" +
+        "    }\n" +
+        "    for (;;) break;\n" +
+        "    for (i = 1, j = 2; ; i = i + 1, j = j - 1) { break; }\n" +
+        "}\n" +
+        "\n" +
+        "func pair(a: int, b: float) -> (int, float) {\n" +
+        "    return a, b;\n" +
+        "}\n" +
+        ";\n" +
+        "func nothing() -> void { return\n" +
+        "}";
+    //@formatter:on
+
+    @Before
+    public void setUp() {
+        parserCreator = new ParserCreator();
+    }
+
+    private static List<String> describe(ParseTree tree) {
+        List<String> nodes = new ArrayList<>();
+        describe(tree, 0, nodes);
+        return nodes;
+    }
+
+    private static void describe(ParseTree tree, int depth, List<String> nodes) {
+        String indent = String.join("", Collections.nCopies(depth, " "));
+        if (tree instanceof TerminalNode) {
+            nodes.add(indent + ((TerminalNode) tree).getSymbol().getTokenIndex());
+            return;
+        }
+        ParserRuleContext ctx = (ParserRuleContext) tree;
+        StringBuilder node = new StringBuilder(indent).append(ctx.getClass().getSimpleName())
+            .append(' ').append(index(ctx.start)).append('-').append(index(ctx.stop));
+        for (Field field : ctx.getClass().getDeclaredFields()) {
+            try {
+                Object value = field.get(ctx);
+                if (value instanceof Token) {
+                    node.append(' ').append(field.getName()).append('=').append(index((Token) value));
+                } else if (value instanceof ParserRuleContext) {
+                    node.append(' ').append(field.getName()).append('=')
+                        .append(ctx.children.indexOf(value));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        nodes.add(node.toString());
+        for (int i = 0; i < ctx.getChildCount(); i++) {
+            assertThat(ctx.getChild(i).getParent()).isSameAs(ctx);
+            describe(ctx.getChild(i), depth + 1, nodes);
+        }
+    }
+
+    private static int index(Token token) {
+        return token == null ? -2 : token.getTokenIndex();
+    }
+
+    private void assertSameAsGenerated(String input) {
+        EventScriptParser generated = parserCreator.fromString(input);
+        generated.removeErrorListeners();
+        EventScriptParser.ScriptContext expected = generated.script();
+        assertThat(generated.getNumberOfSyntaxErrors()).isZero();
+
+        EventScriptParser.ScriptContext actual =
+            new PrattParser(parserCreator.fromString(input).getTokenStream()).parseScript();
+        assertThat(actual).isNotNull();
+        assertThat(actual.toStringTree(generated)).isEqualTo(expected.toStringTree(generated));
+        assertThat(describe(actual)).isEqualTo(describe(expected));
+    }
+
+    @Test
+    public void treesMatchGeneratedParser() {
+        assertSameAsGenerated(SCRIPT);
+        assertSameAsGenerated("");
+        assertSameAsGenerated("\n\n");
+        assertSameAsGenerated("func f() {}");
+    }
+
+    @Test
+    public void longOperatorChainsMatchGeneratedParser() {
+        StringBuilder input = new StringBuilder("var x = 0");
+        for (int i = 0; i < 2_000; i++) {
+            input.append(i % 3 == 0 ? " + " : i % 3 == 1 ? " * " : " - ").append(i);
+        }
+        assertSameAsGenerated(input.append('\n').toString());
+    }
+
+    @Test
+    public void invalidScriptsAreRejected() {
+        assertThat(new PrattParser(parserCreator.fromString("var a = (1 + \nvar b = 2\n").getTokenStream())
+            .parseScript()).isNull();
+        assertThat(new PrattParser(parserCreator.fromString("func f() {}\nvar a = 1\n").getTokenStream())
+            .parseScript()).isNull();
+        assertThat(new PrattParser(parserCreator.fromString("a + \n").getTokenStream()).parseScript()).isNull();
+    }
+
+    @Test
+    public void parserCreatorFallsBackToGeneratedParser() {
+        ParserCreator pratt = new ParserCreator(ParserCreator.LexerType.TABLE_DRIVEN, ParserCreator.ParserType.PRATT);
+        EventScriptParser parser = pratt.fromString(SCRIPT);
+        assertThat(pratt.parseScript(SCRIPT).toStringTree(parser))
+            .isEqualTo(parserCreator.parseScript(SCRIPT).toStringTree(parser));
+
+        String invalid = "var a = 1 +\nvar b = 2\n";
+        EventScriptParser invalidParser = pratt.fromString(invalid);
+        invalidParser.removeErrorListeners();
+        EventScriptParser.ScriptContext script = invalidParser.script();
+        assertThat(invalidParser.getNumberOfSyntaxErrors()).isPositive();
+        assertThat(pratt.parseScript(invalid).toStringTree(parser)).isEqualTo(script.toStringTree(parser));
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.mikee2509.eventscript.parser.visitor;
 
 import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.TestUtils;
 import com.github.mikee2509.eventscript.domain.exception.LiteralException;
 import com.github.mikee2509.eventscript.domain.exception.OperationException;
 import com.github.mikee2509.eventscript.domain.exception.ScopeException;
@@ -1,6 +1,7 @@
 package com.github.mikee2509.eventscript.parser.visitor;
 
 import com.github.mikee2509.eventscript.EventScriptParser;
+import com.github.mikee2509.eventscript.TestUtils;
 import com.github.mikee2509.eventscript.domain.exception.FunctionException;
 import com.github.mikee2509.eventscript.domain.exception.ScopeException;
 import com.github.mikee2509.eventscript.domain.exception.control.ControlFlowException;
@@ -126,6 +127,42 @@ public class ScriptVisitorTest {
         });
     }
 
+    @Test
+    public void callSitesFollowRebinding() {
+        ScopeManager scope = new ScopeManager();
+        //@formatter:off
+        String input = "var log = \"\"                                   \n" +
+                       "for (var i = 0; i < 3; ++i) { callA(); }         \n" +
+                       "if (true) { var a = 1; }                         \n" +
+                       "callA()                                          \n" +
+                       "                                                 \n" +
+                       "func a() {                                       \n" +
+                       "    log = log + \"a\"                              \n" +
+                       "}                                                \n" +
+                       "func callA() {                                   \n" +
+                       "    a()                                          \n" +
+                       "}                                                  " ;
+        //@formatter:on
+        script(input, scope);
+        assertThat(scope.lookupSymbol("log")).isEqualTo(new Literal<>("aaaa"));
+
+        //@formatter:off
+        String shadowed = "var log = \"\"                                \n" +
+                          "callA()                                       \n" +
+                          "if (true) { var a = 1; callA(); }             \n" +
+                          "                                              \n" +
+                          "func a() {                                    \n" +
+                          "    log = log + \"a\"                           \n" +
+                          "}                                             \n" +
+                          "func callA() {                                \n" +
+                          "    a()                                       \n" +
+                          "}                                               " ;
+        //@formatter:on
+        ScopeManager shadowedScope = new ScopeManager();
+        assertThatExceptionOfType(FunctionException.class).isThrownBy(() -> script(shadowed, shadowedScope));
+        assertThat(shadowedScope.lookupSymbol("log")).isEqualTo(new Literal<>("a"));
+    }
+
     @Test
     public void withParamsFunctionCall() {
         ScopeManager scope = new ScopeManager();
@@ -0,0 +1,180 @@
+package com.github.mikee2509.eventscript.runtime;
+
+import com.github.mikee2509.eventscript.TestScripts;
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.compiler.ScriptImageReader;
+import com.github.mikee2509.eventscript.compiler.ScriptImageWriter;
+import com.github.mikee2509.eventscript.parser.ParserCreator;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.parser.visitor.FunctionVisitor;
+import com.github.mikee2509.eventscript.parser.visitor.VisitorConfiguration;
+import com.github.mikee2509.eventscript.parser.visitor.TypeVisitor;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InterpreterTest {
+    //@formatter:off
+    private static final String TRIANGLES =
+        "for (var h = 1; h < 4; ++h) printTriangle(h)\n" +
+        "\n" +
+        "func printTriangle(height: int) {\n" +
+        "    var line : string\n" +
+        "    for (var i = 1; i <= height; ++i) {\n" +
+        "        line = \"\"\n" +
+        "        for (var j = 0; j < i; ++j) {\n" +
+        "            line = line + \"*\"\n" +
+        "        }\n" +
+        "        Speak(line)\n" +
+        "    }\n" +
+        "}\n";
+
+    private static final String MIXED =
+        "Speak(fib(15))\n" +
+        "var p = divmod(17, 5)\n" +
+        "Speak(p._1.toString + \" \" + p._2.toString)\n" +
+        "Speak(duration(5, 4, 3, 2).toString)\n" +
+        "Speak(datetime(2018, 5, 1, 12, 30, 15) + duration(0, 0, 1) > datetime(2018, 5, 1, 12, 0))\n" +
+        "Speak(1 == 1.0 && 3 / 2 == 1 || 7 % 4.0 != 3)\n" +
+        "Speak(\"a\\\"b\\\\n\" + 2.5 + true)\n" +
+        "var x = 10\n" +
+        "for (var i = 0; i < 10; ++i) { if (i == 2) continue; if (i == 5) break; x = x - i; }\n" +
+        "if (x > 3) { var y = -x; Speak(y); } else Speak(x)\n" +
+        "var f: float;\n" +
+        "Speak(--f * +2)\n" +
+        "\n" +
+        "func fib(n: int) -> int {\n" +
+        "    if (n < 2) return n;\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "}\n" +
+        "func divmod(a: int, b: int) -> (int, int) {\n" +
+        "    return a / b, a % b\n" +
+        "}\n";
+    //@formatter:on
+
+    private static List<String> visit(String input) {
+        return new TestUtils(FunctionVisitor.class).captureRun(() ->
+            new VisitorConfiguration().scriptVisitor(new TypeVisitor()).visit(new ParserCreator().parseScript(input)));
+    }
+
+    private static List<String> interpret(String input) {
+        return new TestUtils(Interpreter.class).captureRun(() -> {
+            CompiledScript loaded;
+            try {
+                loaded = new ScriptImageReader().read(new ScriptImageWriter().write(TestScripts.compile(input)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            new Interpreter(new LiteralArithmetic()).execute(loaded);
+        });
+    }
+
+    private static List<String> interpretTypeChecked(String input) {
+        CompiledScript checked = TestScripts.compile(input, true);
+        assertThat(checked.isTypeChecked()).isTrue();
+        return TestScripts.interpret(checked);
+    }
+
+    private void assertSameAsVisitor(String input) {
+        assertThat(interpret(input)).isEqualTo(visit(input));
+    }
+
+    @Test
+    public void outputMatchesScriptVisitor() {
+        assertThat(interpret(TRIANGLES)).containsExactly("*", "*", "**", "*", "**", "***");
+        assertSameAsVisitor(TRIANGLES);
+        assertSameAsVisitor(MIXED);
+    }
+
+    @Test
+    public void functionsSeeTheTopLevelVariablesOfTheirCaller() {
+        String input = "var x = 1\n" +
+            "show()\n" +
+            "if (true) { var x = 2; show(); bump(); show(); }\n" +
+            "show()\n" +
+            "for (var i = 0; i < 2; ++i) { if (i == 1) show(); var x = i + 10; show(); }\n" +
+            "\n" +
+            "func show() {\n    Speak(x)\n}\n" +
+            "func bump() {\n    x = x + 1\n}\n";
+
+        assertThat(interpret(input)).containsExactly("1", "2", "3", "1", "10", "1", "11");
+        assertSameAsVisitor(input);
+    }
+
+    @Test(timeout = 10_000)
+    public void scheduledCallsRunNextToTheTopLevel() {
+        String input = "var started = false\n" +
+            "var done = false\n" +
+            "var ticks = 0\n" +
+            "OnInterval(tick, duration(1), duration())\n" +
+            "for (; !started;) {}\n" +
+            "var sum = 0\n" +
+            "for (var i = 0; i < 100000; ++i) { var a = i; var b = a % 7; sum = sum + b; }\n" +
+            "done = true\n" +
+            "for (; ticks == 0;) {}\n" +
+            "Speak(sum)\n" +
+            "\n" +
+            "func tick() {\n" +
+            "    started = true\n" +
+            "    for (var j = 0; !done; ++j) { var k = j * 2; }\n" +
+            "    ticks = ticks + 1\n" +
+            "}\n";
+
+        assertThat(interpret(input)).containsExactly("299995");
+    }
+
+    @Test
+    public void typeCheckedScriptsRunWithoutRuntimeChecks() {
+        assertThat(interpretTypeChecked(TRIANGLES)).isEqualTo(visit(TRIANGLES));
+        assertThat(interpretTypeChecked(MIXED)).isEqualTo(visit(MIXED));
+    }
+
+    @Test
+    public void tailCallsRunInConstantStack() {
+        String input = "Speak(countdown(100000))\n" +
+            "Speak(sum(100000, 0))\n" +
+            "Speak(isEven(100001))\n" +
+            "\n" +
+            "func countdown(n: int) -> string {\n    if (n == 0) return \"done\";\n    return countdown(n - 1)\n}\n" +
+            "func sum(n: int, total: int) -> int {\n" +
+            "    if (n == 0) return total;\n    return sum(n - 1, total + n)\n}\n" +
+            "func isEven(n: int) -> bool {\n    if (n == 0) return true;\n    return isOdd(n - 1)\n}\n" +
+            "func isOdd(n: int) -> bool {\n    if (n == 0) return false;\n    return isEven(n - 1)\n}\n";
+
+        assertThat(interpret(input)).containsExactly("done", "705082704", "false");
+        assertThat(interpretTypeChecked(input)).containsExactly("done", "705082704", "false");
+        assertSameAsVisitor("Speak(f(3))\n" +
+            "func f(n: int) -> int {\n    if (n == 0) return 1 / n;\n    return f(n - 1)\n}");
+        assertSameAsVisitor("Speak(f())\nfunc f() -> float { return g(); }\nfunc g() -> int { return 1; }");
+        assertSameAsVisitor("Speak(f())\nfunc f() -> int { return g(); }\nfunc g() {}");
+    }
+
+    @Test
+    public void errorsMatchScriptVisitor() {
+        assertThat(interpret("Speak(\"a\")\nif (false) Speak(undefined)\nif (false) { var a = 1; var a = 2; }\n"))
+            .containsExactly("a");
+        assertSameAsVisitor("Speak(\"a\")\nvar a = 1\nvar a = 2\nSpeak(\"b\")\n");
+        assertSameAsVisitor("Speak(\"a\")\nif (false) { var a = 1; var a = 2; }\nvar a = 1 + true\n");
+        assertSameAsVisitor("var s = \"x\" - 1\n");
+        assertSameAsVisitor("Speak(\"a\")\nif (false) Speak(undefined)\nSpeak(undefined)\n");
+        assertSameAsVisitor("Speak(\"a\")\nif (false) g()\nf()\nfunc f() {\n    var b: int\n    var b = g()\n}");
+        assertSameAsVisitor("f(1)\nfunc f(a: float) {}");
+        assertSameAsVisitor("f()\nfunc f() -> int {}");
+        assertSameAsVisitor("g()\nfunc g() -> (int, int) { return 1; }");
+        assertSameAsVisitor("break\n");
+        assertSameAsVisitor("if (true) { return; }\n");
+        assertSameAsVisitor("var t = datetime(1, 2)\n");
+        assertSameAsVisitor("var e = 5._2\n");
+        assertSameAsVisitor("  Ring()\n");
+        assertSameAsVisitor("var a = 1\na = 2.5\n");
+        assertSameAsVisitor("1 = 2\n");
+        assertSameAsVisitor("if (1) Speak(1)\n");
+        assertSameAsVisitor("var v: void;\n");
+        assertSameAsVisitor("OnInterval(h, duration(1), duration())\nfunc h(a: int) {}");
+    }
+}
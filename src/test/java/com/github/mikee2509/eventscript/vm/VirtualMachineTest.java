@@ -0,0 +1,109 @@
+package com.github.mikee2509.eventscript.vm;
+
+import com.github.mikee2509.eventscript.TestUtils;
+import com.github.mikee2509.eventscript.compiler.CompiledScript;
+import com.github.mikee2509.eventscript.parser.util.LiteralArithmetic;
+import com.github.mikee2509.eventscript.runtime.Interpreter;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.github.mikee2509.eventscript.TestScripts.compile;
+import static com.github.mikee2509.eventscript.TestScripts.interpret;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualMachineTest {
+    //@formatter:off
+    private static final String MIXED =
+        "Speak(fib(15))\n" +
+        "var p = divmod(17, 5)\n" +
+        "Speak(p._1.toString + \" \" + p._2.toString)\n" +
+        "Speak(duration(5, 4, 3, 2).toString)\n" +
+        "Speak(datetime(2018, 5, 1, 12, 30, 15) + duration(0, 0, 1) > datetime(2018, 5, 1, 12, 0))\n" +
+        "Speak(1 == 1.0 && 3 / 2 == 1 || 7 % 4.0 != 3)\n" +
+        "var x = 10\n" +
+        "for (var i = 0; i < 10; ++i) { if (i == 2) continue; if (i == 5) break; x = x - i; }\n" +
+        "if (x > 3) { var y = -x; Speak(y); } else Speak(x)\n" +
+        "var f: float;\n" +
+        "Speak(--f * +2)\n" +
+        "for (var i = 0; i < 3; ++i) { for (var j = 0; ; ++j) { if (j == i) break; Speak(i * 10 + j); } }\n" +
+        "\n" +
+        "func fib(n: int) -> int {\n" +
+        "    if (n < 2) return n;\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "}\n" +
+        "func divmod(a: int, b: int) -> (int, int) {\n" +
+        "    return a / b, a % b\n" +
+        "}\n";
+
+    private static final String GLOBALS =
+        "var x = 1\n" +
+        "show()\n" +
+        "if (true) { var x = 2; show(); bump(); show(); }\n" +
+        "show()\n" +
+        "for (var i = 0; i < 3; ++i) { if (i == 1) { show(); continue; } var x = i + 10; show(); }\n" +
+        "for (var i = 0; i < 3; ++i) { var x = i + 20; if (i == 1) break; }\n" +
+        "show()\n" +
+        "\n" +
+        "func show() {\n    Speak(x)\n}\n" +
+        "func bump() {\n    x = x + 1\n}\n";
+    //@formatter:on
+
+    private List<String> execute(String input, boolean typeCheck) {
+        return new TestUtils(VirtualMachine.class).captureRun(() -> {
+            BytecodeScript script = new BytecodeCompiler().compile(compile(input, typeCheck));
+            new VirtualMachine(new LiteralArithmetic()).execute(script);
+        });
+    }
+
+    private void assertSameAsInterpreter(String input) {
+        assertThat(execute(input, false)).isEqualTo(interpret(input, false));
+    }
+
+    @Test
+    public void outputMatchesInterpreter() {
+        assertThat(execute(MIXED, false)).startsWith("610", "3 2");
+        assertSameAsInterpreter(MIXED);
+        assertThat(execute(MIXED, true)).isEqualTo(interpret(MIXED, true));
+    }
+
+    @Test
+    public void blocksLeftByBreakAndContinueReleaseTheirVariables() {
+        assertThat(execute(GLOBALS, false)).containsExactly("1", "2", "3", "1", "10", "1", "12", "1");
+        assertSameAsInterpreter(GLOBALS);
+    }
+
+    @Test
+    public void callsDoNotGrowTheJavaStack() {
+        String input = "Speak(depth(20000))\n" +
+            "func depth(n: int) -> int {\n" +
+            "    if (n == 0) return 0;\n" +
+            "    return depth(n - 1) + 1\n" +
+            "}\n";
+
+        assertThat(execute(input, true)).containsExactly("20000");
+    }
+
+    @Test
+    public void errorsMatchInterpreter() {
+        assertSameAsInterpreter("Speak(\"before\")\nvar a = 1 + true\n");
+        assertSameAsInterpreter("Speak(\"a\")\nif (false) Speak(undefined)\nvar a = 1\nvar a = 2\n");
+        assertSameAsInterpreter("var s = \"x\" - 1\n");
+        assertSameAsInterpreter("f(1)\nfunc f(a: float) {}");
+        assertSameAsInterpreter("f()\nfunc f() -> int {}");
+        assertSameAsInterpreter("g()\nfunc g() -> (int, int) { return 1; }");
+        assertSameAsInterpreter("break\n");
+        assertSameAsInterpreter("for (;;) { f(); }\nfunc f() { continue; }");
+        assertSameAsInterpreter("if (true) { return; }\n");
+        assertSameAsInterpreter("var t = datetime(1, 2)\n");
+        assertSameAsInterpreter("var e = 5._2\n");
+        assertSameAsInterpreter("  Ring()\n");
+        assertSameAsInterpreter("var a = 1\na = 2.5\n");
+        assertSameAsInterpreter("1 = 2\n");
+        assertSameAsInterpreter("if (1) Speak(1)\n");
+        assertSameAsInterpreter("var v: void;\n");
+        assertSameAsInterpreter("var v = f()\nfunc f() {}");
+        assertSameAsInterpreter("OnInterval(h, duration(1), duration())\nfunc h(a: int) {}");
+        assertSameAsInterpreter("OnInterval(h, 1, duration())\nfunc h() {}");
+    }
+}